@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.UriInfo;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.connections.jpa.entityprovider.JpaEntityProvider;
+import org.keycloak.http.HttpRequest;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.KeycloakTransaction;
+import org.keycloak.models.KeycloakTransactionManager;
+import org.keycloak.models.RealmModel;
+import org.keycloak.sessions.AuthenticationSessionModel;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Minimal stand-ins for the Keycloak interfaces the invitation code touches. They are dynamic proxies answering
+ * only the methods listed per stub, which keeps the per-call overhead far below that of a mocking framework.
+ */
+final class BenchmarkStubs {
+    // Held strongly, JUL would otherwise forget the level once the logger is collected
+    private static final Logger EXTENSION_LOGGER = Logger.getLogger("org.vlastolabs");
+    // Knows no provider factories, so the invitation code runs with its defaults, e.g. without metrics
+    private static final KeycloakSessionFactory SESSION_FACTORY = stub(KeycloakSessionFactory.class,
+            Map.of("getProviderFactory", args -> null));
+
+    private BenchmarkStubs() {
+    }
+
+    /**
+     * Rejected tokens are logged as warnings, which would otherwise dominate the measurement. Requires the forked
+     * JVM to route jboss-logging to JUL with {@code -Dorg.jboss.logging.provider=jdk}.
+     */
+    static void disableExtensionLogging() {
+        EXTENSION_LOGGER.setLevel(Level.OFF);
+    }
+
+    static RealmModel realm(String id) {
+        return stub(RealmModel.class, Map.of(
+                "getId", args -> id,
+                "getName", args -> id));
+    }
+
+    static KeycloakSession session(InMemoryInvitationProvider provider) {
+        return stub(KeycloakSession.class, Map.of(
+                "getProvider", args -> args[0] == JpaEntityProvider.class ? provider : null,
+                "getKeycloakSessionFactory", args -> SESSION_FACTORY));
+    }
+
+    /**
+     * Session of a {@link JpaBenchmarkDatabase.Worker}, answering with its entity manager, its invitation provider
+     * and its transaction. No cluster is available.
+     */
+    static KeycloakSession jpaSession(JpaBenchmarkDatabase.Worker worker) {
+        var connection = stub(JpaConnectionProvider.class, Map.of("getEntityManager", args -> worker.entityManager()));
+        var transactionManager = stub(KeycloakTransactionManager.class, Map.of(
+                "enlistAfterCompletion", args -> {
+                    worker.enlistAfterCompletion((KeycloakTransaction) args[0]);
+                    return null;
+                },
+                "setRollbackOnly", args -> {
+                    worker.setRollbackOnly();
+                    return null;
+                }));
+        return stub(KeycloakSession.class, Map.of(
+                "getProvider", args -> args[0] == JpaConnectionProvider.class ? connection
+                        : args[0] == JpaEntityProvider.class ? worker.provider() : null,
+                "getTransactionManager", args -> transactionManager,
+                "getKeycloakSessionFactory", args -> SESSION_FACTORY));
+    }
+
+    /**
+     * Authentication session whose auth notes are kept in a plain map.
+     */
+    static AuthenticationSessionModel authenticationSession() {
+        var notes = new HashMap<String, String>();
+        return stub(AuthenticationSessionModel.class, Map.of(
+                "getAuthNote", args -> notes.get((String) args[0]),
+                "setAuthNote", args -> notes.put((String) args[0], (String) args[1])));
+    }
+
+    static UriInfo uriInfo() {
+        var queryParameters = new MultivaluedHashMap<String, String>();
+        return stub(UriInfo.class, Map.of("getQueryParameters", args -> queryParameters));
+    }
+
+    static HttpRequest httpRequest() {
+        var formParameters = new MultivaluedHashMap<String, String>();
+        return stub(HttpRequest.class, Map.of("getDecodedFormParameters", args -> formParameters));
+    }
+
+    private static <T> T stub(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            var answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            return switch (method.getName()) {
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                case "toString" -> type.getSimpleName() + " stub";
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+            };
+        }));
+    }
+}
\ No newline at end of file
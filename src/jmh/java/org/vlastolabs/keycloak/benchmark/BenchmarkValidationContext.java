@@ -0,0 +1,143 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import jakarta.ws.rs.core.MultivaluedMap;
+import jakarta.ws.rs.core.UriInfo;
+import org.keycloak.authentication.ValidationContext;
+import org.keycloak.common.ClientConnection;
+import org.keycloak.events.EventBuilder;
+import org.keycloak.http.HttpRequest;
+import org.keycloak.models.AuthenticationExecutionModel;
+import org.keycloak.models.AuthenticatorConfigModel;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.UserModel;
+import org.keycloak.models.utils.FormMessage;
+import org.keycloak.sessions.AuthenticationSessionModel;
+
+import java.util.List;
+
+/**
+ * Registration form validation context backed by {@link BenchmarkStubs}. It counts the outcomes instead of
+ * rendering anything, so a benchmark can check that the expected path was taken.
+ */
+class BenchmarkValidationContext implements ValidationContext {
+    private final KeycloakSession session;
+    private final RealmModel realm;
+    private final AuthenticationSessionModel authenticationSession = BenchmarkStubs.authenticationSession();
+    private final UriInfo uriInfo = BenchmarkStubs.uriInfo();
+    private final HttpRequest httpRequest = BenchmarkStubs.httpRequest();
+    private final AuthenticationExecutionModel execution = new AuthenticationExecutionModel();
+
+    private long successes;
+    private long validationErrors;
+
+    BenchmarkValidationContext(KeycloakSession session, RealmModel realm) {
+        this.session = session;
+        this.realm = realm;
+        execution.setRequirement(AuthenticationExecutionModel.Requirement.REQUIRED);
+    }
+
+    long successes() {
+        return successes;
+    }
+
+    long validationErrors() {
+        return validationErrors;
+    }
+
+    @Override
+    public void validationError(MultivaluedMap<String, String> formData, List<FormMessage> errors) {
+        validationErrors++;
+    }
+
+    @Override
+    public void error(String error) {
+        validationErrors++;
+    }
+
+    @Override
+    public void success() {
+        successes++;
+    }
+
+    @Override
+    public void excludeOtherErrors() {
+        // Nothing to exclude
+    }
+
+    @Override
+    public EventBuilder getEvent() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public EventBuilder newEvent() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public AuthenticationExecutionModel getExecution() {
+        return execution;
+    }
+
+    @Override
+    public UserModel getUser() {
+        return null;
+    }
+
+    @Override
+    public void setUser(UserModel user) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public RealmModel getRealm() {
+        return realm;
+    }
+
+    @Override
+    public AuthenticationSessionModel getAuthenticationSession() {
+        return authenticationSession;
+    }
+
+    @Override
+    public ClientConnection getConnection() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public UriInfo getUriInfo() {
+        return uriInfo;
+    }
+
+    @Override
+    public KeycloakSession getSession() {
+        return session;
+    }
+
+    @Override
+    public HttpRequest getHttpRequest() {
+        return httpRequest;
+    }
+
+    @Override
+    public AuthenticatorConfigModel getAuthenticatorConfig() {
+        return null;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import org.keycloak.connections.jpa.entityprovider.JpaEntityProvider;
+import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.model.InvitationCursor;
+import org.vlastolabs.keycloak.model.InvitationFilter;
+import org.vlastolabs.keycloak.model.InvitationImportRow;
+import org.vlastolabs.keycloak.model.InvitationListItem;
+import org.vlastolabs.keycloak.model.InvitationSort;
+import org.vlastolabs.keycloak.model.InvitationValidationView;
+import org.vlastolabs.keycloak.model.RedemptionResult;
+import org.vlastolabs.keycloak.provider.InvitationProvider;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Thread-safe in-memory {@link InvitationProvider} for benchmarks, so the service and form action can be
+ * measured without a database. Invitations of a realm are kept in (createdOn DESC, id DESC) order, which makes
+ * the default listing a walk over a sorted set, much like a scan of the corresponding index.
+ * Like the JPA provider it is also a {@link JpaEntityProvider}, which is how the service looks it up in a session.
+ */
+public class InMemoryInvitationProvider implements JpaEntityProvider, InvitationProvider {
+    private static final Comparator<InvitationEntity> NEWEST_FIRST = Comparator
+            .comparingLong(InvitationEntity::getCreatedOn)
+            .thenComparing(InvitationEntity::getId)
+            .reversed();
+
+    private final Map<String, InvitationEntity> byToken = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<InvitationEntity>> byRealm = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> useCounts = new ConcurrentHashMap<>();
+
+    /**
+     * Inserts {@code count} unused invitations into the realm with creation times one millisecond apart,
+     * so listings have a deterministic order.
+     *
+     * @return the tokens of the inserted invitations, oldest first
+     */
+    public List<String> seed(String realm, int count, long expiresOn) {
+        long createdOn = System.currentTimeMillis() - count;
+        var tokens = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            var entity = new InvitationEntity(UUID.randomUUID().toString(), UUID.randomUUID().toString(), false, realm, expiresOn);
+            entity.setCreatedOn(createdOn + i);
+            store(entity);
+            tokens.add(entity.getToken());
+        }
+        return tokens;
+    }
+
+    /**
+     * Returns a redeemed invitation to the unused state, so a benchmark can redeem the same token repeatedly.
+     */
+    public void reset(String token) {
+        var entity = byToken.get(token);
+        synchronized (entity) {
+            entity.setUsed(false);
+            entity.setUsedOn(null);
+            useCounts.remove(token);
+        }
+    }
+
+    /**
+     * Deletes an invitation, so benchmarks that create invitations keep the heap flat.
+     */
+    public void remove(String token) {
+        var entity = byToken.remove(token);
+        useCounts.remove(token);
+        if (entity != null) {
+            byRealm.get(entity.getRealm()).remove(entity);
+        }
+    }
+
+    @Override
+    public Optional<InvitationEntity> findByToken(String token) {
+        return Optional.ofNullable(byToken.get(token));
+    }
+
+    @Override
+    public Optional<InvitationEntity> findByTokenAndRealm(String token, String realm) {
+        return findByToken(token).filter(entity -> entity.getRealm().equals(realm));
+    }
+
+    @Override
+    public Optional<InvitationValidationView> findValidationView(String token, String realm) {
+        return findByTokenAndRealm(token, realm).map(InvitationValidationView::of);
+    }
+
+    @Override
+    public String createInvitation(String realm, int expirationSeconds) {
+        var entity = newInvitation(realm, expirationSeconds);
+        store(entity);
+        return entity.getToken();
+    }
+
+    @Override
+    public String createInvitation(String realm, int expirationSeconds, int maxUses) {
+        var entity = newInvitation(realm, expirationSeconds);
+        entity.setMaxUses(maxUses);
+        store(entity);
+        return entity.getToken();
+    }
+
+    @Override
+    public List<InvitationEntity> createInvitations(String realm, int count, int expirationSeconds) {
+        var created = new ArrayList<InvitationEntity>(count);
+        for (int i = 0; i < count; i++) {
+            var entity = newInvitation(realm, expirationSeconds);
+            store(entity);
+            created.add(entity);
+        }
+        return created;
+    }
+
+    @Override
+    public List<String> importInvitations(String realm, List<InvitationImportRow> rows) {
+        var skipped = new ArrayList<String>();
+        for (var row : rows) {
+            var entity = new InvitationEntity(UUID.randomUUID().toString(), row.token(), row.used(), realm, row.expiresOn());
+            if (byToken.putIfAbsent(row.token(), entity) == null) {
+                realmInvitations(realm).add(entity);
+            } else {
+                skipped.add(row.token());
+            }
+        }
+        return skipped;
+    }
+
+    @Override
+    public RedemptionResult markAsUsed(String token, String realm) {
+        var entity = byToken.get(token);
+        if (entity == null || !entity.getRealm().equals(realm)) {
+            return RedemptionResult.NOT_FOUND;
+        }
+        synchronized (entity) {
+            if (entity.isUsed()) {
+                return RedemptionResult.ALREADY_USED;
+            }
+            long now = System.currentTimeMillis();
+            if (entity.getExpiresOn() != null && entity.getExpiresOn() <= now) {
+                return RedemptionResult.EXPIRED;
+            }
+            long uses = useCounts.computeIfAbsent(token, t -> new AtomicLong()).incrementAndGet();
+            if (uses >= entity.getMaxUses()) {
+                entity.setUsed(true);
+                entity.setUsedOn(now);
+            }
+            return RedemptionResult.REDEEMED;
+        }
+    }
+
+    @Override
+    public List<InvitationListItem> findAll(int offset, int limit) {
+        return byToken.values().stream()
+                .sorted(NEWEST_FIRST)
+                .skip(offset)
+                .limit(limit)
+                .map(this::toListItem)
+                .toList();
+    }
+
+    @Override
+    public List<InvitationListItem> findAllByRealm(String realm, int offset, int limit) {
+        return findAllByRealm(realm, InvitationFilter.none(), InvitationSort.DEFAULT, offset, limit);
+    }
+
+    @Override
+    public List<InvitationListItem> findAllByRealm(String realm, InvitationFilter filter, InvitationSort sort, int offset, int limit) {
+        var matching = matching(realmInvitations(realm).stream(), filter);
+        if (!sort.isDefault()) {
+            matching = matching.sorted(comparator(sort));
+        }
+        return matching.skip(offset)
+                .limit(limit)
+                .map(this::toListItem)
+                .toList();
+    }
+
+    @Override
+    public List<InvitationListItem> findAfter(String realm, InvitationCursor after, int limit) {
+        return findAfter(realm, InvitationFilter.none(), after, limit);
+    }
+
+    @Override
+    public List<InvitationListItem> findAfter(String realm, InvitationFilter filter, InvitationCursor after, int limit) {
+        var invitations = realmInvitations(realm);
+        var page = after == null ? invitations : invitations.tailSet(probe(after), false);
+        return matching(page.stream(), filter)
+                .limit(limit)
+                .map(this::toListItem)
+                .toList();
+    }
+
+    @Override
+    public List<InvitationListItem> findBefore(String realm, InvitationCursor before, int limit) {
+        return findBefore(realm, InvitationFilter.none(), before, limit);
+    }
+
+    @Override
+    public List<InvitationListItem> findBefore(String realm, InvitationFilter filter, InvitationCursor before, int limit) {
+        var page = new ArrayList<>(matching(realmInvitations(realm).headSet(probe(before), false).descendingSet().stream(), filter)
+                .limit(limit)
+                .map(this::toListItem)
+                .toList());
+        Collections.reverse(page);
+        return page;
+    }
+
+    @Override
+    public Stream<InvitationListItem> streamByRealm(String realm) {
+        return realmInvitations(realm).stream().map(this::toListItem);
+    }
+
+    @Override
+    public long countAll() {
+        return byToken.size();
+    }
+
+    @Override
+    public long countByRealm(String realm) {
+        return realmInvitations(realm).size();
+    }
+
+    @Override
+    public long countByRealm(String realm, InvitationFilter filter) {
+        return matching(realmInvitations(realm).stream(), filter).count();
+    }
+
+    @Override
+    public int purgeInvitations(String realm, long cutoff, int limit) {
+        var purgeable = realmInvitations(realm).stream()
+                .filter(entity -> entity.isUsed()
+                        ? (entity.getUsedOn() != null ? entity.getUsedOn() : entity.getCreatedOn()) < cutoff
+                        : entity.getExpiresOn() != null && entity.getExpiresOn() < cutoff)
+                .limit(limit)
+                .toList();
+        purgeable.forEach(entity -> remove(entity.getToken()));
+        return purgeable.size();
+    }
+
+    @Override
+    public List<Class<?>> getEntities() {
+        return List.of();
+    }
+
+    @Override
+    public String getChangelogLocation() {
+        return null;
+    }
+
+    @Override
+    public String getFactoryId() {
+        return "invitation-jpa-provider";
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+
+    private InvitationEntity newInvitation(String realm, int expirationSeconds) {
+        return new InvitationEntity(UUID.randomUUID().toString(), UUID.randomUUID().toString(), false, realm,
+                System.currentTimeMillis() + expirationSeconds * 1000L);
+    }
+
+    private void store(InvitationEntity entity) {
+        byToken.put(entity.getToken(), entity);
+        realmInvitations(entity.getRealm()).add(entity);
+    }
+
+    private NavigableSet<InvitationEntity> realmInvitations(String realm) {
+        return byRealm.computeIfAbsent(realm, r -> new ConcurrentSkipListSet<>(NEWEST_FIRST));
+    }
+
+    private static InvitationEntity probe(InvitationCursor cursor) {
+        var probe = new InvitationEntity();
+        probe.setId(cursor.id());
+        probe.setCreatedOn(cursor.createdOn());
+        return probe;
+    }
+
+    private static Stream<InvitationEntity> matching(Stream<InvitationEntity> invitations, InvitationFilter filter) {
+        if (filter.isEmpty()) {
+            return invitations;
+        }
+        long now = System.currentTimeMillis();
+        return invitations.filter(entity -> matches(entity, filter, now));
+    }
+
+    private static boolean matches(InvitationEntity entity, InvitationFilter filter, long now) {
+        boolean expired = entity.getExpiresOn() != null && entity.getExpiresOn() <= now;
+        if (filter.status() != null) {
+            boolean statusMatches = switch (filter.status()) {
+                case ACTIVE -> !entity.isUsed() && !expired;
+                case USED -> entity.isUsed();
+                case EXPIRED -> !entity.isUsed() && expired;
+            };
+            if (!statusMatches) {
+                return false;
+            }
+        }
+        return inRange(entity.getCreatedOn(), filter.createdFrom(), filter.createdTo())
+                && inRange(entity.getExpiresOn(), filter.expiresFrom(), filter.expiresTo())
+                && inRange(entity.getUsedOn(), filter.usedFrom(), filter.usedTo());
+    }
+
+    private static boolean inRange(Long value, Long from, Long to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        return value != null && (from == null || value >= from) && (to == null || value < to);
+    }
+
+    private static Comparator<InvitationEntity> comparator(InvitationSort sort) {
+        Comparator<InvitationEntity> byField = switch (sort.field()) {
+            case CREATED_ON -> Comparator.comparing(InvitationEntity::getCreatedOn);
+            case EXPIRES_ON -> Comparator.comparing(InvitationEntity::getExpiresOn, Comparator.nullsFirst(Comparator.naturalOrder()));
+            case USED_ON -> Comparator.comparing(InvitationEntity::getUsedOn, Comparator.nullsFirst(Comparator.naturalOrder()));
+        };
+        var comparator = byField.thenComparing(InvitationEntity::getId);
+        return sort.ascending() ? comparator : comparator.reversed();
+    }
+
+    private InvitationListItem toListItem(InvitationEntity entity) {
+        var uses = useCounts.get(entity.getToken());
+        return new InvitationListItem(entity.getId(), entity.getToken(), entity.isUsed(), entity.getRealm(),
+                entity.getCreatedOn(), entity.getExpiresOn(), entity.getUsedOn(), entity.getMaxUses(),
+                uses != null ? uses.get() : entity.isUsed() ? 1 : 0);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import org.keycloak.models.RealmModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vlastolabs.keycloak.model.InviteGenerationResponse;
+import org.vlastolabs.keycloak.model.PaginatedInvitationResponse;
+import org.vlastolabs.keycloak.model.RedemptionResult;
+import org.vlastolabs.keycloak.model.ValidationResult;
+import org.vlastolabs.keycloak.service.InvitationService;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hot paths of {@link InvitationService} over an {@link InMemoryInvitationProvider}, so the numbers show the
+ * service's own overhead without any SQL. Each thread gets its own seeded provider, so threads never contend.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dorg.jboss.logging.provider=jdk"})
+@State(Scope.Thread)
+public class InvitationServiceBenchmark {
+    private static final String REALM = "benchmark";
+    private static final int EXPIRATION_SECONDS = 86400;
+
+    @Param({"10000"})
+    public int invitations;
+
+    @Param({"20"})
+    public int pageSize;
+
+    private InMemoryInvitationProvider provider;
+    private InvitationService service;
+    private RealmModel realm;
+    private List<String> tokens;
+    private String unknownToken;
+    private String redeemableToken;
+    private String usedToken;
+    private int deepPage;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkStubs.disableExtensionLogging();
+
+        provider = new InMemoryInvitationProvider();
+        tokens = provider.seed(REALM, invitations, System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        service = new InvitationService(provider);
+        realm = BenchmarkStubs.realm(REALM);
+        unknownToken = UUID.randomUUID().toString();
+        redeemableToken = provider.createInvitation(REALM, EXPIRATION_SECONDS);
+        usedToken = provider.createInvitation(REALM, EXPIRATION_SECONDS);
+        provider.markAsUsed(usedToken, REALM);
+        deepPage = invitations / pageSize / 2;
+    }
+
+    /**
+     * Cycles through all seeded tokens, so lookups do not keep hitting the same hash bucket.
+     */
+    @Benchmark
+    public ValidationResult validateInviteDetailed() {
+        var token = tokens.get(next);
+        next = next + 1 == tokens.size() ? 0 : next + 1;
+        return service.validateInviteDetailed(token, REALM);
+    }
+
+    @Benchmark
+    public ValidationResult validateInviteDetailedUnknown() {
+        return service.validateInviteDetailed(unknownToken, REALM);
+    }
+
+    /**
+     * Includes removing the created invitation again, which is cheap next to creating it and keeps the heap flat.
+     */
+    @Benchmark
+    public InviteGenerationResponse generateInvite() {
+        var response = service.generateInvite(realm, EXPIRATION_SECONDS);
+        provider.remove(response.getToken());
+        return response;
+    }
+
+    /**
+     * Includes returning the token to the unused state, so every call takes the redeeming path.
+     */
+    @Benchmark
+    public RedemptionResult markAsUsed() {
+        var result = service.markAsUsed(redeemableToken, REALM);
+        provider.reset(redeemableToken);
+        return result;
+    }
+
+    @Benchmark
+    public RedemptionResult markAsUsedAlreadyUsed() {
+        return service.markAsUsed(usedToken, REALM);
+    }
+
+    @Benchmark
+    public PaginatedInvitationResponse getAllInvitationsPaginatedFirstPage() {
+        return service.getAllInvitationsPaginated(REALM, 0, pageSize);
+    }
+
+    @Benchmark
+    public PaginatedInvitationResponse getAllInvitationsPaginatedDeepPage() {
+        return service.getAllInvitationsPaginated(REALM, deepPage, pageSize);
+    }
+
+    @Benchmark
+    public PaginatedInvitationResponse getAllInvitationsPaginatedWithoutTotal() {
+        return service.getAllInvitationsPaginated(REALM, deepPage, pageSize, false);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vlastolabs.keycloak.action.InviteFormAction;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link InviteFormAction#validate} as the registration form calls it, including the lookup of the invitation
+ * service in the session, for a stored token that is valid and one that does not exist.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g", "-Dorg.jboss.logging.provider=jdk"})
+@State(Scope.Thread)
+public class InviteFormActionBenchmark {
+    private static final String REALM = "benchmark";
+
+    @Param({"valid", "unknown"})
+    public String token;
+
+    private final InviteFormAction action = new InviteFormAction();
+    private BenchmarkValidationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkStubs.disableExtensionLogging();
+
+        var provider = new InMemoryInvitationProvider();
+        var tokens = provider.seed(REALM, 10000, System.currentTimeMillis() + TimeUnit.DAYS.toMillis(1));
+        context = new BenchmarkValidationContext(BenchmarkStubs.session(provider), BenchmarkStubs.realm(REALM));
+
+        var storedToken = "valid".equals(token) ? tokens.get(tokens.size() / 2) : UUID.randomUUID().toString();
+        context.getAuthenticationSession().setAuthNote("INVITE_TOKEN", storedToken);
+    }
+
+    @TearDown(Level.Trial)
+    public void verifyOutcome() {
+        boolean expectValid = "valid".equals(token);
+        if (expectValid ? context.validationErrors() > 0 : context.successes() > 0) {
+            throw new IllegalStateException("Unexpected validation outcome for " + token + " token");
+        }
+    }
+
+    @Benchmark
+    public void validate() {
+        action.validate(context);
+    }
+}
\ No newline at end of file
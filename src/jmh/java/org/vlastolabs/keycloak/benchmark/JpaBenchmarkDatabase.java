@@ -0,0 +1,317 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import jakarta.persistence.EntityManager;
+import liquibase.Scope;
+import liquibase.command.CommandScope;
+import liquibase.command.core.UpdateCommandStep;
+import liquibase.command.core.helpers.DbUrlConnectionArgumentsCommandStep;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.jboss.logging.Logger;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakTransaction;
+import org.vlastolabs.keycloak.entity.InvitationCounterEntity;
+import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.provider.InvitationJpaProvider;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Invitation schema in an embedded H2 database, created by the extension's own Liquibase changelog and seeded
+ * with {@code rows} invitations of {@link #REALM}. The database is kept under {@code target/jmh-h2} and reused by
+ * later runs with the same row count, because seeding millions of rows takes far longer than a benchmark;
+ * invitations that benchmarks wrote to other realms are removed when it is reopened.
+ * <p>
+ * Every tenth seeded invitation is used; all of them expire a year from seeding. Seeded tokens are derived from
+ * the row number, so benchmarks can pick existing tokens without holding millions of them in memory.
+ */
+final class JpaBenchmarkDatabase implements AutoCloseable {
+    private static final Logger log = Logger.getLogger(JpaBenchmarkDatabase.class);
+
+    static final String REALM = "benchmark";
+
+    private static final String CHANGELOG = "META-INF/invitation-changelog.xml";
+    private static final String DIRECTORY = "target/jmh-h2";
+    private static final int SEED_BATCH_SIZE = 10000;
+    private static final int USED_EVERY = 10;
+    private static final int DEFAULT_POOL_SIZE = 64;
+
+    private final int rows;
+    private final String url;
+    private final SessionFactory entityManagerFactory;
+
+    private JpaBenchmarkDatabase(int rows, int poolSize) {
+        this.rows = rows;
+        // A page cache of 512 MB keeps the working set in memory, like the buffer cache of a warmed-up server
+        this.url = "jdbc:h2:file:./" + DIRECTORY + "/invitations-" + rows + ";CACHE_SIZE=524288";
+        prepareSchema();
+        this.entityManagerFactory = new Configuration()
+                .addAnnotatedClass(InvitationEntity.class)
+                .addAnnotatedClass(InvitationCounterEntity.class)
+                .setProperty("hibernate.connection.url", url)
+                .setProperty("hibernate.connection.username", "sa")
+                .setProperty("hibernate.connection.password", "")
+                .setProperty("hibernate.connection.pool_size", String.valueOf(poolSize))
+                .setProperty("hibernate.hbm2ddl.auto", "none")
+                .buildSessionFactory();
+    }
+
+    static JpaBenchmarkDatabase open(int rows) {
+        return open(rows, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * @param poolSize number of pooled JDBC connections, at least the number of threads using the database
+     */
+    static JpaBenchmarkDatabase open(int rows, int poolSize) {
+        return new JpaBenchmarkDatabase(rows, poolSize);
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    static String seededToken(int row) {
+        return UUID.nameUUIDFromBytes(("token-" + row).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    String randomSeededToken() {
+        return seededToken(ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    /**
+     * Creates the counter stripes of a realm that benchmarks write to, which Keycloak would otherwise create in a
+     * transaction of its own on the realm's first write. Not thread-safe, meant for trial setups.
+     */
+    void createRealm(String realm) {
+        newWorker().withEntityManager(entityManager -> {
+            for (int stripe = 0; stripe < InvitationCounterEntity.STRIPES; stripe++) {
+                if (entityManager.find(InvitationCounterEntity.class, new InvitationCounterEntity.Key(realm, stripe)) == null) {
+                    entityManager.persist(new InvitationCounterEntity(realm, stripe, 0, 0));
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * A unit of work bound to the calling thread, see {@link Worker}.
+     */
+    Worker newWorker() {
+        return new Worker();
+    }
+
+    @Override
+    public void close() {
+        entityManagerFactory.close();
+    }
+
+    private void prepareSchema() {
+        try (var connection = DriverManager.getConnection(url, "sa", "")) {
+            if (isSeeded(connection)) {
+                log.infof("Reusing %d seeded invitations in %s", rows, url);
+                // Brings a database seeded by an older build up to the current schema
+                migrate(connection);
+                removeOtherRealms(connection);
+                return;
+            }
+            // A run interrupted while seeding leaves a partial table behind, start over
+            try (var statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS");
+            }
+            migrate(connection);
+            long start = System.nanoTime();
+            seed(connection);
+            log.infof("Seeded %d invitations in %d s", rows, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to prepare the benchmark database " + url, e);
+        }
+    }
+
+    /**
+     * The counter rows are written in the seeding transaction's last commit, so they only exist once seeding completed.
+     */
+    private boolean isSeeded(Connection connection) throws SQLException {
+        try (var query = connection.prepareStatement(
+                "SELECT SUM(TOTAL_COUNT) FROM CUSTOM_INVITATION_COUNTER WHERE REALM = ?")) {
+            query.setString(1, REALM);
+            try (var result = query.executeQuery()) {
+                return result.next() && result.getLong(1) == rows;
+            }
+        } catch (SQLException e) {
+            // The schema does not exist yet
+            return false;
+        }
+    }
+
+    /**
+     * Benchmarks write to realms of their own; dropping those keeps every run starting from the seeded state.
+     */
+    private void removeOtherRealms(Connection connection) throws SQLException {
+        for (var table : List.of("CUSTOM_INVITATION", "CUSTOM_INVITATION_COUNTER")) {
+            try (var delete = connection.prepareStatement("DELETE FROM " + table + " WHERE REALM <> ?")) {
+                delete.setString(1, REALM);
+                delete.executeUpdate();
+            }
+        }
+    }
+
+    private void migrate(Connection connection) throws Exception {
+        var database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection));
+        Scope.child(Map.of(Scope.Attr.resourceAccessor.name(), new ClassLoaderResourceAccessor()), () ->
+                new CommandScope(UpdateCommandStep.COMMAND_NAME)
+                        .addArgumentValue(DbUrlConnectionArgumentsCommandStep.DATABASE_ARG, database)
+                        .addArgumentValue(UpdateCommandStep.CHANGELOG_FILE_ARG, CHANGELOG)
+                        .execute());
+    }
+
+    private void seed(Connection connection) throws SQLException {
+        connection.setAutoCommit(false);
+        long now = System.currentTimeMillis();
+        long createdFrom = now - TimeUnit.DAYS.toMillis(30);
+        long expiresOn = now + TimeUnit.DAYS.toMillis(365);
+
+        try (var insert = connection.prepareStatement("INSERT INTO CUSTOM_INVITATION " +
+                "(ID, TOKEN, IS_USED, REALM, CREATED_ON, EXPIRES_ON, USED_ON) VALUES (?, ?, ?, ?, ?, ?, ?)")) {
+            for (int row = 0; row < rows; row++) {
+                long createdOn = createdFrom + row;
+                boolean used = row % USED_EVERY == 0;
+                insert.setString(1, UUID.nameUUIDFromBytes(("id-" + row).getBytes(StandardCharsets.UTF_8)).toString());
+                insert.setString(2, seededToken(row));
+                insert.setBoolean(3, used);
+                insert.setString(4, REALM);
+                insert.setLong(5, createdOn);
+                insert.setLong(6, expiresOn);
+                if (used) {
+                    insert.setLong(7, createdOn + 1);
+                } else {
+                    insert.setNull(7, Types.BIGINT);
+                }
+                insert.addBatch();
+
+                if ((row + 1) % SEED_BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        try (var counter = connection.prepareStatement(
+                "INSERT INTO CUSTOM_INVITATION_COUNTER (REALM, STRIPE, TOTAL_COUNT, USED_COUNT) VALUES (?, ?, ?, ?)")) {
+            for (int stripe = 0; stripe < InvitationCounterEntity.STRIPES; stripe++) {
+                boolean first = stripe == 0;
+                counter.setString(1, REALM);
+                counter.setInt(2, stripe);
+                counter.setLong(3, first ? rows : 0);
+                counter.setLong(4, first ? (rows + USED_EVERY - 1) / USED_EVERY : 0);
+                counter.addBatch();
+            }
+            counter.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * Runs work in short transactions, one entity manager each, the way Keycloak serves a request. Reuses one
+     * {@link InvitationJpaProvider} across transactions, so only the work itself is measured. Not thread-safe.
+     */
+    final class Worker {
+        private final List<KeycloakTransaction> afterCompletion = new ArrayList<>();
+        private final KeycloakSession session;
+        private final InvitationJpaProvider provider;
+        private EntityManager entityManager;
+        private boolean rollbackOnly;
+
+        private Worker() {
+            this.session = BenchmarkStubs.jpaSession(this);
+            this.provider = new InvitationJpaProvider(session);
+        }
+
+        /**
+         * Session whose provider lookups resolve to this worker's current transaction.
+         */
+        KeycloakSession session() {
+            return session;
+        }
+
+        <T> T inTransaction(Function<InvitationJpaProvider, T> work) {
+            return withEntityManager(entityManager -> work.apply(provider));
+        }
+
+        /**
+         * Runs the work in a new transaction, which is committed unless the work failed or marked it rollback only.
+         */
+        <T> T withEntityManager(Function<EntityManager, T> work) {
+            entityManager = entityManagerFactory.createEntityManager();
+            var transaction = entityManager.getTransaction();
+            try {
+                transaction.begin();
+                var result = work.apply(entityManager);
+                if (rollbackOnly) {
+                    return result;
+                }
+                transaction.commit();
+                afterCompletion.forEach(action -> {
+                    action.begin();
+                    action.commit();
+                });
+                return result;
+            } finally {
+                if (transaction.isActive()) {
+                    transaction.rollback();
+                }
+                afterCompletion.clear();
+                rollbackOnly = false;
+                entityManager.close();
+                entityManager = null;
+            }
+        }
+
+        EntityManager entityManager() {
+            return entityManager;
+        }
+
+        InvitationJpaProvider provider() {
+            return provider;
+        }
+
+        void enlistAfterCompletion(KeycloakTransaction transaction) {
+            afterCompletion.add(transaction);
+        }
+
+        void setRollbackOnly() {
+            rollbackOnly = true;
+        }
+    }
+}
\ No newline at end of file
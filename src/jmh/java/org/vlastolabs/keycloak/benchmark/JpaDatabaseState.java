@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * The seeded {@link JpaBenchmarkDatabase}, shared by all threads of a JPA benchmark. The seeded row count is a
+ * parameter, e.g. {@code -p rows=10000000}.
+ */
+@State(Scope.Benchmark)
+public class JpaDatabaseState {
+
+    @Param({"1000000"})
+    public int rows;
+
+    JpaBenchmarkDatabase database;
+
+    @Setup(Level.Trial)
+    public void open() {
+        database = JpaBenchmarkDatabase.open(rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void close() {
+        database.close();
+    }
+}
\ No newline at end of file
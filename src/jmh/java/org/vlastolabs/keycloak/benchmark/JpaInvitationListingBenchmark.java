@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.model.InvitationCursor;
+import org.vlastolabs.keycloak.model.InvitationListItem;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admin listing queries of the JPA provider at increasing depths into the seeded realm.
+ * <p>
+ * {@link #findAllByRealmEntities} is how listings were read before they were projected: managed entities,
+ * copied into list items afterwards. Run with {@code -prof gc} next to {@link #findAllByRealm} it shows what the
+ * projection saves in allocation per page.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dorg.jboss.logging.provider=jdk"})
+@State(Scope.Benchmark)
+public class JpaInvitationListingBenchmark {
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "10000", "500000"})
+    public int offset;
+
+    private InvitationCursor cursor;
+
+    /**
+     * Finds the invitation preceding the page, which keyset pagination starts after.
+     */
+    @Setup(Level.Trial)
+    public void locateCursor(JpaDatabaseState state) {
+        cursor = offset == 0 ? null : state.database.newWorker().inTransaction(provider -> InvitationCursor.of(
+                provider.findAllByRealm(JpaBenchmarkDatabase.REALM, offset - 1, 1).get(0)));
+    }
+
+    @Benchmark
+    public List<InvitationListItem> findAllByRealm(JpaWorkerState state) {
+        return state.worker.inTransaction(provider -> provider.findAllByRealm(JpaBenchmarkDatabase.REALM, offset, PAGE_SIZE));
+    }
+
+    @Benchmark
+    public List<InvitationListItem> findAllByRealmEntities(JpaWorkerState state) {
+        return state.worker.withEntityManager(entityManager -> entityManager
+                .createQuery("SELECT i FROM InvitationEntity i WHERE i.realm = :realm ORDER BY i.createdOn DESC, i.id DESC",
+                        InvitationEntity.class)
+                .setParameter("realm", JpaBenchmarkDatabase.REALM)
+                .setFirstResult(offset)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList()
+                .stream()
+                .map(entity -> new InvitationListItem(entity.getId(), entity.getToken(), entity.isUsed(), entity.getRealm(),
+                        entity.getCreatedOn(), entity.getExpiresOn(), entity.getUsedOn()))
+                .toList());
+    }
+
+    /**
+     * The same page located through the (realm, createdOn, id) index instead of skipping {@code offset} rows.
+     */
+    @Benchmark
+    public List<InvitationListItem> findAfter(JpaWorkerState state) {
+        return state.worker.inTransaction(provider -> provider.findAfter(JpaBenchmarkDatabase.REALM, cursor, PAGE_SIZE));
+    }
+
+    /**
+     * The unscoped listing, ordered across all realms.
+     */
+    @Benchmark
+    public List<InvitationListItem> findAll(JpaWorkerState state) {
+        return state.worker.inTransaction(provider -> provider.findAll(offset, PAGE_SIZE));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.model.InvitationValidationView;
+import org.vlastolabs.keycloak.model.RedemptionResult;
+import org.vlastolabs.keycloak.provider.InvitationJpaProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-row operations of the JPA provider against the seeded embedded database, each in its own transaction.
+ * Reads pick a random seeded token per call; writes go to realms of their own, so the seeded data stays intact.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "-Dorg.jboss.logging.provider=jdk"})
+public class JpaInvitationProviderBenchmark {
+    private static final String WRITE_REALM = "benchmark-writes";
+    private static final int EXPIRATION_SECONDS = 86400;
+
+    /**
+     * The realm single invitations are written to.
+     */
+    @State(Scope.Benchmark)
+    public static class WriteRealm {
+        @Setup(Level.Trial)
+        public void create(JpaDatabaseState state) {
+            state.database.createRealm(WRITE_REALM);
+        }
+    }
+
+    /**
+     * Unused tokens of a realm owned by one thread. They are all returned to the unused state before each
+     * iteration, so every measured call redeems a token.
+     */
+    @State(Scope.Thread)
+    public static class RedeemableTokens {
+        private static final int POOL_SIZE = 200000;
+        private static final int CHUNK_SIZE = 10000;
+
+        private final String realm = "benchmark-redeem-" + UUID.randomUUID();
+        private final List<String> tokens = new ArrayList<>(POOL_SIZE);
+        private JpaBenchmarkDatabase.Worker worker;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void create(JpaWorkerState state) {
+            worker = state.worker;
+            state.database.createRealm(realm);
+            for (int created = 0; created < POOL_SIZE; created += CHUNK_SIZE) {
+                worker.inTransaction(provider -> provider.createInvitations(realm, CHUNK_SIZE, EXPIRATION_SECONDS))
+                        .forEach(entity -> tokens.add(entity.getToken()));
+            }
+        }
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            worker.withEntityManager(entityManager -> entityManager
+                    .createQuery("UPDATE InvitationEntity i SET i.used = false, i.usedOn = null WHERE i.realm = :realm")
+                    .setParameter("realm", realm)
+                    .executeUpdate());
+            next = 0;
+        }
+
+        String next() {
+            if (next == tokens.size()) {
+                throw new IllegalStateException("All " + POOL_SIZE + " tokens were redeemed within one iteration, " +
+                        "raise the pool size or shorten the iterations");
+            }
+            return tokens.get(next++);
+        }
+    }
+
+    @Benchmark
+    public Optional<InvitationEntity> findByTokenAndRealm(JpaWorkerState state) {
+        var token = state.database.randomSeededToken();
+        return state.worker.inTransaction(provider -> provider.findByTokenAndRealm(token, JpaBenchmarkDatabase.REALM));
+    }
+
+    @Benchmark
+    public Optional<InvitationValidationView> findValidationView(JpaWorkerState state) {
+        var token = state.database.randomSeededToken();
+        return state.worker.inTransaction(provider -> provider.findValidationView(token, JpaBenchmarkDatabase.REALM));
+    }
+
+    @Benchmark
+    public String createInvitation(JpaWorkerState state, WriteRealm writeRealm) {
+        return state.worker.inTransaction(provider -> provider.createInvitation(WRITE_REALM, EXPIRATION_SECONDS));
+    }
+
+    @Benchmark
+    public RedemptionResult markAsUsed(JpaWorkerState state, RedeemableTokens redeemable) {
+        var token = redeemable.next();
+        var result = state.worker.inTransaction(provider -> provider.markAsUsed(token, redeemable.realm));
+        if (!result.isRedeemed()) {
+            throw new IllegalStateException("Token was not redeemed: " + result);
+        }
+        return result;
+    }
+
+    /**
+     * Counts the invitations of all realms with a COUNT over the whole table.
+     */
+    @Benchmark
+    public long countAll(JpaWorkerState state) {
+        return state.worker.inTransaction(InvitationJpaProvider::countAll);
+    }
+
+    /**
+     * Sums the realm's counter stripes, which is what paginated listings use for their total.
+     */
+    @Benchmark
+    public long countByRealm(JpaWorkerState state) {
+        return state.worker.inTransaction(provider -> provider.countByRealm(JpaBenchmarkDatabase.REALM));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.benchmark;
+
+import org.keycloak.authentication.AuthenticationFlowException;
+import org.vlastolabs.keycloak.action.InviteFormAction;
+import org.vlastolabs.keycloak.entity.InvitationEntity;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Races registrations on shared single-use tokens through {@link InviteFormAction} and the JPA provider on the
+ * embedded database, and reports how often a token admitted more than one user.
+ * <p>
+ * Each round creates {@code --tokens} fresh tokens and releases {@code --threads} registrations at once,
+ * spread evenly over them, so every token has {@code threads / tokens} contenders. A registration runs
+ * {@code validate} and {@code success} in one transaction as Keycloak does, holding it for {@code --hold-millis}
+ * in between to stand in for creating the user. The process exits with status 1 if any token was redeemed twice.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec@redemption-stress -Dstress.args="--threads 400 --tokens 20"
+ * </pre>
+ */
+public final class RedemptionStressHarness {
+    private static final String AUTH_NOTE_KEY = "INVITE_TOKEN";
+    private static final int EXPIRATION_SECONDS = 3600;
+
+    private final int threads;
+    private final int tokensPerRound;
+    private final int rounds;
+    private final long holdMillis;
+    private final JpaBenchmarkDatabase database;
+    private final String realm = "stress-" + UUID.randomUUID();
+
+    private final Map<String, AtomicInteger> registrationsByToken = new ConcurrentHashMap<>();
+    private final LongAdder rejectedAtValidation = new LongAdder();
+    private final LongAdder rejectedAtRedemption = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile RuntimeException firstFailure;
+    private final long[] latencies;
+
+    private RedemptionStressHarness(Map<String, String> options) {
+        this.threads = intOption(options, "threads", 200);
+        this.tokensPerRound = intOption(options, "tokens", 50);
+        this.rounds = intOption(options, "rounds", 100);
+        this.holdMillis = intOption(options, "hold-millis", 1);
+        this.database = JpaBenchmarkDatabase.open(intOption(options, "rows", 10000), threads + 1);
+        this.latencies = new long[threads * rounds];
+    }
+
+    public static void main(String[] args) throws Exception {
+        var harness = new RedemptionStressHarness(parseOptions(args));
+        int doubleRedemptions;
+        try {
+            doubleRedemptions = harness.run();
+        } finally {
+            harness.database.close();
+        }
+        System.exit(doubleRedemptions == 0 ? 0 : 1);
+    }
+
+    private int run() throws Exception {
+        database.createRealm(realm);
+        var worker = database.newWorker();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        var workers = ThreadLocal.withInitial(database::newWorker);
+        long elapsedNanos = 0;
+
+        try {
+            for (int round = 0; round < rounds; round++) {
+                var tokens = worker.inTransaction(provider -> provider.createInvitations(realm, tokensPerRound, EXPIRATION_SECONDS))
+                        .stream()
+                        .map(InvitationEntity::getToken)
+                        .toList();
+
+                var start = new CountDownLatch(1);
+                var attempts = new ArrayList<Future<?>>(threads);
+                for (int i = 0; i < threads; i++) {
+                    var token = tokens.get(i % tokensPerRound);
+                    int slot = round * threads + i;
+                    attempts.add(executor.submit(() -> {
+                        start.await();
+                        long begin = System.nanoTime();
+                        register(workers.get(), token);
+                        latencies[slot] = System.nanoTime() - begin;
+                        return null;
+                    }));
+                }
+
+                long roundStart = System.nanoTime();
+                start.countDown();
+                for (var attempt : attempts) {
+                    attempt.get();
+                }
+                elapsedNanos += System.nanoTime() - roundStart;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return report(elapsedNanos);
+    }
+
+    private void register(JpaBenchmarkDatabase.Worker worker, String token) {
+        var action = new InviteFormAction();
+        try {
+            boolean registered = worker.withEntityManager(entityManager -> {
+                var context = new BenchmarkValidationContext(worker.session(), BenchmarkStubs.realm(realm));
+                context.getAuthenticationSession().setAuthNote(AUTH_NOTE_KEY, token);
+
+                action.validate(context);
+                if (context.successes() == 0) {
+                    return false;
+                }
+                hold();
+                action.success(context);
+                return true;
+            });
+            if (registered) {
+                registrationsByToken.computeIfAbsent(token, t -> new AtomicInteger()).incrementAndGet();
+            } else {
+                rejectedAtValidation.increment();
+            }
+        } catch (AuthenticationFlowException e) {
+            rejectedAtRedemption.increment();
+        } catch (RuntimeException e) {
+            // Lock timeouts and the like; counted, as they are part of what contention costs
+            failed.increment();
+            if (firstFailure == null) {
+                firstFailure = e;
+            }
+        }
+    }
+
+    private void hold() {
+        if (holdMillis > 0) {
+            try {
+                Thread.sleep(holdMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private int report(long elapsedNanos) {
+        int createdTokens = tokensPerRound * rounds;
+        int doubleRedemptions = registrationsByToken.values().stream()
+                .mapToInt(count -> Math.max(0, count.get() - 1))
+                .sum();
+        long registrations = registrationsByToken.values().stream().mapToLong(AtomicInteger::get).sum();
+        Arrays.sort(latencies);
+
+        System.out.printf("threads=%d tokens/round=%d contenders/token=%d rounds=%d hold=%d ms%n",
+                threads, tokensPerRound, threads / tokensPerRound, rounds, holdMillis);
+        System.out.printf("attempts:              %d%n", latencies.length);
+        System.out.printf("registrations:         %d of %d tokens%n", registrations, createdTokens);
+        System.out.printf("rejected (validate):   %d%n", rejectedAtValidation.sum());
+        System.out.printf("rejected (redeem):     %d%n", rejectedAtRedemption.sum());
+        System.out.printf("failed:                %d%s%n", failed.sum(),
+                firstFailure == null ? "" : " (first: " + firstFailure + ")");
+        System.out.printf("double redemptions:    %d%n", doubleRedemptions);
+        System.out.printf("tokens never redeemed: %d%n", createdTokens - registrationsByToken.size());
+        System.out.printf("throughput:            %.1f attempts/s%n", latencies.length / (elapsedNanos / 1e9));
+        System.out.printf("latency p50/p99/max:   %.2f / %.2f / %.2f ms%n",
+                percentileMillis(0.50), percentileMillis(0.99), percentileMillis(1.0));
+        return doubleRedemptions;
+    }
+
+    private double percentileMillis(double percentile) {
+        int index = (int) Math.ceil(percentile * latencies.length) - 1;
+        return latencies[Math.max(0, index)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        var options = new HashMap<String, String>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--") || i + 1 == args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + List.of(args));
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        var value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
\ No newline at end of file
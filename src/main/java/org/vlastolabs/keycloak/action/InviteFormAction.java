@@ -17,19 +17,26 @@
 package org.vlastolabs.keycloak.action;
 
 import org.jboss.logging.Logger;
+import org.keycloak.authentication.AuthenticationFlowError;
+import org.keycloak.authentication.AuthenticationFlowException;
 import org.keycloak.authentication.FormAction;
 import org.keycloak.authentication.FormContext;
 import org.keycloak.authentication.ValidationContext;
 import org.keycloak.forms.login.LoginFormsProvider;
 import org.keycloak.models.AuthenticationExecutionModel;
+import org.keycloak.models.AuthenticatorConfigModel;
 import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.RealmModel;
 import org.keycloak.models.UserModel;
 import org.keycloak.models.utils.FormMessage;
+import org.vlastolabs.keycloak.model.RedemptionResult;
 import org.vlastolabs.keycloak.model.ValidationResult;
+import org.vlastolabs.keycloak.ratelimit.InviteAttemptLimiter;
 import org.vlastolabs.keycloak.service.InvitationService;
 
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -42,6 +49,16 @@ public class InviteFormAction implements FormAction {
     private static final String INVITE_PARAM = "inviteCode";
     private static final String AUTH_NOTE_KEY = "INVITE_TOKEN";
 
+    private final InviteAttemptLimiter limiter;
+
+    public InviteFormAction() {
+        this(InviteAttemptLimiter.disabled());
+    }
+
+    public InviteFormAction(InviteAttemptLimiter limiter) {
+        this.limiter = limiter;
+    }
+
     @Override
     public void buildPage(FormContext context, LoginFormsProvider form) {
         extractAndStoreToken(context);
@@ -52,19 +69,26 @@ public class InviteFormAction implements FormAction {
         if (context.getExecution().getRequirement() == AuthenticationExecutionModel.Requirement.DISABLED) {
             return;
         }
-        validate(context, createInvitationService(context.getSession()));
+
+        var invitationService = createInvitationService(context.getSession());
+        if (isRateLimited(context)) {
+            handleRateLimited(context, invitationService);
+            return;
+        }
+        validate(context, invitationService);
     }
 
     void validate(ValidationContext context, InvitationService invitationService) {
         var tokenOpt = getOrExtractToken(context);
+        String realmId = context.getRealm().getId();
 
         if (tokenOpt.isEmpty()) {
+            invitationService.recordRejection(ValidationResult.missingToken());
             handleMissingToken(context);
             return;
         }
 
         String token = tokenOpt.get();
-        String realmId = context.getRealm().getId();
         ValidationResult result = invitationService.validateInviteDetailed(token, realmId);
 
         handleValidationResult(context, result);
@@ -75,7 +99,22 @@ public class InviteFormAction implements FormAction {
         if (context.getExecution().getRequirement() == AuthenticationExecutionModel.Requirement.DISABLED) {
             return;
         }
-        getStoredToken(context).ifPresent(token -> markTokenAsUsed(context, token));
+        getStoredToken(context).ifPresent(token -> redeemToken(context, createInvitationService(context.getSession()), token));
+    }
+
+    void redeemToken(FormContext context, InvitationService invitationService, String token) {
+        RedemptionResult result = invitationService.markAsUsed(token, context.getRealm().getId());
+
+        if (result.isRedeemed()) {
+            logDebug("Invitation token marked as used", context.getRealm());
+            return;
+        }
+
+        // Other registrations took the token's last use between validate() and success(), or it expired meanwhile.
+        // Roll back the user created in this transaction so a code never admits more users than its max uses.
+        logWarn("Registration rejected - invite token could not be redeemed (outcome: %s)".formatted(result), context.getRealm());
+        context.getSession().getTransactionManager().setRollbackOnly();
+        throw new AuthenticationFlowException(AuthenticationFlowError.ACCESS_DENIED, "invite_" + result.name().toLowerCase(Locale.ROOT), result.errorCode());
     }
 
     private void extractAndStoreToken(FormContext context) {
@@ -109,6 +148,49 @@ public class InviteFormAction implements FormAction {
         context.getAuthenticationSession().setAuthNote(AUTH_NOTE_KEY, token);
     }
 
+    /**
+     * Takes an attempt from the buckets of the client address and of the authentication session, in that order.
+     * Runs before anything is looked up, so rejected attempts cost no database access.
+     */
+    private boolean isRateLimited(ValidationContext context) {
+        if (!limiter.isEnabled()) {
+            return false;
+        }
+
+        var config = Optional.ofNullable(context.getAuthenticatorConfig())
+                .map(AuthenticatorConfigModel::getConfig)
+                .orElse(Map.of());
+
+        String realmId = context.getRealm().getId();
+        String address = context.getConnection().getRemoteAddr();
+        var authSession = context.getAuthenticationSession().getParentSession();
+        return !limiter.tryAcquire("ip:" + realmId + ":" + address,
+                intConfig(config, InviteFormActionFactory.IP_ATTEMPTS_PER_MINUTE, InviteFormActionFactory.DEFAULT_IP_ATTEMPTS_PER_MINUTE),
+                intConfig(config, InviteFormActionFactory.IP_BURST, InviteFormActionFactory.DEFAULT_IP_BURST))
+                || !limiter.tryAcquire("session:" + realmId + ":" + authSession.getId(),
+                intConfig(config, InviteFormActionFactory.SESSION_ATTEMPTS_PER_MINUTE, InviteFormActionFactory.DEFAULT_SESSION_ATTEMPTS_PER_MINUTE),
+                intConfig(config, InviteFormActionFactory.SESSION_BURST, InviteFormActionFactory.DEFAULT_SESSION_BURST));
+    }
+
+    private int intConfig(Map<String, String> config, String name, int defaultValue) {
+        var value = config.get(name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+    private void handleRateLimited(ValidationContext context, InvitationService invitationService) {
+        // Debug only, a warning per rejected attempt would let abusive traffic flood the log instead
+        logDebug("Registration attempt rate limited", context.getRealm());
+        invitationService.recordRejection(ValidationResult.rateLimited());
+        setValidationError(context, ValidationResult.rateLimited().errorCode());
+    }
+
     private void handleMissingToken(ValidationContext context) {
         logWarn("Registration blocked - no invite token", context.getRealm());
         setValidationError(context, "inviteCodeMissing");
@@ -137,16 +219,6 @@ public class InviteFormAction implements FormAction {
         context.validationError(context.getHttpRequest().getDecodedFormParameters(), errors);
     }
 
-    private void markTokenAsUsed(FormContext context, String token) {
-        try {
-            var invitationService = createInvitationService(context.getSession());
-            invitationService.markAsUsed(token);
-            logDebug("Invitation token marked as used", context.getRealm());
-        } catch (Exception e) {
-            log.errorf(e, "Failed to mark invitation as used - registration still succeeded");
-        }
-    }
-
     private InvitationService createInvitationService(KeycloakSession session) {
         return new InvitationService(session);
     }
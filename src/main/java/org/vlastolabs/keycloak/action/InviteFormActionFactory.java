@@ -23,12 +23,29 @@ import org.keycloak.models.AuthenticationExecutionModel;
 import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.KeycloakSessionFactory;
 import org.keycloak.provider.ProviderConfigProperty;
+import org.keycloak.provider.ProviderConfigurationBuilder;
+import org.vlastolabs.keycloak.ratelimit.InviteAttemptLimiter;
 
 import java.util.List;
 
 public class InviteFormActionFactory implements FormActionFactory {
     public static final String PROVIDER_ID = "registration-invite-action";
 
+    public static final String IP_ATTEMPTS_PER_MINUTE = "ipAttemptsPerMinute";
+    public static final String IP_BURST = "ipBurst";
+    public static final String SESSION_ATTEMPTS_PER_MINUTE = "sessionAttemptsPerMinute";
+    public static final String SESSION_BURST = "sessionBurst";
+
+    // Off unless configured: users behind a shared NAT or an unconfigured proxy share one client address
+    static final int DEFAULT_IP_ATTEMPTS_PER_MINUTE = 0;
+    static final int DEFAULT_IP_BURST = 10;
+    static final int DEFAULT_SESSION_ATTEMPTS_PER_MINUTE = 10;
+    static final int DEFAULT_SESSION_BURST = 5;
+
+    private static final int DEFAULT_RATE_LIMIT_MAX_ENTRIES = 100_000;
+
+    private InviteAttemptLimiter limiter = InviteAttemptLimiter.disabled();
+
     @Override
     public String getDisplayType() {
         return "Registration Invite Gate";
@@ -51,12 +68,13 @@ public class InviteFormActionFactory implements FormActionFactory {
 
     @Override
     public FormAction create(KeycloakSession session) {
-        return new InviteFormAction();
+        return new InviteFormAction(limiter);
     }
 
-    // Required by Factory Interface
     @Override
     public void init(Config.Scope config) {
+        // Buckets are shared by all realms of the node, 0 turns rate limiting off
+        limiter = new InviteAttemptLimiter(config.getInt("rateLimitMaxEntries", DEFAULT_RATE_LIMIT_MAX_ENTRIES));
     }
 
     @Override
@@ -84,6 +102,36 @@ public class InviteFormActionFactory implements FormActionFactory {
 
     @Override
     public List<ProviderConfigProperty> getConfigProperties() {
-        return List.of();
+        return ProviderConfigurationBuilder.create()
+                .property()
+                .name(IP_ATTEMPTS_PER_MINUTE)
+                .label("Attempts per minute per IP address")
+                .helpText("Registration attempts a client address may make per minute on average. 0, the default, disables the limit. "
+                        + "Users behind a shared NAT or proxy share one address, so set it well above the session limit.")
+                .type(ProviderConfigProperty.STRING_TYPE)
+                .defaultValue(String.valueOf(DEFAULT_IP_ATTEMPTS_PER_MINUTE))
+                .add()
+                .property()
+                .name(IP_BURST)
+                .label("Burst per IP address")
+                .helpText("Registration attempts a client address may make at once after a quiet period.")
+                .type(ProviderConfigProperty.STRING_TYPE)
+                .defaultValue(String.valueOf(DEFAULT_IP_BURST))
+                .add()
+                .property()
+                .name(SESSION_ATTEMPTS_PER_MINUTE)
+                .label("Attempts per minute per session")
+                .helpText("Registration attempts a browser session may make per minute on average. 0 disables the limit.")
+                .type(ProviderConfigProperty.STRING_TYPE)
+                .defaultValue(String.valueOf(DEFAULT_SESSION_ATTEMPTS_PER_MINUTE))
+                .add()
+                .property()
+                .name(SESSION_BURST)
+                .label("Burst per session")
+                .helpText("Registration attempts a browser session may make at once after a quiet period.")
+                .type(ProviderConfigProperty.STRING_TYPE)
+                .defaultValue(String.valueOf(DEFAULT_SESSION_BURST))
+                .add()
+                .build();
     }
 }
\ No newline at end of file
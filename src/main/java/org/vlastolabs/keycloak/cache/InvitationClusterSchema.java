@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.cache;
+
+import org.infinispan.protostream.GeneratedSchema;
+import org.infinispan.protostream.annotations.ProtoSchema;
+
+/**
+ * ProtoStream schema for the cluster events sent by this extension.
+ * The implementation and its service registration are generated by the protostream annotation processor.
+ */
+@ProtoSchema(
+        schemaPackageName = "vlastolabs.invitation",
+        schemaFileName = "vlastolabs-invitation.proto",
+        schemaFilePath = "proto/generated",
+        includeClasses = {
+                InvitationInvalidationEvent.class,
+                InvitationTokensAddedEvent.class,
+                InvitationTokenFilterRebuildEvent.class
+        }
+)
+public interface InvitationClusterSchema extends GeneratedSchema {
+    // Kept far away from the ranges used by Infinispan and Keycloak
+    int INVALIDATION_EVENT_TYPE_ID = 0x7F_1000;
+    int TOKENS_ADDED_EVENT_TYPE_ID = 0x7F_1001;
+    int FILTER_REBUILD_EVENT_TYPE_ID = 0x7F_1002;
+}
\ No newline at end of file
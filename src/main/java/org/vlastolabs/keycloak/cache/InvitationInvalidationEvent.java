@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.cache;
+
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.keycloak.cluster.ClusterEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cluster event telling every node to drop the given tokens from its {@link InvitationValidationCache}.
+ * Marshalled with ProtoStream like Keycloak's own cluster events, see {@link InvitationClusterSchema}.
+ */
+@ProtoTypeId(InvitationClusterSchema.INVALIDATION_EVENT_TYPE_ID)
+public class InvitationInvalidationEvent implements ClusterEvent {
+    public static final String EVENT_KEY = "vlastolabs-invitation-invalidation";
+
+    private final List<String> tokens;
+
+    @ProtoFactory
+    public InvitationInvalidationEvent(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    @ProtoField(value = 1, collectionImplementation = ArrayList.class)
+    public List<String> getTokens() {
+        return tokens;
+    }
+}
\ No newline at end of file
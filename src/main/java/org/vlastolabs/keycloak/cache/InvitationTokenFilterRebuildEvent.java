@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.cache;
+
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.keycloak.cluster.ClusterEvent;
+
+/**
+ * Cluster event asking every node to rebuild its {@link RealmTokenFilters} from the database.
+ */
+@ProtoTypeId(InvitationClusterSchema.FILTER_REBUILD_EVENT_TYPE_ID)
+public class InvitationTokenFilterRebuildEvent implements ClusterEvent {
+    public static final String EVENT_KEY = "vlastolabs-invitation-token-filter-rebuild";
+
+    private final String requestedBy;
+
+    @ProtoFactory
+    public InvitationTokenFilterRebuildEvent(String requestedBy) {
+        this.requestedBy = requestedBy;
+    }
+
+    @ProtoField(1)
+    public String getRequestedBy() {
+        return requestedBy;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.cache;
+
+import org.infinispan.protostream.annotations.ProtoFactory;
+import org.infinispan.protostream.annotations.ProtoField;
+import org.infinispan.protostream.annotations.ProtoTypeId;
+import org.keycloak.cluster.ClusterEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cluster event announcing committed tokens of a realm to the {@link RealmTokenFilters} of the other nodes.
+ */
+@ProtoTypeId(InvitationClusterSchema.TOKENS_ADDED_EVENT_TYPE_ID)
+public class InvitationTokensAddedEvent implements ClusterEvent {
+    public static final String EVENT_KEY = "vlastolabs-invitation-tokens-added";
+
+    private final String realmId;
+    private final List<String> tokens;
+
+    @ProtoFactory
+    public InvitationTokensAddedEvent(String realmId, List<String> tokens) {
+        this.realmId = realmId;
+        this.tokens = tokens;
+    }
+
+    @ProtoField(1)
+    public String getRealmId() {
+        return realmId;
+    }
+
+    @ProtoField(value = 2, collectionImplementation = ArrayList.class)
+    public List<String> getTokens() {
+        return tokens;
+    }
+}
\ No newline at end of file
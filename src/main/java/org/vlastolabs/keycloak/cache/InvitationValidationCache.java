@@ -0,0 +1,159 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.cache;
+
+import org.vlastolabs.keycloak.model.InvitationValidationView;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-local, bounded near cache of {@link InvitationValidationView}s keyed by token.
+ * Reads are lock-free. Entries expire after a fixed TTL; once the cache grows beyond its maximum size a single
+ * thread sweeps expired entries and, if still necessary, drops arbitrary entries until it is back under
+ * {@value #SWEEP_TARGET_PERCENT}% of the maximum. Cluster-wide consistency is provided by explicit invalidation,
+ * the TTL only bounds how long a missed invalidation can be observed.
+ */
+public class InvitationValidationCache {
+    private static final int SWEEP_TARGET_PERCENT = 90;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final int maxEntries;
+    private final long ttlMillis;
+
+    public InvitationValidationCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Max entries cannot be negative, got: " + maxEntries);
+        }
+        if (ttlMillis < 0) {
+            throw new IllegalArgumentException("TTL cannot be negative, got: " + ttlMillis);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * A cache that never stores anything, used when caching is turned off.
+     */
+    public static InvitationValidationCache disabled() {
+        return new InvitationValidationCache(0, 0);
+    }
+
+    public boolean isEnabled() {
+        return maxEntries > 0 && ttlMillis > 0;
+    }
+
+    public InvitationValidationView get(String token) {
+        if (!isEnabled()) {
+            return null;
+        }
+
+        var entry = entries.get(token);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            entries.remove(token, entry);
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.view();
+    }
+
+    public void put(InvitationValidationView view) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        entries.put(view.token(), new Entry(view, System.currentTimeMillis() + ttlMillis));
+        if (entries.size() > maxEntries) {
+            sweep();
+        }
+    }
+
+    public void invalidate(String token) {
+        entries.remove(token);
+    }
+
+    public void invalidateAll(Collection<String> tokens) {
+        tokens.forEach(entries::remove);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public CacheStats stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return new CacheStats(
+                isEnabled(),
+                entries.size(),
+                maxEntries,
+                hitCount,
+                missCount,
+                evictions.sum(),
+                requests == 0 ? 0.0 : (double) hitCount / requests
+        );
+    }
+
+    private void sweep() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            long now = System.currentTimeMillis();
+            entries.entrySet().removeIf(e -> {
+                boolean expired = e.getValue().isExpired(now);
+                if (expired) {
+                    evictions.increment();
+                }
+                return expired;
+            });
+
+            long target = (long) maxEntries * SWEEP_TARGET_PERCENT / 100;
+            var iterator = entries.keySet().iterator();
+            while (entries.size() > target && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    private record Entry(InvitationValidationView view, long expiresAt) {
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+    public record CacheStats(boolean enabled, int size, int maxSize, long hits, long misses, long evictions, double hitRate) {
+    }
+}
\ No newline at end of file
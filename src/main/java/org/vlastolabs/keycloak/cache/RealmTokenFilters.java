@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Per-realm Bloom filters of existing invitation tokens, used to reject made-up tokens without a database query.
+ * <p>
+ * The filters fail open: until the first full build has completed every token is reported as possibly present.
+ * Afterwards a realm without a filter has no tokens at all. Tokens must be {@link #add added} only once their
+ * transaction has committed, on every node. A rebuild publishes its filters before reading the database, so a
+ * token is either visible to the rebuild query or added to the filters being built, and none can be lost.
+ */
+public class RealmTokenFilters {
+    private final boolean enabled;
+    private final long minExpectedInsertions;
+    private final double falsePositiveProbability;
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile boolean ready;
+    private volatile Map<String, TokenBloomFilter> active = new ConcurrentHashMap<>();
+    private volatile Map<String, TokenBloomFilter> building;
+
+    public RealmTokenFilters(boolean enabled, long minExpectedInsertions, double falsePositiveProbability) {
+        this.enabled = enabled;
+        this.minExpectedInsertions = minExpectedInsertions;
+        this.falsePositiveProbability = falsePositiveProbability;
+    }
+
+    public static RealmTokenFilters disabled() {
+        return new RealmTokenFilters(false, 1, 0.01);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Returns false only if the token definitely does not exist in the realm.
+     */
+    public boolean mightContain(String realmId, String token) {
+        if (!enabled || !ready) {
+            return true;
+        }
+
+        var filter = active.get(realmId);
+        if (filter == null || !filter.mightContain(token)) {
+            rejected.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records committed tokens of a realm.
+     */
+    public void add(String realmId, Collection<String> tokens) {
+        if (!enabled) {
+            return;
+        }
+
+        addTo(active, realmId, tokens);
+        var next = building;
+        if (next != null) {
+            addTo(next, realmId, tokens);
+        }
+    }
+
+    /**
+     * Starts a rebuild. Filters returned here receive every token added from now on and must then be filled
+     * from the database with {@link #fill} and published with {@link #completeRebuild}.
+     */
+    public synchronized Map<String, TokenBloomFilter> startRebuild() {
+        var next = new ConcurrentHashMap<String, TokenBloomFilter>();
+        building = next;
+        return next;
+    }
+
+    public void fill(Map<String, TokenBloomFilter> filters, String realmId, long expectedTokens, Stream<String> tokens) {
+        var filter = filters.computeIfAbsent(realmId, r -> newFilter(expectedTokens * 2));
+        tokens.forEach(filter::put);
+    }
+
+    public synchronized void completeRebuild(Map<String, TokenBloomFilter> filters) {
+        if (building == filters) {
+            active = filters;
+            building = null;
+            ready = true;
+        }
+    }
+
+    public synchronized void abortRebuild(Map<String, TokenBloomFilter> filters) {
+        if (building == filters) {
+            building = null;
+        }
+    }
+
+    public FilterStats stats(String realmId) {
+        var filter = active.get(realmId);
+        return new FilterStats(
+                enabled,
+                ready,
+                active.size(),
+                filter != null ? filter.bitCount() : 0,
+                filter != null ? filter.hashCount() : 0,
+                filter != null ? filter.insertions() : 0,
+                filter != null ? filter.estimatedFalsePositiveProbability() : 0.0,
+                rejected.sum()
+        );
+    }
+
+    private void addTo(Map<String, TokenBloomFilter> filters, String realmId, Collection<String> tokens) {
+        var filter = filters.computeIfAbsent(realmId, r -> newFilter(tokens.size() * 2L));
+        tokens.forEach(filter::put);
+    }
+
+    private TokenBloomFilter newFilter(long expectedTokens) {
+        return TokenBloomFilter.create(Math.max(minExpectedInsertions, expectedTokens), falsePositiveProbability);
+    }
+
+    public record FilterStats(boolean enabled, boolean ready, int realms, long realmBits, int realmHashes,
+                              long realmInsertions, double realmEstimatedFalsePositiveProbability, long rejected) {
+    }
+}
\ No newline at end of file
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * JPA Entity holding a share of the per-realm invitation totals.
+ * Maintained in the same transaction as every insert, redemption and deletion of invitations,
+ * so realm totals can be read by summing {@value #STRIPES} rows instead of a COUNT over CUSTOM_INVITATION.
+ * Every change adds its deltas to a random stripe, so concurrent registrations of a realm mostly lock different rows.
+ */
+@Entity
+@Table(name = "CUSTOM_INVITATION_COUNTER")
+@IdClass(InvitationCounterEntity.Key.class)
+@NamedQueries({
+        @NamedQuery(
+                name = "adjustInvitationCounter",
+                query = "UPDATE InvitationCounterEntity c SET c.totalCount = c.totalCount + :totalDelta, " +
+                        "c.usedCount = c.usedCount + :usedDelta WHERE c.realm = :realm AND c.stripe = :stripe"
+        ),
+        @NamedQuery(
+                name = "findInvitationTotalCount",
+                query = "SELECT SUM(c.totalCount) FROM InvitationCounterEntity c WHERE c.realm = :realm"
+        ),
+        @NamedQuery(
+                name = "findInvitationCounterStripes",
+                query = "SELECT c.stripe FROM InvitationCounterEntity c WHERE c.realm = :realm"
+        )
+})
+public class InvitationCounterEntity {
+    /**
+     * Rows per realm. Fixed, because every node picks stripes from the same range.
+     */
+    public static final int STRIPES = 16;
+
+    @Id
+    @Column(name = "REALM")
+    private String realm;
+
+    @Id
+    @Column(name = "STRIPE")
+    private int stripe;
+
+    @Column(name = "TOTAL_COUNT", nullable = false)
+    private long totalCount;
+
+    @Column(name = "USED_COUNT", nullable = false)
+    private long usedCount;
+
+    // Default constructor required by JPA
+    public InvitationCounterEntity() {
+    }
+
+    public InvitationCounterEntity(String realm, int stripe, long totalCount, long usedCount) {
+        this.realm = realm;
+        this.stripe = stripe;
+        this.totalCount = totalCount;
+        this.usedCount = usedCount;
+    }
+
+    public String getRealm() {
+        return realm;
+    }
+
+    public void setRealm(String realm) {
+        this.realm = realm;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public void setStripe(int stripe) {
+        this.stripe = stripe;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public void setTotalCount(long totalCount) {
+        this.totalCount = totalCount;
+    }
+
+    public long getUsedCount() {
+        return usedCount;
+    }
+
+    public void setUsedCount(long usedCount) {
+        this.usedCount = usedCount;
+    }
+
+    public static class Key implements Serializable {
+        private String realm;
+        private int stripe;
+
+        public Key() {
+        }
+
+        public Key(String realm, int stripe) {
+            this.realm = realm;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && stripe == key.stripe && Objects.equals(realm, key.realm);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(realm, stripe);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * JPA Entity recording the email an invitation was sent to and the outcome of the delivery. Keyed by the invitation,
+ * which is created for the recipient and never emailed twice, and removed together with it by the purge. The batch
+ * groups the recipients of one request, so their progress can be followed while the emails are sent.
+ */
+@Entity
+@Table(name = "CUSTOM_INVITATION_EMAIL")
+@NamedQueries({
+        @NamedQuery(
+                name = "findInvitationEmailsByIds",
+                query = "SELECT e FROM InvitationEmailEntity e WHERE e.invitationId IN :ids"
+        ),
+        @NamedQuery(
+                name = "deleteInvitationEmailsByIds",
+                query = "DELETE FROM InvitationEmailEntity e WHERE e.invitationId IN :ids"
+        )
+})
+public class InvitationEmailEntity {
+    @Id
+    @Column(name = "INVITATION_ID")
+    private String invitationId;
+
+    @Column(name = "REALM", nullable = false)
+    private String realm;
+
+    @Column(name = "BATCH_ID")
+    private String batchId;
+
+    @Column(name = "EMAIL", nullable = false)
+    private String email;
+
+    @Column(name = "STATUS", nullable = false)
+    private String status;
+
+    @Column(name = "ERROR", length = 1024)
+    private String error;
+
+    @Column(name = "CREATED_ON", nullable = false)
+    private long createdOn;
+
+    @Column(name = "SENT_ON")
+    private Long sentOn;
+
+    // Default constructor required by JPA
+    public InvitationEmailEntity() {
+    }
+
+    public InvitationEmailEntity(String invitationId, String realm, String batchId, String email, String status,
+                                 long createdOn) {
+        this.invitationId = invitationId;
+        this.realm = realm;
+        this.batchId = batchId;
+        this.email = email;
+        this.status = status;
+        this.createdOn = createdOn;
+    }
+
+    public String getInvitationId() {
+        return invitationId;
+    }
+
+    public void setInvitationId(String invitationId) {
+        this.invitationId = invitationId;
+    }
+
+    public String getRealm() {
+        return realm;
+    }
+
+    public void setRealm(String realm) {
+        this.realm = realm;
+    }
+
+    public String getBatchId() {
+        return batchId;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public long getCreatedOn() {
+        return createdOn;
+    }
+
+    public void setCreatedOn(long createdOn) {
+        this.createdOn = createdOn;
+    }
+
+    public Long getSentOn() {
+        return sentOn;
+    }
+
+    public void setSentOn(Long sentOn) {
+        this.sentOn = sentOn;
+    }
+}
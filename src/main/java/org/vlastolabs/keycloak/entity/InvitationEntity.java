@@ -23,7 +23,8 @@ import java.time.Instant;
 
 /**
  * JPA Entity for storing invitation tokens.
- * Each token can be used only once (used flag).
+ * A token can be used {@code maxUses} times, once unless stated otherwise. The used flag is set when the last use
+ * is taken; uses of multi-use tokens are counted in {@link InvitationUseStripeEntity} rows.
  */
 @Entity
 @Table(name = "CUSTOM_INVITATION")
@@ -35,6 +36,49 @@ import java.time.Instant;
         @NamedQuery(
                 name = "findInviteByTokenAndRealm",
                 query = "SELECT i FROM InvitationEntity i WHERE i.token = :token AND i.realm = :realm"
+        ),
+        @NamedQuery(
+                name = "findInviteValidationView",
+                query = "SELECT new org.vlastolabs.keycloak.model.InvitationValidationView(i.token, i.realm, i.used, i.expiresOn) " +
+                        "FROM InvitationEntity i WHERE i.token = :token AND i.realm = :realm"
+        ),
+        @NamedQuery(
+                name = "findExistingInviteTokens",
+                query = "SELECT i.token FROM InvitationEntity i WHERE i.token IN :tokens"
+        ),
+        @NamedQuery(
+                name = "redeemInvite",
+                query = "UPDATE InvitationEntity i SET i.used = true, i.usedOn = :now WHERE i.token = :token AND i.realm = :realm " +
+                        "AND i.maxUses = 1 AND i.used = false AND (i.expiresOn IS NULL OR i.expiresOn > :now)"
+        ),
+        @NamedQuery(
+                name = "findInviteRedemptionState",
+                query = "SELECT i.id, i.maxUses, i.used, i.expiresOn FROM InvitationEntity i WHERE i.token = :token AND i.realm = :realm"
+        ),
+        @NamedQuery(
+                name = "findInviteIdByTokenAndRealm",
+                query = "SELECT i.id FROM InvitationEntity i WHERE i.token = :token AND i.realm = :realm"
+        ),
+        @NamedQuery(
+                name = "exhaustInvite",
+                query = "UPDATE InvitationEntity i SET i.used = true, i.usedOn = :now WHERE i.id = :id AND i.used = false"
+        ),
+        @NamedQuery(
+                name = "findPurgeableInvites",
+                query = "SELECT i.id, i.token, i.used FROM InvitationEntity i WHERE i.realm = :realm " +
+                        "AND (i.expiresOn < :cutoff OR (i.used = true AND COALESCE(i.usedOn, i.createdOn) < :cutoff))"
+        ),
+        @NamedQuery(
+                name = "deleteInvitesByIds",
+                query = "DELETE FROM InvitationEntity i WHERE i.id IN :ids"
+        ),
+        @NamedQuery(
+                name = "revokeInvitesByIds",
+                query = "UPDATE InvitationEntity i SET i.expiresOn = :now WHERE i.id IN :ids AND i.used = false"
+        ),
+        @NamedQuery(
+                name = "findRevokedInvitesByIds",
+                query = "SELECT i.id, i.token FROM InvitationEntity i WHERE i.id IN :ids AND i.used = false AND i.expiresOn = :now"
         )
 })
 public class InvitationEntity {
@@ -63,6 +107,14 @@ public class InvitationEntity {
     @JsonProperty("expiresOn")
     private Long expiresOn;
 
+    @Column(name = "USED_ON")
+    @JsonProperty("usedOn")
+    private Long usedOn;
+
+    @Column(name = "MAX_USES", nullable = false)
+    @JsonProperty("maxUses")
+    private int maxUses = 1;
+
     // Default constructor required by JPA
     public InvitationEntity() {
     }
@@ -131,4 +183,20 @@ public class InvitationEntity {
     public void setExpiresOn(Long expiresOn) {
         this.expiresOn = expiresOn;
     }
+
+    public Long getUsedOn() {
+        return usedOn;
+    }
+
+    public void setUsedOn(Long usedOn) {
+        this.usedOn = usedOn;
+    }
+
+    public int getMaxUses() {
+        return maxUses;
+    }
+
+    public void setMaxUses(int maxUses) {
+        this.maxUses = maxUses;
+    }
 }
\ No newline at end of file
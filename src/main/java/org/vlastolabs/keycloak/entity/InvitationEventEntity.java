@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * JPA Entity of the invitation event outbox. Rows are inserted in the transaction that changes the invitation,
+ * so an event exists exactly when its change was committed, and deleted by the relay once delivered.
+ * <p>
+ * The database numbers rows as they are inserted. A later event of an invitation is only ever inserted after the
+ * change behind its previous event committed, so it always gets a higher number, whatever the clocks of the nodes.
+ */
+@Entity
+@Table(name = "CUSTOM_INVITATION_EVENT")
+@NamedQueries({
+        @NamedQuery(
+                name = "findPendingInvitationEvents",
+                query = "SELECT e FROM InvitationEventEntity e ORDER BY e.sequence"
+        ),
+        @NamedQuery(
+                name = "deleteInvitationEventsByIds",
+                query = "DELETE FROM InvitationEventEntity e WHERE e.id IN :ids"
+        )
+})
+public class InvitationEventEntity {
+    @Id
+    @Column(name = "ID")
+    private String id;
+
+    @Column(name = "EVENT_TYPE", nullable = false)
+    private String type;
+
+    @Column(name = "REALM", nullable = false)
+    private String realm;
+
+    @Column(name = "INVITATION_ID", nullable = false)
+    private String invitationId;
+
+    // Only recorded when the outbox is configured to include invite codes
+    @Column(name = "TOKEN")
+    private String token;
+
+    @Column(name = "CREATED_ON", nullable = false)
+    private long createdOn;
+
+    // Assigned by an identity column on insert, so it is left out of the insert and never written
+    @Column(name = "EVENT_SEQ", insertable = false, updatable = false)
+    private Long sequence;
+
+    // Default constructor required by JPA
+    public InvitationEventEntity() {
+    }
+
+    public InvitationEventEntity(String id, String type, String realm, String invitationId, String token, long createdOn) {
+        this.id = id;
+        this.type = type;
+        this.realm = realm;
+        this.invitationId = invitationId;
+        this.token = token;
+        this.createdOn = createdOn;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getRealm() {
+        return realm;
+    }
+
+    public void setRealm(String realm) {
+        this.realm = realm;
+    }
+
+    public String getInvitationId() {
+        return invitationId;
+    }
+
+    public void setInvitationId(String invitationId) {
+        this.invitationId = invitationId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public long getCreatedOn() {
+        return createdOn;
+    }
+
+    public void setCreatedOn(long createdOn) {
+        this.createdOn = createdOn;
+    }
+
+    public Long getSequence() {
+        return sequence;
+    }
+}
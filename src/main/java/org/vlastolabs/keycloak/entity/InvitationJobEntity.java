@@ -0,0 +1,268 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * JPA Entity of an asynchronous invitation job. The node running the job writes its progress in the transaction of
+ * every chunk, so any node can report it; cancellation is requested through the same row and noticed by the runner
+ * after the current chunk. The owning node also refreshes {@code updatedOn} of its unfinished jobs periodically, so
+ * a job whose node is gone stops being refreshed and can be failed by any other node.
+ */
+@Entity
+@Table(name = "CUSTOM_INVITATION_JOB")
+@NamedQueries({
+        @NamedQuery(
+                name = "findInvitationJob",
+                query = "SELECT j FROM InvitationJobEntity j WHERE j.id = :id AND j.realm = :realm"
+        ),
+        @NamedQuery(
+                name = "findInvitationJobsByRealm",
+                query = "SELECT j FROM InvitationJobEntity j WHERE j.realm = :realm ORDER BY j.createdOn DESC, j.id DESC"
+        ),
+        @NamedQuery(
+                name = "startInvitationJob",
+                query = "UPDATE InvitationJobEntity j SET j.status = :status, j.startedOn = :now, j.updatedOn = :now " +
+                        "WHERE j.id = :id AND j.status = :expectedStatus"
+        ),
+        @NamedQuery(
+                name = "addInvitationJobProgress",
+                query = "UPDATE InvitationJobEntity j SET j.processed = j.processed + :delta, j.updatedOn = :now WHERE j.id = :id"
+        ),
+        @NamedQuery(
+                name = "findInvitationJobCancelRequested",
+                query = "SELECT j.cancelRequested FROM InvitationJobEntity j WHERE j.id = :id AND j.finishedOn IS NULL"
+        ),
+        @NamedQuery(
+                name = "finishInvitationJob",
+                query = "UPDATE InvitationJobEntity j SET j.status = :status, j.result = :result, j.error = :error, " +
+                        "j.finishedOn = :now, j.updatedOn = :now WHERE j.id = :id AND j.finishedOn IS NULL"
+        ),
+        @NamedQuery(
+                name = "cancelQueuedInvitationJob",
+                query = "UPDATE InvitationJobEntity j SET j.status = :status, j.cancelRequested = true, j.finishedOn = :now, " +
+                        "j.updatedOn = :now WHERE j.id = :id AND j.realm = :realm " +
+                        "AND (j.status = :expectedStatus OR (j.finishedOn IS NULL AND j.updatedOn < :cutoff))"
+        ),
+        @NamedQuery(
+                name = "requestInvitationJobCancel",
+                query = "UPDATE InvitationJobEntity j SET j.cancelRequested = true " +
+                        "WHERE j.id = :id AND j.realm = :realm AND j.status = :expectedStatus"
+        ),
+        @NamedQuery(
+                name = "touchInvitationJobs",
+                query = "UPDATE InvitationJobEntity j SET j.updatedOn = :now WHERE j.ownerNode = :node AND j.finishedOn IS NULL"
+        ),
+        @NamedQuery(
+                name = "failStaleInvitationJobs",
+                query = "UPDATE InvitationJobEntity j SET j.status = :status, j.error = :error, j.finishedOn = :now, " +
+                        "j.updatedOn = :now WHERE j.finishedOn IS NULL AND j.updatedOn < :cutoff"
+        ),
+        @NamedQuery(
+                name = "deleteFinishedInvitationJobs",
+                query = "DELETE FROM InvitationJobEntity j WHERE j.realm = :realm AND j.finishedOn < :cutoff"
+        )
+})
+public class InvitationJobEntity {
+    @Id
+    @Column(name = "ID")
+    private String id;
+
+    @Column(name = "REALM", nullable = false)
+    private String realm;
+
+    @Column(name = "JOB_TYPE", nullable = false)
+    private String type;
+
+    @Column(name = "STATUS", nullable = false)
+    private String status;
+
+    // Node that accepted the job and runs it
+    @Column(name = "OWNER_NODE")
+    private String ownerNode;
+
+    // Request of the job as JSON
+    @Column(name = "PARAMETERS", length = 2048)
+    private String parameters;
+
+    // Number of items the job is expected to process, null if not known up front
+    @Column(name = "TOTAL")
+    private Long total;
+
+    @Column(name = "PROCESSED", nullable = false)
+    private long processed;
+
+    // Outcome of the job as JSON
+    @Column(name = "RESULT")
+    private String result;
+
+    @Column(name = "ERROR", length = 1024)
+    private String error;
+
+    @Column(name = "CANCEL_REQUESTED", nullable = false)
+    private boolean cancelRequested;
+
+    @Column(name = "CREATED_ON", nullable = false)
+    private long createdOn;
+
+    @Column(name = "STARTED_ON")
+    private Long startedOn;
+
+    @Column(name = "UPDATED_ON", nullable = false)
+    private long updatedOn;
+
+    @Column(name = "FINISHED_ON")
+    private Long finishedOn;
+
+    // Default constructor required by JPA
+    public InvitationJobEntity() {
+    }
+
+    public InvitationJobEntity(String id, String realm, String type, String status, String ownerNode, String parameters,
+                               Long total, long createdOn) {
+        this.id = id;
+        this.realm = realm;
+        this.type = type;
+        this.status = status;
+        this.ownerNode = ownerNode;
+        this.parameters = parameters;
+        this.total = total;
+        this.createdOn = createdOn;
+        this.updatedOn = createdOn;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRealm() {
+        return realm;
+    }
+
+    public void setRealm(String realm) {
+        this.realm = realm;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getOwnerNode() {
+        return ownerNode;
+    }
+
+    public void setOwnerNode(String ownerNode) {
+        this.ownerNode = ownerNode;
+    }
+
+    public String getParameters() {
+        return parameters;
+    }
+
+    public void setParameters(String parameters) {
+        this.parameters = parameters;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public long getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(long processed) {
+        this.processed = processed;
+    }
+
+    public String getResult() {
+        return result;
+    }
+
+    public void setResult(String result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    public void setCancelRequested(boolean cancelRequested) {
+        this.cancelRequested = cancelRequested;
+    }
+
+    public long getCreatedOn() {
+        return createdOn;
+    }
+
+    public void setCreatedOn(long createdOn) {
+        this.createdOn = createdOn;
+    }
+
+    public Long getStartedOn() {
+        return startedOn;
+    }
+
+    public void setStartedOn(Long startedOn) {
+        this.startedOn = startedOn;
+    }
+
+    public long getUpdatedOn() {
+        return updatedOn;
+    }
+
+    public void setUpdatedOn(long updatedOn) {
+        this.updatedOn = updatedOn;
+    }
+
+    public Long getFinishedOn() {
+        return finishedOn;
+    }
+
+    public void setFinishedOn(Long finishedOn) {
+        this.finishedOn = finishedOn;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.entity;
+
+import jakarta.persistence.*;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * JPA Entity holding a share of the uses of a multi-use invitation.
+ * The capacity of an invitation is split over up to {@value #MAX_STRIPES} rows, and a redemption takes a use from
+ * one of them with a conditional update, so concurrent registrations with the same code mostly lock different rows.
+ */
+@Entity
+@Table(name = "CUSTOM_INVITATION_USE_STRIPE")
+@IdClass(InvitationUseStripeEntity.Key.class)
+@NamedQueries({
+        @NamedQuery(
+                name = "takeInvitationUse",
+                query = "UPDATE InvitationUseStripeEntity s SET s.useCount = s.useCount + 1 " +
+                        "WHERE s.invitationId = :invitationId AND s.stripe = :stripe AND s.useCount < s.capacity"
+        ),
+        @NamedQuery(
+                name = "deleteInvitationUseStripes",
+                query = "DELETE FROM InvitationUseStripeEntity s WHERE s.invitationId IN :ids"
+        )
+})
+public class InvitationUseStripeEntity {
+    /**
+     * Stripes of an invitation allowing at least as many uses. Fixed, because redemptions derive the stripes
+     * of an invitation from its maximum number of uses.
+     */
+    public static final int MAX_STRIPES = 16;
+
+    @Id
+    @Column(name = "INVITATION_ID")
+    private String invitationId;
+
+    @Id
+    @Column(name = "STRIPE")
+    private int stripe;
+
+    @Column(name = "CAPACITY", nullable = false)
+    private long capacity;
+
+    @Column(name = "USE_COUNT", nullable = false)
+    private long useCount;
+
+    // Default constructor required by JPA
+    public InvitationUseStripeEntity() {
+    }
+
+    public InvitationUseStripeEntity(String invitationId, int stripe, long capacity) {
+        this.invitationId = invitationId;
+        this.stripe = stripe;
+        this.capacity = capacity;
+    }
+
+    public static int stripeCount(int maxUses) {
+        return Math.min(maxUses, MAX_STRIPES);
+    }
+
+    public String getInvitationId() {
+        return invitationId;
+    }
+
+    public void setInvitationId(String invitationId) {
+        this.invitationId = invitationId;
+    }
+
+    public int getStripe() {
+        return stripe;
+    }
+
+    public void setStripe(int stripe) {
+        this.stripe = stripe;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(long capacity) {
+        this.capacity = capacity;
+    }
+
+    public long getUseCount() {
+        return useCount;
+    }
+
+    public void setUseCount(long useCount) {
+        this.useCount = useCount;
+    }
+
+    public static class Key implements Serializable {
+        private String invitationId;
+        private int stripe;
+
+        public Key() {
+        }
+
+        public Key(String invitationId, int stripe) {
+            this.invitationId = invitationId;
+            this.stripe = stripe;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && stripe == key.stripe && Objects.equals(invitationId, key.invitationId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(invitationId, stripe);
+        }
+    }
+}
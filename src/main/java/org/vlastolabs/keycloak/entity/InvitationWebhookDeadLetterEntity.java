@@ -0,0 +1,153 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * JPA Entity holding an invitation event that could not be delivered to its realm's webhook, one row per event,
+ * so that failed deliveries can be inspected and replayed.
+ */
+@Entity
+@Table(name = "CUSTOM_INVITATION_WEBHOOK_DLQ")
+public class InvitationWebhookDeadLetterEntity {
+    @Id
+    @Column(name = "ID")
+    private String id;
+
+    @Column(name = "REALM", nullable = false)
+    private String realm;
+
+    @Column(name = "URL", nullable = false, length = 2048)
+    private String url;
+
+    @Column(name = "EVENT_ID", nullable = false)
+    private String eventId;
+
+    @Column(name = "EVENT_TYPE", nullable = false)
+    private String eventType;
+
+    @Column(name = "INVITATION_ID", nullable = false)
+    private String invitationId;
+
+    @Column(name = "TOKEN")
+    private String token;
+
+    @Column(name = "OCCURRED_ON", nullable = false)
+    private long occurredOn;
+
+    @Column(name = "ATTEMPTS", nullable = false)
+    private int attempts;
+
+    @Column(name = "LAST_ERROR", length = 1024)
+    private String lastError;
+
+    @Column(name = "FAILED_ON", nullable = false)
+    private long failedOn;
+
+    // Default constructor required by JPA
+    public InvitationWebhookDeadLetterEntity() {
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRealm() {
+        return realm;
+    }
+
+    public void setRealm(String realm) {
+        this.realm = realm;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+    }
+
+    public String getInvitationId() {
+        return invitationId;
+    }
+
+    public void setInvitationId(String invitationId) {
+        this.invitationId = invitationId;
+    }
+
+    public String getToken() {
+        return token;
+    }
+
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    public long getOccurredOn() {
+        return occurredOn;
+    }
+
+    public void setOccurredOn(long occurredOn) {
+        this.occurredOn = occurredOn;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    public long getFailedOn() {
+        return failedOn;
+    }
+
+    public void setFailedOn(long failedOn) {
+        this.failedOn = failedOn;
+    }
+}
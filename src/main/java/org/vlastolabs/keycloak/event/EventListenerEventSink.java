@@ -0,0 +1,87 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.keycloak.events.EventListenerProvider;
+import org.keycloak.events.admin.AdminEvent;
+import org.keycloak.events.admin.AuthDetails;
+import org.keycloak.events.admin.OperationType;
+import org.keycloak.events.admin.ResourceType;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.keycloak.util.JsonSerialization;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Hands invitation events to the event listeners enabled on their realm, as admin events of the {@code CUSTOM}
+ * resource type with path {@code invites/<invitation id>} and the event as representation.
+ * Listeners such as those shipping events to a message broker can so pick them up without knowing this extension.
+ */
+public class EventListenerEventSink implements InvitationEventSink {
+    private final KeycloakSession session;
+
+    public EventListenerEventSink(KeycloakSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public void deliver(List<InvitationEvent> events) {
+        // Listeners run in process and may use the database, so they get a transaction of their own
+        KeycloakModelUtils.runJobInTransaction(session.getKeycloakSessionFactory(), listenerSession -> {
+            for (var event : events) {
+                var realm = listenerSession.realms().getRealm(event.realm());
+                if (realm == null) {
+                    continue;
+                }
+
+                var adminEvent = toAdminEvent(event);
+                realm.getEventsListenersStream()
+                        .map(id -> listenerSession.getProvider(EventListenerProvider.class, id))
+                        .filter(Objects::nonNull)
+                        .forEach(listener -> listener.onEvent(adminEvent, true));
+            }
+        });
+    }
+
+    private static AdminEvent toAdminEvent(InvitationEvent event) {
+        var authDetails = new AuthDetails();
+        authDetails.setRealmId(event.realm());
+
+        var adminEvent = new AdminEvent();
+        adminEvent.setId(event.id());
+        adminEvent.setTime(event.occurredOn());
+        adminEvent.setRealmId(event.realm());
+        adminEvent.setAuthDetails(authDetails);
+        adminEvent.setResourceType(ResourceType.CUSTOM);
+        adminEvent.setOperationType(switch (event.type()) {
+            case CREATED -> OperationType.CREATE;
+            case REDEEMED, EXPIRED -> OperationType.UPDATE;
+            case REVOKED -> OperationType.DELETE;
+        });
+        adminEvent.setResourcePath("invites/" + event.invitationId());
+        try {
+            adminEvent.setRepresentation(JsonSerialization.mapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        return adminEvent;
+    }
+}
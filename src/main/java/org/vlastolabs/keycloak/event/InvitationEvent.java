@@ -0,0 +1,39 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.event;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * An invitation lifecycle event as handed to sinks.
+ * <p>
+ * Delivery is at least once: after a failed or interrupted delivery, events are delivered again with the same id,
+ * which consumers can use to drop duplicates. Events of one invitation are delivered in the order they occurred.
+ * <p>
+ * {@code token} is the invite code, a bearer credential while the invitation is unused. It is null unless the outbox
+ * is configured to include invite codes; consumers should identify invitations by {@code invitationId}.
+ */
+public record InvitationEvent(
+        @JsonProperty("id") String id,
+        @JsonProperty("type") InvitationEventType type,
+        @JsonProperty("realm") String realm,
+        @JsonProperty("invitationId") String invitationId,
+        @JsonProperty("token") @JsonInclude(JsonInclude.Include.NON_NULL) String token,
+        @JsonProperty("occurredOn") long occurredOn
+) {
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.event;
+
+import org.keycloak.provider.Provider;
+
+import java.util.List;
+
+/**
+ * Destination of invitation lifecycle events, fed by the outbox relay outside of any registration request.
+ * Every deployed sink receives every event.
+ */
+public interface InvitationEventSink extends Provider {
+
+    /**
+     * Delivers a batch of events in the order they occurred. Throwing makes the relay deliver the whole batch again
+     * later, to every sink, so sinks must tolerate duplicates.
+     * <p>
+     * The relay calls this outside of any transaction. Sinks that read or write the database run their own short
+     * transactions, and should not keep one open while waiting on a remote system.
+     */
+    void deliver(List<InvitationEvent> events);
+
+    @Override
+    default void close() {
+    }
+}
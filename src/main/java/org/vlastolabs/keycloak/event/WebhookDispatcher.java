@@ -0,0 +1,228 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.event;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.jboss.logging.Logger;
+import org.keycloak.util.JsonSerialization;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Posts batches of invitation events to webhook endpoints.
+ * <p>
+ * Batches of one endpoint are sent one after the other, so the events of an invitation arrive in order; different
+ * endpoints are served concurrently on virtual threads, with at most {@code maxConcurrency} requests in flight on
+ * this node. Requests failing with a network error, a timeout, 408, 429 or a 5xx status are retried with exponential
+ * backoff and jitter; other statuses are final.
+ */
+public class WebhookDispatcher implements AutoCloseable {
+    public static final String SIGNATURE_HEADER = "X-Invitation-Signature";
+
+    private static final Logger log = Logger.getLogger(WebhookDispatcher.class);
+    private static final String THREAD_PREFIX = "vlastolabs-invitation-webhook-";
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final Semaphore permits;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final Duration requestTimeout;
+
+    public WebhookDispatcher(int maxConcurrency, int batchSize, int maxAttempts, long initialBackoffMillis, Duration requestTimeout) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_PREFIX, 0).factory());
+        this.client = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(requestTimeout)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = Math.max(1, initialBackoffMillis);
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Largest number of events posted in one request.
+     */
+    public int batchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sends the batches of every sequence in order, the sequences concurrently, and waits until all of them are done.
+     *
+     * @return the batches that were still not accepted after the last attempt
+     */
+    public List<FailedBatch> send(Collection<List<WebhookBatch>> sequences) {
+        var futures = sequences.stream()
+                .map(sequence -> executor.submit(() -> sendInOrder(sequence)))
+                .toList();
+
+        var failed = new ArrayList<FailedBatch>();
+        for (var future : futures) {
+            try {
+                failed.addAll(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while posting invitation webhooks", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Failed to post invitation webhooks", e.getCause());
+            }
+        }
+        return failed;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private List<FailedBatch> sendInOrder(List<WebhookBatch> batches) throws InterruptedException {
+        var failed = new ArrayList<FailedBatch>();
+        for (var batch : batches) {
+            var failure = sendWithRetries(batch);
+            if (failure != null) {
+                failed.add(failure);
+            }
+        }
+        return failed;
+    }
+
+    private FailedBatch sendWithRetries(WebhookBatch batch) throws InterruptedException {
+        HttpRequest request;
+        try {
+            request = buildRequest(batch);
+        } catch (IllegalArgumentException e) {
+            return new FailedBatch(batch, 0, truncate("Invalid webhook URL: " + e.getMessage()));
+        }
+
+        Attempt attempt = null;
+        int attempts = 0;
+        while (attempts < maxAttempts) {
+            attempt = post(request);
+            attempts++;
+            if (attempt.error() == null) {
+                return null;
+            }
+            if (!attempt.retriable() || attempts == maxAttempts) {
+                break;
+            }
+            Thread.sleep(backoffMillis(attempts));
+        }
+
+        log.warnf("Giving up posting %d invitation events of realm %s after %d attempts: %s",
+                batch.events().size(), batch.realm(), attempts, attempt.error());
+        return new FailedBatch(batch, attempts, truncate(attempt.error()));
+    }
+
+    private HttpRequest buildRequest(WebhookBatch batch) {
+        byte[] body = serialize(batch);
+        var builder = HttpRequest.newBuilder(URI.create(batch.url()))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (batch.secret() != null && !batch.secret().isEmpty()) {
+            builder.header(SIGNATURE_HEADER, "sha256=" + sign(batch.secret(), body));
+        }
+        return builder.build();
+    }
+
+    private Attempt post(HttpRequest request) throws InterruptedException {
+        permits.acquire();
+        try {
+            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            if (status >= 200 && status < 300) {
+                return new Attempt(null, false);
+            }
+            return new Attempt("HTTP " + status, status == 408 || status == 429 || status >= 500);
+        } catch (IOException e) {
+            return new Attempt(e.getClass().getSimpleName() + ": " + e.getMessage(), true);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private long backoffMillis(int failedAttempts) {
+        long backoff = Math.min(initialBackoffMillis << Math.min(failedAttempts - 1, 20), MAX_BACKOFF_MILLIS);
+        return ThreadLocalRandom.current().nextLong(backoff / 2, backoff + 1);
+    }
+
+    /**
+     * Hex encoded HMAC-SHA256 of the request body, which lets the receiver check the sender and the body.
+     */
+    static String sign(String secret, byte[] body) {
+        try {
+            var mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+
+    private static byte[] serialize(WebhookBatch batch) {
+        try {
+            return JsonSerialization.mapper.writeValueAsBytes(new Payload(batch.realm(), batch.events()));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Events of one realm posted in one request.
+     */
+    public record WebhookBatch(String realm, String url, String secret, List<InvitationEvent> events) {
+    }
+
+    public record FailedBatch(WebhookBatch batch, int attempts, String error) {
+    }
+
+    record Payload(@JsonProperty("realm") String realm, @JsonProperty("events") List<InvitationEvent> events) {
+    }
+
+    private record Attempt(String error, boolean retriable) {
+    }
+}
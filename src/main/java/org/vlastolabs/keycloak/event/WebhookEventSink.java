@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.event;
+
+import org.jboss.logging.Logger;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.vlastolabs.keycloak.entity.InvitationWebhookDeadLetterEntity;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Posts invitation events to the webhook configured on their realm through the {@value #URL_ATTRIBUTE} realm
+ * attribute. Realms without a webhook are skipped. Requests are signed with the vault entry that the optional
+ * {@value #SECRET_ATTRIBUTE} refers to, or else with the secret configured for the sink. Realm attributes can be read
+ * by anyone allowed to view the realm, so a plain secret in the attribute is ignored.
+ * <p>
+ * Webhook settings are read and dead letters written in short transactions of their own, so no transaction is open
+ * while requests are sent. Batches that are still rejected after the last retry are moved to the dead-letter table,
+ * so a broken endpoint does not hold back the events of other realms or sinks.
+ */
+public class WebhookEventSink implements InvitationEventSink {
+    public static final String URL_ATTRIBUTE = "invitationWebhookUrl";
+    public static final String SECRET_ATTRIBUTE = "invitationWebhookSecret";
+
+    private static final Logger log = Logger.getLogger(WebhookEventSink.class);
+    private static final Pattern VAULT_REFERENCE = Pattern.compile("^\\$\\{vault\\.(.+?)}$");
+
+    private final KeycloakSession session;
+    private final WebhookDispatcher dispatcher;
+    private final String defaultSecret;
+
+    /**
+     * @param defaultSecret signs the requests of realms that refer to no vault entry, may be null
+     */
+    public WebhookEventSink(KeycloakSession session, WebhookDispatcher dispatcher, String defaultSecret) {
+        this.session = session;
+        this.dispatcher = dispatcher;
+        this.defaultSecret = defaultSecret;
+    }
+
+    @Override
+    public void deliver(List<InvitationEvent> events) {
+        Map<String, List<InvitationEvent>> byRealm = new LinkedHashMap<>();
+        events.forEach(event -> byRealm.computeIfAbsent(event.realm(), realm -> new ArrayList<>()).add(event));
+
+        var sequences = KeycloakModelUtils.runJobInTransactionWithResult(session.getKeycloakSessionFactory(),
+                realmSession -> toBatches(realmSession, byRealm));
+        if (sequences.isEmpty()) {
+            return;
+        }
+
+        var failed = dispatcher.send(sequences);
+        if (!failed.isEmpty()) {
+            KeycloakModelUtils.runJobInTransaction(session.getKeycloakSessionFactory(),
+                    deadLetterSession -> failed.forEach(batch -> storeDeadLetters(deadLetterSession, batch)));
+        }
+    }
+
+    private List<List<WebhookDispatcher.WebhookBatch>> toBatches(KeycloakSession realmSession,
+                                                                 Map<String, List<InvitationEvent>> byRealm) {
+        var sequences = new ArrayList<List<WebhookDispatcher.WebhookBatch>>();
+        byRealm.forEach((realmId, realmEvents) -> {
+            var realm = realmSession.realms().getRealm(realmId);
+            String url = realm != null ? realm.getAttribute(URL_ATTRIBUTE) : null;
+            if (url == null || url.isBlank()) {
+                return;
+            }
+
+            String secret = secretOf(realmSession, realm);
+            var batches = new ArrayList<WebhookDispatcher.WebhookBatch>();
+            for (int from = 0; from < realmEvents.size(); from += dispatcher.batchSize()) {
+                var chunk = realmEvents.subList(from, Math.min(from + dispatcher.batchSize(), realmEvents.size()));
+                batches.add(new WebhookDispatcher.WebhookBatch(realmId, url.trim(), secret, List.copyOf(chunk)));
+            }
+            sequences.add(batches);
+        });
+        return sequences;
+    }
+
+    /**
+     * The vault entry the realm's {@value #SECRET_ATTRIBUTE} refers to, or the sink's secret if there is none.
+     */
+    private String secretOf(KeycloakSession realmSession, RealmModel realm) {
+        String reference = realm.getAttribute(SECRET_ATTRIBUTE);
+        if (reference == null || reference.isBlank()) {
+            return defaultSecret;
+        }
+        if (!VAULT_REFERENCE.matcher(reference.trim()).matches()) {
+            log.warnf("Ignoring %s of realm %s, it must refer to a vault entry like ${vault.webhook_secret}",
+                    SECRET_ATTRIBUTE, realm.getName());
+            return defaultSecret;
+        }
+
+        // Vault entries are looked up for the realm of the session's context
+        realmSession.getContext().setRealm(realm);
+        try (var secret = realmSession.vault().getStringSecret(reference.trim())) {
+            return secret.get().orElseGet(() -> {
+                log.warnf("Vault entry %s of realm %s not found", reference.trim(), realm.getName());
+                return defaultSecret;
+            });
+        }
+    }
+
+    private static void storeDeadLetters(KeycloakSession deadLetterSession, WebhookDispatcher.FailedBatch failed) {
+        var entityManager = deadLetterSession.getProvider(JpaConnectionProvider.class).getEntityManager();
+        long now = System.currentTimeMillis();
+        for (var event : failed.batch().events()) {
+            var deadLetter = new InvitationWebhookDeadLetterEntity();
+            deadLetter.setId(KeycloakModelUtils.generateId());
+            deadLetter.setRealm(event.realm());
+            deadLetter.setUrl(failed.batch().url());
+            deadLetter.setEventId(event.id());
+            deadLetter.setEventType(event.type().name());
+            deadLetter.setInvitationId(event.invitationId());
+            deadLetter.setToken(event.token());
+            deadLetter.setOccurredOn(event.occurredOn());
+            deadLetter.setAttempts(failed.attempts());
+            deadLetter.setLastError(failed.error());
+            deadLetter.setFailedOn(now);
+            entityManager.persist(deadLetter);
+        }
+    }
+}
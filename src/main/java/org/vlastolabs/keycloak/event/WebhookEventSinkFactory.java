@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.event;
+
+import org.keycloak.Config;
+import org.keycloak.models.KeycloakSession;
+
+import java.time.Duration;
+
+/**
+ * Factory of {@link WebhookEventSink}s. Owns the node's {@link WebhookDispatcher}, so the HTTP client and the
+ * limit of concurrent requests are shared by all sessions.
+ */
+public class WebhookEventSinkFactory implements InvitationEventSinkFactory {
+    public static final String PROVIDER_ID = "webhook";
+
+    private static final int DEFAULT_MAX_CONCURRENCY = 8;
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final int DEFAULT_MAX_ATTEMPTS = 5;
+    private static final long DEFAULT_INITIAL_BACKOFF_MILLIS = 500;
+    private static final int DEFAULT_TIMEOUT_SECONDS = 10;
+
+    private WebhookDispatcher dispatcher;
+    private String secret;
+
+    @Override
+    public void init(Config.Scope config) {
+        secret = config.get("secret");
+        dispatcher = new WebhookDispatcher(
+                config.getInt("maxConcurrency", DEFAULT_MAX_CONCURRENCY),
+                config.getInt("batchSize", DEFAULT_BATCH_SIZE),
+                config.getInt("maxAttempts", DEFAULT_MAX_ATTEMPTS),
+                config.getLong("initialBackoffMillis", DEFAULT_INITIAL_BACKOFF_MILLIS),
+                Duration.ofSeconds(config.getInt("timeoutSeconds", DEFAULT_TIMEOUT_SECONDS)));
+    }
+
+    @Override
+    public InvitationEventSink create(KeycloakSession session) {
+        return new WebhookEventSink(session, dispatcher, secret);
+    }
+
+    @Override
+    public void close() {
+        if (dispatcher != null) {
+            dispatcher.close();
+        }
+    }
+
+    @Override
+    public String getId() {
+        return PROVIDER_ID;
+    }
+}
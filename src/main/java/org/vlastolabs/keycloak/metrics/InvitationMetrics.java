@@ -0,0 +1,147 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.vlastolabs.keycloak.model.ValidationResult;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer meters of the invitation subsystem. Keycloak publishes every registry attached to the global
+ * Micrometer registry on its {@code /metrics} endpoint once {@code KC_METRICS_ENABLED} is set; without it the
+ * global registry has no children and all meters are no-ops.
+ * <p>
+ * Meters are created once and looked up from maps afterwards, so recording on the registration path does not
+ * allocate tags or go through the registry.
+ */
+public class InvitationMetrics {
+    public static final String OPERATION_TIMER = "invitation.operation";
+    public static final String VALIDATION_FAILURES = "invitation.validation.failures";
+    public static final String QUERY_TIMER = "invitation.db.query";
+    public static final String ACTIVE_GAUGE = "invitation.active";
+
+    public static final String GENERATE_INVITE = "generateInvite";
+    public static final String VALIDATE_INVITE = "validateInviteDetailed";
+    public static final String MARK_AS_USED = "markAsUsed";
+
+    private static final InvitationMetrics DISABLED = new InvitationMetrics(new CompositeMeterRegistry());
+
+    private final MeterRegistry registry;
+    private final Map<String, Timer> operationTimers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> queryTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> validationFailures = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> activeByRealm = new ConcurrentHashMap<>();
+
+    public InvitationMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (String operation : new String[]{GENERATE_INVITE, VALIDATE_INVITE, MARK_AS_USED}) {
+            operationTimer(operation);
+        }
+        for (var result : new ValidationResult[]{ValidationResult.missingToken(), ValidationResult.invalidToken(),
+                ValidationResult.usedToken(), ValidationResult.rateLimited()}) {
+            validationFailureCounter(result.errorCode());
+        }
+    }
+
+    /**
+     * Meters registered with the registry Keycloak exports.
+     */
+    public static InvitationMetrics global() {
+        return new InvitationMetrics(Metrics.globalRegistry);
+    }
+
+    /**
+     * Meters that record nothing, used when metrics are turned off.
+     */
+    public static InvitationMetrics disabled() {
+        return DISABLED;
+    }
+
+    /**
+     * Runs a service operation, recording its duration also when it throws.
+     */
+    public <T> T timeOperation(String operation, Supplier<T> action) {
+        return operationTimer(operation).record(action);
+    }
+
+    /**
+     * Runs a database query, recording its duration also when it throws.
+     */
+    public <T> T timeQuery(String queryName, Supplier<T> query) {
+        return queryTimers.computeIfAbsent(queryName, name -> Timer.builder(QUERY_TIMER)
+                .description("Latency of invitation database queries")
+                .tag("query", name)
+                .publishPercentileHistogram()
+                .register(registry)).record(query);
+    }
+
+    /**
+     * Counts a rejected invite code by its error code; valid results are not counted.
+     */
+    public void recordValidation(ValidationResult result) {
+        if (!result.isValid()) {
+            validationFailureCounter(result.errorCode()).increment();
+        }
+    }
+
+    /**
+     * Replaces the active invitation counts reported per realm. Realms that no longer have active invitations
+     * are reported as 0 rather than removed, so their series do not disappear between two refreshes.
+     */
+    public void updateActiveInvitations(Map<String, Long> activeCounts) {
+        activeByRealm.forEach((realm, value) -> {
+            if (!activeCounts.containsKey(realm)) {
+                value.set(0);
+            }
+        });
+        activeCounts.forEach((realm, count) -> activeByRealm.computeIfAbsent(realm, this::registerActiveGauge).set(count));
+    }
+
+    private AtomicLong registerActiveGauge(String realm) {
+        var value = new AtomicLong();
+        Gauge.builder(ACTIVE_GAUGE, value, AtomicLong::get)
+                .description("Unused, unexpired invitations of a realm")
+                .tag("realm", realm)
+                .strongReference(true)
+                .register(registry);
+        return value;
+    }
+
+    private Timer operationTimer(String operation) {
+        return operationTimers.computeIfAbsent(operation, name -> Timer.builder(OPERATION_TIMER)
+                .description("Latency of invitation service operations")
+                .tag("operation", name)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    private Counter validationFailureCounter(String errorCode) {
+        return validationFailures.computeIfAbsent(errorCode, code -> Counter.builder(VALIDATION_FAILURES)
+                .description("Invite codes rejected during registration, by error code")
+                .tag("error", code)
+                .register(registry));
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset pagination cursor pointing at one invitation in the (createdOn DESC, id DESC) ordering.
+ * Clients only ever see the encoded form and must pass it back unchanged.
+ */
+public record InvitationCursor(long createdOn, String id) {
+    private static final char SEPARATOR = ':';
+
+    public InvitationCursor {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Cursor id cannot be null or blank");
+        }
+    }
+
+    public static InvitationCursor of(InvitationListItem item) {
+        return new InvitationCursor(item.getCreatedOn(), item.getId());
+    }
+
+    /**
+     * Decodes a cursor previously produced by {@link #encode()}.
+     *
+     * @throws IllegalArgumentException if the value is not a valid cursor
+     */
+    public static InvitationCursor decode(String encoded) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new InvitationCursor(Long.parseLong(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid pagination cursor: " + encoded, e);
+        }
+    }
+
+    public String encode() {
+        var raw = Long.toString(createdOn) + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * An invitation emailed to one recipient, with the outcome of its delivery.
+ */
+public record InvitationEmailItem(
+        @JsonProperty("invitationId") String invitationId,
+        @JsonProperty("email") String email,
+        @JsonProperty("token") String token,
+        @JsonProperty("status") InvitationEmailStatus status,
+        @JsonProperty("error") String error,
+        @JsonProperty("sentOn") Long sentOn
+) {
+
+    public static InvitationEmailItem pending(String invitationId, String email, String token) {
+        return new InvitationEmailItem(invitationId, email, token, InvitationEmailStatus.PENDING, null, null);
+    }
+
+    public InvitationEmailItem sent(long sentOn) {
+        return new InvitationEmailItem(invitationId, email, token, InvitationEmailStatus.SENT, null, sentOn);
+    }
+
+    public InvitationEmailItem failed(String error) {
+        return new InvitationEmailItem(invitationId, email, token, InvitationEmailStatus.FAILED, error, null);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+/**
+ * Optional criteria for listing invitations. Null components are not applied; ranges include their lower
+ * bound and exclude their upper bound, all times are epoch milliseconds.
+ */
+public record InvitationFilter(
+        InvitationStatus status,
+        Long createdFrom,
+        Long createdTo,
+        Long expiresFrom,
+        Long expiresTo,
+        Long usedFrom,
+        Long usedTo
+) {
+    private static final InvitationFilter NONE = new InvitationFilter(null, null, null, null, null, null, null);
+
+    public static InvitationFilter none() {
+        return NONE;
+    }
+
+    public boolean isEmpty() {
+        return equals(NONE);
+    }
+}
\ No newline at end of file
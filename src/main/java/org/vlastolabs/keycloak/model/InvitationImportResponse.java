@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Outcome of an invitation import. Only the first rejects are listed, {@code rejected} counts all of them.
+ */
+public class InvitationImportResponse {
+    @JsonProperty("realm")
+    private final String realm;
+
+    @JsonProperty("imported")
+    private final long imported;
+
+    @JsonProperty("rejected")
+    private final long rejected;
+
+    @JsonProperty("rejects")
+    private final List<Reject> rejects;
+
+    @JsonProperty("rejectsTruncated")
+    private final boolean rejectsTruncated;
+
+    public InvitationImportResponse(String realm, long imported, long rejected, List<Reject> rejects) {
+        this.realm = realm;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rejects = rejects;
+        this.rejectsTruncated = rejected > rejects.size();
+    }
+
+    public String getRealm() {
+        return realm;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<Reject> getRejects() {
+        return rejects;
+    }
+
+    public boolean isRejectsTruncated() {
+        return rejectsTruncated;
+    }
+
+    /**
+     * A row that was not imported, identified by its 1-based line number in the request body.
+     */
+    public record Reject(@JsonProperty("line") long line,
+                         @JsonProperty("token") String token,
+                         @JsonProperty("reason") String reason) {
+    }
+}
\ No newline at end of file
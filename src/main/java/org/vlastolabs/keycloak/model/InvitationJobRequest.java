@@ -0,0 +1,106 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Request model for submitting an invitation job. Which fields apply depends on the type.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InvitationJobRequest {
+
+    private String type;
+    private Integer count;
+    private Integer expirationTime;
+    private Long createdFrom;
+    private Long createdTo;
+    private Integer retentionDays;
+
+    public InvitationJobRequest() {
+    }
+
+    @JsonProperty("type")
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    /**
+     * Number of invitations to create, for {@code generate}.
+     */
+    @JsonProperty("count")
+    public Integer getCount() {
+        return count;
+    }
+
+    public void setCount(Integer count) {
+        this.count = count;
+    }
+
+    /**
+     * Seconds until the created invitations expire, for {@code generate}.
+     */
+    @JsonProperty("expirationTime")
+    public Integer getExpirationTime() {
+        return expirationTime;
+    }
+
+    public void setExpirationTime(Integer expirationTime) {
+        this.expirationTime = expirationTime;
+    }
+
+    /**
+     * Inclusive lower bound of the creation time of revoked invitations, for {@code revoke}.
+     */
+    @JsonProperty("createdFrom")
+    public Long getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public void setCreatedFrom(Long createdFrom) {
+        this.createdFrom = createdFrom;
+    }
+
+    /**
+     * Exclusive upper bound of the creation time of revoked invitations, for {@code revoke}.
+     */
+    @JsonProperty("createdTo")
+    public Long getCreatedTo() {
+        return createdTo;
+    }
+
+    public void setCreatedTo(Long createdTo) {
+        this.createdTo = createdTo;
+    }
+
+    /**
+     * Days expired or redeemed invitations are kept, for {@code purge}.
+     */
+    @JsonProperty("retentionDays")
+    public Integer getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(Integer retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+}
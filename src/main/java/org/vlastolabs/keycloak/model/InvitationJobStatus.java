@@ -0,0 +1,37 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+/**
+ * Lifecycle state of an invitation job.
+ */
+public enum InvitationJobStatus {
+    /** Accepted, waiting for a free slot of the node's job executor. */
+    QUEUED,
+    /** Processing chunks. */
+    RUNNING,
+    /** All items processed. */
+    SUCCEEDED,
+    /** Stopped by an error; chunks committed before it are kept. */
+    FAILED,
+    /** Stopped on request; chunks committed before it are kept. */
+    CANCELLED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED || this == CANCELLED;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import java.util.Locale;
+
+/**
+ * Operation run by an invitation job.
+ */
+public enum InvitationJobType {
+    /** Creates {@code count} invitations. */
+    GENERATE,
+    /** Imports pre-generated invitations from an uploaded NDJSON or CSV body. */
+    IMPORT,
+    /** Makes active invitations, optionally of a creation time range, unusable. */
+    REVOKE,
+    /** Deletes invitations that expired or were redeemed more than {@code retentionDays} ago. */
+    PURGE;
+
+    /**
+     * Parses a request value case-insensitively.
+     *
+     * @throws IllegalArgumentException if the value is missing or not a known type
+     */
+    public static InvitationJobType fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("type is required, expected one of generate, revoke, purge");
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown type '" + value + "', expected one of generate, revoke, purge");
+        }
+    }
+}
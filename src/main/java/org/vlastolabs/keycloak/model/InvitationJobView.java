@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import org.vlastolabs.keycloak.entity.InvitationJobEntity;
+
+/**
+ * State of an invitation job as reported to pollers. {@code result} is the JSON outcome of the job, also of a
+ * cancelled or failed one, covering the chunks committed before it stopped.
+ */
+public record InvitationJobView(
+        @JsonProperty("id") String id,
+        @JsonProperty("realm") String realm,
+        @JsonProperty("type") InvitationJobType type,
+        @JsonProperty("status") InvitationJobStatus status,
+        @JsonProperty("total") Long total,
+        @JsonProperty("processed") long processed,
+        @JsonProperty("cancelRequested") boolean cancelRequested,
+        @JsonProperty("result") @JsonRawValue String result,
+        @JsonProperty("error") String error,
+        @JsonProperty("createdOn") long createdOn,
+        @JsonProperty("startedOn") Long startedOn,
+        @JsonProperty("updatedOn") long updatedOn,
+        @JsonProperty("finishedOn") Long finishedOn
+) {
+
+    public static InvitationJobView of(InvitationJobEntity entity) {
+        return new InvitationJobView(entity.getId(), entity.getRealm(), InvitationJobType.valueOf(entity.getType()),
+                InvitationJobStatus.valueOf(entity.getStatus()), entity.getTotal(), entity.getProcessed(),
+                entity.isCancelRequested(), entity.getResult(), entity.getError(), entity.getCreatedOn(),
+                entity.getStartedOn(), entity.getUpdatedOn(), entity.getFinishedOn());
+    }
+}
@@ -37,16 +37,37 @@ public class InvitationListItem {
     @JsonProperty("expiresOn")
     private Long expiresOn;
 
+    @JsonProperty("usedOn")
+    private Long usedOn;
+
+    @JsonProperty("maxUses")
+    private int maxUses;
+
+    @JsonProperty("useCount")
+    private long useCount;
+
     public InvitationListItem() {
     }
 
     public InvitationListItem(String id, String token, boolean used, String realm, long createdOn, Long expiresOn) {
+        this(id, token, used, realm, createdOn, expiresOn, null);
+    }
+
+    public InvitationListItem(String id, String token, boolean used, String realm, long createdOn, Long expiresOn, Long usedOn) {
+        this(id, token, used, realm, createdOn, expiresOn, usedOn, 1, used ? 1 : 0);
+    }
+
+    public InvitationListItem(String id, String token, boolean used, String realm, long createdOn, Long expiresOn, Long usedOn,
+                              int maxUses, long useCount) {
         this.id = id;
         this.token = token;
         this.used = used;
         this.realm = realm;
         this.createdOn = createdOn;
         this.expiresOn = expiresOn;
+        this.usedOn = usedOn;
+        this.maxUses = maxUses;
+        this.useCount = useCount;
     }
 
     public String getId() {
@@ -96,4 +117,28 @@ public class InvitationListItem {
     public void setExpiresOn(Long expiresOn) {
         this.expiresOn = expiresOn;
     }
+
+    public Long getUsedOn() {
+        return usedOn;
+    }
+
+    public void setUsedOn(Long usedOn) {
+        this.usedOn = usedOn;
+    }
+
+    public int getMaxUses() {
+        return maxUses;
+    }
+
+    public void setMaxUses(int maxUses) {
+        this.maxUses = maxUses;
+    }
+
+    public long getUseCount() {
+        return useCount;
+    }
+
+    public void setUseCount(long useCount) {
+        this.useCount = useCount;
+    }
 }
\ No newline at end of file
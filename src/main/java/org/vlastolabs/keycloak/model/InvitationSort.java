@@ -0,0 +1,72 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Sort order of an invitation listing. Ties are always broken by id in the same direction, so pages are stable.
+ */
+public record InvitationSort(Field field, boolean ascending) {
+    public static final InvitationSort DEFAULT = new InvitationSort(Field.CREATED_ON, false);
+
+    public enum Field {
+        CREATED_ON("createdOn"),
+        EXPIRES_ON("expiresOn"),
+        USED_ON("usedOn");
+
+        private final String property;
+
+        Field(String property) {
+            this.property = property;
+        }
+
+        /**
+         * Entity property and query parameter name of the field.
+         */
+        public String property() {
+            return property;
+        }
+    }
+
+    /**
+     * Parses the sort and order query parameters, falling back to the default for missing values.
+     *
+     * @throws IllegalArgumentException if a value is not recognized
+     */
+    public static InvitationSort of(String field, String order) {
+        var sortField = field == null || field.isBlank() ? DEFAULT.field() : Arrays.stream(Field.values())
+                .filter(f -> f.property().equalsIgnoreCase(field.trim()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Unknown sort '" + field + "', expected one of createdOn, expiresOn, usedOn"));
+
+        if (order == null || order.isBlank()) {
+            return new InvitationSort(sortField, DEFAULT.ascending());
+        }
+        return switch (order.trim().toLowerCase(Locale.ROOT)) {
+            case "asc" -> new InvitationSort(sortField, true);
+            case "desc" -> new InvitationSort(sortField, false);
+            default -> throw new IllegalArgumentException("Unknown order '" + order + "', expected asc or desc");
+        };
+    }
+
+    public boolean isDefault() {
+        return equals(DEFAULT);
+    }
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import java.util.Locale;
+
+/**
+ * Lifecycle state an invitation listing can be filtered by.
+ */
+public enum InvitationStatus {
+    /** Not redeemed and not expired. */
+    ACTIVE,
+    /** Redeemed. */
+    USED,
+    /** Not redeemed and past its expiration time. */
+    EXPIRED;
+
+    /**
+     * Parses a query parameter value case-insensitively.
+     *
+     * @return the status, or null if the value is null or blank
+     * @throws IllegalArgumentException if the value is not a known status
+     */
+    public static InvitationStatus fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown status '" + value + "', expected one of active, used, expired");
+        }
+    }
+}
\ No newline at end of file
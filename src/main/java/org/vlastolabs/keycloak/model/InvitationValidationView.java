@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import org.vlastolabs.keycloak.entity.InvitationEntity;
+
+/**
+ * Read-only projection of the columns needed to validate a token. Loaded by a constructor expression that the
+ * covering token index answers on its own, without hydrating or dirty-checking an entity.
+ */
+public record InvitationValidationView(String token, String realm, boolean used, Long expiresOn) {
+
+    public static InvitationValidationView of(InvitationEntity entity) {
+        return new InvitationValidationView(entity.getToken(), entity.getRealm(), entity.isUsed(), entity.getExpiresOn());
+    }
+
+    public boolean isExpiredAt(long timeMillis) {
+        return expiresOn != null && expiresOn < timeMillis;
+    }
+}
\ No newline at end of file
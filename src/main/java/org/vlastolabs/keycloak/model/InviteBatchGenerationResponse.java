@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Response model for bulk invitation token generation.
+ * All tokens of a batch share the same realm and expiration time.
+ */
+public class InviteBatchGenerationResponse {
+    private List<String> tokens;
+    private String realm;
+    private String message;
+    private long expirationTime;
+
+    public InviteBatchGenerationResponse(List<String> tokens, String realm, String message, long expirationTime) {
+        this.tokens = tokens;
+        this.realm = realm;
+        this.message = message;
+        this.expirationTime = expirationTime;
+    }
+
+    public InviteBatchGenerationResponse() {
+    }
+
+    @JsonProperty("tokens")
+    public List<String> getTokens() {
+        return tokens;
+    }
+
+    @JsonProperty("count")
+    public int getCount() {
+        return tokens != null ? tokens.size() : 0;
+    }
+
+    @JsonProperty("realm")
+    public String getRealm() {
+        return realm;
+    }
+
+    @JsonProperty("message")
+    public String getMessage() {
+        return message;
+    }
+
+    @JsonProperty("expirationTime")
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
+    public void setTokens(List<String> tokens) {
+        this.tokens = tokens;
+    }
+
+    public void setRealm(String realm) {
+        this.realm = realm;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public void setExpirationTime(long expirationTime) {
+        this.expirationTime = expirationTime;
+    }
+}
\ No newline at end of file
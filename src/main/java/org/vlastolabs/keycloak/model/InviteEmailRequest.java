@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Request model for emailing invitations, one new invitation per recipient.
+ */
+public class InviteEmailRequest {
+
+    private List<String> emails;
+    private Integer expirationTime;
+    private String registrationUrl;
+
+    public InviteEmailRequest() {
+    }
+
+    public InviteEmailRequest(List<String> emails, Integer expirationTime, String registrationUrl) {
+        this.emails = emails;
+        this.expirationTime = expirationTime;
+        this.registrationUrl = registrationUrl;
+    }
+
+    @JsonProperty("emails")
+    public List<String> getEmails() {
+        return emails;
+    }
+
+    public void setEmails(List<String> emails) {
+        this.emails = emails;
+    }
+
+    @JsonProperty("expirationTime")
+    public Integer getExpirationTime() {
+        return expirationTime;
+    }
+
+    public void setExpirationTime(Integer expirationTime) {
+        this.expirationTime = expirationTime;
+    }
+
+    /**
+     * Link to the registration page shown in the email, optional.
+     */
+    @JsonProperty("registrationUrl")
+    public String getRegistrationUrl() {
+        return registrationUrl;
+    }
+
+    public void setRegistrationUrl(String registrationUrl) {
+        this.registrationUrl = registrationUrl;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Response model for emailed invitations, with the delivery status of every recipient. The batch id follows the
+ * recipients while their emails are sent in the background.
+ */
+public class InviteEmailResponse {
+    private String batchId;
+    private List<InvitationEmailItem> recipients;
+    private String realm;
+    private long expirationTime;
+
+    public InviteEmailResponse(String batchId, List<InvitationEmailItem> recipients, String realm, long expirationTime) {
+        this.batchId = batchId;
+        this.recipients = recipients;
+        this.realm = realm;
+        this.expirationTime = expirationTime;
+    }
+
+    public InviteEmailResponse() {
+    }
+
+    @JsonProperty("batchId")
+    public String getBatchId() {
+        return batchId;
+    }
+
+    @JsonProperty("recipients")
+    public List<InvitationEmailItem> getRecipients() {
+        return recipients;
+    }
+
+    @JsonProperty("pending")
+    public long getPending() {
+        return countWithStatus(InvitationEmailStatus.PENDING);
+    }
+
+    @JsonProperty("sent")
+    public long getSent() {
+        return countWithStatus(InvitationEmailStatus.SENT);
+    }
+
+    @JsonProperty("failed")
+    public long getFailed() {
+        return countWithStatus(InvitationEmailStatus.FAILED);
+    }
+
+    @JsonProperty("realm")
+    public String getRealm() {
+        return realm;
+    }
+
+    @JsonProperty("expirationTime")
+    public long getExpirationTime() {
+        return expirationTime;
+    }
+
+    public void setBatchId(String batchId) {
+        this.batchId = batchId;
+    }
+
+    public void setRecipients(List<InvitationEmailItem> recipients) {
+        this.recipients = recipients;
+    }
+
+    public void setRealm(String realm) {
+        this.realm = realm;
+    }
+
+    public void setExpirationTime(long expirationTime) {
+        this.expirationTime = expirationTime;
+    }
+
+    private long countWithStatus(InvitationEmailStatus status) {
+        return recipients == null ? 0 : recipients.stream().filter(item -> item.status() == status).count();
+    }
+}
@@ -28,13 +28,19 @@ public class InviteGenerationResponse {
     private String message;
     private long expirationTime;
     private boolean used;
+    private int maxUses = 1;
 
     public InviteGenerationResponse(String token, String realm, String message, long expirationTime, boolean used) {
+        this(token, realm, message, expirationTime, used, 1);
+    }
+
+    public InviteGenerationResponse(String token, String realm, String message, long expirationTime, boolean used, int maxUses) {
         this.token = token;
         this.realm = realm;
         this.message = message;
         this.expirationTime = expirationTime;
         this.used = used;
+        this.maxUses = maxUses;
     }
 
     public InviteGenerationResponse() {
@@ -65,6 +71,11 @@ public class InviteGenerationResponse {
         return used;
     }
 
+    @JsonProperty("maxUses")
+    public int getMaxUses() {
+        return maxUses;
+    }
+
     public void setToken(String token) {
         this.token = token;
     }
@@ -84,4 +95,8 @@ public class InviteGenerationResponse {
     public void setUsed(boolean used) {
         this.used = used;
     }
+
+    public void setMaxUses(int maxUses) {
+        this.maxUses = maxUses;
+    }
 }
\ No newline at end of file
@@ -24,6 +24,7 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 public class InviteRequest {
 
     private Integer expirationTime;
+    private Integer maxUses;
 
     public InviteRequest() {
     }
@@ -40,4 +41,13 @@ public class InviteRequest {
     public void setExpirationTime(Integer expirationTime) {
         this.expirationTime = expirationTime;
     }
+
+    @JsonProperty("maxUses")
+    public Integer getMaxUses() {
+        return maxUses;
+    }
+
+    public void setMaxUses(Integer maxUses) {
+        this.maxUses = maxUses;
+    }
 }
\ No newline at end of file
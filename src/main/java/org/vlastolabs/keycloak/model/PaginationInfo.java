@@ -37,16 +37,29 @@ public class PaginationInfo {
     @JsonProperty("hasPrevious")
     private boolean hasPrevious;
 
+    @JsonProperty("nextCursor")
+    private String nextCursor;
+
+    @JsonProperty("previousCursor")
+    private String previousCursor;
+
     public PaginationInfo() {
     }
 
     public PaginationInfo(int page, int size, long totalElements, int totalPages, boolean hasNext, boolean hasPrevious) {
+        this(page, size, totalElements, totalPages, hasNext, hasPrevious, null, null);
+    }
+
+    public PaginationInfo(int page, int size, long totalElements, int totalPages, boolean hasNext, boolean hasPrevious,
+                          String nextCursor, String previousCursor) {
         this.page = page;
         this.size = size;
         this.totalElements = totalElements;
         this.totalPages = totalPages;
         this.hasNext = hasNext;
         this.hasPrevious = hasPrevious;
+        this.nextCursor = nextCursor;
+        this.previousCursor = previousCursor;
     }
 
     public int getPage() {
@@ -96,4 +109,20 @@ public class PaginationInfo {
     public void setHasPrevious(boolean hasPrevious) {
         this.hasPrevious = hasPrevious;
     }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public String getPreviousCursor() {
+        return previousCursor;
+    }
+
+    public void setPreviousCursor(String previousCursor) {
+        this.previousCursor = previousCursor;
+    }
 }
\ No newline at end of file
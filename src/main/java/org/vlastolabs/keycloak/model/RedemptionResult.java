@@ -0,0 +1,44 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.model;
+
+/**
+ * Outcome of an atomic attempt to redeem (mark as used) an invitation token.
+ */
+public enum RedemptionResult {
+    REDEEMED(null),
+    ALREADY_USED("inviteCodeAlreadyUsed"),
+    EXPIRED("inviteCodeInvalid"),
+    NOT_FOUND("inviteCodeInvalid");
+
+    private final String errorCode;
+
+    RedemptionResult(String errorCode) {
+        this.errorCode = errorCode;
+    }
+
+    public boolean isRedeemed() {
+        return this == REDEEMED;
+    }
+
+    /**
+     * Message key matching the ones used by {@link ValidationResult}, or null when redeemed.
+     */
+    public String errorCode() {
+        return errorCode;
+    }
+}
\ No newline at end of file
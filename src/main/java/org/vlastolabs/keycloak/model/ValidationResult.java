@@ -16,30 +16,28 @@
  */
 package org.vlastolabs.keycloak.model;
 
-import org.vlastolabs.keycloak.entity.InvitationEntity;
-
 import java.util.Optional;
 
 /**
- * Result of invitation validation containing the entity (if valid) and error code (if invalid).
+ * Result of invitation validation containing the validated invitation (if valid) and error code (if invalid).
  */
 public record ValidationResult(
-        InvitationEntity invitationEntity,
+        InvitationValidationView invitation,
         String errorCode,
         boolean isValid
 ) {
     // Compact constructor for validation
     public ValidationResult {
-        if (isValid && invitationEntity == null) {
-            throw new IllegalArgumentException("Valid result must have an entity");
+        if (isValid && invitation == null) {
+            throw new IllegalArgumentException("Valid result must have an invitation");
         }
         if (!isValid && errorCode == null) {
             throw new IllegalArgumentException("Invalid result must have an error code");
         }
     }
 
-    public static ValidationResult valid(InvitationEntity entity) {
-        return new ValidationResult(entity, null, true);
+    public static ValidationResult valid(InvitationValidationView invitation) {
+        return new ValidationResult(invitation, null, true);
     }
 
     public static ValidationResult invalid(String errorCode) {
@@ -62,7 +60,11 @@ public record ValidationResult(
         return invalid("inviteCodeMissing");
     }
 
-    public Optional<InvitationEntity> getInvitationEntity() {
-        return Optional.ofNullable(invitationEntity);
+    public static ValidationResult rateLimited() {
+        return invalid("inviteCodeRateLimited");
+    }
+
+    public Optional<InvitationValidationView> getInvitation() {
+        return Optional.ofNullable(invitation);
     }
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.provider;
+
+import org.jboss.logging.Logger;
+import org.keycloak.cluster.ClusterProvider;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.vlastolabs.keycloak.event.InvitationEvent;
+import org.vlastolabs.keycloak.event.InvitationEventSink;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Drains the invitation event outbox into every deployed {@link InvitationEventSink}.
+ * <p>
+ * Every batch is relayed under the cluster-wide task lock, taken again for the next batch, so events are relayed by one
+ * node at a time and in the order they occurred. A batch is read in one short transaction, delivered outside of any
+ * transaction and deleted in a second one: it is only removed once every sink accepted it, and delivered again after
+ * a failure or a crash in between. After a failure the relay backs off exponentially, up to
+ * {@value #MAX_BACKOFF_FACTOR} times its interval.
+ */
+public class InvitationEventRelay {
+    public static final String TASK_NAME = "vlastolabs-invitation-event-relay";
+
+    private static final Logger log = Logger.getLogger(InvitationEventRelay.class);
+    private static final int MAX_BACKOFF_FACTOR = 64;
+
+    private final KeycloakSessionFactory sessionFactory;
+    private final Function<KeycloakSession, InvitationJpaProvider> providers;
+    private final int batchSize;
+    private final int lockTimeoutSeconds;
+    private final long intervalMillis;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile int consecutiveFailures;
+    private volatile long retryAt;
+
+    public InvitationEventRelay(KeycloakSessionFactory sessionFactory, Function<KeycloakSession, InvitationJpaProvider> providers,
+                                int batchSize, int intervalSeconds) {
+        this.sessionFactory = sessionFactory;
+        this.providers = providers;
+        this.batchSize = batchSize;
+        this.intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+        this.lockTimeoutSeconds = Math.max(intervalSeconds * MAX_BACKOFF_FACTOR, 60);
+    }
+
+    /**
+     * Starts a run on a virtual thread, so the shared timer thread never waits on a sink.
+     *
+     * @return false if a run is already in progress on this node or the relay is backing off
+     */
+    public boolean runAsync() {
+        if (System.currentTimeMillis() < retryAt || !running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        Thread.ofVirtual().name(TASK_NAME).start(() -> {
+            try {
+                run();
+                consecutiveFailures = 0;
+                retryAt = 0;
+            } catch (RuntimeException e) {
+                int failures = ++consecutiveFailures;
+                long backoff = intervalMillis * Math.min(1L << Math.min(failures, 30), MAX_BACKOFF_FACTOR);
+                retryAt = System.currentTimeMillis() + backoff;
+                log.warnf(e, "Invitation event delivery failed %d times in a row, retrying in %d ms", failures, backoff);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Relays all pending events, stopping as soon as another node holds the task lock.
+     */
+    public void run() {
+        long total = 0;
+        int relayed;
+        do {
+            relayed = relayNextBatch();
+            total += Math.max(relayed, 0);
+        } while (relayed == batchSize);
+
+        if (relayed < 0) {
+            log.debug("Invitation event relay skipped, another node is running it");
+        }
+        if (total > 0) {
+            log.debugf("Relayed %d invitation events", total);
+        }
+    }
+
+    /**
+     * Relays one batch under the task lock. The lock only has to outlive the delivery of a single batch.
+     *
+     * @return the number of relayed events, or -1 if another node holds the lock
+     */
+    private int relayNextBatch() {
+        try (var session = sessionFactory.create()) {
+            var cluster = session.getProvider(ClusterProvider.class);
+            if (cluster == null) {
+                return relayBatch(session);
+            }
+
+            var result = cluster.executeIfNotExecuted(TASK_NAME, lockTimeoutSeconds, () -> relayBatch(session));
+            return result.isExecuted() ? result.getResult() : -1;
+        }
+    }
+
+    private int relayBatch(KeycloakSession session) {
+        var events = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory,
+                readSession -> providers.apply(readSession).findPendingEvents(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        // The session has no transaction, so no database connection is held while sinks wait on the network
+        session.getAllProviders(InvitationEventSink.class).forEach(sink -> sink.deliver(events));
+        var ids = events.stream().map(InvitationEvent::id).toList();
+        KeycloakModelUtils.runJobInTransaction(sessionFactory, deleteSession -> providers.apply(deleteSession).deleteEvents(ids));
+        return events.size();
+    }
+}
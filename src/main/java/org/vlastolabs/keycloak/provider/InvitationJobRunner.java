@@ -0,0 +1,326 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.provider;
+
+import org.jboss.logging.Logger;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.keycloak.util.JsonSerialization;
+import org.vlastolabs.keycloak.model.InvitationDataFormat;
+import org.vlastolabs.keycloak.model.InvitationFilter;
+import org.vlastolabs.keycloak.model.InvitationJobRequest;
+import org.vlastolabs.keycloak.model.InvitationJobStatus;
+import org.vlastolabs.keycloak.model.InvitationJobType;
+import org.vlastolabs.keycloak.model.InvitationJobView;
+import org.vlastolabs.keycloak.model.InvitationStatus;
+import org.vlastolabs.keycloak.service.InvitationImporter;
+import org.vlastolabs.keycloak.service.InvitationService;
+import org.vlastolabs.keycloak.token.InvitationTokenGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Runs long invitation operations in the background of the node they were submitted to.
+ * <p>
+ * Jobs run on virtual threads, at most {@code maxConcurrency} at a time; up to {@code maxQueued} more wait for a
+ * slot, and further submissions are rejected. A job works in chunks of {@code chunkSize} items, each committed in its
+ * own transaction together with the job's progress, so any node can report the progress and a failed or cancelled
+ * job keeps the chunks committed before it stopped. Cancellation is requested in the database and noticed after the
+ * current chunk.
+ * <p>
+ * Jobs only live in the memory of the node that accepted them. Every {@link #heartbeat()} the node refreshes
+ * {@code updatedOn} of its unfinished jobs and fails those of any node that has not refreshed its own for
+ * {@code staleSeconds}, so the jobs of a node that went away end as failed instead of staying queued or running.
+ */
+public class InvitationJobRunner implements AutoCloseable {
+    private static final Logger log = Logger.getLogger(InvitationJobRunner.class);
+    private static final String THREAD_PREFIX = "vlastolabs-invitation-job-";
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private final KeycloakSessionFactory sessionFactory;
+    private final Function<KeycloakSession, InvitationJpaProvider> providers;
+    private final ExecutorService executor;
+    private final Semaphore slots;
+    private final int capacity;
+    private final AtomicInteger accepted = new AtomicInteger();
+    private final int chunkSize;
+    private final long retentionMillis;
+    private final long staleMillis;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public InvitationJobRunner(KeycloakSessionFactory sessionFactory, Function<KeycloakSession, InvitationJpaProvider> providers,
+                               int maxConcurrency, int maxQueued, int chunkSize, int retentionDays, int staleSeconds) {
+        this.sessionFactory = sessionFactory;
+        this.providers = providers;
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_PREFIX, 0).factory());
+        this.slots = new Semaphore(Math.max(1, maxConcurrency));
+        this.capacity = Math.max(1, maxConcurrency) + Math.max(0, maxQueued);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.retentionMillis = TimeUnit.DAYS.toMillis(Math.max(0, retentionDays));
+        this.staleMillis = TimeUnit.SECONDS.toMillis(Math.max(1, staleSeconds));
+    }
+
+    /**
+     * Submits a generate, revoke or purge job. The request must have been validated by the caller.
+     *
+     * @return the queued job
+     * @throws RejectedExecutionException if this node has no room for another job
+     */
+    public InvitationJobView submit(String realmId, InvitationJobType type, InvitationJobRequest request) {
+        return switch (type) {
+            case GENERATE -> {
+                int expirationSeconds = request.getExpirationTime() != null && request.getExpirationTime() > 0
+                        ? request.getExpirationTime()
+                        : InvitationService.DEFAULT_EXPIRATION_SECONDS;
+                yield submit(realmId, type, request, provider -> (long) request.getCount(),
+                        context -> generate(context, realmId, request.getCount(), expirationSeconds), () -> {
+                        });
+            }
+            case REVOKE -> {
+                var filter = new InvitationFilter(InvitationStatus.ACTIVE, request.getCreatedFrom(), request.getCreatedTo(),
+                        null, null, null, null);
+                yield submit(realmId, type, request, provider -> provider.countByRealm(realmId, filter),
+                        context -> Map.of("revoked", repeatChunks(context,
+                                provider -> provider.revokeInvitations(realmId, filter, chunkSize))), () -> {
+                        });
+            }
+            case PURGE -> {
+                int retentionDays = request.getRetentionDays() != null ? request.getRetentionDays() : 0;
+                long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(retentionDays);
+                yield submit(realmId, type, request, provider -> null,
+                        context -> Map.of("purged", repeatChunks(context,
+                                provider -> provider.purgeInvitations(realmId, cutoff, chunkSize))), () -> {
+                        });
+            }
+            case IMPORT -> throw new IllegalArgumentException("Import jobs are submitted with their body");
+        };
+    }
+
+    /**
+     * Submits an import of a body that was spooled to a file. The file is deleted once the job is done with it.
+     *
+     * @param tokenGenerator the configured token format, only used to recognize tokens after the submitting session
+     *                       closed
+     * @return the queued job
+     * @throws RejectedExecutionException if this node has no room for another job
+     */
+    public InvitationJobView submitImport(String realmId, InvitationDataFormat format, Path body,
+                                          InvitationTokenGenerator tokenGenerator) {
+        var parameters = Map.of("type", "import", "format", format.name().toLowerCase(Locale.ROOT));
+        return submit(realmId, InvitationJobType.IMPORT, parameters, provider -> null, context -> {
+            var importer = new InvitationImporter(tokenGenerator, rows -> context.chunk(
+                    provider -> provider.importInvitations(realmId, rows), skipped -> rows.size()));
+            try (var input = Files.newInputStream(body)) {
+                return importer.importFrom(realmId, format, input);
+            }
+        }, () -> deleteQuietly(body));
+    }
+
+    /**
+     * Refreshes this node's unfinished jobs and fails stale jobs of all nodes. Errors are only logged, the next
+     * heartbeat tries again.
+     */
+    public void heartbeat() {
+        try {
+            if (accepted.get() > 0) {
+                inTransaction(provider -> provider.touchJobs(nodeId));
+            }
+            int failed = inTransaction(provider -> provider.failStaleJobs(staleCutoff(),
+                    "The node running the job stopped before it finished"));
+            if (failed > 0) {
+                log.infof("Failed %d invitation jobs whose node stopped running them", failed);
+            }
+        } catch (RuntimeException e) {
+            log.warnf(e, "Failed to refresh invitation jobs of node %s", nodeId);
+        }
+    }
+
+    /**
+     * Jobs last refreshed before this time are no longer run by any node.
+     */
+    public long staleCutoff() {
+        return System.currentTimeMillis() - staleMillis;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private InvitationJobView submit(String realmId, InvitationJobType type, Object request,
+                                     Function<InvitationJpaProvider, Long> total, Work work, Runnable cleanup) {
+        if (accepted.incrementAndGet() > capacity) {
+            accepted.decrementAndGet();
+            cleanup.run();
+            throw new RejectedExecutionException("Too many invitation jobs on this node, try again later");
+        }
+
+        try {
+            String parameters = JsonSerialization.writeValueAsString(request);
+            var job = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory, session -> {
+                var provider = providers.apply(session);
+                provider.deleteFinishedJobs(realmId, System.currentTimeMillis() - retentionMillis);
+                return provider.createJob(realmId, nodeId, type, parameters, total.apply(provider));
+            });
+            executor.execute(() -> run(job, work, cleanup));
+            return job;
+        } catch (IOException | RuntimeException e) {
+            accepted.decrementAndGet();
+            cleanup.run();
+            throw e instanceof RuntimeException runtime ? runtime : new IllegalStateException(e);
+        }
+    }
+
+    private void run(InvitationJobView job, Work work, Runnable cleanup) {
+        var context = new JobContext(job.id());
+        try {
+            slots.acquire();
+            try {
+                if (!inTransaction(provider -> provider.startJob(job.id()))) {
+                    log.debugf("Invitation job %s was cancelled before it started", job.id());
+                    return;
+                }
+                finish(job, InvitationJobStatus.SUCCEEDED, work.run(context), null);
+            } catch (CancellationException e) {
+                finish(job, InvitationJobStatus.CANCELLED, Map.of("processed", context.processed), null);
+            } catch (Exception e) {
+                log.warnf(e, "Invitation job %s of realm %s failed", job.id(), job.realm());
+                finish(job, InvitationJobStatus.FAILED, Map.of("processed", context.processed), describe(e));
+            } finally {
+                slots.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finish(job, InvitationJobStatus.FAILED, null, "Node shut down before the job started");
+        } finally {
+            accepted.decrementAndGet();
+            cleanup.run();
+        }
+    }
+
+    private Map<String, Object> generate(JobContext context, String realmId, int count, int expirationSeconds) {
+        long createdFrom = System.currentTimeMillis();
+        int remaining = count;
+        while (remaining > 0) {
+            int size = Math.min(chunkSize, remaining);
+            context.chunk(provider -> provider.createInvitations(realmId, size, expirationSeconds), List::size);
+            remaining -= size;
+        }
+        // Together with createdFrom, bounds the creation time of the job's invitations for listing or exporting them
+        return Map.of("created", context.processed, "createdFrom", createdFrom, "createdTo", System.currentTimeMillis() + 1);
+    }
+
+    /**
+     * Runs chunks until one finds nothing left to do. A chunk may come back short when concurrent changes took some of
+     * its items, so a short chunk does not mean the work is done.
+     */
+    private long repeatChunks(JobContext context, Function<InvitationJpaProvider, Integer> chunk) {
+        while (context.chunk(chunk, Integer::intValue) > 0) {
+            // Each chunk commits before the next one selects its items
+        }
+        return context.processed;
+    }
+
+    /**
+     * Records the end of a job. Errors are only logged: the job is over either way, and its row then keeps
+     * reporting the last committed progress.
+     */
+    private void finish(InvitationJobView job, InvitationJobStatus status, Object result, String error) {
+        try {
+            String json = result != null ? JsonSerialization.writeValueAsString(result) : null;
+            inTransaction(provider -> {
+                provider.finishJob(job.id(), status, json, error);
+                return null;
+            });
+            log.debugf("Invitation job %s of realm %s %s", job.id(), job.realm(), status);
+        } catch (IOException | RuntimeException e) {
+            log.warnf(e, "Failed to record the end of invitation job %s", job.id());
+        }
+    }
+
+    private <T> T inTransaction(Function<InvitationJpaProvider, T> work) {
+        return KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory, session -> work.apply(providers.apply(session)));
+    }
+
+    private static String describe(Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warnf(e, "Failed to delete spooled invitation import %s", file);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Work {
+        Object run(JobContext context) throws Exception;
+    }
+
+    private record ChunkOutcome<T>(T value, int count, boolean cancelRequested) {
+    }
+
+    /**
+     * Progress of a running job, only touched by the job's own thread.
+     */
+    private final class JobContext {
+        private final String jobId;
+        private long processed;
+
+        private JobContext(String jobId) {
+            this.jobId = jobId;
+        }
+
+        /**
+         * Runs one chunk in its own transaction, adding the items it processed to the job's progress.
+         *
+         * @throws CancellationException after the chunk committed, if cancellation of the job was requested or the
+         *                               node is shutting down
+         */
+        <T> T chunk(Function<InvitationJpaProvider, T> work, ToIntFunction<T> count) {
+            var outcome = inTransaction(provider -> {
+                T value = work.apply(provider);
+                int processedItems = count.applyAsInt(value);
+                return new ChunkOutcome<>(value, processedItems, provider.addJobProgress(jobId, processedItems));
+            });
+            processed += outcome.count();
+            if (outcome.cancelRequested() || Thread.currentThread().isInterrupted()) {
+                throw new CancellationException("Invitation job " + jobId + " cancelled");
+            }
+            return outcome.value();
+        }
+    }
+}
@@ -17,33 +17,158 @@
 package org.vlastolabs.keycloak.provider;
 
 import jakarta.persistence.EntityManager;
+import jakarta.persistence.FlushModeType;
 import jakarta.persistence.NoResultException;
 import jakarta.persistence.TypedQuery;
+import org.hibernate.Session;
 import org.jboss.logging.Logger;
+import org.keycloak.cluster.ClusterEvent;
+import org.keycloak.cluster.ClusterProvider;
 import org.keycloak.connections.jpa.JpaConnectionProvider;
 import org.keycloak.connections.jpa.entityprovider.JpaEntityProvider;
+import org.keycloak.models.AbstractKeycloakTransaction;
 import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.vlastolabs.keycloak.cache.InvitationInvalidationEvent;
+import org.vlastolabs.keycloak.cache.InvitationTokensAddedEvent;
+import org.vlastolabs.keycloak.cache.InvitationValidationCache;
+import org.vlastolabs.keycloak.cache.RealmTokenFilters;
+import org.vlastolabs.keycloak.entity.InvitationCounterEntity;
+import org.vlastolabs.keycloak.entity.InvitationEmailEntity;
 import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.entity.InvitationEventEntity;
+import org.vlastolabs.keycloak.entity.InvitationJobEntity;
+import org.vlastolabs.keycloak.entity.InvitationUseStripeEntity;
+import org.vlastolabs.keycloak.entity.InvitationWebhookDeadLetterEntity;
+import org.vlastolabs.keycloak.event.InvitationEvent;
+import org.vlastolabs.keycloak.event.InvitationEventType;
+import org.vlastolabs.keycloak.metrics.InvitationMetrics;
+import org.vlastolabs.keycloak.model.InvitationCursor;
+import org.vlastolabs.keycloak.model.InvitationEmailItem;
+import org.vlastolabs.keycloak.model.InvitationEmailStatus;
+import org.vlastolabs.keycloak.model.InvitationFilter;
+import org.vlastolabs.keycloak.model.InvitationImportRow;
+import org.vlastolabs.keycloak.model.InvitationJobStatus;
+import org.vlastolabs.keycloak.model.InvitationJobType;
+import org.vlastolabs.keycloak.model.InvitationJobView;
+import org.vlastolabs.keycloak.model.InvitationListItem;
+import org.vlastolabs.keycloak.model.InvitationSort;
+import org.vlastolabs.keycloak.model.InvitationStatus;
+import org.vlastolabs.keycloak.model.InvitationValidationView;
+import org.vlastolabs.keycloak.model.RedemptionResult;
+import org.vlastolabs.keycloak.token.InvitationTokenGenerator;
+import org.vlastolabs.keycloak.token.UuidTokenGenerator;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 public class InvitationJpaProvider implements JpaEntityProvider, InvitationProvider {
 
     private static final Logger log = Logger.getLogger(InvitationJpaProvider.class);
     private static final int DEFAULT_EXPIRATION_SECONDS = 86400;
+    private static final int BATCH_SIZE = 500;
+    private static final int STREAM_FETCH_SIZE = 1000;
+    private static final String HINT_FETCH_SIZE = "org.hibernate.fetchSize";
+    private static final String HINT_READ_ONLY = "org.hibernate.readOnly";
+    private static final String LIST_ITEM = "new org.vlastolabs.keycloak.model.InvitationListItem(" +
+            "i.id, i.token, i.used, i.realm, i.createdOn, i.expiresOn, i.usedOn, i.maxUses, " +
+            "CASE WHEN i.maxUses > 1 THEN (SELECT COALESCE(SUM(s.useCount), 0L) FROM InvitationUseStripeEntity s " +
+            "WHERE s.invitationId = i.id) WHEN i.used = true THEN 1L ELSE 0L END)";
     private static final String QUERY_BY_TOKEN = "findInviteByToken";
     private static final String QUERY_BY_TOKEN_AND_REALM = "findInviteByTokenAndRealm";
+    private static final String QUERY_VALIDATION_VIEW = "findInviteValidationView";
+    private static final String QUERY_REDEEM = "redeemInvite";
+    private static final String QUERY_REDEMPTION_STATE = "findInviteRedemptionState";
+    private static final String QUERY_TAKE_USE = "takeInvitationUse";
+    private static final String QUERY_EXHAUST = "exhaustInvite";
+    private static final String QUERY_DELETE_USE_STRIPES = "deleteInvitationUseStripes";
+    private static final String QUERY_INVITE_ID = "findInviteIdByTokenAndRealm";
+    private static final String QUERY_PENDING_EVENTS = "findPendingInvitationEvents";
+    private static final String QUERY_DELETE_EVENTS = "deleteInvitationEventsByIds";
+    private static final String QUERY_EMAILS_BY_IDS = "findInvitationEmailsByIds";
+    private static final String QUERY_DELETE_EMAILS = "deleteInvitationEmailsByIds";
+    private static final String QUERY_ADJUST_COUNTER = "adjustInvitationCounter";
+    private static final String QUERY_TOTAL_COUNT = "findInvitationTotalCount";
+    private static final String QUERY_COUNTER_STRIPES = "findInvitationCounterStripes";
+    private static final String QUERY_PURGEABLE = "findPurgeableInvites";
+    private static final String QUERY_DELETE_BY_IDS = "deleteInvitesByIds";
+    private static final String QUERY_REVOKE_BY_IDS = "revokeInvitesByIds";
+    private static final String QUERY_REVOKED_BY_IDS = "findRevokedInvitesByIds";
+    private static final String QUERY_JOB = "findInvitationJob";
+    private static final String QUERY_JOBS_BY_REALM = "findInvitationJobsByRealm";
+    private static final String QUERY_START_JOB = "startInvitationJob";
+    private static final String QUERY_ADD_JOB_PROGRESS = "addInvitationJobProgress";
+    private static final String QUERY_JOB_CANCEL_REQUESTED = "findInvitationJobCancelRequested";
+    private static final String QUERY_FINISH_JOB = "finishInvitationJob";
+    private static final String QUERY_CANCEL_QUEUED_JOB = "cancelQueuedInvitationJob";
+    private static final String QUERY_REQUEST_JOB_CANCEL = "requestInvitationJobCancel";
+    private static final String QUERY_TOUCH_JOBS = "touchInvitationJobs";
+    private static final String QUERY_FAIL_STALE_JOBS = "failStaleInvitationJobs";
+    private static final String QUERY_DELETE_FINISHED_JOBS = "deleteFinishedInvitationJobs";
+    private static final String QUERY_EXISTING_TOKENS = "findExistingInviteTokens";
     private static final String PARAM_TOKEN = "token";
     private static final String PARAM_REALM = "realm";
+    private static final String PARAM_NOW = "now";
+    private static final String PARAM_CREATED_ON = "createdOn";
+    private static final String PARAM_ID = "id";
+    private static final String PARAM_TOTAL_DELTA = "totalDelta";
+    private static final String PARAM_USED_DELTA = "usedDelta";
+    private static final String PARAM_CUTOFF = "cutoff";
+    private static final String PARAM_IDS = "ids";
+    private static final String PARAM_TOKENS = "tokens";
+    private static final String PARAM_INVITATION_ID = "invitationId";
+    private static final String PARAM_STRIPE = "stripe";
+    private static final String PARAM_STATUS = "status";
+    private static final String PARAM_BATCH_ID = "batchId";
+    private static final String PARAM_NODE = "node";
+    private static final String PARAM_EXPECTED_STATUS = "expectedStatus";
+    private static final String PARAM_DELTA = "delta";
+    private static final String PARAM_RESULT = "result";
+    private static final String PARAM_ERROR = "error";
+    private static final String PARAM_CREATED_FROM = "createdFrom";
+    private static final String PARAM_CREATED_TO = "createdTo";
+    private static final String PARAM_EXPIRES_FROM = "expiresFrom";
+    private static final String PARAM_EXPIRES_TO = "expiresTo";
+    private static final String PARAM_USED_FROM = "usedFrom";
+    private static final String PARAM_USED_TO = "usedTo";
+    // Entity ids stay UUIDs whatever the token format, minted from the striped random source as well
+    private static final UuidTokenGenerator ID_GENERATOR = new UuidTokenGenerator();
+    // Realms whose counter stripes are known to exist, so only their first change on a node checks for them
+    private static final Set<String> COUNTER_STRIPES_READY = ConcurrentHashMap.newKeySet();
 
     private final KeycloakSession session;
+    private final InvitationValidationCache validationCache;
+    private final RealmTokenFilters tokenFilters;
+    private final InvitationMetrics metrics;
+    private final boolean eventOutboxEnabled;
+    private final boolean eventTokensIncluded;
+    private InvitationTokenGenerator tokenGenerator;
 
     public InvitationJpaProvider(KeycloakSession session) {
+        this(session, InvitationValidationCache.disabled(), RealmTokenFilters.disabled(), InvitationMetrics.disabled(), false, false);
+    }
+
+    public InvitationJpaProvider(KeycloakSession session, InvitationValidationCache validationCache, RealmTokenFilters tokenFilters,
+                                 InvitationMetrics metrics, boolean eventOutboxEnabled, boolean eventTokensIncluded) {
         this.session = Objects.requireNonNull(session, "KeycloakSession cannot be null");
+        this.validationCache = Objects.requireNonNull(validationCache, "InvitationValidationCache cannot be null");
+        this.tokenFilters = Objects.requireNonNull(tokenFilters, "RealmTokenFilters cannot be null");
+        this.metrics = Objects.requireNonNull(metrics, "InvitationMetrics cannot be null");
+        this.eventOutboxEnabled = eventOutboxEnabled;
+        this.eventTokensIncluded = eventTokensIncluded;
     }
 
     @Override
@@ -65,38 +190,232 @@ public class InvitationJpaProvider implements JpaEntityProvider, InvitationProvi
         });
     }
 
+    /**
+     * Loads the validation view of a token within a realm, answering from the validation near cache when possible.
+     * Tokens the realm's token filter has never seen are reported as absent without querying the database.
+     */
+    @Override
+    public Optional<InvitationValidationView> findValidationView(String token, String realmId) {
+        validateToken(token);
+        validateRealmId(realmId);
+
+        var cached = validationCache.get(token);
+        if (cached != null) {
+            // Tokens are globally unique, a cached token of another realm cannot exist in this one
+            return realmId.equals(cached.realm()) ? Optional.of(cached) : Optional.empty();
+        }
+        if (!tokenFilters.mightContain(realmId, token)) {
+            return Optional.empty();
+        }
+
+        var view = metrics.timeQuery(QUERY_VALIDATION_VIEW, () -> entityManager()
+                .createNamedQuery(QUERY_VALIDATION_VIEW, InvitationValidationView.class)
+                .setParameter(PARAM_TOKEN, token)
+                .setParameter(PARAM_REALM, realmId)
+                .getResultStream()
+                .findFirst());
+        view.ifPresent(validationCache::put);
+        return view;
+    }
+
     public String createInvitation(String realmId) {
         return createInvitation(realmId, DEFAULT_EXPIRATION_SECONDS);
     }
 
     public String createInvitation(String realmId, int expirationSeconds) {
+        return createInvitation(realmId, expirationSeconds, 1);
+    }
+
+    /**
+     * Creates an invitation admitting up to {@code maxUses} registrations. The capacity of a multi-use invitation
+     * is split as evenly as possible over its use stripes.
+     */
+    @Override
+    public String createInvitation(String realmId, int expirationSeconds, int maxUses) {
         validateRealmId(realmId);
         validateExpirationSeconds(expirationSeconds);
+        validateMaxUses(maxUses);
 
-        var token = generateToken();
-        var entity = buildInvitationEntity(token, realmId, expirationSeconds);
+        var entity = buildInvitationEntity(realmId, expirationSeconds);
+        entity.setMaxUses(maxUses);
+        var token = entity.getToken();
 
-        entityManager().persist(entity);
+        var entityManager = entityManager();
+        entityManager.persist(entity);
+        if (maxUses > 1) {
+            int stripes = InvitationUseStripeEntity.stripeCount(maxUses);
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                long capacity = maxUses / stripes + (stripe < maxUses % stripes ? 1 : 0);
+                entityManager.persist(new InvitationUseStripeEntity(entity.getId(), stripe, capacity));
+            }
+        }
+        adjustCounter(realmId, 1, 0);
+        recordEvent(InvitationEventType.CREATED, realmId, entity.getId(), token);
+        publishCreatedTokens(realmId, List.of(token));
         logCreation(realmId, expirationSeconds);
 
         return token;
     }
 
-    public boolean markAsUsed(String token, String realmId) {
-        return findByTokenAndRealm(token, realmId)
-                .map(this::markAsUsed)
-                .isPresent();
+    @Override
+    public List<InvitationEntity> createInvitations(String realmId, int count, int expirationSeconds) {
+        validateRealmId(realmId);
+        validateExpirationSeconds(expirationSeconds);
+        validateCount(count);
+
+        var created = persistBatched(IntStream.range(0, count)
+                .mapToObj(i -> buildInvitationEntity(realmId, expirationSeconds)), count);
+        adjustCounter(realmId, count, 0);
+        recordEvents(InvitationEventType.CREATED, created);
+        publishCreatedTokens(realmId, created.stream().map(InvitationEntity::getToken).toList());
+
+        logBatchCreation(realmId, count, expirationSeconds);
+        return created;
     }
 
     @Override
-    public List<InvitationEntity> findAll(int offset, int limit) {
-        var query = entityManager().createQuery(
-                "SELECT i FROM InvitationEntity i ORDER BY i.createdOn DESC",
-                InvitationEntity.class
-        );
-        query.setFirstResult(offset);
-        query.setMaxResults(limit);
-        return query.getResultList();
+    public List<String> importInvitations(String realmId, List<InvitationImportRow> rows) {
+        validateRealmId(realmId);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        var existing = new HashSet<>(entityManager().createNamedQuery(QUERY_EXISTING_TOKENS, String.class)
+                .setParameter(PARAM_TOKENS, rows.stream().map(InvitationImportRow::token).toList())
+                .getResultList());
+        var newRows = rows.stream()
+                .filter(row -> !existing.contains(row.token()))
+                .toList();
+
+        var created = persistBatched(newRows.stream().map(row ->
+                new InvitationEntity(ID_GENERATOR.generate(), row.token(), row.used(), realmId, row.expiresOn())), newRows.size());
+        adjustCounter(realmId, created.size(), created.stream().filter(InvitationEntity::isUsed).count());
+        recordEvents(InvitationEventType.CREATED, created);
+        publishCreatedTokens(realmId, created.stream().map(InvitationEntity::getToken).toList());
+
+        log.debugf("Imported %d invitations for realm %s, skipped %d existing tokens",
+                (Object) created.size(), realmId, existing.size());
+        return rows.stream()
+                .map(InvitationImportRow::token)
+                .filter(existing::contains)
+                .toList();
+    }
+
+    @Override
+    public RedemptionResult markAsUsed(String token, String realmId) {
+        validateToken(token);
+        validateRealmId(realmId);
+
+        long now = System.currentTimeMillis();
+        int updated = metrics.timeQuery(QUERY_REDEEM, () -> entityManager().createNamedQuery(QUERY_REDEEM)
+                .setParameter(PARAM_TOKEN, token)
+                .setParameter(PARAM_REALM, realmId)
+                .setParameter(PARAM_NOW, now)
+                .executeUpdate());
+
+        if (updated == 0) {
+            return redeemMultiUseOrClassify(token, realmId, now);
+        }
+
+        adjustCounter(realmId, 0, 1);
+        invalidateCachedTokens(List.of(token));
+        if (eventOutboxEnabled) {
+            // The row was just updated by this transaction, so its id is read without waiting on a lock
+            entityManager().createNamedQuery(QUERY_INVITE_ID, String.class)
+                    .setParameter(PARAM_TOKEN, token)
+                    .setParameter(PARAM_REALM, realmId)
+                    .getResultStream()
+                    .findFirst()
+                    .ifPresent(invitationId -> recordEvent(InvitationEventType.REDEEMED, realmId, invitationId, token));
+        }
+        return RedemptionResult.REDEEMED;
+    }
+
+    @Override
+    public List<InvitationListItem> findAll(int offset, int limit) {
+        return listQuery("SELECT " + LIST_ITEM + " FROM InvitationEntity i ORDER BY i.createdOn DESC, i.id DESC")
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<InvitationListItem> findAllByRealm(String realmId, int offset, int limit) {
+        return findAllByRealm(realmId, InvitationFilter.none(), InvitationSort.DEFAULT, offset, limit);
+    }
+
+    @Override
+    public List<InvitationListItem> findAllByRealm(String realmId, InvitationFilter filter, InvitationSort sort, int offset, int limit) {
+        validateRealmId(realmId);
+
+        String direction = sort.ascending() ? " ASC" : " DESC";
+        var query = listQuery("SELECT " + LIST_ITEM + " FROM InvitationEntity i WHERE i.realm = :realm" +
+                filterConditions(filter) + " ORDER BY i." + sort.field().property() + direction + ", i.id" + direction);
+        return bindFilter(query, realmId, filter)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<InvitationListItem> findAfter(String realmId, InvitationCursor after, int limit) {
+        return findAfter(realmId, InvitationFilter.none(), after, limit);
+    }
+
+    @Override
+    public List<InvitationListItem> findAfter(String realmId, InvitationFilter filter, InvitationCursor after, int limit) {
+        if (after == null) {
+            return findAllByRealm(realmId, filter, InvitationSort.DEFAULT, 0, limit);
+        }
+        validateRealmId(realmId);
+
+        var query = listQuery("SELECT " + LIST_ITEM + " FROM InvitationEntity i WHERE i.realm = :realm" +
+                filterConditions(filter) +
+                " AND (i.createdOn < :createdOn OR (i.createdOn = :createdOn AND i.id < :id))" +
+                " ORDER BY i.createdOn DESC, i.id DESC");
+        return bindFilter(query, realmId, filter)
+                .setParameter(PARAM_CREATED_ON, after.createdOn())
+                .setParameter(PARAM_ID, after.id())
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<InvitationListItem> findBefore(String realmId, InvitationCursor before, int limit) {
+        return findBefore(realmId, InvitationFilter.none(), before, limit);
+    }
+
+    @Override
+    public List<InvitationListItem> findBefore(String realmId, InvitationFilter filter, InvitationCursor before, int limit) {
+        validateRealmId(realmId);
+
+        var query = listQuery("SELECT " + LIST_ITEM + " FROM InvitationEntity i WHERE i.realm = :realm" +
+                filterConditions(filter) +
+                " AND (i.createdOn > :createdOn OR (i.createdOn = :createdOn AND i.id > :id))" +
+                " ORDER BY i.createdOn ASC, i.id ASC");
+        var page = new ArrayList<>(bindFilter(query, realmId, filter)
+                .setParameter(PARAM_CREATED_ON, before.createdOn())
+                .setParameter(PARAM_ID, before.id())
+                .setMaxResults(limit)
+                .getResultList());
+        Collections.reverse(page);
+        return page;
+    }
+
+    /**
+     * Rows are projected into DTOs by a constructor expression, so nothing enters the persistence context
+     * and memory stays flat however many rows are streamed.
+     */
+    @Override
+    public Stream<InvitationListItem> streamByRealm(String realmId) {
+        validateRealmId(realmId);
+
+        return listQuery("SELECT " + LIST_ITEM + " FROM InvitationEntity i WHERE i.realm = :realm " +
+                "ORDER BY i.createdOn DESC, i.id DESC")
+                .setParameter(PARAM_REALM, realmId)
+                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
     }
 
     @Override
@@ -106,9 +425,402 @@ public class InvitationJpaProvider implements JpaEntityProvider, InvitationProvi
                 .getSingleResult();
     }
 
+    /**
+     * Reads the realm total from CUSTOM_INVITATION_COUNTER, a primary key range of the realm's stripes.
+     */
+    @Override
+    public long countByRealm(String realmId) {
+        validateRealmId(realmId);
+
+        var total = entityManager()
+                .createNamedQuery(QUERY_TOTAL_COUNT, Long.class)
+                .setParameter(PARAM_REALM, realmId)
+                .getSingleResult();
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Counts matching invitations of a realm. Without criteria the realm counter answers instead of a scan.
+     */
+    @Override
+    public long countByRealm(String realmId, InvitationFilter filter) {
+        if (filter.isEmpty()) {
+            return countByRealm(realmId);
+        }
+        validateRealmId(realmId);
+
+        var query = entityManager().createQuery(
+                "SELECT COUNT(i) FROM InvitationEntity i WHERE i.realm = :realm" + filterConditions(filter),
+                Long.class
+        );
+        return bindFilter(query, realmId, filter).getSingleResult();
+    }
+
+    @Override
+    public int purgeInvitations(String realmId, long cutoff, int limit) {
+        validateRealmId(realmId);
+
+        var rows = entityManager().createNamedQuery(QUERY_PURGEABLE, Object[].class)
+                .setParameter(PARAM_REALM, realmId)
+                .setParameter(PARAM_CUTOFF, cutoff)
+                .setMaxResults(limit)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<String> ids = new ArrayList<>(rows.size());
+        List<String> tokens = new ArrayList<>(rows.size());
+        long usedCount = 0;
+        for (Object[] row : rows) {
+            ids.add((String) row[0]);
+            tokens.add((String) row[1]);
+            if (Boolean.TRUE.equals(row[2])) {
+                usedCount++;
+            } else {
+                // Nothing else notices that an invitation expired, its removal is the last chance to report it
+                recordEvent(InvitationEventType.EXPIRED, realmId, (String) row[0], (String) row[1]);
+            }
+        }
+
+        entityManager().createNamedQuery(QUERY_DELETE_USE_STRIPES)
+                .setParameter(PARAM_IDS, ids)
+                .executeUpdate();
+        entityManager().createNamedQuery(QUERY_DELETE_EMAILS)
+                .setParameter(PARAM_IDS, ids)
+                .executeUpdate();
+        int deleted = entityManager().createNamedQuery(QUERY_DELETE_BY_IDS)
+                .setParameter(PARAM_IDS, ids)
+                .executeUpdate();
+        adjustCounter(realmId, -deleted, -usedCount);
+        invalidateCachedTokens(tokens);
+        return deleted;
+    }
+
+    /**
+     * Streams every token of a realm with a JDBC fetch size, without loading entities.
+     * The stream must be closed by the caller.
+     */
+    public Stream<String> streamTokens(String realmId) {
+        validateRealmId(realmId);
+
+        return entityManager()
+                .createQuery("SELECT i.token FROM InvitationEntity i WHERE i.realm = :realm", String.class)
+                .setParameter(PARAM_REALM, realmId)
+                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    /**
+     * Unused, unexpired invitations of all realms that have any, counted in a single grouped query.
+     */
+    public Map<String, Long> countActiveByRealm() {
+        return entityManager()
+                .createQuery("SELECT i.realm, COUNT(i) FROM InvitationEntity i " +
+                        "WHERE i.used = false AND (i.expiresOn IS NULL OR i.expiresOn > :now) GROUP BY i.realm", Object[].class)
+                .setParameter(PARAM_NOW, System.currentTimeMillis())
+                .getResultStream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
+    }
+
+    /**
+     * Oldest undelivered events of the outbox, in the order they occurred.
+     */
+    public List<InvitationEvent> findPendingEvents(int limit) {
+        return entityManager().createNamedQuery(QUERY_PENDING_EVENTS, InvitationEventEntity.class)
+                .setMaxResults(limit)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(event -> new InvitationEvent(event.getId(), InvitationEventType.valueOf(event.getType()), event.getRealm(),
+                        event.getInvitationId(), event.getToken(), event.getCreatedOn()))
+                .toList();
+    }
+
+    /**
+     * Removes delivered events from the outbox.
+     */
+    public void deleteEvents(List<String> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        entityManager().createNamedQuery(QUERY_DELETE_EVENTS)
+                .setParameter(PARAM_IDS, ids)
+                .executeUpdate();
+    }
+
+    /**
+     * Creates one invitation per recipient, recording each recipient with a pending delivery in the same transaction.
+     *
+     * @param batchId groups the recipients for {@link #findEmailDeliveries}
+     * @return the detached invitations, in the order of the recipients
+     */
+    public List<InvitationEntity> createEmailInvitations(String realmId, String batchId, List<String> emails,
+                                                         int expirationSeconds) {
+        var created = createInvitations(realmId, emails.size(), expirationSeconds);
+
+        long now = System.currentTimeMillis();
+        persistBatched(IntStream.range(0, created.size()).mapToObj(i -> new InvitationEmailEntity(created.get(i).getId(),
+                realmId, batchId, emails.get(i), InvitationEmailStatus.PENDING.name(), now)), created.size());
+        return created;
+    }
+
+    /**
+     * Stores the delivery outcome of emailed invitations. The rows are loaded and updated in chunks, so the updates
+     * are flushed as JDBC batches rather than one statement per recipient.
+     */
+    public void recordEmailDeliveries(List<InvitationEmailItem> deliveries) {
+        var byId = deliveries.stream().collect(Collectors.toMap(InvitationEmailItem::invitationId, Function.identity()));
+        var ids = new ArrayList<>(byId.keySet());
+
+        var entityManager = entityManager();
+        var hibernateSession = entityManager.unwrap(Session.class);
+        var previousBatchSize = hibernateSession.getJdbcBatchSize();
+        hibernateSession.setJdbcBatchSize(BATCH_SIZE);
+        try {
+            for (int from = 0; from < ids.size(); from += BATCH_SIZE) {
+                var chunk = entityManager.createNamedQuery(QUERY_EMAILS_BY_IDS, InvitationEmailEntity.class)
+                        .setParameter(PARAM_IDS, ids.subList(from, Math.min(from + BATCH_SIZE, ids.size())))
+                        .getResultList();
+                chunk.forEach(email -> {
+                    var delivery = byId.get(email.getInvitationId());
+                    email.setStatus(delivery.status().name());
+                    email.setError(delivery.error());
+                    email.setSentOn(delivery.sentOn());
+                });
+                entityManager.flush();
+                chunk.forEach(entityManager::detach);
+            }
+        } finally {
+            hibernateSession.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    /**
+     * Emailed invitations of the realm, newest first, optionally restricted to one batch and one delivery status.
+     */
+    public List<InvitationEmailItem> findEmailDeliveries(String realmId, String batchId, InvitationEmailStatus status,
+                                                         int offset, int limit) {
+        validateRealmId(realmId);
+
+        var query = entityManager().createQuery("SELECT e.invitationId, e.email, i.token, e.status, e.error, e.sentOn " +
+                        "FROM InvitationEmailEntity e, InvitationEntity i WHERE i.id = e.invitationId AND e.realm = :realm" +
+                        (batchId != null ? " AND e.batchId = :batchId" : "") +
+                        (status != null ? " AND e.status = :status" : "") +
+                        " ORDER BY e.createdOn DESC, e.invitationId DESC", Object[].class)
+                .setParameter(PARAM_REALM, realmId);
+        if (batchId != null) {
+            query.setParameter(PARAM_BATCH_ID, batchId);
+        }
+        if (status != null) {
+            query.setParameter(PARAM_STATUS, status.name());
+        }
+        return query.setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(row -> new InvitationEmailItem((String) row[0], (String) row[1], (String) row[2],
+                        InvitationEmailStatus.valueOf((String) row[3]), (String) row[4], (Long) row[5]))
+                .toList();
+    }
+
+    /**
+     * Makes up to {@code limit} active invitations of the realm matching the filter unusable by letting them expire now,
+     * in the caller's transaction. Revoked invitations no longer match, so repeated calls work through all of them.
+     *
+     * @return number of revoked invitations
+     */
+    public int revokeInvitations(String realmId, InvitationFilter filter, int limit) {
+        validateRealmId(realmId);
+
+        var active = new InvitationFilter(InvitationStatus.ACTIVE, filter.createdFrom(), filter.createdTo(),
+                filter.expiresFrom(), filter.expiresTo(), null, null);
+        var query = entityManager().createQuery(
+                "SELECT i.id, i.token FROM InvitationEntity i WHERE i.realm = :realm" + filterConditions(active), Object[].class);
+        var rows = bindFilter(query, realmId, active)
+                .setMaxResults(limit)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        List<String> ids = rows.stream().map(row -> (String) row[0]).toList();
+        long now = System.currentTimeMillis();
+        entityManager().createNamedQuery(QUERY_REVOKE_BY_IDS)
+                .setParameter(PARAM_IDS, ids)
+                .setParameter(PARAM_NOW, now)
+                .executeUpdate();
+
+        // Invitations redeemed since they were selected are skipped by the update and must not get an event
+        var revoked = entityManager().createNamedQuery(QUERY_REVOKED_BY_IDS, Object[].class)
+                .setParameter(PARAM_IDS, ids)
+                .setParameter(PARAM_NOW, now)
+                .getResultList();
+        revoked.forEach(row -> recordEvent(InvitationEventType.REVOKED, realmId, (String) row[0], (String) row[1]));
+        invalidateCachedTokens(revoked.stream().map(row -> (String) row[1]).toList());
+        return revoked.size();
+    }
+
+    /**
+     * Records a new job of the realm as queued on a node.
+     */
+    public InvitationJobView createJob(String realmId, String ownerNode, InvitationJobType type, String parameters, Long total) {
+        validateRealmId(realmId);
+
+        var job = new InvitationJobEntity(ID_GENERATOR.generate(), realmId, type.name(), InvitationJobStatus.QUEUED.name(),
+                ownerNode, parameters, total, System.currentTimeMillis());
+        entityManager().persist(job);
+        return InvitationJobView.of(job);
+    }
+
+    /**
+     * Moves a queued job to running.
+     *
+     * @return false if the job is no longer queued, e.g. because it was cancelled while waiting
+     */
+    public boolean startJob(String jobId) {
+        return entityManager().createNamedQuery(QUERY_START_JOB)
+                .setParameter(PARAM_ID, jobId)
+                .setParameter(PARAM_STATUS, InvitationJobStatus.RUNNING.name())
+                .setParameter(PARAM_EXPECTED_STATUS, InvitationJobStatus.QUEUED.name())
+                .setParameter(PARAM_NOW, System.currentTimeMillis())
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Adds processed items to a job, meant to run in the transaction of the chunk that processed them.
+     *
+     * @return whether the job has to stop: its cancellation was requested, or it was ended meanwhile, e.g. failed as
+     * stale
+     */
+    public boolean addJobProgress(String jobId, long processed) {
+        entityManager().createNamedQuery(QUERY_ADD_JOB_PROGRESS)
+                .setParameter(PARAM_ID, jobId)
+                .setParameter(PARAM_DELTA, processed)
+                .setParameter(PARAM_NOW, System.currentTimeMillis())
+                .executeUpdate();
+        return entityManager().createNamedQuery(QUERY_JOB_CANCEL_REQUESTED, Boolean.class)
+                .setParameter(PARAM_ID, jobId)
+                .getResultStream()
+                .findFirst()
+                .orElse(true);
+    }
+
+    /**
+     * Records the end of a job, unless it has already ended, e.g. because it was failed as stale.
+     */
+    public void finishJob(String jobId, InvitationJobStatus status, String result, String error) {
+        entityManager().createNamedQuery(QUERY_FINISH_JOB)
+                .setParameter(PARAM_ID, jobId)
+                .setParameter(PARAM_STATUS, status.name())
+                .setParameter(PARAM_RESULT, result)
+                .setParameter(PARAM_ERROR, error)
+                .setParameter(PARAM_NOW, System.currentTimeMillis())
+                .executeUpdate();
+    }
+
+    /**
+     * Cancels a queued job, or one whose node stopped refreshing it, right away, and asks the node running a running
+     * job to stop after its current chunk.
+     *
+     * @param staleCutoff jobs last refreshed before it are no longer run by any node
+     * @return the job after the request, empty if the realm has no such job
+     */
+    public Optional<InvitationJobView> cancelJob(String realmId, String jobId, long staleCutoff) {
+        validateRealmId(realmId);
+
+        int cancelled = entityManager().createNamedQuery(QUERY_CANCEL_QUEUED_JOB)
+                .setParameter(PARAM_ID, jobId)
+                .setParameter(PARAM_REALM, realmId)
+                .setParameter(PARAM_STATUS, InvitationJobStatus.CANCELLED.name())
+                .setParameter(PARAM_EXPECTED_STATUS, InvitationJobStatus.QUEUED.name())
+                .setParameter(PARAM_CUTOFF, staleCutoff)
+                .setParameter(PARAM_NOW, System.currentTimeMillis())
+                .executeUpdate();
+        if (cancelled == 0) {
+            entityManager().createNamedQuery(QUERY_REQUEST_JOB_CANCEL)
+                    .setParameter(PARAM_ID, jobId)
+                    .setParameter(PARAM_REALM, realmId)
+                    .setParameter(PARAM_EXPECTED_STATUS, InvitationJobStatus.RUNNING.name())
+                    .executeUpdate();
+        }
+        return findJob(realmId, jobId);
+    }
+
+    public Optional<InvitationJobView> findJob(String realmId, String jobId) {
+        validateRealmId(realmId);
+
+        return entityManager().createNamedQuery(QUERY_JOB, InvitationJobEntity.class)
+                .setParameter(PARAM_ID, jobId)
+                .setParameter(PARAM_REALM, realmId)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream()
+                .findFirst()
+                .map(InvitationJobView::of);
+    }
+
+    /**
+     * Jobs of the realm, newest first.
+     */
+    public List<InvitationJobView> findJobs(String realmId, int offset, int limit) {
+        validateRealmId(realmId);
+
+        return entityManager().createNamedQuery(QUERY_JOBS_BY_REALM, InvitationJobEntity.class)
+                .setParameter(PARAM_REALM, realmId)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .setHint(HINT_READ_ONLY, true)
+                .getResultStream()
+                .map(InvitationJobView::of)
+                .toList();
+    }
+
+    /**
+     * Refreshes the heartbeat of the unfinished jobs of a node.
+     */
+    public int touchJobs(String ownerNode) {
+        return entityManager().createNamedQuery(QUERY_TOUCH_JOBS)
+                .setParameter(PARAM_NODE, ownerNode)
+                .setParameter(PARAM_NOW, System.currentTimeMillis())
+                .executeUpdate();
+    }
+
+    /**
+     * Fails the unfinished jobs of all realms whose node has not refreshed them since the cutoff.
+     */
+    public int failStaleJobs(long cutoff, String error) {
+        return entityManager().createNamedQuery(QUERY_FAIL_STALE_JOBS)
+                .setParameter(PARAM_STATUS, InvitationJobStatus.FAILED.name())
+                .setParameter(PARAM_ERROR, error)
+                .setParameter(PARAM_CUTOFF, cutoff)
+                .setParameter(PARAM_NOW, System.currentTimeMillis())
+                .executeUpdate();
+    }
+
+    /**
+     * Deletes jobs of the realm that finished before the cutoff.
+     */
+    public int deleteFinishedJobs(String realmId, long cutoff) {
+        return entityManager().createNamedQuery(QUERY_DELETE_FINISHED_JOBS)
+                .setParameter(PARAM_REALM, realmId)
+                .setParameter(PARAM_CUTOFF, cutoff)
+                .executeUpdate();
+    }
+
+    /**
+     * Invitation totals of all realms that have any, read from the counter table.
+     */
+    public Map<String, Long> countAllByRealm() {
+        return entityManager()
+                .createQuery("SELECT c.realm, SUM(c.totalCount) FROM InvitationCounterEntity c GROUP BY c.realm", Object[].class)
+                .getResultStream()
+                .collect(Collectors.toMap(row -> (String) row[0], row -> (Long) row[1]));
+    }
+
     @Override
     public List<Class<?>> getEntities() {
-        return List.of(InvitationEntity.class);
+        return List.of(InvitationEntity.class, InvitationCounterEntity.class, InvitationUseStripeEntity.class,
+                InvitationEventEntity.class, InvitationWebhookDeadLetterEntity.class, InvitationEmailEntity.class,
+                InvitationJobEntity.class);
     }
 
     @Override
@@ -129,7 +841,7 @@ public class InvitationJpaProvider implements JpaEntityProvider, InvitationProvi
         try {
             var query = entityManager().createNamedQuery(queryName, InvitationEntity.class);
             configurator.configure(query);
-            return Optional.of(query.getSingleResult());
+            return Optional.of(metrics.timeQuery(queryName, query::getSingleResult));
         } catch (NoResultException e) {
             return Optional.empty();
         } catch (Exception e) {
@@ -138,23 +850,325 @@ public class InvitationJpaProvider implements JpaEntityProvider, InvitationProvi
         }
     }
 
-    private String generateToken() {
-        return UUID.randomUUID().toString();
+    /**
+     * The generator selected through the invitation-token-generator SPI, UUIDs if the session has none.
+     */
+    private InvitationTokenGenerator tokenGenerator() {
+        if (tokenGenerator == null) {
+            var configured = session.getProvider(InvitationTokenGenerator.class);
+            tokenGenerator = configured != null ? configured : new UuidTokenGenerator();
+        }
+        return tokenGenerator;
     }
 
-    private InvitationEntity buildInvitationEntity(String token, String realmId, int expirationSeconds) {
+    private InvitationEntity buildInvitationEntity(String realmId, int expirationSeconds) {
+        long expiresOn = Instant.now().plusSeconds(expirationSeconds).toEpochMilli();
         return new InvitationEntity(
-                UUID.randomUUID().toString(),
-                token,
+                ID_GENERATOR.generate(),
+                tokenGenerator().generate(realmId, expiresOn),
                 false,
                 realmId,
-                Instant.now().plusSeconds(expirationSeconds).toEpochMilli()
+                expiresOn
         );
     }
 
-    private InvitationEntity markAsUsed(InvitationEntity entity) {
-        entity.setUsed(true);
-        return entityManager().merge(entity);
+    /**
+     * Appends events for the invitations to the outbox in the caller's transaction, if the outbox is enabled.
+     */
+    private void recordEvents(InvitationEventType type, List<InvitationEntity> invitations) {
+        if (!eventOutboxEnabled || invitations.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        persistBatched(invitations.stream().map(invitation -> new InvitationEventEntity(ID_GENERATOR.generate(), type.name(),
+                invitation.getRealm(), invitation.getId(), eventToken(invitation.getToken()), now)), invitations.size());
+    }
+
+    private void recordEvent(InvitationEventType type, String realmId, String invitationId, String token) {
+        if (eventOutboxEnabled) {
+            entityManager().persist(new InvitationEventEntity(ID_GENERATOR.generate(), type.name(), realmId, invitationId,
+                    eventToken(token), System.currentTimeMillis()));
+        }
+    }
+
+    /**
+     * Invite codes are bearer credentials while unused, so events only carry them when configured to.
+     */
+    private String eventToken(String token) {
+        return eventTokensIncluded ? token : null;
+    }
+
+    /**
+     * Persists the entities with JDBC batching, flushing and detaching every {@value #BATCH_SIZE} of them.
+     */
+    private <T> List<T> persistBatched(Stream<T> entities, int expectedCount) {
+        var entityManager = entityManager();
+        var hibernateSession = entityManager.unwrap(Session.class);
+        var previousBatchSize = hibernateSession.getJdbcBatchSize();
+        hibernateSession.setJdbcBatchSize(BATCH_SIZE);
+
+        try {
+            var created = new ArrayList<T>(expectedCount);
+            var chunk = new ArrayList<T>(Math.min(expectedCount, BATCH_SIZE));
+
+            entities.forEach(entity -> {
+                entityManager.persist(entity);
+                chunk.add(entity);
+
+                if (chunk.size() == BATCH_SIZE) {
+                    flushAndDetach(entityManager, chunk, created);
+                }
+            });
+            flushAndDetach(entityManager, chunk, created);
+            return created;
+        } finally {
+            hibernateSession.setJdbcBatchSize(previousBatchSize);
+        }
+    }
+
+    /**
+     * Flushes the pending inserts as one JDBC batch and detaches only the entities of this chunk,
+     * so the persistence context stays small without clearing entities owned by the rest of the session.
+     */
+    private <T> void flushAndDetach(EntityManager entityManager, List<T> chunk, List<T> created) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        entityManager.flush();
+        chunk.forEach(entityManager::detach);
+        created.addAll(chunk);
+        chunk.clear();
+    }
+
+    /**
+     * Drops tokens from the near cache of this node right away, and again on every node once the transaction
+     * commits, so that a concurrent read of the not yet committed row cannot leave a stale entry behind.
+     */
+    private void invalidateCachedTokens(List<String> tokens) {
+        if (!validationCache.isEnabled()) {
+            return;
+        }
+
+        validationCache.invalidateAll(tokens);
+        afterCommit(() -> {
+            validationCache.invalidateAll(tokens);
+            notifyCluster(InvitationInvalidationEvent.EVENT_KEY, new InvitationInvalidationEvent(tokens));
+        });
+    }
+
+    /**
+     * Adds new tokens to the token filters of every node once they are committed and visible to a filter rebuild.
+     */
+    private void publishCreatedTokens(String realmId, List<String> tokens) {
+        if (!tokenFilters.isEnabled()) {
+            return;
+        }
+
+        afterCommit(() -> {
+            tokenFilters.add(realmId, tokens);
+            notifyCluster(InvitationTokensAddedEvent.EVENT_KEY, new InvitationTokensAddedEvent(realmId, tokens));
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        session.getTransactionManager().enlistAfterCompletion(new AbstractKeycloakTransaction() {
+            @Override
+            protected void commitImpl() {
+                action.run();
+            }
+
+            @Override
+            protected void rollbackImpl() {
+            }
+        });
+    }
+
+    private void notifyCluster(String eventKey, ClusterEvent event) {
+        var cluster = session.getProvider(ClusterProvider.class);
+        if (cluster != null) {
+            cluster.notify(eventKey, event, true, ClusterProvider.DCNotify.ALL_DCS);
+        }
+    }
+
+    /**
+     * Applies deltas to a random stripe of the realm counter in the caller's transaction, so concurrent changes of a
+     * realm rarely wait on each other's row lock until commit.
+     */
+    private void adjustCounter(String realmId, long totalDelta, long usedDelta) {
+        if (!COUNTER_STRIPES_READY.contains(realmId)) {
+            ensureCounterStripes(realmId);
+        }
+
+        int updated = entityManager().createNamedQuery(QUERY_ADJUST_COUNTER)
+                .setParameter(PARAM_TOTAL_DELTA, totalDelta)
+                .setParameter(PARAM_USED_DELTA, usedDelta)
+                .setParameter(PARAM_REALM, realmId)
+                .setParameter(PARAM_STRIPE, ThreadLocalRandom.current().nextInt(InvitationCounterEntity.STRIPES))
+                .executeUpdate();
+        if (updated == 0) {
+            COUNTER_STRIPES_READY.remove(realmId);
+            throw new IllegalStateException("Invitation counter of realm " + realmId + " is missing a stripe");
+        }
+    }
+
+    /**
+     * Makes sure all counter stripes of a realm exist before the caller's transaction touches them. Missing stripes
+     * are created in a transaction of its own: inserting them in the caller's transaction would let two transactions
+     * creating the first invitations of a realm both insert the same row, failing one of them. Here the loser of that
+     * race fails on its own, sees the winner's rows on the retry and leaves the caller's transaction unharmed. The
+     * check is a plain read, which takes no locks the seeding transaction would have to wait for.
+     */
+    private void ensureCounterStripes(String realmId) {
+        if (counterStripes(entityManager(), realmId).size() < InvitationCounterEntity.STRIPES) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    KeycloakModelUtils.runJobInTransaction(session.getKeycloakSessionFactory(), seedSession -> {
+                        var entityManager = seedSession.getProvider(JpaConnectionProvider.class).getEntityManager();
+                        var existing = counterStripes(entityManager, realmId);
+                        for (int stripe = 0; stripe < InvitationCounterEntity.STRIPES; stripe++) {
+                            if (!existing.contains(stripe)) {
+                                entityManager.persist(new InvitationCounterEntity(realmId, stripe, 0, 0));
+                            }
+                        }
+                    });
+                    break;
+                } catch (RuntimeException e) {
+                    if (attempt >= 2) {
+                        throw e;
+                    }
+                    log.debugf("Counter stripes of realm %s were created concurrently, checking again", realmId);
+                }
+            }
+        }
+        COUNTER_STRIPES_READY.add(realmId);
+    }
+
+    private static Set<Integer> counterStripes(EntityManager entityManager, String realmId) {
+        return new HashSet<>(entityManager.createNamedQuery(QUERY_COUNTER_STRIPES, Integer.class)
+                .setParameter(PARAM_REALM, realmId)
+                .getResultList());
+    }
+
+    /**
+     * Takes a use of a multi-use token, or explains why the single-use update matched no row. Reads scalar columns
+     * rather than the entity, so a copy already loaded into the persistence context during validation cannot mask
+     * the new state.
+     */
+    private RedemptionResult redeemMultiUseOrClassify(String token, String realmId, long now) {
+        var states = entityManager().createNamedQuery(QUERY_REDEMPTION_STATE, Object[].class)
+                .setParameter(PARAM_TOKEN, token)
+                .setParameter(PARAM_REALM, realmId)
+                .getResultList();
+
+        if (states.isEmpty()) {
+            return RedemptionResult.NOT_FOUND;
+        }
+        var state = states.get(0);
+        if (Boolean.TRUE.equals(state[2])) {
+            return RedemptionResult.ALREADY_USED;
+        }
+        if ((Integer) state[1] <= 1 || (state[3] != null && (Long) state[3] <= now)) {
+            return RedemptionResult.EXPIRED;
+        }
+        return takeStripedUse((String) state[0], (Integer) state[1], token, realmId);
+    }
+
+    /**
+     * Takes a use from a random stripe of the invitation, moving on to the next stripe while they are full.
+     * The invitation row itself is not written, so redemptions only contend when they pick the same stripe.
+     */
+    private RedemptionResult takeStripedUse(String invitationId, int maxUses, String token, String realmId) {
+        int stripes = InvitationUseStripeEntity.stripeCount(maxUses);
+        int first = ThreadLocalRandom.current().nextInt(stripes);
+        for (int i = 0; i < stripes; i++) {
+            int stripe = (first + i) % stripes;
+            int updated = metrics.timeQuery(QUERY_TAKE_USE, () -> entityManager().createNamedQuery(QUERY_TAKE_USE)
+                    .setParameter(PARAM_INVITATION_ID, invitationId)
+                    .setParameter(PARAM_STRIPE, stripe)
+                    .executeUpdate());
+            if (updated == 1) {
+                recordEvent(InvitationEventType.REDEEMED, realmId, invitationId, token);
+                return RedemptionResult.REDEEMED;
+            }
+        }
+
+        // The registration is rolled back on this outcome, so the invitation is marked used in a transaction of its own
+        KeycloakModelUtils.runJobInTransaction(session.getKeycloakSessionFactory(), exhaustSession ->
+                ((InvitationJpaProvider) exhaustSession.getProvider(JpaEntityProvider.class, getFactoryId()))
+                        .markExhausted(invitationId, token, realmId));
+        return RedemptionResult.ALREADY_USED;
+    }
+
+    /**
+     * Marks a multi-use invitation whose stripes are all full as used, so that validation rejects its token
+     * and listings report it as used.
+     */
+    void markExhausted(String invitationId, String token, String realmId) {
+        int updated = entityManager().createNamedQuery(QUERY_EXHAUST)
+                .setParameter(PARAM_ID, invitationId)
+                .setParameter(PARAM_NOW, System.currentTimeMillis())
+                .executeUpdate();
+        if (updated == 1) {
+            adjustCounter(realmId, 0, 1);
+            invalidateCachedTokens(List.of(token));
+        }
+    }
+
+    /**
+     * Creates a query of list items. Constructor expressions never create managed entities, and with the
+     * COMMIT flush mode running the query does not flush or dirty-check the persistence context either.
+     */
+    private TypedQuery<InvitationListItem> listQuery(String jpql) {
+        return entityManager().createQuery(jpql, InvitationListItem.class)
+                .setFlushMode(FlushModeType.COMMIT);
+    }
+
+    /**
+     * JPQL conditions for the non-null criteria of the filter, each answered by one of the realm-prefixed indexes.
+     */
+    private static String filterConditions(InvitationFilter filter) {
+        var conditions = new StringBuilder();
+        if (filter.status() != null) {
+            conditions.append(switch (filter.status()) {
+                case ACTIVE -> " AND i.used = false AND (i.expiresOn IS NULL OR i.expiresOn > :now)";
+                case USED -> " AND i.used = true";
+                case EXPIRED -> " AND i.used = false AND i.expiresOn <= :now";
+            });
+        }
+        appendRange(conditions, "i.createdOn", PARAM_CREATED_FROM, filter.createdFrom(), PARAM_CREATED_TO, filter.createdTo());
+        appendRange(conditions, "i.expiresOn", PARAM_EXPIRES_FROM, filter.expiresFrom(), PARAM_EXPIRES_TO, filter.expiresTo());
+        appendRange(conditions, "i.usedOn", PARAM_USED_FROM, filter.usedFrom(), PARAM_USED_TO, filter.usedTo());
+        return conditions.toString();
+    }
+
+    private static void appendRange(StringBuilder conditions, String path, String fromParam, Long from, String toParam, Long to) {
+        if (from != null) {
+            conditions.append(" AND ").append(path).append(" >= :").append(fromParam);
+        }
+        if (to != null) {
+            conditions.append(" AND ").append(path).append(" < :").append(toParam);
+        }
+    }
+
+    private static <T> TypedQuery<T> bindFilter(TypedQuery<T> query, String realmId, InvitationFilter filter) {
+        query.setParameter(PARAM_REALM, realmId);
+        if (filter.status() == InvitationStatus.ACTIVE || filter.status() == InvitationStatus.EXPIRED) {
+            query.setParameter(PARAM_NOW, System.currentTimeMillis());
+        }
+        setIfPresent(query, PARAM_CREATED_FROM, filter.createdFrom());
+        setIfPresent(query, PARAM_CREATED_TO, filter.createdTo());
+        setIfPresent(query, PARAM_EXPIRES_FROM, filter.expiresFrom());
+        setIfPresent(query, PARAM_EXPIRES_TO, filter.expiresTo());
+        setIfPresent(query, PARAM_USED_FROM, filter.usedFrom());
+        setIfPresent(query, PARAM_USED_TO, filter.usedTo());
+        return query;
+    }
+
+    private static void setIfPresent(TypedQuery<?> query, String name, Long value) {
+        if (value != null) {
+            query.setParameter(name, value);
+        }
     }
 
     private void validateToken(String token) {
@@ -175,6 +1189,24 @@ public class InvitationJpaProvider implements JpaEntityProvider, InvitationProvi
         }
     }
 
+    private void validateMaxUses(int maxUses) {
+        if (maxUses <= 0) {
+            throw new IllegalArgumentException("Max uses must be positive, got: " + maxUses);
+        }
+    }
+
+    private void validateCount(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Invitation count must be positive, got: " + count);
+        }
+    }
+
+    private void logBatchCreation(String realmId, int count, int expirationSeconds) {
+        if (log.isDebugEnabled()) {
+            log.debugf("Created %d invitations for realm: %s, expire in: %d seconds", (Object) count, realmId, expirationSeconds);
+        }
+    }
+
     private void logCreation(String realmId, int expirationSeconds) {
         if (log.isDebugEnabled()) {
             log.debugf("Created invitation for realm: %s, expires in: %d seconds", realmId, expirationSeconds);
@@ -16,42 +16,332 @@
  */
 package org.vlastolabs.keycloak.provider;
 
+import org.jboss.logging.Logger;
 import org.keycloak.Config;
+import org.keycloak.cluster.ClusterProvider;
 import org.keycloak.connections.jpa.entityprovider.JpaEntityProvider;
 import org.keycloak.connections.jpa.entityprovider.JpaEntityProviderFactory;
 import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.keycloak.models.utils.PostMigrationEvent;
+import org.keycloak.timer.TimerProvider;
+import org.vlastolabs.keycloak.cache.InvitationInvalidationEvent;
+import org.vlastolabs.keycloak.cache.InvitationTokenFilterRebuildEvent;
+import org.vlastolabs.keycloak.cache.InvitationTokensAddedEvent;
+import org.vlastolabs.keycloak.cache.InvitationValidationCache;
+import org.vlastolabs.keycloak.cache.RealmTokenFilters;
+import org.vlastolabs.keycloak.metrics.InvitationMetrics;
+import org.vlastolabs.keycloak.service.InvitationMailer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Factory for creating InvitationJpaProvider instances.
+ * Owns the node-local state shared by all providers, such as the validation near cache, the token filters, the metrics,
+ * the invitation mailer and the job runner, and schedules the background tasks: purge, token filter rebuilds and the event outbox relay.
  */
 public class InvitationJpaProviderFactory implements JpaEntityProviderFactory {
     public static final String PROVIDER_ID = "invitation-jpa-provider";
 
+    private static final Logger log = Logger.getLogger(InvitationJpaProviderFactory.class);
+    private static final int DEFAULT_CACHE_MAX_ENTRIES = 10000;
+    private static final int DEFAULT_CACHE_TTL_SECONDS = 60;
+    private static final long DEFAULT_FILTER_MIN_EXPECTED_INSERTIONS = 10000;
+    private static final double DEFAULT_FILTER_FALSE_POSITIVE_PROBABILITY = 0.01;
+    private static final int DEFAULT_FILTER_REBUILD_INTERVAL_SECONDS = 3600;
+    private static final String FILTER_REBUILD_TASK = "vlastolabs-invitation-token-filter-rebuild";
+    private static final int DEFAULT_PURGE_INTERVAL_SECONDS = 3600;
+    private static final int DEFAULT_PURGE_RETENTION_DAYS = 30;
+    private static final int DEFAULT_PURGE_CHUNK_SIZE = 500;
+    private static final int DEFAULT_ACTIVE_GAUGE_REFRESH_SECONDS = 60;
+    private static final String ACTIVE_GAUGE_REFRESH_TASK = "vlastolabs-invitation-active-gauge-refresh";
+    private static final String JOB_HEARTBEAT_TASK = "vlastolabs-invitation-job-heartbeat";
+    private static final int DEFAULT_EVENT_RELAY_INTERVAL_SECONDS = 5;
+    private static final int DEFAULT_EVENT_RELAY_BATCH_SIZE = 500;
+    private static final int DEFAULT_EMAIL_MAX_CONCURRENCY = 8;
+    private static final int DEFAULT_EMAIL_MAX_BATCHES = 16;
+    private static final int DEFAULT_EMAILS_PER_MINUTE = 600;
+    private static final int DEFAULT_EMAIL_BURST = 20;
+    private static final int DEFAULT_JOB_MAX_CONCURRENCY = 2;
+    private static final int DEFAULT_JOB_MAX_QUEUED = 16;
+    private static final int DEFAULT_JOB_CHUNK_SIZE = 500;
+    private static final int DEFAULT_JOB_RETENTION_DAYS = 7;
+    private static final int DEFAULT_JOB_HEARTBEAT_SECONDS = 30;
+    private static final int DEFAULT_JOB_STALE_SECONDS = 300;
+
+    private InvitationValidationCache validationCache = InvitationValidationCache.disabled();
+    private RealmTokenFilters tokenFilters = RealmTokenFilters.disabled();
+    private int filterRebuildIntervalSeconds = DEFAULT_FILTER_REBUILD_INTERVAL_SECONDS;
+    private final AtomicBoolean filterRebuildRunning = new AtomicBoolean();
+    private int purgeIntervalSeconds = DEFAULT_PURGE_INTERVAL_SECONDS;
+    private int purgeRetentionDays = DEFAULT_PURGE_RETENTION_DAYS;
+    private int purgeChunkSize = DEFAULT_PURGE_CHUNK_SIZE;
+    private InvitationMetrics metrics = InvitationMetrics.disabled();
+    private int activeGaugeRefreshSeconds = DEFAULT_ACTIVE_GAUGE_REFRESH_SECONDS;
+    private boolean eventOutboxEnabled;
+    private boolean eventTokensIncluded;
+    private int eventRelayIntervalSeconds = DEFAULT_EVENT_RELAY_INTERVAL_SECONDS;
+    private int eventRelayBatchSize = DEFAULT_EVENT_RELAY_BATCH_SIZE;
+    private InvitationMailer mailer;
+    private int jobMaxConcurrency = DEFAULT_JOB_MAX_CONCURRENCY;
+    private int jobMaxQueued = DEFAULT_JOB_MAX_QUEUED;
+    private int jobChunkSize = DEFAULT_JOB_CHUNK_SIZE;
+    private int jobRetentionDays = DEFAULT_JOB_RETENTION_DAYS;
+    private int jobHeartbeatSeconds = DEFAULT_JOB_HEARTBEAT_SECONDS;
+    private int jobStaleSeconds = DEFAULT_JOB_STALE_SECONDS;
+    private InvitationJobRunner jobRunner;
+    private KeycloakSessionFactory sessionFactory;
 
     @Override
     public JpaEntityProvider create(KeycloakSession keycloakSession) {
-        return new InvitationJpaProvider(keycloakSession);
+        return new InvitationJpaProvider(keycloakSession, validationCache, tokenFilters, metrics, eventOutboxEnabled,
+                eventTokensIncluded);
     }
 
     @Override
     public void init(Config.Scope scope) {
+        int maxEntries = scope.getInt("validationCacheMaxEntries", DEFAULT_CACHE_MAX_ENTRIES);
+        int ttlSeconds = scope.getInt("validationCacheTtlSeconds", DEFAULT_CACHE_TTL_SECONDS);
+        validationCache = new InvitationValidationCache(maxEntries, TimeUnit.SECONDS.toMillis(ttlSeconds));
+        log.debugf("Invitation validation cache: max entries %d, ttl %d seconds", maxEntries, ttlSeconds);
+
+        boolean filterEnabled = scope.getBoolean("tokenFilterEnabled", false);
+        long minExpected = scope.getLong("tokenFilterMinExpectedInsertions", DEFAULT_FILTER_MIN_EXPECTED_INSERTIONS);
+        double fpp = Double.parseDouble(scope.get("tokenFilterFalsePositiveProbability",
+                String.valueOf(DEFAULT_FILTER_FALSE_POSITIVE_PROBABILITY)));
+        filterRebuildIntervalSeconds = scope.getInt("tokenFilterRebuildIntervalSeconds", DEFAULT_FILTER_REBUILD_INTERVAL_SECONDS);
+        tokenFilters = new RealmTokenFilters(filterEnabled, minExpected, fpp);
+        log.debugf("Invitation token filter: enabled %s, false positive probability %s", filterEnabled, fpp);
+
+        purgeIntervalSeconds = scope.getInt("purgeIntervalSeconds", DEFAULT_PURGE_INTERVAL_SECONDS);
+        purgeRetentionDays = scope.getInt("purgeRetentionDays", DEFAULT_PURGE_RETENTION_DAYS);
+        purgeChunkSize = Math.max(1, scope.getInt("purgeChunkSize", DEFAULT_PURGE_CHUNK_SIZE));
+
+        boolean metricsEnabled = scope.getBoolean("metricsEnabled", true);
+        metrics = metricsEnabled ? InvitationMetrics.global() : InvitationMetrics.disabled();
+        activeGaugeRefreshSeconds = scope.getInt("metricsActiveRefreshIntervalSeconds", DEFAULT_ACTIVE_GAUGE_REFRESH_SECONDS);
+        log.debugf("Invitation metrics: enabled %s, active invitations refreshed every %d seconds",
+                metricsEnabled, activeGaugeRefreshSeconds);
+
+        eventOutboxEnabled = scope.getBoolean("eventOutboxEnabled", false);
+        eventTokensIncluded = scope.getBoolean("eventIncludeTokens", false);
+        eventRelayIntervalSeconds = scope.getInt("eventRelayIntervalSeconds", DEFAULT_EVENT_RELAY_INTERVAL_SECONDS);
+        eventRelayBatchSize = Math.max(1, scope.getInt("eventRelayBatchSize", DEFAULT_EVENT_RELAY_BATCH_SIZE));
+        log.debugf("Invitation event outbox: enabled %s, relayed every %d seconds", eventOutboxEnabled, eventRelayIntervalSeconds);
 
+        int emailMaxConcurrency = scope.getInt("emailMaxConcurrency", DEFAULT_EMAIL_MAX_CONCURRENCY);
+        int emailsPerMinute = scope.getInt("emailsPerMinute", DEFAULT_EMAILS_PER_MINUTE);
+        mailer = new InvitationMailer(emailMaxConcurrency, scope.getInt("emailMaxBatches", DEFAULT_EMAIL_MAX_BATCHES),
+                emailsPerMinute, scope.getInt("emailBurst", DEFAULT_EMAIL_BURST));
+        log.debugf("Invitation mailer: %d concurrent emails, %d emails per minute and realm", emailMaxConcurrency, emailsPerMinute);
+
+        jobMaxConcurrency = scope.getInt("jobMaxConcurrency", DEFAULT_JOB_MAX_CONCURRENCY);
+        jobMaxQueued = scope.getInt("jobMaxQueued", DEFAULT_JOB_MAX_QUEUED);
+        jobChunkSize = scope.getInt("jobChunkSize", DEFAULT_JOB_CHUNK_SIZE);
+        jobRetentionDays = scope.getInt("jobRetentionDays", DEFAULT_JOB_RETENTION_DAYS);
+        jobHeartbeatSeconds = scope.getInt("jobHeartbeatSeconds", DEFAULT_JOB_HEARTBEAT_SECONDS);
+        jobStaleSeconds = Math.max(jobHeartbeatSeconds * 3, scope.getInt("jobStaleSeconds", DEFAULT_JOB_STALE_SECONDS));
+        log.debugf("Invitation jobs: %d running and %d queued per node", jobMaxConcurrency, jobMaxQueued);
     }
 
     @Override
     public void postInit(KeycloakSessionFactory keycloakSessionFactory) {
-
+        this.sessionFactory = keycloakSessionFactory;
+        this.jobRunner = new InvitationJobRunner(keycloakSessionFactory, this::providerOf, jobMaxConcurrency, jobMaxQueued,
+                jobChunkSize, jobRetentionDays, jobStaleSeconds);
+        keycloakSessionFactory.register(event -> {
+            if (event instanceof PostMigrationEvent) {
+                KeycloakModelUtils.runJobInTransaction(keycloakSessionFactory, this::registerClusterListeners);
+                KeycloakModelUtils.runJobInTransaction(keycloakSessionFactory, this::schedulePurge);
+                KeycloakModelUtils.runJobInTransaction(keycloakSessionFactory, this::scheduleActiveGaugeRefresh);
+                KeycloakModelUtils.runJobInTransaction(keycloakSessionFactory, this::scheduleEventRelay);
+                KeycloakModelUtils.runJobInTransaction(keycloakSessionFactory, this::scheduleJobHeartbeat);
+                if (tokenFilters.isEnabled()) {
+                    KeycloakModelUtils.runJobInTransaction(keycloakSessionFactory, this::scheduleTokenFilterRebuild);
+                    rebuildTokenFiltersAsync();
+                }
+            }
+        });
     }
 
     @Override
     public void close() {
-
+        validationCache.clear();
+        if (mailer != null) {
+            mailer.close();
+        }
+        if (jobRunner != null) {
+            jobRunner.close();
+        }
     }
 
     @Override
     public String getId() {
         return PROVIDER_ID;
     }
-}
 
+    public InvitationValidationCache getValidationCache() {
+        return validationCache;
+    }
+
+    public RealmTokenFilters getTokenFilters() {
+        return tokenFilters;
+    }
+
+    public InvitationMetrics getMetrics() {
+        return metrics;
+    }
+
+    public InvitationMailer getMailer() {
+        return mailer;
+    }
+
+    public InvitationJobRunner getJobRunner() {
+        return jobRunner;
+    }
+
+    /**
+     * Rebuilds the token filters of this node from the database on a virtual thread.
+     *
+     * @return false if the filter is disabled or a rebuild is already running
+     */
+    public boolean rebuildTokenFiltersAsync() {
+        if (!tokenFilters.isEnabled() || !filterRebuildRunning.compareAndSet(false, true)) {
+            return false;
+        }
+
+        Thread.ofVirtual().name(FILTER_REBUILD_TASK).start(() -> {
+            try {
+                rebuildTokenFilters();
+            } catch (RuntimeException e) {
+                log.warn("Failed to rebuild invitation token filters, keeping the previous ones", e);
+            } finally {
+                filterRebuildRunning.set(false);
+            }
+        });
+        return true;
+    }
+
+    private void rebuildTokenFilters() {
+        long start = System.currentTimeMillis();
+        var filters = tokenFilters.startRebuild();
+        try {
+            // Realm totals are read after the rebuild started, so realms created meanwhile are covered as well
+            Map<String, Long> totals = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory,
+                    session -> providerOf(session).countAllByRealm());
+
+            totals.forEach((realmId, total) -> KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> {
+                try (var tokens = providerOf(session).streamTokens(realmId)) {
+                    tokenFilters.fill(filters, realmId, total, tokens);
+                }
+            }));
+            tokenFilters.completeRebuild(filters);
+            log.debugf("Rebuilt invitation token filters of %d realms in %d ms",
+                    (Object) totals.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            tokenFilters.abortRebuild(filters);
+            throw e;
+        }
+    }
+
+    private InvitationJpaProvider providerOf(KeycloakSession session) {
+        return new InvitationJpaProvider(session, validationCache, tokenFilters, metrics, eventOutboxEnabled, eventTokensIncluded);
+    }
+
+    private void schedulePurge(KeycloakSession session) {
+        var timer = session.getProvider(TimerProvider.class);
+        if (timer == null || purgeIntervalSeconds <= 0) {
+            return;
+        }
+
+        var task = new InvitationPurgeTask(sessionFactory, this::providerOf, purgeRetentionDays, purgeChunkSize,
+                purgeIntervalSeconds);
+        timer.schedule(task::runAsync, TimeUnit.SECONDS.toMillis(purgeIntervalSeconds), InvitationPurgeTask.TASK_NAME);
+    }
+
+    /**
+     * The relay runs on every node that has the outbox enabled; the cluster-wide task lock lets one at a time deliver.
+     */
+    private void scheduleEventRelay(KeycloakSession session) {
+        var timer = session.getProvider(TimerProvider.class);
+        if (timer == null || !eventOutboxEnabled || eventRelayIntervalSeconds <= 0) {
+            return;
+        }
+
+        var relay = new InvitationEventRelay(sessionFactory, this::providerOf, eventRelayBatchSize, eventRelayIntervalSeconds);
+        timer.schedule(relay::runAsync, TimeUnit.SECONDS.toMillis(eventRelayIntervalSeconds), InvitationEventRelay.TASK_NAME);
+    }
+
+    /**
+     * Every node refreshes its own jobs and fails stale ones, starting right away so jobs left behind by nodes that
+     * stopped meanwhile are failed on startup.
+     */
+    private void scheduleJobHeartbeat(KeycloakSession session) {
+        var timer = session.getProvider(TimerProvider.class);
+        if (timer == null || jobHeartbeatSeconds <= 0) {
+            return;
+        }
+
+        jobRunner.heartbeat();
+        timer.schedule(jobRunner::heartbeat, TimeUnit.SECONDS.toMillis(jobHeartbeatSeconds), JOB_HEARTBEAT_TASK);
+    }
+
+    /**
+     * Every node refreshes its own active invitation gauges, so each scrape target reports the realms it serves.
+     */
+    private void scheduleActiveGaugeRefresh(KeycloakSession session) {
+        var timer = session.getProvider(TimerProvider.class);
+        if (timer == null || activeGaugeRefreshSeconds <= 0) {
+            return;
+        }
+
+        timer.scheduleTask(this::refreshActiveGauges, TimeUnit.SECONDS.toMillis(activeGaugeRefreshSeconds),
+                ACTIVE_GAUGE_REFRESH_TASK);
+    }
+
+    private void refreshActiveGauges(KeycloakSession session) {
+        var activeCounts = new HashMap<String, Long>();
+        providerOf(session).countActiveByRealm().forEach((realmId, count) -> {
+            var realm = session.realms().getRealm(realmId);
+            if (realm != null) {
+                activeCounts.put(realm.getName(), count);
+            }
+        });
+        metrics.updateActiveInvitations(activeCounts);
+    }
+
+    private void scheduleTokenFilterRebuild(KeycloakSession session) {
+        var timer = session.getProvider(TimerProvider.class);
+        if (timer == null || filterRebuildIntervalSeconds <= 0) {
+            return;
+        }
+
+        // The timer thread is shared by all scheduled tasks, the rebuild itself runs on its own thread
+        timer.schedule(this::rebuildTokenFiltersAsync,
+                TimeUnit.SECONDS.toMillis(filterRebuildIntervalSeconds), FILTER_REBUILD_TASK);
+    }
+
+    private void registerClusterListeners(KeycloakSession session) {
+        var cluster = session.getProvider(ClusterProvider.class);
+        if (cluster == null) {
+            log.warn("No ClusterProvider available, invitation cache invalidations stay node-local");
+            return;
+        }
+
+        cluster.registerListener(InvitationInvalidationEvent.EVENT_KEY, event -> {
+            if (event instanceof InvitationInvalidationEvent invalidation) {
+                validationCache.invalidateAll(invalidation.getTokens());
+            }
+        });
+        cluster.registerListener(InvitationTokensAddedEvent.EVENT_KEY, event -> {
+            if (event instanceof InvitationTokensAddedEvent added) {
+                tokenFilters.add(added.getRealmId(), added.getTokens());
+            }
+        });
+        cluster.registerListener(InvitationTokenFilterRebuildEvent.EVENT_KEY, event -> rebuildTokenFiltersAsync());
+    }
+}
\ No newline at end of file
@@ -17,9 +17,17 @@
 package org.vlastolabs.keycloak.provider;
 
 import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.model.InvitationCursor;
+import org.vlastolabs.keycloak.model.InvitationFilter;
+import org.vlastolabs.keycloak.model.InvitationImportRow;
+import org.vlastolabs.keycloak.model.InvitationListItem;
+import org.vlastolabs.keycloak.model.InvitationSort;
+import org.vlastolabs.keycloak.model.InvitationValidationView;
+import org.vlastolabs.keycloak.model.RedemptionResult;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interface for invitation provider operations to enable easier testing.
@@ -29,11 +37,84 @@ public interface InvitationProvider {
 
     Optional<InvitationEntity> findByTokenAndRealm(String token, String realm);
 
+    /**
+     * Projects only the columns needed to validate a token of the realm, without loading the entity.
+     */
+    Optional<InvitationValidationView> findValidationView(String token, String realm);
+
     String createInvitation(String realm, int expirationSeconds);
 
-    boolean markAsUsed(String token, String realm);
+    /**
+     * Creates an invitation admitting up to {@code maxUses} registrations.
+     */
+    String createInvitation(String realm, int expirationSeconds, int maxUses);
+
+    /**
+     * Creates {@code count} invitations for the realm using JDBC batching.
+     * Returned entities are detached and reflect exactly what was persisted.
+     */
+    List<InvitationEntity> createInvitations(String realm, int count, int expirationSeconds);
+
+    /**
+     * Inserts pre-generated invitations into the realm with JDBC batching, in the caller's transaction.
+     * Rows whose token already exists in any realm are skipped rather than violating the unique constraint.
+     *
+     * @return the tokens that were skipped because they already exist
+     */
+    List<String> importInvitations(String realm, List<InvitationImportRow> rows);
+
+    /**
+     * Atomically takes one use of an unexpired token with a conditional update, so concurrent registrations can
+     * never redeem a token more often than its maximum number of uses.
+     */
+    RedemptionResult markAsUsed(String token, String realm);
+
+    List<InvitationListItem> findAll(int offset, int limit);
+
+    List<InvitationListItem> findAllByRealm(String realm, int offset, int limit);
+
+    /**
+     * Offset page of the realm's invitations matching the filter, in the given order.
+     */
+    List<InvitationListItem> findAllByRealm(String realm, InvitationFilter filter, InvitationSort sort, int offset, int limit);
 
-    List<InvitationEntity> findAll(int offset, int limit);
+    /**
+     * Keyset page of the realm's invitations in (createdOn DESC, id DESC) order starting strictly after the cursor,
+     * or from the newest invitation when the cursor is null.
+     */
+    List<InvitationListItem> findAfter(String realm, InvitationCursor after, int limit);
+
+    /**
+     * Like {@link #findAfter(String, InvitationCursor, int)}, restricted to invitations matching the filter.
+     */
+    List<InvitationListItem> findAfter(String realm, InvitationFilter filter, InvitationCursor after, int limit);
+
+    /**
+     * Keyset page of the realm's invitations directly preceding the cursor, returned in (createdOn DESC, id DESC) order.
+     */
+    List<InvitationListItem> findBefore(String realm, InvitationCursor before, int limit);
+
+    /**
+     * Like {@link #findBefore(String, InvitationCursor, int)}, restricted to invitations matching the filter.
+     */
+    List<InvitationListItem> findBefore(String realm, InvitationFilter filter, InvitationCursor before, int limit);
+
+    /**
+     * Streams all invitations of the realm in (createdOn DESC, id DESC) order as unmanaged rows, fetched from the
+     * database in batches. The stream must be closed by the caller.
+     */
+    Stream<InvitationListItem> streamByRealm(String realm);
 
     long countAll();
+
+    long countByRealm(String realm);
+
+    long countByRealm(String realm, InvitationFilter filter);
+
+    /**
+     * Deletes up to {@code limit} invitations of the realm that expired, or were redeemed, before the cutoff, in the caller's transaction.
+     *
+     * @return number of deleted invitations
+     */
+    int purgeInvitations(String realm, long cutoff, int limit);
 }
\ No newline at end of file
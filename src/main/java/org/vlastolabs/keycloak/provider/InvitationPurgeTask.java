@@ -0,0 +1,136 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.provider;
+
+import org.jboss.logging.Logger;
+import org.keycloak.cluster.ClusterProvider;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.utils.KeycloakModelUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Deletes expired and redeemed invitations once they are older than the retention of their realm.
+ * <p>
+ * A run holds the cluster-wide task lock, so only one node purges at a time. Every chunk is deleted in its own
+ * short transaction, which keeps row locks brief and lets concurrent registrations proceed.
+ */
+public class InvitationPurgeTask {
+    public static final String TASK_NAME = "vlastolabs-invitation-purge";
+    public static final String RETENTION_DAYS_ATTRIBUTE = "invitationRetentionDays";
+
+    private static final Logger log = Logger.getLogger(InvitationPurgeTask.class);
+
+    private final KeycloakSessionFactory sessionFactory;
+    private final Function<KeycloakSession, InvitationProvider> providers;
+    private final int defaultRetentionDays;
+    private final int chunkSize;
+    private final int lockTimeoutSeconds;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public InvitationPurgeTask(KeycloakSessionFactory sessionFactory, Function<KeycloakSession, InvitationProvider> providers,
+                               int defaultRetentionDays, int chunkSize, int lockTimeoutSeconds) {
+        this.sessionFactory = sessionFactory;
+        this.providers = providers;
+        this.defaultRetentionDays = defaultRetentionDays;
+        this.chunkSize = chunkSize;
+        this.lockTimeoutSeconds = lockTimeoutSeconds;
+    }
+
+    /**
+     * Starts a run on a virtual thread, so the shared timer thread is never blocked by the purge.
+     *
+     * @return false if a run is already in progress on this node
+     */
+    public boolean runAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+
+        Thread.ofVirtual().name(TASK_NAME).start(() -> {
+            try {
+                run();
+            } catch (RuntimeException e) {
+                log.warn("Invitation purge failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * Purges all realms unless another node currently holds the task lock.
+     */
+    public void run() {
+        KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> {
+            var cluster = session.getProvider(ClusterProvider.class);
+            if (cluster == null) {
+                purgeAllRealms();
+                return;
+            }
+
+            var result = cluster.executeIfNotExecuted(TASK_NAME, lockTimeoutSeconds, () -> {
+                purgeAllRealms();
+                return null;
+            });
+            if (!result.isExecuted()) {
+                log.debug("Invitation purge skipped, another node is running it");
+            }
+        });
+    }
+
+    private void purgeAllRealms() {
+        long now = System.currentTimeMillis();
+        Map<String, Integer> retentionDays = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory,
+                session -> session.realms().getRealmsStream()
+                        .collect(Collectors.toMap(RealmModel::getId, this::retentionDaysOf)));
+
+        retentionDays.forEach((realmId, days) -> {
+            if (days >= 0) {
+                purgeRealm(realmId, now - TimeUnit.DAYS.toMillis(days));
+            }
+        });
+    }
+
+    private void purgeRealm(String realmId, long cutoff) {
+        long total = 0;
+        int deleted;
+        do {
+            deleted = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory,
+                    session -> providers.apply(session).purgeInvitations(realmId, cutoff, chunkSize));
+            total += deleted;
+        } while (deleted == chunkSize);
+
+        if (total > 0) {
+            log.infof("Purged %d invitations of realm %s", total, realmId);
+        }
+    }
+
+    /**
+     * Retention of a realm in days, overridable through a realm attribute. A negative value disables the purge.
+     */
+    private int retentionDaysOf(RealmModel realm) {
+        return realm.getAttribute(RETENTION_DAYS_ATTRIBUTE, defaultRetentionDays);
+    }
+}
\ No newline at end of file
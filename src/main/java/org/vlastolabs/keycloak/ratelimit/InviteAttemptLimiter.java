@@ -0,0 +1,150 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.ratelimit;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-local token buckets limiting registration attempts per key, such as a client address.
+ * <p>
+ * A bucket is a single {@link AtomicLong} holding the time at which it will be full again (the theoretical arrival
+ * time of the generic cell rate algorithm), so taking a token is one compare-and-set and never blocks. Buckets are
+ * spread over {@value #STRIPES} independently bounded maps. A bucket that has refilled completely behaves exactly like
+ * a missing one, so a stripe that outgrows its share first drops those; only if that is not enough are arbitrary
+ * buckets dropped, which can only let an attempt through, never reject one.
+ */
+public class InviteAttemptLimiter {
+    private static final int STRIPES = 16;
+    private static final int SWEEP_TARGET_PERCENT = 90;
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder rejected = new LongAdder();
+    private final int maxEntriesPerStripe;
+
+    public InviteAttemptLimiter(int maxEntries) {
+        if (maxEntries < 0) {
+            throw new IllegalArgumentException("Max entries cannot be negative, got: " + maxEntries);
+        }
+        this.maxEntriesPerStripe = maxEntries == 0 ? 0 : Math.max(1, maxEntries / STRIPES);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * A limiter that lets every attempt through, used when rate limiting is turned off.
+     */
+    public static InviteAttemptLimiter disabled() {
+        return new InviteAttemptLimiter(0);
+    }
+
+    public boolean isEnabled() {
+        return maxEntriesPerStripe > 0;
+    }
+
+    /**
+     * Takes a token from the bucket of a key.
+     *
+     * @param attemptsPerMinute rate at which the bucket refills, 0 or less lets every attempt through
+     * @param burst             capacity of the bucket, i.e. attempts allowed at once after a quiet period
+     * @return false if the bucket is empty and the attempt must be rejected
+     */
+    public boolean tryAcquire(String key, int attemptsPerMinute, int burst) {
+        return tryAcquire(key, attemptsPerMinute, burst, System.nanoTime());
+    }
+
+    boolean tryAcquire(String key, int attemptsPerMinute, int burst, long nowNanos) {
+        if (!isEnabled() || attemptsPerMinute <= 0) {
+            return true;
+        }
+
+        long interval = NANOS_PER_MINUTE / attemptsPerMinute;
+        long tolerance = interval * Math.max(1, burst);
+        var stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        var bucket = stripe.bucket(key, nowNanos);
+
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - nowNanos > 0 ? fullAt : nowNanos) + interval;
+            if (next - nowNanos > tolerance) {
+                rejected.increment();
+                return false;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (var stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+        private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicBoolean sweeping = new AtomicBoolean();
+
+        AtomicLong bucket(String key, long nowNanos) {
+            var bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+
+            // Sweep before inserting, a new bucket is full and would otherwise be the first to go
+            if (buckets.size() >= maxEntriesPerStripe) {
+                sweep(nowNanos);
+            }
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(nowNanos));
+        }
+
+        private void sweep(long nowNanos) {
+            if (!sweeping.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                buckets.values().removeIf(bucket -> bucket.get() - nowNanos <= 0);
+
+                long target = (long) maxEntriesPerStripe * SWEEP_TARGET_PERCENT / 100;
+                var iterator = buckets.keySet().iterator();
+                while (buckets.size() > target && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+}
@@ -17,29 +17,66 @@
 package org.vlastolabs.keycloak.resource;
 
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
+import org.keycloak.cluster.ClusterProvider;
+import org.keycloak.connections.jpa.entityprovider.JpaEntityProvider;
 import org.keycloak.models.AdminRoles;
 import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.RealmModel;
+import org.keycloak.models.utils.KeycloakModelUtils;
 import org.keycloak.services.resources.admin.permissions.AdminPermissionEvaluator;
+import org.vlastolabs.keycloak.cache.InvitationTokenFilterRebuildEvent;
+import org.vlastolabs.keycloak.model.InvitationDataFormat;
+import org.vlastolabs.keycloak.model.InvitationEmailStatus;
+import org.vlastolabs.keycloak.model.InvitationFilter;
+import org.vlastolabs.keycloak.model.InvitationJobRequest;
+import org.vlastolabs.keycloak.model.InvitationJobType;
+import org.vlastolabs.keycloak.model.InvitationSort;
+import org.vlastolabs.keycloak.model.InvitationStatus;
+import org.vlastolabs.keycloak.model.InviteBatchRequest;
+import org.vlastolabs.keycloak.model.InviteEmailRequest;
 import org.vlastolabs.keycloak.model.InviteGenerationResponse;
 import org.vlastolabs.keycloak.model.InviteRequest;
 import org.vlastolabs.keycloak.model.PaginatedInvitationResponse;
+import org.vlastolabs.keycloak.provider.InvitationJpaProvider;
+import org.vlastolabs.keycloak.provider.InvitationJpaProviderFactory;
+import org.vlastolabs.keycloak.provider.InvitationProvider;
+import org.vlastolabs.keycloak.service.InvitationEmailService;
+import org.vlastolabs.keycloak.service.InvitationImporter;
 import org.vlastolabs.keycloak.service.InvitationService;
+import org.vlastolabs.keycloak.token.InvitationTokenGenerator;
+import org.vlastolabs.keycloak.token.UuidTokenGenerator;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 public class InvitationResource {
 
     private static final int DEFAULT_PAGE = 0;
     private static final int DEFAULT_PAGE_SIZE = 20;
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 10000;
+    private static final int MAX_USES = 1_000_000;
+    private static final int MAX_EMAIL_BATCH_SIZE = 1000;
+    private static final int MAX_JOB_COUNT = 1_000_000;
 
     private final KeycloakSession session;
     private final RealmModel realmModel;
@@ -66,12 +103,19 @@ public class InvitationResource {
             return Response.status(Response.Status.FORBIDDEN).build();
         }
 
+        int maxUses = Optional.ofNullable(request)
+                .map(InviteRequest::getMaxUses)
+                .orElse(1);
+        if (maxUses < 1 || maxUses > MAX_USES) {
+            return badRequestResponse("maxUses must be between 1 and " + MAX_USES);
+        }
+
         try {
-            var response = Optional.ofNullable(request)
+            int expirationSeconds = Optional.ofNullable(request)
                     .map(InviteRequest::getExpirationTime)
                     .filter(expTime -> expTime > 0)
-                    .map(expTime -> invitationService.generateInvite(realmModel, expTime))
-                    .orElseGet(() -> invitationService.generateInvite(realmModel));
+                    .orElse(InvitationService.DEFAULT_EXPIRATION_SECONDS);
+            var response = invitationService.generateInvite(realmModel, expirationSeconds, maxUses);
 
             return Response.ok(response).build();
         } catch (Exception e) {
@@ -79,29 +123,498 @@ public class InvitationResource {
         }
     }
 
+    @POST
+    @Path("generate/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response generateInvites(InviteBatchRequest request) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        var count = Optional.ofNullable(request)
+                .map(InviteBatchRequest::getCount)
+                .filter(c -> c > 0 && c <= MAX_BATCH_SIZE);
+        if (count.isEmpty()) {
+            return badRequestResponse("count must be between 1 and " + MAX_BATCH_SIZE);
+        }
+
+        try {
+            var response = Optional.of(request)
+                    .map(InviteBatchRequest::getExpirationTime)
+                    .filter(expTime -> expTime > 0)
+                    .map(expTime -> invitationService.generateInvites(realmModel, count.get(), expTime))
+                    .orElseGet(() -> invitationService.generateInvites(realmModel, count.get()));
+
+            return Response.ok(response).build();
+        } catch (Exception e) {
+            return errorResponse("Failed to generate invitation tokens: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Creates an invitation for each address and emails it through the realm's SMTP server. Emails are sent in the
+     * background at the realm's send rate; the response carries the batch with every recipient pending, and its URL
+     * in {@code invites/email} reports the delivery status as the emails go out.
+     */
+    @POST
+    @Path("email")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response emailInvites(InviteEmailRequest request) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        var emails = Optional.ofNullable(request)
+                .map(InviteEmailRequest::getEmails)
+                .filter(list -> !list.isEmpty() && list.size() <= MAX_EMAIL_BATCH_SIZE);
+        if (emails.isEmpty()) {
+            return badRequestResponse("emails must contain between 1 and " + MAX_EMAIL_BATCH_SIZE + " addresses");
+        }
+        if (request.getRegistrationUrl() != null && !isHttpUrl(request.getRegistrationUrl())) {
+            return badRequestResponse("registrationUrl must be an absolute http or https URL");
+        }
+        if (!InvitationEmailService.canSend(realmModel)) {
+            return badRequestResponse("The realm has no SMTP server configured");
+        }
+
+        try {
+            var recipients = InvitationEmailService.normalizeRecipients(emails.get());
+            int expirationSeconds = Optional.ofNullable(request.getExpirationTime())
+                    .filter(expTime -> expTime > 0)
+                    .orElse(InvitationService.DEFAULT_EXPIRATION_SECONDS);
+            var response = new InvitationEmailService(session, providerFactory().getMailer())
+                    .sendInvites(realmModel, recipients, expirationSeconds, request.getRegistrationUrl());
+
+            return Response.accepted(response)
+                    .location(emailBatchLocation(response.getBatchId()))
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e.getMessage());
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailableResponse(e.getMessage());
+        } catch (Exception e) {
+            return errorResponse("Failed to email invitations: " + e.getMessage());
+        }
+    }
+
+    @GET
+    @Path("email")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getEmailedInvites(@QueryParam("page") Integer page,
+                                      @QueryParam("size") Integer size,
+                                      @QueryParam("batch") String batch,
+                                      @QueryParam("status") String status) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        try {
+            var pageSize = normalizePageSize(size);
+            var provider = (InvitationJpaProvider) session.getProvider(JpaEntityProvider.class, InvitationJpaProviderFactory.PROVIDER_ID);
+            var deliveries = provider.findEmailDeliveries(realmModel.getId(), batch, InvitationEmailStatus.fromParam(status),
+                    normalizePageNumber(page) * pageSize, pageSize);
+
+            return Response.ok(deliveries).build();
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            return errorResponse("Failed to retrieve emailed invitations: " + e.getMessage());
+        }
+    }
+
     @GET
     @Path("")
     @Produces(MediaType.APPLICATION_JSON)
-    public Response getAllInvites(@QueryParam("page") Integer page, @QueryParam("size") Integer size) {
+    public Response getAllInvites(@QueryParam("page") Integer page,
+                                  @QueryParam("size") Integer size,
+                                  @QueryParam("after") String after,
+                                  @QueryParam("before") String before,
+                                  @QueryParam("includeTotal") @DefaultValue("true") boolean includeTotal,
+                                  @QueryParam("status") String status,
+                                  @QueryParam("createdFrom") Long createdFrom,
+                                  @QueryParam("createdTo") Long createdTo,
+                                  @QueryParam("expiresFrom") Long expiresFrom,
+                                  @QueryParam("expiresTo") Long expiresTo,
+                                  @QueryParam("usedFrom") Long usedFrom,
+                                  @QueryParam("usedTo") Long usedTo,
+                                  @QueryParam("sort") String sort,
+                                  @QueryParam("order") String order) {
         if (!isAdmin()) {
             return Response.status(Response.Status.FORBIDDEN).build();
         }
 
         try {
-            var pageNum = normalizePageNumber(page);
             var pageSize = normalizePageSize(size);
-            var response = invitationService.getAllInvitationsPaginated(pageNum, pageSize);
+            var filter = new InvitationFilter(InvitationStatus.fromParam(status),
+                    createdFrom, createdTo, expiresFrom, expiresTo, usedFrom, usedTo);
+            var invitationSort = InvitationSort.of(sort, order);
+            var response = after != null || before != null
+                    ? invitationService.getInvitationsByCursor(realmModel.getId(), after, before, pageSize, includeTotal,
+                            filter, invitationSort)
+                    : invitationService.getAllInvitationsPaginated(realmModel.getId(), normalizePageNumber(page), pageSize,
+                            includeTotal, filter, invitationSort);
 
             return Response.ok(response).build();
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e.getMessage());
         } catch (Exception e) {
             return errorResponse("Failed to retrieve invitations: " + e.getMessage());
         }
     }
 
+    /**
+     * Streams every invitation of the realm as NDJSON or CSV. Rows are written while they are read, in a
+     * transaction of their own that lives as long as the response body is being written.
+     */
+    @GET
+    @Path("export")
+    @Produces({"application/x-ndjson", "text/csv"})
+    public Response exportInvites(@QueryParam("format") String format) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        InvitationDataFormat exportFormat;
+        try {
+            exportFormat = InvitationDataFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e.getMessage());
+        }
+
+        var sessionFactory = session.getKeycloakSessionFactory();
+        var realmId = realmModel.getId();
+        StreamingOutput body = output -> {
+            try {
+                KeycloakModelUtils.runJobInTransaction(sessionFactory, exportSession -> {
+                    try {
+                        new InvitationService(exportSession).exportInvitations(realmId, exportFormat, output);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+
+        return Response.ok(body, exportFormat.getMediaType())
+                .header("Content-Disposition", "attachment; filename=\"invitations-%s.%s\""
+                        .formatted(realmModel.getName(), exportFormat.getFileExtension()))
+                .build();
+    }
+
+    /**
+     * Imports pre-generated invitations from an NDJSON or CSV body of (token, expiresOn, used) rows.
+     * The body is read incrementally and stored in chunks that commit independently, so a failed import
+     * keeps the chunks stored before the failure.
+     */
+    @POST
+    @Path("import")
+    @Consumes({"application/x-ndjson", "text/csv"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response importInvites(@QueryParam("format") String format,
+                                  @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+                                  InputStream body) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        InvitationDataFormat importFormat;
+        try {
+            importFormat = format == null && contentType != null && contentType.startsWith(InvitationDataFormat.CSV.getMediaType())
+                    ? InvitationDataFormat.CSV
+                    : InvitationDataFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e.getMessage());
+        }
+
+        var sessionFactory = session.getKeycloakSessionFactory();
+        var realmId = realmModel.getId();
+        var importer = new InvitationImporter(tokenGenerator(), rows -> KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory,
+                importSession -> ((InvitationProvider) importSession.getProvider(JpaEntityProvider.class,
+                        InvitationJpaProviderFactory.PROVIDER_ID)).importInvitations(realmId, rows)));
+
+        try {
+            return Response.ok(importer.importFrom(realmId, importFormat, body)).build();
+        } catch (IOException e) {
+            return badRequestResponse("Failed to read import body: " + e.getMessage());
+        } catch (Exception e) {
+            return errorResponse("Failed to import invitations: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Submits a generate, revoke or purge job and returns right away. The job runs in the background on this node;
+     * its status and progress can be polled from any node.
+     */
+    @POST
+    @Path("jobs")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response submitJob(InvitationJobRequest request) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+        if (request == null) {
+            return badRequestResponse("A job request body is required");
+        }
+
+        InvitationJobType type;
+        try {
+            type = InvitationJobType.fromParam(request.getType());
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e.getMessage());
+        }
+        switch (type) {
+            case IMPORT -> {
+                return badRequestResponse("Import jobs are submitted to jobs/import with the import body");
+            }
+            case GENERATE -> {
+                if (request.getCount() == null || request.getCount() < 1 || request.getCount() > MAX_JOB_COUNT) {
+                    return badRequestResponse("count must be between 1 and " + MAX_JOB_COUNT);
+                }
+            }
+            case PURGE -> {
+                if (request.getRetentionDays() != null && request.getRetentionDays() < 0) {
+                    return badRequestResponse("retentionDays cannot be negative");
+                }
+            }
+            default -> {
+            }
+        }
+
+        try {
+            var job = providerFactory().getJobRunner().submit(realmModel.getId(), type, request);
+
+            return Response.accepted(job)
+                    .location(jobLocation(job.id()))
+                    .build();
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailableResponse(e.getMessage());
+        } catch (Exception e) {
+            return errorResponse("Failed to submit invitation job: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Submits an import of an NDJSON or CSV body as a job. The body is spooled to a temporary file on this node
+     * before the response is sent, so the client does not have to stay connected while it is imported.
+     */
+    @POST
+    @Path("jobs/import")
+    @Consumes({"application/x-ndjson", "text/csv"})
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response submitImportJob(@QueryParam("format") String format,
+                                    @HeaderParam(HttpHeaders.CONTENT_TYPE) String contentType,
+                                    InputStream body) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        InvitationDataFormat importFormat;
+        try {
+            importFormat = format == null && contentType != null && contentType.startsWith(InvitationDataFormat.CSV.getMediaType())
+                    ? InvitationDataFormat.CSV
+                    : InvitationDataFormat.fromParam(format);
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e.getMessage());
+        }
+
+        java.nio.file.Path spooled;
+        try {
+            spooled = Files.createTempFile("vlastolabs-invitation-import-", "." + importFormat.getFileExtension());
+        } catch (IOException e) {
+            return errorResponse("Failed to spool import body: " + e.getMessage());
+        }
+        try {
+            Files.copy(body, spooled, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            deleteQuietly(spooled);
+            return badRequestResponse("Failed to read import body: " + e.getMessage());
+        }
+
+        try {
+            // The runner owns the file from here on and deletes it, also when it rejects the job
+            var job = providerFactory().getJobRunner().submitImport(realmModel.getId(), importFormat, spooled,
+                    tokenGenerator());
+
+            return Response.accepted(job)
+                    .location(jobLocation(job.id()))
+                    .build();
+        } catch (RejectedExecutionException e) {
+            return serviceUnavailableResponse(e.getMessage());
+        } catch (Exception e) {
+            return errorResponse("Failed to submit invitation import job: " + e.getMessage());
+        }
+    }
+
+    @GET
+    @Path("jobs")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getJobs(@QueryParam("page") Integer page,
+                            @QueryParam("size") Integer size) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        try {
+            var pageSize = normalizePageSize(size);
+            var jobs = jpaProvider().findJobs(realmModel.getId(), normalizePageNumber(page) * pageSize, pageSize);
+
+            return Response.ok(jobs).build();
+        } catch (Exception e) {
+            return errorResponse("Failed to retrieve invitation jobs: " + e.getMessage());
+        }
+    }
+
+    @GET
+    @Path("jobs/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getJob(@PathParam("id") String id) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        try {
+            return jpaProvider().findJob(realmModel.getId(), id)
+                    .map(job -> Response.ok(job).build())
+                    .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build());
+        } catch (Exception e) {
+            return errorResponse("Failed to retrieve invitation job: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cancels a job. A queued job, or one whose node stopped running it, is cancelled right away; a running one stops
+     * after the chunk it is working on, keeping the chunks committed so far.
+     */
+    @DELETE
+    @Path("jobs/{id}")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response cancelJob(@PathParam("id") String id) {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        try {
+            var provider = jpaProvider();
+            var job = provider.findJob(realmModel.getId(), id);
+            if (job.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND).build();
+            }
+            if (job.get().status().isFinished()) {
+                return Response.status(Response.Status.CONFLICT)
+                        .entity(new ErrorResponse("Job has already finished with status " + job.get().status()))
+                        .build();
+            }
+
+            long staleCutoff = providerFactory().getJobRunner().staleCutoff();
+            return Response.accepted(provider.cancelJob(realmModel.getId(), id, staleCutoff).orElse(job.get())).build();
+        } catch (Exception e) {
+            return errorResponse("Failed to cancel invitation job: " + e.getMessage());
+        }
+    }
+
+    @GET
+    @Path("cache/stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getValidationCacheStats() {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        return Response.ok(providerFactory().getValidationCache().stats()).build();
+    }
+
+    @GET
+    @Path("token-filter/stats")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getTokenFilterStats() {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        return Response.ok(providerFactory().getTokenFilters().stats(realmModel.getId())).build();
+    }
+
+    @POST
+    @Path("token-filter/rebuild")
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response rebuildTokenFilter() {
+        if (!isAdmin()) {
+            return Response.status(Response.Status.FORBIDDEN).build();
+        }
+
+        var factory = providerFactory();
+        if (!factory.getTokenFilters().isEnabled()) {
+            return badRequestResponse("Token filter is disabled");
+        }
+
+        factory.rebuildTokenFiltersAsync();
+        var cluster = session.getProvider(ClusterProvider.class);
+        if (cluster != null) {
+            cluster.notify(InvitationTokenFilterRebuildEvent.EVENT_KEY,
+                    new InvitationTokenFilterRebuildEvent(realmModel.getName()), true, ClusterProvider.DCNotify.ALL_DCS);
+        }
+        return Response.accepted().build();
+    }
+
+    private InvitationJpaProviderFactory providerFactory() {
+        return (InvitationJpaProviderFactory) session.getKeycloakSessionFactory()
+                .getProviderFactory(JpaEntityProvider.class, InvitationJpaProviderFactory.PROVIDER_ID);
+    }
+
+    /**
+     * URL of a job, built from the base URI rather than the request path, which differs between submit endpoints.
+     */
+    private URI jobLocation(String jobId) {
+        return session.getContext().getUri().getBaseUriBuilder()
+                .path("admin/realms/{realm}/invites/jobs/{id}")
+                .build(realmModel.getName(), jobId);
+    }
+
+    private URI emailBatchLocation(String batchId) {
+        return session.getContext().getUri().getBaseUriBuilder()
+                .path("admin/realms/{realm}/invites/email")
+                .queryParam("batch", batchId)
+                .build(realmModel.getName());
+    }
+
+    /**
+     * The configured token format, UUIDs if none is deployed.
+     */
+    private InvitationTokenGenerator tokenGenerator() {
+        var configured = session.getProvider(InvitationTokenGenerator.class);
+        return configured != null ? configured : new UuidTokenGenerator();
+    }
+
+    private InvitationJpaProvider jpaProvider() {
+        return (InvitationJpaProvider) session.getProvider(JpaEntityProvider.class, InvitationJpaProviderFactory.PROVIDER_ID);
+    }
+
     private boolean isAdmin() {
         return adminPermissionEvaluator.adminAuth().hasRealmRole(AdminRoles.ADMIN);
     }
 
+    private static void deleteQuietly(java.nio.file.Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException ignored) {
+            // Left to the temporary directory cleanup of the host
+        }
+    }
+
+    private static boolean isHttpUrl(String url) {
+        try {
+            var uri = URI.create(url);
+            return uri.isAbsolute() && ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme()));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     private int normalizePageNumber(Integer page) {
         return page != null ? Math.max(0, page) : DEFAULT_PAGE;
     }
@@ -116,6 +629,18 @@ public class InvitationResource {
                 .build();
     }
 
+    private Response serviceUnavailableResponse(String message) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .entity(new ErrorResponse(message))
+                .build();
+    }
+
+    private Response badRequestResponse(String message) {
+        return Response.status(Response.Status.BAD_REQUEST)
+                .entity(new ErrorResponse(message))
+                .build();
+    }
+
     public record ErrorResponse(String error) {
     }
 }
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.service;
+
+import org.jboss.logging.Logger;
+import org.keycloak.connections.jpa.entityprovider.JpaEntityProvider;
+import org.keycloak.email.EmailException;
+import org.keycloak.email.EmailTemplateProvider;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.keycloak.storage.adapter.InMemoryUserAdapter;
+import org.keycloak.utils.EmailValidationUtil;
+import org.vlastolabs.keycloak.model.InvitationEmailItem;
+import org.vlastolabs.keycloak.model.InvitationEmailStatus;
+import org.vlastolabs.keycloak.model.InviteEmailResponse;
+import org.vlastolabs.keycloak.provider.InvitationJpaProvider;
+import org.vlastolabs.keycloak.provider.InvitationJpaProviderFactory;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Creates invitations for a list of recipients and emails them through the realm's SMTP server, using the
+ * {@value #EMAIL_TEMPLATE} template of the realm's email theme.
+ * <p>
+ * The invitations are committed before the first email leaves, so no recipient can receive a code that is later
+ * rolled back. Every recipient is recorded as pending in the same transaction, under the batch id returned to the
+ * caller, and the emails are then sent in the background. Outcomes are recorded in chunks as they come in, so the
+ * batch can be followed while it is sent and an interrupted run leaves its unsent recipients visible as pending.
+ */
+public class InvitationEmailService {
+    public static final String RATE_ATTRIBUTE = "invitationEmailsPerMinute";
+    public static final String EMAIL_TEMPLATE = "invitation-email.ftl";
+    public static final String SUBJECT_KEY = "invitationEmailSubject";
+
+    private static final Logger log = Logger.getLogger(InvitationEmailService.class);
+    private static final DateTimeFormatter EXPIRATION_FORMAT = DateTimeFormatter.RFC_1123_DATE_TIME.withZone(ZoneOffset.UTC);
+
+    private final KeycloakSessionFactory sessionFactory;
+    private final InvitationMailer mailer;
+
+    public InvitationEmailService(KeycloakSession session, InvitationMailer mailer) {
+        this.sessionFactory = Objects.requireNonNull(session, "KeycloakSession cannot be null").getKeycloakSessionFactory();
+        this.mailer = Objects.requireNonNull(mailer, "InvitationMailer cannot be null");
+    }
+
+    /**
+     * Creates one invitation per recipient and queues its email.
+     *
+     * @param emails          recipients as returned by {@link #normalizeRecipients(List)}
+     * @param registrationUrl link to the registration page shown in the email, may be null
+     * @return the batch with every recipient pending
+     * @throws java.util.concurrent.RejectedExecutionException if this node is already sending too many batches; no
+     *                                                         invitation is created then
+     */
+    public InviteEmailResponse sendInvites(RealmModel realm, List<String> emails, int expirationSeconds, String registrationUrl) {
+        // The realm adapter belongs to the request's session, the callbacks below outlive it
+        String realmId = realm.getId();
+        String realmName = realm.getName();
+        String batchId = KeycloakModelUtils.generateId();
+        var expiresOn = new AtomicLong();
+
+        var pending = mailer.submit(realmId, emailsPerMinute(realm), () -> {
+            var invitations = KeycloakModelUtils.runJobInTransactionWithResult(sessionFactory,
+                    session -> providerOf(session).createEmailInvitations(realmId, batchId, emails, expirationSeconds));
+            expiresOn.set(invitations.get(0).getExpiresOn());
+            return IntStream.range(0, invitations.size())
+                    .mapToObj(i -> InvitationEmailItem.pending(invitations.get(i).getId(), emails.get(i), invitations.get(i).getToken()))
+                    .toList();
+        }, email -> {
+            var attributes = Map.<String, Object>of(
+                    "expiresOn", EXPIRATION_FORMAT.format(Instant.ofEpochMilli(expiresOn.get())),
+                    "registrationUrl", registrationUrl != null ? registrationUrl : "");
+            KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> sendEmail(session, realmId, email, attributes));
+        }, delivered -> recordDeliveries(realmName, batchId, delivered));
+
+        log.debugf("Queued %d invitation emails of realm %s as batch %s", pending.size(), realmName, batchId);
+        return new InviteEmailResponse(batchId, pending, realmId, expiresOn.get());
+    }
+
+    /**
+     * Stores a chunk of outcomes. Runs on the mailer's threads, after the request that queued the batch has ended.
+     */
+    private void recordDeliveries(String realmName, String batchId, List<InvitationEmailItem> delivered) {
+        KeycloakModelUtils.runJobInTransaction(sessionFactory, session -> providerOf(session).recordEmailDeliveries(delivered));
+
+        long failed = delivered.stream().filter(item -> item.status() == InvitationEmailStatus.FAILED).count();
+        log.debugf("Emailed %d invitations of realm %s in batch %s, %d failed", (Object) delivered.size(), realmName, batchId, failed);
+    }
+
+    /**
+     * Whether the realm has an SMTP server to send through.
+     */
+    public static boolean canSend(RealmModel realm) {
+        var smtpConfig = realm.getSmtpConfig();
+        return smtpConfig != null && smtpConfig.get("host") != null && !smtpConfig.get("host").isBlank();
+    }
+
+    /**
+     * Trims the addresses and drops repeated ones, compared case-insensitively, keeping the first occurrence.
+     *
+     * @throws IllegalArgumentException if an address is not a valid email address
+     */
+    public static List<String> normalizeRecipients(List<String> emails) {
+        var seen = new HashSet<String>();
+        var recipients = new ArrayList<String>(emails.size());
+        for (String email : emails) {
+            String trimmed = email != null ? email.trim() : "";
+            if (!EmailValidationUtil.isValidEmail(trimmed)) {
+                throw new IllegalArgumentException("Invalid email address: '" + trimmed + "'");
+            }
+            if (seen.add(trimmed.toLowerCase(Locale.ROOT))) {
+                recipients.add(trimmed);
+            }
+        }
+        return recipients;
+    }
+
+    /**
+     * Send rate of the realm, overridable per realm through the {@value #RATE_ATTRIBUTE} attribute.
+     */
+    private int emailsPerMinute(RealmModel realm) {
+        String configured = realm.getAttribute(RATE_ATTRIBUTE);
+        if (configured == null || configured.isBlank()) {
+            return mailer.getEmailsPerMinute();
+        }
+        try {
+            return Integer.parseInt(configured.trim());
+        } catch (NumberFormatException e) {
+            log.warnf("Ignoring invalid %s '%s' of realm %s", RATE_ATTRIBUTE, configured, realm.getName());
+            return mailer.getEmailsPerMinute();
+        }
+    }
+
+    /**
+     * Renders and sends one email in a session of its own, as sessions must not be shared between threads.
+     * The recipient has no account yet, so the template is rendered for a transient user holding only the address.
+     */
+    private static void sendEmail(KeycloakSession session, String realmId, InvitationEmailItem email, Map<String, Object> attributes) {
+        var realm = session.realms().getRealm(realmId);
+        session.getContext().setRealm(realm);
+
+        var recipient = new InMemoryUserAdapter(session, realm, email.invitationId());
+        recipient.setEmail(email.email());
+        recipient.setEnabled(true);
+
+        var bodyAttributes = new HashMap<>(attributes);
+        bodyAttributes.put("inviteCode", email.token());
+        try {
+            session.getProvider(EmailTemplateProvider.class)
+                    .setRealm(realm)
+                    .setUser(recipient)
+                    .send(SUBJECT_KEY, List.of(realm.getDisplayName() != null ? realm.getDisplayName() : realm.getName()),
+                            EMAIL_TEMPLATE, bodyAttributes);
+        } catch (EmailException e) {
+            throw new IllegalStateException("Failed to send invitation email", e);
+        }
+    }
+
+    private static InvitationJpaProvider providerOf(KeycloakSession session) {
+        return (InvitationJpaProvider) session.getProvider(JpaEntityProvider.class, InvitationJpaProviderFactory.PROVIDER_ID);
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.jboss.logging.Logger;
+import org.keycloak.util.JsonSerialization;
+import org.vlastolabs.keycloak.model.InvitationDataFormat;
+import org.vlastolabs.keycloak.model.InvitationImportResponse;
+import org.vlastolabs.keycloak.model.InvitationImportRow;
+import org.vlastolabs.keycloak.token.InvitationTokenGenerator;
+import org.vlastolabs.keycloak.token.UuidTokenGenerator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+/**
+ * Imports pre-generated invitations from an NDJSON or CSV body.
+ * <p>
+ * The body is parsed line by line and handed to the chunk writer in chunks of {@link #CHUNK_SIZE} rows, each of
+ * which is expected to be stored in a transaction of its own. Only the current chunk is held in memory, so the
+ * size of an import is bounded by time rather than heap. Invalid rows, tokens repeated within a chunk and tokens
+ * that already exist are rejected individually without affecting the other rows. Tokens of the configured token
+ * format are stored normalized, and rejected if they could never be redeemed; tokens of any other shape are stored
+ * as they are.
+ */
+public class InvitationImporter {
+    public static final int CHUNK_SIZE = 500;
+    static final int MAX_REPORTED_REJECTS = 1000;
+
+    private static final Logger log = Logger.getLogger(InvitationImporter.class);
+    private static final String COLUMN_TOKEN = "token";
+    private static final String COLUMN_EXPIRES_ON = "expiresOn";
+    private static final String COLUMN_USED = "used";
+    private static final List<String> DEFAULT_CSV_COLUMNS = List.of(COLUMN_TOKEN, COLUMN_EXPIRES_ON, COLUMN_USED);
+
+    private final InvitationTokenGenerator tokenGenerator;
+    private final Function<List<InvitationImportRow>, List<String>> chunkWriter;
+
+    public InvitationImporter(Function<List<InvitationImportRow>, List<String>> chunkWriter) {
+        this(new UuidTokenGenerator(), chunkWriter);
+    }
+
+    /**
+     * @param tokenGenerator the configured token format, only used to recognize tokens
+     * @param chunkWriter    stores a chunk of rows in its own transaction and returns the tokens it skipped because
+     *                       they already exist; a {@link CancellationException} stops the import instead of failing
+     *                       the chunk
+     */
+    public InvitationImporter(InvitationTokenGenerator tokenGenerator, Function<List<InvitationImportRow>, List<String>> chunkWriter) {
+        this.tokenGenerator = Objects.requireNonNull(tokenGenerator, "InvitationTokenGenerator cannot be null");
+        this.chunkWriter = Objects.requireNonNull(chunkWriter, "Chunk writer cannot be null");
+    }
+
+    /**
+     * Reads the whole body and imports its rows. The input is not closed.
+     *
+     * @throws IOException if reading the body fails
+     */
+    public InvitationImportResponse importFrom(String realmId, InvitationDataFormat format, InputStream input) throws IOException {
+        var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        var progress = new Progress();
+        var chunk = new LinkedHashMap<String, Long>();
+        var rows = new ArrayList<InvitationImportRow>(CHUNK_SIZE);
+        List<String> csvColumns = null;
+
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            if (format == InvitationDataFormat.CSV && csvColumns == null) {
+                var fields = parseCsvLine(line);
+                if (fields.stream().anyMatch(COLUMN_TOKEN::equalsIgnoreCase)) {
+                    csvColumns = fields;
+                    continue;
+                }
+                csvColumns = DEFAULT_CSV_COLUMNS;
+            }
+
+            InvitationImportRow row;
+            try {
+                row = format == InvitationDataFormat.CSV ? parseCsvRow(line, csvColumns) : parseJsonRow(line);
+            } catch (IllegalArgumentException e) {
+                progress.reject(lineNumber, null, e.getMessage());
+                continue;
+            }
+
+            if (chunk.putIfAbsent(row.token(), lineNumber) != null) {
+                progress.reject(lineNumber, row.token(), "Duplicate token in import");
+                continue;
+            }
+            rows.add(row);
+
+            if (rows.size() == CHUNK_SIZE) {
+                writeChunk(rows, chunk, progress);
+            }
+        }
+        writeChunk(rows, chunk, progress);
+
+        log.infof("Imported %d invitations into realm %s, rejected %d", progress.imported, realmId, progress.rejected);
+        return new InvitationImportResponse(realmId, progress.imported, progress.rejected, progress.rejects);
+    }
+
+    private void writeChunk(List<InvitationImportRow> rows, Map<String, Long> lines, Progress progress) {
+        if (rows.isEmpty()) {
+            return;
+        }
+
+        List<String> skipped;
+        try {
+            skipped = chunkWriter.apply(rows);
+        } catch (CancellationException e) {
+            throw e;
+        } catch (RuntimeException first) {
+            // A concurrent insert of the same token fails the whole chunk; the retry skips it as existing
+            log.debugf(first, "Import chunk failed, retrying once");
+            try {
+                skipped = chunkWriter.apply(rows);
+            } catch (RuntimeException e) {
+                log.warnf(e, "Import chunk of %d rows failed", rows.size());
+                rows.forEach(row -> progress.reject(lines.get(row.token()), row.token(), "Could not be stored: " + e.getMessage()));
+                rows.clear();
+                lines.clear();
+                return;
+            }
+        }
+
+        skipped.forEach(token -> progress.reject(lines.get(token), token, "Token already exists"));
+        progress.imported += rows.size() - skipped.size();
+        rows.clear();
+        lines.clear();
+    }
+
+    private InvitationImportRow parseJsonRow(String line) {
+        JsonNode node;
+        try {
+            node = JsonSerialization.mapper.readTree(line);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Malformed JSON");
+        }
+        if (node == null || !node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+
+        var token = node.path(COLUMN_TOKEN);
+        var expiresOn = node.path(COLUMN_EXPIRES_ON);
+        var used = node.path(COLUMN_USED);
+        if (!expiresOn.isMissingNode() && !expiresOn.isNull() && !expiresOn.canConvertToLong()) {
+            throw new IllegalArgumentException("Invalid expiresOn");
+        }
+        if (!used.isMissingNode() && !used.isNull() && !used.isBoolean()) {
+            throw new IllegalArgumentException("Invalid used");
+        }
+
+        return toRow(
+                token.isTextual() ? token.asText() : null,
+                expiresOn.canConvertToLong() && !expiresOn.isNull() ? expiresOn.asLong() : null,
+                used.asBoolean(false)
+        );
+    }
+
+    private InvitationImportRow parseCsvRow(String line, List<String> columns) {
+        var fields = parseCsvLine(line);
+        var values = new HashMap<String, String>();
+        for (int i = 0; i < columns.size() && i < fields.size(); i++) {
+            values.put(columns.get(i).toLowerCase(Locale.ROOT), fields.get(i).trim());
+        }
+
+        var expiresOn = values.getOrDefault(COLUMN_EXPIRES_ON.toLowerCase(Locale.ROOT), "");
+        var used = values.getOrDefault(COLUMN_USED, "");
+        if (!used.isEmpty() && !"true".equalsIgnoreCase(used) && !"false".equalsIgnoreCase(used)) {
+            throw new IllegalArgumentException("Invalid used");
+        }
+
+        try {
+            return toRow(values.get(COLUMN_TOKEN), expiresOn.isEmpty() ? null : Long.parseLong(expiresOn), Boolean.parseBoolean(used));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid expiresOn");
+        }
+    }
+
+    private InvitationImportRow toRow(String token, Long expiresOn, boolean used) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("Missing token");
+        }
+        if (token.length() > InvitationTokenGenerator.MAX_TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Token longer than " + InvitationTokenGenerator.MAX_TOKEN_LENGTH + " characters");
+        }
+        if (tokenGenerator.hasFormat(token)) {
+            // Lookups normalize tokens of the configured format, so they must be stored that way to be found
+            token = tokenGenerator.normalize(token);
+            if (!tokenGenerator.isWellFormed(token)) {
+                throw new IllegalArgumentException("Token does not match the configured token format");
+            }
+        }
+        return new InvitationImportRow(token, expiresOn, used);
+    }
+
+    /**
+     * Splits a CSV line, honouring double-quoted fields with doubled quotes inside them.
+     */
+    static List<String> parseCsvLine(String line) {
+        var fields = new ArrayList<String>();
+        var field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static final class Progress {
+        private final List<InvitationImportResponse.Reject> rejects = new ArrayList<>();
+        private long imported;
+        private long rejected;
+
+        private void reject(long line, String token, String reason) {
+            rejected++;
+            if (rejects.size() < MAX_REPORTED_REJECTS) {
+                rejects.add(new InvitationImportResponse.Reject(line, token, reason));
+            }
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.service;
+
+import org.jboss.logging.Logger;
+import org.vlastolabs.keycloak.model.InvitationEmailItem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Sends invitation emails of this node on virtual threads.
+ * <p>
+ * A batch is driven by one loop that waits for the next send slot of its realm, then for one of the
+ * {@code maxConcurrency} connections, and only then hands the email to a thread. So a realm's emails leave at its
+ * rate in the order they were passed, and neither threads nor queued sends grow with the size of a batch. The rate is
+ * node-local: a realm emailing from several nodes at once sends at a multiple of it.
+ * <p>
+ * Batches are submitted to run in the background, up to {@code maxBatches} at a time; further submissions are
+ * rejected before anything is prepared for them.
+ */
+public class InvitationMailer implements AutoCloseable {
+    private static final Logger log = Logger.getLogger(InvitationMailer.class);
+    private static final String THREAD_PREFIX = "vlastolabs-invitation-mail-";
+    private static final int MAX_ERROR_LENGTH = 1024;
+    private static final int RESULT_CHUNK_SIZE = 100;
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxBatches;
+    private final AtomicInteger batches = new AtomicInteger();
+    private final InvitationSendPacer pacer;
+    private final int emailsPerMinute;
+
+    /**
+     * @param maxConcurrency  emails handed to SMTP servers at the same time
+     * @param maxBatches      batches sent in the background at the same time
+     * @param emailsPerMinute default send rate of a realm, 0 or less sends unthrottled
+     * @param burst           emails a realm may send at once after a quiet period
+     */
+    public InvitationMailer(int maxConcurrency, int maxBatches, int emailsPerMinute, int burst) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(THREAD_PREFIX, 0).factory());
+        this.permits = new Semaphore(Math.max(1, maxConcurrency));
+        this.maxBatches = Math.max(1, maxBatches);
+        this.pacer = new InvitationSendPacer(burst);
+        this.emailsPerMinute = emailsPerMinute;
+    }
+
+    public int getEmailsPerMinute() {
+        return emailsPerMinute;
+    }
+
+    /**
+     * Takes a place for a batch, prepares its emails and sends them in the background.
+     *
+     * @param emailsPerMinute send rate of the realm, 0 or less sends unthrottled
+     * @param prepare         creates the emails to send, only called once the batch was accepted
+     * @param onResults       receives the emails with their delivery status in chunks, in the order they were prepared
+     * @return the prepared emails
+     * @throws RejectedExecutionException if this node is already sending {@code maxBatches} batches
+     */
+    public List<InvitationEmailItem> submit(String realmId, int emailsPerMinute, Supplier<List<InvitationEmailItem>> prepare,
+                                            Sender sender, Consumer<List<InvitationEmailItem>> onResults) {
+        if (batches.incrementAndGet() > maxBatches) {
+            batches.decrementAndGet();
+            throw new RejectedExecutionException("Too many invitation email batches on this node, try again later");
+        }
+
+        try {
+            var emails = prepare.get();
+            executor.execute(() -> {
+                try {
+                    send(realmId, emailsPerMinute, emails, sender, RESULT_CHUNK_SIZE, onResults);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    log.debugf("Stopped sending invitation emails of realm %s", realmId);
+                } catch (ExecutionException | RuntimeException e) {
+                    log.warnf(e, "Failed to send invitation emails of realm %s", realmId);
+                } finally {
+                    batches.decrementAndGet();
+                }
+            });
+            return emails;
+        } catch (RuntimeException e) {
+            batches.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends the emails of a realm and waits until all of them were sent or failed.
+     *
+     * @param emailsPerMinute send rate of the realm, 0 or less sends unthrottled
+     * @return the emails with their delivery status, in the order they were passed
+     */
+    public List<InvitationEmailItem> sendAll(String realmId, int emailsPerMinute, List<InvitationEmailItem> emails,
+                                             Sender sender) {
+        var results = new ArrayList<InvitationEmailItem>(emails.size());
+        try {
+            send(realmId, emailsPerMinute, emails, sender, Integer.MAX_VALUE, results::addAll);
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sending invitation emails", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to send invitation emails", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The batch loop: hands every email to a thread once its send slot has come and a connection is free, and passes
+     * the outcomes on as soon as a chunk of them is complete. If interrupted, emails already handed over still finish
+     * and release their connections.
+     */
+    private void send(String realmId, int emailsPerMinute, List<InvitationEmailItem> emails, Sender sender,
+                      int chunkSize, Consumer<List<InvitationEmailItem>> onResults)
+            throws InterruptedException, ExecutionException {
+        var inFlight = new ArrayDeque<Future<InvitationEmailItem>>();
+        var done = new ArrayList<InvitationEmailItem>();
+        for (var email : emails) {
+            TimeUnit.NANOSECONDS.sleep(pacer.reserve(realmId, emailsPerMinute));
+            permits.acquire();
+            try {
+                inFlight.add(executor.submit(() -> send(email, sender)));
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+            while (!inFlight.isEmpty() && inFlight.peek().isDone()) {
+                collect(inFlight.poll().get(), done, chunkSize, onResults);
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            collect(inFlight.poll().get(), done, chunkSize, onResults);
+        }
+        if (!done.isEmpty()) {
+            onResults.accept(List.copyOf(done));
+        }
+    }
+
+    private static void collect(InvitationEmailItem result, List<InvitationEmailItem> done, int chunkSize,
+                                Consumer<List<InvitationEmailItem>> onResults) {
+        done.add(result);
+        if (done.size() >= chunkSize) {
+            onResults.accept(List.copyOf(done));
+            done.clear();
+        }
+    }
+
+    /**
+     * Sends one email on a connection permit taken by the batch loop.
+     */
+    private InvitationEmailItem send(InvitationEmailItem email, Sender sender) {
+        try {
+            sender.send(email);
+            return email.sent(System.currentTimeMillis());
+        } catch (Exception e) {
+            log.debugf(e, "Failed to send invitation %s to %s", email.invitationId(), email.email());
+            return email.failed(describe(e));
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * The innermost cause says what went wrong, e.g. a refused connection below the mail exceptions wrapping it.
+     */
+    private static String describe(Throwable error) {
+        var cause = error;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        String message = cause.getMessage() != null
+                ? cause.getClass().getSimpleName() + ": " + cause.getMessage()
+                : cause.getClass().getSimpleName();
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Hands one email to the SMTP server, throwing if it was not accepted.
+     */
+    @FunctionalInterface
+    public interface Sender {
+        void send(InvitationEmailItem email) throws Exception;
+    }
+}
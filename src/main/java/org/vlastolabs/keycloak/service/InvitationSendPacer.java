@@ -0,0 +1,66 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spaces the invitation emails of each realm at the realm's send rate, letting a burst through after a quiet period.
+ * <p>
+ * A realm is tracked by the time at which its burst is available again, the same generic cell rate algorithm the
+ * registration limiter uses, but a send is never refused: it gets the next free slot and waits for it. A realm whose
+ * burst is fully available behaves exactly like an unknown one, so such realms are forgotten once more than
+ * {@value #MAX_REALMS} are tracked.
+ */
+class InvitationSendPacer {
+    private static final int MAX_REALMS = 4096;
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<String, Long> fullAt = new ConcurrentHashMap<>();
+    private final int burst;
+
+    InvitationSendPacer(int burst) {
+        this.burst = Math.max(1, burst);
+    }
+
+    /**
+     * Takes the next send slot of a realm.
+     *
+     * @param emailsPerMinute send rate of the realm, 0 or less never waits
+     * @return nanoseconds to wait before sending, 0 if the email can be sent right away
+     */
+    long reserve(String realmId, int emailsPerMinute) {
+        return reserve(realmId, emailsPerMinute, System.nanoTime());
+    }
+
+    long reserve(String realmId, int emailsPerMinute, long nowNanos) {
+        if (emailsPerMinute <= 0) {
+            return 0;
+        }
+        if (fullAt.size() > MAX_REALMS) {
+            // Conditional removals, so a realm reserving meanwhile keeps its slot
+            fullAt.values().removeIf(time -> time - nowNanos <= 0);
+        }
+
+        long interval = NANOS_PER_MINUTE / emailsPerMinute;
+        long next = fullAt.merge(realmId, nowNanos + interval,
+                (current, ignored) -> (current - nowNanos > 0 ? current : nowNanos) + interval);
+        return Math.max(0, next - nowNanos - interval * burst);
+    }
+}
@@ -32,46 +32,95 @@
  */
 package org.vlastolabs.keycloak.service;
 
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.jboss.logging.Logger;
 import org.keycloak.connections.jpa.entityprovider.JpaEntityProvider;
 import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.RealmModel;
+import org.keycloak.util.JsonSerialization;
 import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.metrics.InvitationMetrics;
+import org.vlastolabs.keycloak.model.InvitationCursor;
+import org.vlastolabs.keycloak.model.InvitationDataFormat;
+import org.vlastolabs.keycloak.model.InvitationFilter;
 import org.vlastolabs.keycloak.model.InvitationListItem;
+import org.vlastolabs.keycloak.model.InvitationSort;
+import org.vlastolabs.keycloak.model.InvitationValidationView;
+import org.vlastolabs.keycloak.model.InviteBatchGenerationResponse;
 import org.vlastolabs.keycloak.model.InviteGenerationResponse;
 import org.vlastolabs.keycloak.model.PaginatedInvitationResponse;
 import org.vlastolabs.keycloak.model.PaginationInfo;
+import org.vlastolabs.keycloak.model.RedemptionResult;
 import org.vlastolabs.keycloak.model.ValidationResult;
+import org.vlastolabs.keycloak.provider.InvitationJpaProviderFactory;
 import org.vlastolabs.keycloak.provider.InvitationProvider;
-
+import org.vlastolabs.keycloak.token.InvitationTokenGenerator;
+import org.vlastolabs.keycloak.token.UuidTokenGenerator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 
 /**
  * Service layer for managing invitation tokens.
  */
 public class InvitationService {
+    public static final int DEFAULT_EXPIRATION_SECONDS = 86400; // 24 hours
     private static final Logger log = Logger.getLogger(InvitationService.class);
-    private static final int DEFAULT_EXPIRATION_SECONDS = 86400; // 24 hours
+    private static final int UNKNOWN_TOTAL = -1;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "id,token,used,realm,createdOn,expiresOn,usedOn";
+    private static final ObjectWriter EXPORT_JSON_WRITER = JsonSerialization.mapper.writerFor(InvitationListItem.class);
 
     private final KeycloakSession session;
     private final InvitationProvider provider;
+    private final InvitationMetrics metrics;
+    private final InvitationTokenGenerator tokenGenerator;
 
     public InvitationService(KeycloakSession session) {
         this.session = requireNonNull(session, "KeycloakSession cannot be null");
         this.provider = (InvitationProvider) session.getProvider(
                 JpaEntityProvider.class,
-                "invitation-jpa-provider"
+                InvitationJpaProviderFactory.PROVIDER_ID
         );
         validateProvider();
+        this.metrics = session.getKeycloakSessionFactory().getProviderFactory(JpaEntityProvider.class,
+                InvitationJpaProviderFactory.PROVIDER_ID) instanceof InvitationJpaProviderFactory factory
+                ? factory.getMetrics()
+                : InvitationMetrics.disabled();
+        this.tokenGenerator = Optional.ofNullable(session.getProvider(InvitationTokenGenerator.class))
+                .orElseGet(UuidTokenGenerator::new);
     }
 
     /**
      * Constructor for testing purposes to inject provider dependency.
      */
     public InvitationService(InvitationProvider provider) {
+        this(provider, InvitationMetrics.disabled());
+    }
+
+    /**
+     * Constructor for testing purposes to inject provider and metrics dependencies.
+     */
+    public InvitationService(InvitationProvider provider, InvitationMetrics metrics) {
+        this(provider, metrics, new UuidTokenGenerator());
+    }
+
+    /**
+     * Constructor for testing purposes to inject provider, metrics and token format dependencies.
+     */
+    public InvitationService(InvitationProvider provider, InvitationMetrics metrics, InvitationTokenGenerator tokenGenerator) {
         this.session = null; // Not used when provider is injected
         this.provider = requireNonNull(provider, "InvitationProvider cannot be null");
+        this.metrics = requireNonNull(metrics, "InvitationMetrics cannot be null");
+        this.tokenGenerator = requireNonNull(tokenGenerator, "InvitationTokenGenerator cannot be null");
     }
 
     /**
@@ -95,17 +144,83 @@ public class InvitationService {
      * @throws InvitationGenerationException if token generation fails
      */
     public InviteGenerationResponse generateInvite(RealmModel realmModel, int expirationSeconds) {
+        return generateInvite(realmModel, expirationSeconds, 1);
+    }
+
+    /**
+     * Generate a new invitation token for the given realm that admits up to {@code maxUses} registrations.
+     *
+     * @param realmModel        The realm for which to generate the token
+     * @param expirationSeconds Number of seconds until expiration
+     * @param maxUses           Number of registrations the token admits
+     * @return InviteGenerationResponse containing the generated token
+     * @throws IllegalArgumentException      if realmModel is null, expirationSeconds or maxUses is invalid
+     * @throws InvitationGenerationException if token generation fails
+     */
+    public InviteGenerationResponse generateInvite(RealmModel realmModel, int expirationSeconds, int maxUses) {
         validateRealmModel(realmModel);
         validateExpirationTime(expirationSeconds);
+        validateMaxUses(maxUses);
+
+        return metrics.timeOperation(InvitationMetrics.GENERATE_INVITE, () -> {
+            String realmId = realmModel.getId();
+            String token = maxUses == 1
+                    ? provider.createInvitation(realmId, expirationSeconds)
+                    : provider.createInvitation(realmId, expirationSeconds, maxUses);
+
+            return provider.findByToken(token)
+                    .map(this::createInviteGenerationResponse)
+                    .orElseThrow(() -> new InvitationGenerationException(
+                            "Failed to retrieve newly created invitation token: " + token
+                    ));
+        });
+    }
 
-        String realmId = realmModel.getId();
-        String token = provider.createInvitation(realmId, expirationSeconds);
+    /**
+     * Generate a batch of invitation tokens for the given realm with default expiration (24 hours).
+     *
+     * @param realmModel The realm for which to generate the tokens
+     * @param count      Number of tokens to generate
+     * @return InviteBatchGenerationResponse containing the generated tokens
+     * @throws IllegalArgumentException if realmModel is null or count is invalid
+     */
+    public InviteBatchGenerationResponse generateInvites(RealmModel realmModel, int count) {
+        return generateInvites(realmModel, count, DEFAULT_EXPIRATION_SECONDS);
+    }
+
+    /**
+     * Generate a batch of invitation tokens for the given realm with custom expiration.
+     * The created tokens are returned as persisted, without reading them back one by one.
+     *
+     * @param realmModel        The realm for which to generate the tokens
+     * @param count             Number of tokens to generate
+     * @param expirationSeconds Number of seconds until expiration
+     * @return InviteBatchGenerationResponse containing the generated tokens
+     * @throws IllegalArgumentException      if realmModel is null, count or expirationSeconds is invalid
+     * @throws InvitationGenerationException if the provider did not create the requested number of tokens
+     */
+    public InviteBatchGenerationResponse generateInvites(RealmModel realmModel, int count, int expirationSeconds) {
+        validateRealmModel(realmModel);
+        validateCount(count);
+        validateExpirationTime(expirationSeconds);
+
+        var created = provider.createInvitations(realmModel.getId(), count, expirationSeconds);
+        if (created.size() != count) {
+            throw new InvitationGenerationException(
+                    "Expected %d invitation tokens but %d were created".formatted(count, created.size())
+            );
+        }
 
-        return provider.findByToken(token)
-                .map(this::createInviteGenerationResponse)
-                .orElseThrow(() -> new InvitationGenerationException(
-                        "Failed to retrieve newly created invitation token: " + token
-                ));
+        var tokens = created.stream()
+                .map(InvitationEntity::getToken)
+                .toList();
+
+        return new InviteBatchGenerationResponse(
+                tokens,
+                realmModel.getId(),
+                "Invitation tokens generated successfully",
+                created.get(0).getExpiresOn()
+        );
     }
 
     /**
@@ -120,13 +235,26 @@ public class InvitationService {
         }
     }
 
+    private void validateMaxUses(int maxUses) {
+        if (maxUses <= 0) {
+            throw new IllegalArgumentException("Max uses must be positive");
+        }
+    }
+
+    private void validateCount(int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Invitation count must be positive");
+        }
+    }
+
     private InviteGenerationResponse createInviteGenerationResponse(InvitationEntity entity) {
         return new InviteGenerationResponse(
                 entity.getToken(),
                 entity.getRealm(),
                 "Invitation token generated successfully",
                 entity.getExpiresOn(),
-                entity.isUsed()
+                entity.isUsed(),
+                entity.getMaxUses()
         );
     }
 
@@ -134,43 +262,77 @@ public class InvitationService {
      * Validate an invitation token and return detailed validation result.
      *
      * @param token The token to validate
-     * @return ValidationResult containing the invitation entity if valid, or error code if invalid
+     * @return ValidationResult containing the invitation if valid, or error code if invalid
      */
     public ValidationResult validateInviteDetailed(String token) {
-        if (!isValidTokenFormat(token)) {
-            return ValidationResult.missingToken();
-        }
-
-        return provider.findByToken(token)
-                .map(this::validateEntity)
-                .orElse(ValidationResult.invalidToken());
+        return recordValidation(() -> {
+            if (!isValidTokenFormat(token)) {
+                return ValidationResult.missingToken();
+            }
+
+            String normalized = lookupForm(token, tokenGenerator::isWellFormed);
+            if (normalized == null) {
+                return ValidationResult.invalidToken();
+            }
+
+            return provider.findByToken(normalized)
+                    .map(InvitationValidationView::of)
+                    .map(this::validateView)
+                    .orElse(ValidationResult.invalidToken());
+        });
     }
 
     /**
      * Validate an invitation token for a specific realm and return detailed validation result.
+     * Reads a column projection only, this is the path every registration goes through. Tokens of the configured
+     * token format that it could not have produced, e.g. codes with a wrong check character or signed tokens with an
+     * invalid MAC, are rejected without a lookup.
      *
      * @param token   The token to validate
      * @param realmId The realm ID to validate against
-     * @return ValidationResult containing the invitation entity if valid, or error code if invalid
+     * @return ValidationResult containing the invitation if valid, or error code if invalid
      */
     public ValidationResult validateInviteDetailed(String token, String realmId) {
-        if (!isValidTokenFormat(token) || !isValidRealmId(realmId)) {
-            return ValidationResult.missingToken();
-        }
+        return recordValidation(() -> {
+            if (!isValidTokenFormat(token) || !isValidRealmId(realmId)) {
+                return ValidationResult.missingToken();
+            }
+
+            long now = System.currentTimeMillis();
+            String normalized = lookupForm(token, candidate -> tokenGenerator.isPlausible(candidate, realmId, now));
+            if (normalized == null) {
+                return ValidationResult.invalidToken();
+            }
+
+            return provider.findValidationView(normalized, realmId)
+                    .map(this::validateView)
+                    .orElse(ValidationResult.invalidToken());
+        });
+    }
+
+    /**
+     * Count a registration attempt that the caller rejected without validating a token.
+     *
+     * @param result the invalid result reported to the user
+     */
+    public void recordRejection(ValidationResult result) {
+        metrics.recordValidation(result);
+    }
 
-        return provider.findByTokenAndRealm(token, realmId)
-                .map(this::validateEntity)
-                .orElse(ValidationResult.invalidToken());
+    private ValidationResult recordValidation(Supplier<ValidationResult> validation) {
+        var result = metrics.timeOperation(InvitationMetrics.VALIDATE_INVITE, validation);
+        metrics.recordValidation(result);
+        return result;
     }
 
     /**
      * Validate an invitation token.
      *
      * @param token The token to validate
-     * @return Optional containing the invitation entity if valid and unused, empty otherwise
+     * @return Optional containing the invitation if valid and unused, empty otherwise
      */
-    public Optional<InvitationEntity> validateInvite(String token) {
-        return validateInviteDetailed(token).getInvitationEntity();
+    public Optional<InvitationValidationView> validateInvite(String token) {
+        return validateInviteDetailed(token).getInvitation();
     }
 
     /**
@@ -178,49 +340,92 @@ public class InvitationService {
      *
      * @param token   The token to validate
      * @param realmId The realm ID to validate against
-     * @return Optional containing the invitation entity if valid and unused, empty otherwise
+     * @return Optional containing the invitation if valid and unused, empty otherwise
      */
-    public Optional<InvitationEntity> validateInvite(String token, String realmId) {
-        return validateInviteDetailed(token, realmId).getInvitationEntity();
+    public Optional<InvitationValidationView> validateInvite(String token, String realmId) {
+        return validateInviteDetailed(token, realmId).getInvitation();
     }
 
-    private ValidationResult validateEntity(InvitationEntity entity) {
-        if (entity.isUsed()) {
+    private ValidationResult validateView(InvitationValidationView invitation) {
+        if (invitation.used()) {
             return ValidationResult.usedToken();
         }
 
-        if (isExpired(entity)) {
+        if (invitation.isExpiredAt(System.currentTimeMillis())) {
             return ValidationResult.expiredToken();
         }
 
-        return ValidationResult.valid(entity);
+        return ValidationResult.valid(invitation);
     }
 
     /**
-     * Mark an invitation token as used.
+     * Mark an invitation token as used when its realm is not known.
+     * Prefer {@link #markAsUsed(String, String)}, which avoids the extra lookup.
      *
      * @param token The token to mark as used
+     * @return the redemption outcome
      */
-    public void markAsUsed(String token) {
+    public RedemptionResult markAsUsed(String token) {
         if (!isValidTokenFormat(token)) {
             logWarning("Attempted to mark invalid token as used: " + token);
-            return;
+            return RedemptionResult.NOT_FOUND;
+        }
+
+        String normalized = lookupForm(token, tokenGenerator::isWellFormed);
+        if (normalized == null) {
+            logWarning("Attempted to mark malformed token as used: " + token);
+            return RedemptionResult.NOT_FOUND;
         }
 
-        provider.findByToken(token)
-                .ifPresentOrElse(
-                        entity -> markEntityAsUsed(token, entity),
-                        () -> logWarning("Attempted to mark non-existent token as used: " + token)
-                );
+        return provider.findByToken(normalized)
+                .map(entity -> markAsUsed(normalized, entity.getRealm()))
+                .orElseGet(() -> {
+                    logWarning("Attempted to mark non-existent token as used: " + token);
+                    return RedemptionResult.NOT_FOUND;
+                });
     }
 
-    private void markEntityAsUsed(String token, InvitationEntity entity) {
-        boolean marked = provider.markAsUsed(token, entity.getRealm());
-        if (marked) {
+    /**
+     * Atomically take one use of an invitation token of the given realm.
+     * Of several concurrent callers for the same token, no more than its remaining uses get {@link RedemptionResult#REDEEMED}.
+     *
+     * @param token   The token to mark as used
+     * @param realmId The realm ID the token belongs to
+     * @return the redemption outcome
+     */
+    public RedemptionResult markAsUsed(String token, String realmId) {
+        if (!isValidTokenFormat(token) || !isValidRealmId(realmId)) {
+            logWarning("Attempted to mark invalid token as used: " + token);
+            return RedemptionResult.NOT_FOUND;
+        }
+
+        String normalized = lookupForm(token, tokenGenerator::isWellFormed);
+        if (normalized == null) {
+            logWarning("Attempted to mark malformed token as used: " + token);
+            return RedemptionResult.NOT_FOUND;
+        }
+
+        var result = metrics.timeOperation(InvitationMetrics.MARK_AS_USED, () -> provider.markAsUsed(normalized, realmId));
+        if (result == RedemptionResult.REDEEMED) {
             logDebug("Successfully marked token as used: " + token);
         } else {
-            logWarning("Failed to mark token as used: " + token);
+            logWarning("Failed to mark token as used (%s): %s".formatted(result, token));
+        }
+        return result;
+    }
+
+    /**
+     * The form a token is looked up in. Tokens of the configured format are normalized and checked, any other token,
+     * e.g. an imported one, is looked up as it was given.
+     *
+     * @return the token to look up, or null if it has the configured format but cannot exist
+     */
+    private String lookupForm(String token, Predicate<String> check) {
+        if (!tokenGenerator.hasFormat(token)) {
+            return token;
         }
+        String normalized = tokenGenerator.normalize(token);
+        return check.test(normalized) ? normalized : null;
     }
 
     private boolean isValidTokenFormat(String token) {
@@ -231,11 +436,6 @@ public class InvitationService {
         return realmId != null && !realmId.isBlank();
     }
 
-    private boolean isExpired(InvitationEntity entity) {
-        return entity.getExpiresOn() != null &&
-                entity.getExpiresOn() < System.currentTimeMillis();
-    }
-
     private void validateRealmModel(RealmModel realmModel) {
         if (realmModel == null) {
             throw new IllegalArgumentException("RealmModel cannot be null");
@@ -272,12 +472,24 @@ public class InvitationService {
      *
      * @param offset the number of records to skip
      * @param limit the maximum number of records to return
-     * @return list of invitation entities
+     * @return list of invitations, projected without loading entities
      */
-    public List<InvitationEntity> getAllInvitations(int offset, int limit) {
+    public List<InvitationListItem> getAllInvitations(int offset, int limit) {
         return provider.findAll(offset, limit);
     }
 
+    /**
+     * Retrieve the invitations of a single realm with pagination and sorting.
+     *
+     * @param realmId the realm whose invitations are listed
+     * @param offset  the number of records to skip
+     * @param limit   the maximum number of records to return
+     * @return list of invitations, projected without loading entities
+     */
+    public List<InvitationListItem> getAllInvitations(String realmId, int offset, int limit) {
+        return provider.findAllByRealm(realmId, offset, limit);
+    }
+
     /**
      * Count all invitations.
      *
@@ -287,6 +499,16 @@ public class InvitationService {
         return provider.countAll();
     }
 
+    /**
+     * Count the invitations of a single realm.
+     *
+     * @param realmId the realm whose invitations are counted
+     * @return the count of invitations in the realm
+     */
+    public long countAllInvitations(String realmId) {
+        return provider.countByRealm(realmId);
+    }
+
     /**
      * Retrieve all invitations with pagination and sorting, returning a paginated response.
      *
@@ -295,36 +517,232 @@ public class InvitationService {
      * @return PaginatedInvitationResponse containing the invitations and pagination info
      */
     public PaginatedInvitationResponse getAllInvitationsPaginated(int page, int size) {
-        int offset = page * size;
-        var invitations = getAllInvitations(offset, size);
-        var totalElements = countAllInvitations();
-        var totalPages = (int) Math.ceil((double) totalElements / size);
+        return toPaginatedResponse(getAllInvitations(page * size, size), countAllInvitations(), page, size, true);
+    }
 
-        var invitationDtos = invitations.stream()
-                .map(this::convertToInvitationListItemDto)
-                .toList();
+    /**
+     * Retrieve the invitations of a single realm with pagination and sorting, returning a paginated response.
+     *
+     * @param realmId the realm whose invitations are listed
+     * @param page    the page number (starting from 0)
+     * @param size    the page size
+     * @return PaginatedInvitationResponse containing the invitations and pagination info
+     */
+    public PaginatedInvitationResponse getAllInvitationsPaginated(String realmId, int page, int size) {
+        return getAllInvitationsPaginated(realmId, page, size, true);
+    }
 
+    /**
+     * Retrieve the invitations of a single realm with pagination and sorting, returning a paginated response.
+     * Without totals the count is skipped entirely and {@code hasNext} is detected by fetching one extra row;
+     * {@code totalElements} and {@code totalPages} are then reported as {@value #UNKNOWN_TOTAL}.
+     *
+     * @param realmId      the realm whose invitations are listed
+     * @param page         the page number (starting from 0)
+     * @param size         the page size
+     * @param includeTotal whether totalElements and totalPages should be computed
+     * @return PaginatedInvitationResponse containing the invitations and pagination info
+     */
+    public PaginatedInvitationResponse getAllInvitationsPaginated(String realmId, int page, int size, boolean includeTotal) {
+        return getAllInvitationsPaginated(realmId, page, size, includeTotal, InvitationFilter.none(), InvitationSort.DEFAULT);
+    }
+
+    /**
+     * Retrieve the invitations of a single realm matching a filter, in the given order.
+     * A cursor to the next page is only reported for the default order, the only one keyset pagination supports.
+     *
+     * @param realmId      the realm whose invitations are listed
+     * @param page         the page number (starting from 0)
+     * @param size         the page size
+     * @param includeTotal whether totalElements and totalPages should be computed
+     * @param filter       criteria the invitations must match
+     * @param sort         order of the invitations
+     * @return PaginatedInvitationResponse containing the invitations and pagination info
+     */
+    public PaginatedInvitationResponse getAllInvitationsPaginated(String realmId, int page, int size, boolean includeTotal,
+                                                                  InvitationFilter filter, InvitationSort sort) {
+        boolean withCursor = sort.isDefault();
+        if (includeTotal) {
+            return toPaginatedResponse(provider.findAllByRealm(realmId, filter, sort, page * size, size),
+                    provider.countByRealm(realmId, filter), page, size, withCursor);
+        }
+
+        var rows = provider.findAllByRealm(realmId, filter, sort, page * size, size + 1);
+        boolean hasNext = rows.size() > size;
+        var invitationDtos = hasNext ? rows.subList(0, size) : rows;
+
+        var paginationInfo = new PaginationInfo(
+                page,
+                size,
+                UNKNOWN_TOTAL,
+                UNKNOWN_TOTAL,
+                hasNext,
+                page > 0,
+                hasNext && withCursor ? lastCursor(invitationDtos) : null,
+                null
+        );
+
+        return new PaginatedInvitationResponse(invitationDtos, paginationInfo);
+    }
+
+    private PaginatedInvitationResponse toPaginatedResponse(List<InvitationListItem> invitationDtos, long totalElements, int page, int size,
+                                                            boolean withCursor) {
+        var totalPages = (int) Math.ceil((double) totalElements / size);
+
+        var hasNext = page < totalPages - 1;
         var paginationInfo = new PaginationInfo(
                 page,
                 size,
                 totalElements,
                 totalPages,
-                page < totalPages - 1,
-                page > 0
+                hasNext,
+                page > 0,
+                hasNext && withCursor ? lastCursor(invitationDtos) : null,
+                null
         );
 
         return new PaginatedInvitationResponse(invitationDtos, paginationInfo);
     }
 
-    private InvitationListItem convertToInvitationListItemDto(InvitationEntity entity) {
-        return new InvitationListItem(
-                entity.getId(),
-                entity.getToken(),
-                entity.isUsed(),
-                entity.getRealm(),
-                entity.getCreatedOn(),
-                entity.getExpiresOn()
+    /**
+     * Retrieve a page of a realm's invitations using keyset pagination, including totals.
+     *
+     * @see #getInvitationsByCursor(String, String, String, int, boolean)
+     */
+    public PaginatedInvitationResponse getInvitationsByCursor(String realmId, String after, String before, int size) {
+        return getInvitationsByCursor(realmId, after, before, size, true);
+    }
+
+    /**
+     * Retrieve a page of a realm's invitations using keyset pagination. The cost of a page does not depend on
+     * how deep into the list it is, because rows are located through the (realm, createdOn, id) index instead
+     * of being skipped with an offset. At most one of {@code after} and {@code before} may be set.
+     *
+     * @param realmId      the realm whose invitations are listed
+     * @param after        encoded cursor of the last item of the previous page, or null
+     * @param before       encoded cursor of the first item of the following page, or null
+     * @param size         the page size
+     * @param includeTotal whether totalElements and totalPages should be computed
+     * @return PaginatedInvitationResponse containing the invitations and cursors to the adjacent pages
+     * @throws IllegalArgumentException if both cursors are set or a cursor is malformed
+     */
+    public PaginatedInvitationResponse getInvitationsByCursor(String realmId, String after, String before, int size, boolean includeTotal) {
+        return getInvitationsByCursor(realmId, after, before, size, includeTotal, InvitationFilter.none(), InvitationSort.DEFAULT);
+    }
+
+    /**
+     * Retrieve a keyset page of a realm's invitations matching a filter.
+     *
+     * @param filter criteria the invitations must match
+     * @param sort   order of the invitations, only the default order is supported
+     * @throws IllegalArgumentException if both cursors are set, a cursor is malformed or the order is not the default
+     * @see #getInvitationsByCursor(String, String, String, int, boolean)
+     */
+    public PaginatedInvitationResponse getInvitationsByCursor(String realmId, String after, String before, int size, boolean includeTotal,
+                                                              InvitationFilter filter, InvitationSort sort) {
+        if (after != null && before != null) {
+            throw new IllegalArgumentException("Only one of 'after' and 'before' cursors can be used");
+        }
+        if (!sort.isDefault()) {
+            throw new IllegalArgumentException("Cursor pagination only supports sorting by createdOn descending");
+        }
+
+        boolean backwards = before != null;
+        var rows = backwards
+                ? provider.findBefore(realmId, filter, InvitationCursor.decode(before), size + 1)
+                : provider.findAfter(realmId, filter, after != null ? InvitationCursor.decode(after) : null, size + 1);
+
+        boolean hasMore = rows.size() > size;
+        if (hasMore) {
+            rows = backwards ? rows.subList(1, rows.size()) : rows.subList(0, size);
+        }
+
+        boolean hasNext = backwards || hasMore;
+        boolean hasPrevious = backwards ? hasMore : after != null;
+        var totalElements = includeTotal ? provider.countByRealm(realmId, filter) : UNKNOWN_TOTAL;
+
+        var paginationInfo = new PaginationInfo(
+                0,
+                size,
+                totalElements,
+                includeTotal ? (int) Math.ceil((double) totalElements / size) : UNKNOWN_TOTAL,
+                hasNext,
+                hasPrevious,
+                hasNext ? lastCursor(rows) : null,
+                hasPrevious ? firstCursor(rows) : null
         );
+
+        return new PaginatedInvitationResponse(rows, paginationInfo);
+    }
+
+    /**
+     * Write all invitations of a realm to the output as they are read from the database, one row at a time.
+     * The output is flushed but not closed.
+     *
+     * @param realmId the realm whose invitations are exported
+     * @param format  NDJSON with one JSON object per line, or CSV with a header line
+     * @param output  the stream to write to
+     * @return number of exported invitations
+     * @throws IOException if writing to the output fails
+     */
+    public long exportInvitations(String realmId, InvitationDataFormat format, OutputStream output) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), EXPORT_BUFFER_SIZE);
+        if (format == InvitationDataFormat.CSV) {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        long count = 0;
+        try (var rows = provider.streamByRealm(realmId)) {
+            var iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writeExportRow(writer, format, iterator.next());
+                count++;
+            }
+        }
+
+        writer.flush();
+        logDebug("Exported %d invitations of realm %s as %s".formatted(count, realmId, format));
+        return count;
+    }
+
+    private void writeExportRow(Writer writer, InvitationDataFormat format, InvitationListItem item) throws IOException {
+        if (format == InvitationDataFormat.CSV) {
+            writer.write(csvValue(item.getId()));
+            writer.write(',');
+            writer.write(csvValue(item.getToken()));
+            writer.write(',');
+            writer.write(Boolean.toString(item.isUsed()));
+            writer.write(',');
+            writer.write(csvValue(item.getRealm()));
+            writer.write(',');
+            writer.write(Long.toString(item.getCreatedOn()));
+            writer.write(',');
+            writer.write(item.getExpiresOn() != null ? item.getExpiresOn().toString() : "");
+            writer.write(',');
+            writer.write(item.getUsedOn() != null ? item.getUsedOn().toString() : "");
+        } else {
+            writer.write(EXPORT_JSON_WRITER.writeValueAsString(item));
+        }
+        writer.write('\n');
+    }
+
+    private String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private String firstCursor(List<InvitationListItem> items) {
+        return items.isEmpty() ? null : InvitationCursor.of(items.get(0)).encode();
+    }
+
+    private String lastCursor(List<InvitationListItem> items) {
+        return items.isEmpty() ? null : InvitationCursor.of(items.get(items.size() - 1)).encode();
     }
 
     public static class InvitationGenerationException extends RuntimeException {
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.token;
+
+import org.keycloak.Config;
+import org.keycloak.models.KeycloakSession;
+
+/**
+ * Short codes meant to be typed by people: Crockford base32 characters followed by a Luhn mod 32 check character,
+ * which catches every single mistyped character and most swaps of adjacent ones. Typed codes are upper-cased,
+ * separators are dropped and the look-alikes I, L and O are read as 1 and 0. Tokens of any other shape, such as
+ * UUIDs minted before switching to this format or imported codes, are left as they are.
+ */
+public class Base32CheckTokenGenerator implements InvitationTokenGenerator, InvitationTokenGeneratorFactory {
+    public static final String PROVIDER_ID = "base32";
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final int RADIX = ALPHABET.length();
+    private static final int DEFAULT_LENGTH = 16;
+    private static final int MIN_LENGTH = 10;
+
+    private int length = DEFAULT_LENGTH;
+
+    @Override
+    public void init(Config.Scope config) {
+        length = config.getInt("length", DEFAULT_LENGTH);
+        if (length < MIN_LENGTH || length >= MAX_TOKEN_LENGTH) {
+            throw new IllegalArgumentException("Base32 token length must be between %d and %d, got: %d"
+                    .formatted(MIN_LENGTH, MAX_TOKEN_LENGTH - 1, length));
+        }
+    }
+
+    @Override
+    public String generate() {
+        var random = TokenRandom.nextBytes(length);
+        var code = new char[length + 1];
+        for (int i = 0; i < length; i++) {
+            // 256 is a multiple of 32, the low 5 bits of a random byte are uniform
+            code[i] = ALPHABET.charAt(random[i] & (RADIX - 1));
+        }
+        code[length] = ALPHABET.charAt(checkValue(code, length));
+        return new String(code);
+    }
+
+    /**
+     * Whether a token is as long as a code once separators are dropped, and made of code characters and look-alikes
+     * only.
+     */
+    @Override
+    public boolean hasFormat(String token) {
+        if (token.length() > MAX_TOKEN_LENGTH || UuidTokenGenerator.isUuid(token)) {
+            return false;
+        }
+
+        int characters = 0;
+        for (int i = 0; i < token.length(); i++) {
+            char c = Character.toUpperCase(token.charAt(i));
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (ALPHABET.indexOf(c) < 0 && c != 'I' && c != 'L' && c != 'O') {
+                return false;
+            }
+            characters++;
+        }
+        return characters == length + 1;
+    }
+
+    @Override
+    public String normalize(String token) {
+        if (!hasFormat(token)) {
+            return token;
+        }
+
+        var normalized = new StringBuilder(length + 1);
+        for (int i = 0; i < token.length(); i++) {
+            char c = Character.toUpperCase(token.charAt(i));
+            switch (c) {
+                case '-', ' ' -> {
+                }
+                case 'I', 'L' -> normalized.append('1');
+                case 'O' -> normalized.append('0');
+                default -> normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    @Override
+    public boolean isWellFormed(String token) {
+        if (token.length() != length + 1) {
+            return UuidTokenGenerator.isUuid(token);
+        }
+
+        var code = token.toCharArray();
+        for (char c : code) {
+            if (ALPHABET.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return ALPHABET.indexOf(code[length]) == checkValue(code, length);
+    }
+
+    /**
+     * Luhn mod N over the first {@code count} characters: the value that makes the checksum of the whole code zero.
+     */
+    private static int checkValue(char[] code, int count) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = count - 1; i >= 0; i--) {
+            int addend = ALPHABET.indexOf(code[i]) * (doubled ? 2 : 1);
+            sum += addend / RADIX + addend % RADIX;
+            doubled = !doubled;
+        }
+        return (RADIX - sum % RADIX) % RADIX;
+    }
+
+    @Override
+    public InvitationTokenGenerator create(KeycloakSession session) {
+        return this;
+    }
+
+    @Override
+    public String getId() {
+        return PROVIDER_ID;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.token;
+
+import org.keycloak.models.KeycloakSession;
+
+import java.util.Base64;
+
+/**
+ * 128 random bits as 22 characters of unpadded base64url, the same entropy as a UUID in two thirds of the space.
+ * Tokens of any other length, such as UUIDs minted before switching to this format or imported codes, are looked up
+ * as they are.
+ */
+public class Base64UrlTokenGenerator implements InvitationTokenGenerator, InvitationTokenGeneratorFactory {
+    public static final String PROVIDER_ID = "base64url";
+
+    private static final int RANDOM_BYTES = 16;
+    private static final int TOKEN_LENGTH = 22;
+    // 128 bits fill the last character with 2 bits only, the remaining 4 are always zero
+    private static final String LAST_CHARACTERS = "AQgw";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    @Override
+    public String generate() {
+        return ENCODER.encodeToString(TokenRandom.nextBytes(RANDOM_BYTES));
+    }
+
+    @Override
+    public boolean hasFormat(String token) {
+        return token.length() == TOKEN_LENGTH && isBase64Url(token);
+    }
+
+    @Override
+    public boolean isWellFormed(String token) {
+        if (token.length() != TOKEN_LENGTH) {
+            return UuidTokenGenerator.isUuid(token);
+        }
+        return isBase64Url(token) && LAST_CHARACTERS.indexOf(token.charAt(TOKEN_LENGTH - 1)) >= 0;
+    }
+
+    static boolean isBase64Url(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (!((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public InvitationTokenGenerator create(KeycloakSession session) {
+        return this;
+    }
+
+    @Override
+    public String getId() {
+        return PROVIDER_ID;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.token;
+
+import org.keycloak.provider.Provider;
+
+/**
+ * Mints invitation tokens and recognizes the tokens it can have minted, so that malformed or mistyped codes are
+ * rejected before they reach the database. Tokens that do not have the shape of the format, such as tokens minted
+ * before switching format or imported from another system, are looked up as they are. Implementations must be
+ * thread-safe.
+ */
+public interface InvitationTokenGenerator extends Provider {
+    /**
+     * Width of the TOKEN column, no token can ever be longer.
+     */
+    int MAX_TOKEN_LENGTH = 255;
+
+    /**
+     * Mints a new random token.
+     */
+    String generate();
+
+    /**
+     * Mints a new token for an invitation of a realm. Formats that embed the invitation's properties override this.
+     *
+     * @param expiresOn expiration time in epoch milliseconds, or null if the invitation never expires
+     */
+    default String generate(String realmId, Long expiresOn) {
+        return generate();
+    }
+
+    /**
+     * Whether a token as typed by a user has the shape of this format's tokens. Only such tokens are normalized and
+     * checked with {@link #isWellFormed} or {@link #isPlausible}; any other token is looked up as it is. Formats
+     * that tell their tokens apart from others override this.
+     */
+    default boolean hasFormat(String token) {
+        return true;
+    }
+
+    /**
+     * Brings a token of this format as typed by a user into its stored form, e.g. by dropping separators.
+     */
+    default String normalize(String token) {
+        return token;
+    }
+
+    /**
+     * Whether a normalized token may exist. Must be cheap, it runs before every token lookup.
+     */
+    boolean isWellFormed(String token);
+
+    /**
+     * Whether a normalized token may be a valid invitation of the realm at the given time. Formats that can verify
+     * more than the shape of a token without the database override this.
+     */
+    default boolean isPlausible(String token, String realmId, long now) {
+        return isWellFormed(token);
+    }
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.token;
+
+import org.keycloak.crypto.Algorithm;
+import org.keycloak.crypto.KeyUse;
+import org.keycloak.crypto.KeyWrapper;
+import org.keycloak.models.KeycloakSession;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Self-validating tokens: a version, the expiration time and a random nonce, followed by a truncated HMAC-SHA256
+ * computed with the realm's HS512 key from Keycloak's key manager, all in 50 base64url characters.
+ * <p>
+ * The realm id is part of the MAC input rather than of the token, so a token of another realm fails verification
+ * just like a forged one. Forged, expired and foreign tokens are thus rejected in memory; only plausible tokens are
+ * looked up to check that they exist and are unused. Verification tries every enabled HS512 key of the realm, so
+ * tokens survive a key rotation as long as the key they were signed with is kept as a passive key. Tokens of any
+ * other shape, such as imported codes, are looked up as they are; UUIDs are too, unless they are no longer accepted.
+ */
+public class SignedTokenGenerator implements InvitationTokenGenerator {
+    private static final byte VERSION = 1;
+    private static final int NONCE_BYTES = 12;
+    private static final int MAC_BYTES = 16;
+    private static final int PAYLOAD_BYTES = 1 + Long.BYTES + NONCE_BYTES;
+    private static final int TOKEN_BYTES = PAYLOAD_BYTES + MAC_BYTES;
+    private static final int TOKEN_LENGTH = (TOKEN_BYTES * 4 + 2) / 3;
+    private static final long NEVER_EXPIRES = 0;
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] DOMAIN = "vlastolabs-invitation".getBytes(StandardCharsets.US_ASCII);
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final KeycloakSession session;
+    private final boolean acceptUuidTokens;
+
+    public SignedTokenGenerator(KeycloakSession session, boolean acceptUuidTokens) {
+        this.session = session;
+        this.acceptUuidTokens = acceptUuidTokens;
+    }
+
+    /**
+     * Signed tokens are bound to a realm and an expiration time, they cannot be minted without them.
+     */
+    @Override
+    public String generate() {
+        throw new IllegalStateException("Signed invitation tokens require a realm");
+    }
+
+    @Override
+    public String generate(String realmId, Long expiresOn) {
+        var realm = session.realms().getRealm(realmId);
+        if (realm == null) {
+            throw new IllegalArgumentException("Unknown realm: " + realmId);
+        }
+
+        var token = ByteBuffer.allocate(TOKEN_BYTES)
+                .put(VERSION)
+                .putLong(expiresOn != null ? expiresOn : NEVER_EXPIRES)
+                .put(TokenRandom.nextBytes(NONCE_BYTES));
+        var key = session.keys().getActiveKey(realm, KeyUse.SIG, Algorithm.HS512);
+        token.put(mac(key.getSecretKey(), realmId, token.array()));
+        return ENCODER.encodeToString(token.array());
+    }
+
+    @Override
+    public boolean hasFormat(String token) {
+        if (token.length() != TOKEN_LENGTH) {
+            // Claimed so that they are rejected in memory once UUID tokens are no longer accepted
+            return !acceptUuidTokens && UuidTokenGenerator.isUuid(token);
+        }
+        return Base64UrlTokenGenerator.isBase64Url(token);
+    }
+
+    @Override
+    public boolean isWellFormed(String token) {
+        if (token.length() != TOKEN_LENGTH) {
+            return acceptUuidTokens && UuidTokenGenerator.isUuid(token);
+        }
+        return decode(token) != null;
+    }
+
+    @Override
+    public boolean isPlausible(String token, String realmId, long now) {
+        if (token.length() != TOKEN_LENGTH) {
+            return acceptUuidTokens && UuidTokenGenerator.isUuid(token);
+        }
+
+        var bytes = decode(token);
+        if (bytes == null) {
+            return false;
+        }
+        long expiresOn = ByteBuffer.wrap(bytes, 1, Long.BYTES).getLong();
+        if (expiresOn != NEVER_EXPIRES && expiresOn < now) {
+            return false;
+        }
+
+        var realm = session.realms().getRealm(realmId);
+        if (realm == null) {
+            return false;
+        }
+        var actual = Arrays.copyOfRange(bytes, PAYLOAD_BYTES, TOKEN_BYTES);
+        return session.keys().getKeysStream(realm, KeyUse.SIG, Algorithm.HS512)
+                .map(KeyWrapper::getSecretKey)
+                .anyMatch(key -> key != null && MessageDigest.isEqual(actual, mac(key, realmId, bytes)));
+    }
+
+    /**
+     * Decodes a token of the expected length, or returns null if it is not base64url or of an unknown version.
+     */
+    private static byte[] decode(String token) {
+        try {
+            var bytes = DECODER.decode(token);
+            return bytes.length == TOKEN_BYTES && bytes[0] == VERSION ? bytes : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * MAC of the payload at the start of {@code token}, bound to the realm and to this purpose of the key.
+     */
+    private static byte[] mac(SecretKey key, String realmId, byte[] token) {
+        try {
+            var mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(new SecretKeySpec(key.getEncoded(), MAC_ALGORITHM));
+            mac.update(DOMAIN);
+            mac.update((byte) 0);
+            mac.update(realmId.getBytes(StandardCharsets.UTF_8));
+            mac.update((byte) 0);
+            mac.update(token, 0, PAYLOAD_BYTES);
+            return Arrays.copyOf(mac.doFinal(), MAC_BYTES);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to compute invitation token MAC", e);
+        }
+    }
+}
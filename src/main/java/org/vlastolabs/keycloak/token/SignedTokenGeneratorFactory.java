@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.token;
+
+import org.keycloak.Config;
+import org.keycloak.models.KeycloakSession;
+
+/**
+ * Factory of {@link SignedTokenGenerator}s. A generator needs the session to reach the realm keys, so unlike the
+ * other formats one is created per session.
+ */
+public class SignedTokenGeneratorFactory implements InvitationTokenGeneratorFactory {
+    public static final String PROVIDER_ID = "signed";
+
+    private boolean acceptUuidTokens = true;
+
+    @Override
+    public void init(Config.Scope config) {
+        acceptUuidTokens = config.getBoolean("acceptUuidTokens", true);
+    }
+
+    @Override
+    public InvitationTokenGenerator create(KeycloakSession session) {
+        return new SignedTokenGenerator(session, acceptUuidTokens);
+    }
+
+    @Override
+    public String getId() {
+        return PROVIDER_ID;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.token;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+/**
+ * Striped source of random bytes for token generation. {@link java.util.UUID#randomUUID()} and the default
+ * {@link SecureRandom} share one generator behind a lock, which serializes bulk minting across threads. Here every
+ * stripe is an independently seeded DRBG instance, and threads are spread over the stripes by their id.
+ */
+final class TokenRandom {
+    private static final SecureRandom[] STRIPES = createStripes();
+    private static final int MASK = STRIPES.length - 1;
+
+    private TokenRandom() {
+    }
+
+    static byte[] nextBytes(int count) {
+        var bytes = new byte[count];
+        long id = Thread.currentThread().threadId();
+        STRIPES[(int) (id ^ (id >>> 16)) & MASK].nextBytes(bytes);
+        return bytes;
+    }
+
+    private static SecureRandom[] createStripes() {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        var stripes = new SecureRandom[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = newInstance();
+        }
+        return stripes;
+    }
+
+    private static SecureRandom newInstance() {
+        try {
+            return SecureRandom.getInstance("DRBG");
+        } catch (NoSuchAlgorithmException e) {
+            return new SecureRandom();
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.token;
+
+import org.keycloak.models.KeycloakSession;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+/**
+ * Random UUIDs in their 36 character text form, the original token format. Any token that fits the column is
+ * accepted, so imported tokens of other formats keep validating.
+ */
+public class UuidTokenGenerator implements InvitationTokenGenerator, InvitationTokenGeneratorFactory {
+    public static final String PROVIDER_ID = "uuid";
+
+    private static final int UUID_LENGTH = 36;
+
+    /**
+     * Whether a token is a UUID in canonical lower case form, as minted by this generator.
+     */
+    public static boolean isUuid(String token) {
+        if (token.length() != UUID_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < UUID_LENGTH; i++) {
+            char c = token.charAt(i);
+            boolean valid = i == 8 || i == 13 || i == 18 || i == 23
+                    ? c == '-'
+                    : (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f');
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String generate() {
+        var buffer = ByteBuffer.wrap(TokenRandom.nextBytes(16));
+        long msb = (buffer.getLong() & ~0xF000L) | 0x4000L;
+        long lsb = (buffer.getLong() & ~(0xC000L << 48)) | (0x8000L << 48);
+        return new UUID(msb, lsb).toString();
+    }
+
+    @Override
+    public boolean isWellFormed(String token) {
+        return !token.isBlank() && token.length() <= MAX_TOKEN_LENGTH;
+    }
+
+    @Override
+    public InvitationTokenGenerator create(KeycloakSession session) {
+        return this;
+    }
+
+    @Override
+    public String getId() {
+        return PROVIDER_ID;
+    }
+
+    @Override
+    public int order() {
+        // Default provider unless another one is configured
+        return 1;
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,7 @@
+<#import "template.ftl" as layout>
+<@layout.emailLayout>
+${kcSanitize(msg("invitationEmailBodyHtml", realmName, inviteCode, expiresOn))?no_esc}
+<#if registrationUrl?has_content>
+${kcSanitize(msg("invitationEmailLinkHtml", registrationUrl))?no_esc}
+</#if>
+</@layout.emailLayout>
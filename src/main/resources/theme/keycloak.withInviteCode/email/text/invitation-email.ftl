@@ -0,0 +1,6 @@
+<#ftl output_format="plainText">
+${msg("invitationEmailBody", realmName, inviteCode, expiresOn)}
+<#if registrationUrl?has_content>
+
+${msg("invitationEmailLink", registrationUrl)}
+</#if>
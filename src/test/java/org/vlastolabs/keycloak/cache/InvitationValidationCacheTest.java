@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.cache;
+
+import org.junit.jupiter.api.Test;
+import org.vlastolabs.keycloak.model.InvitationValidationView;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvitationValidationCacheTest {
+
+    @Test
+    void get_afterPut_shouldReturnViewAndCountHit() {
+        // Arrange
+        var cache = new InvitationValidationCache(10, 60000);
+        var expected = view("token1");
+        cache.put(expected);
+
+        // Act
+        var result = cache.get("token1");
+
+        // Assert
+        assertEquals(expected, result);
+        assertEquals(1, cache.stats().hits());
+        assertEquals(0, cache.stats().misses());
+        assertEquals(1.0, cache.stats().hitRate());
+    }
+
+    @Test
+    void get_withUnknownToken_shouldCountMiss() {
+        // Arrange
+        var cache = new InvitationValidationCache(10, 60000);
+
+        // Act
+        var result = cache.get("unknown");
+
+        // Assert
+        assertNull(result);
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void get_afterTtl_shouldMiss() throws InterruptedException {
+        // Arrange
+        var cache = new InvitationValidationCache(10, 1);
+        cache.put(view("token1"));
+        Thread.sleep(5);
+
+        // Act
+        var result = cache.get("token1");
+
+        // Assert
+        assertNull(result);
+        assertEquals(0, cache.stats().size());
+    }
+
+    @Test
+    void put_beyondMaxEntries_shouldStayBounded() {
+        // Arrange
+        var cache = new InvitationValidationCache(100, 60000);
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            cache.put(view("token" + i));
+        }
+
+        // Assert
+        assertTrue(cache.stats().size() <= 100);
+        assertTrue(cache.stats().evictions() >= 900);
+    }
+
+    @Test
+    void invalidateAll_shouldRemoveTokens() {
+        // Arrange
+        var cache = new InvitationValidationCache(10, 60000);
+        cache.put(view("token1"));
+        cache.put(view("token2"));
+
+        // Act
+        cache.invalidateAll(List.of("token1"));
+
+        // Assert
+        assertNull(cache.get("token1"));
+        assertNotNull(cache.get("token2"));
+    }
+
+    @Test
+    void disabledCache_shouldNeverStore() {
+        // Arrange
+        var cache = InvitationValidationCache.disabled();
+
+        // Act
+        cache.put(view("token1"));
+
+        // Assert
+        assertNull(cache.get("token1"));
+        assertFalse(cache.stats().enabled());
+    }
+
+    private InvitationValidationView view(String token) {
+        return new InvitationValidationView(token, "realm", false, System.currentTimeMillis() + 60000L);
+    }
+}
\ No newline at end of file
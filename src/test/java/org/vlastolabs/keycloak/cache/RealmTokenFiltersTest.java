@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealmTokenFiltersTest {
+
+    @Test
+    void mightContain_beforeFirstRebuild_shouldFailOpen() {
+        // Arrange
+        var filters = new RealmTokenFilters(true, 100, 0.01);
+
+        // Act
+        var result = filters.mightContain("realm", "unknown");
+
+        // Assert
+        assertTrue(result);
+        assertFalse(filters.isReady());
+    }
+
+    @Test
+    void mightContain_afterRebuild_shouldRejectUnknownTokens() {
+        // Arrange
+        var filters = new RealmTokenFilters(true, 100, 0.01);
+        var building = filters.startRebuild();
+        filters.fill(building, "realm", 2, Stream.of("token1", "token2"));
+        filters.completeRebuild(building);
+
+        // Act & Assert
+        assertTrue(filters.mightContain("realm", "token1"));
+        assertTrue(filters.mightContain("realm", "token2"));
+        assertFalse(filters.mightContain("other-realm", "token1"));
+        assertEquals(1, filters.stats("realm").rejected());
+    }
+
+    @Test
+    void add_duringRebuild_shouldReachNewFilters() {
+        // Arrange
+        var filters = new RealmTokenFilters(true, 100, 0.01);
+        var building = filters.startRebuild();
+
+        // Act
+        filters.add("realm", List.of("late-token"));
+        filters.fill(building, "realm", 1, Stream.of("token1"));
+        filters.completeRebuild(building);
+
+        // Assert
+        assertTrue(filters.mightContain("realm", "late-token"));
+        assertTrue(filters.mightContain("realm", "token1"));
+    }
+
+    @Test
+    void abortRebuild_shouldKeepPreviousFilters() {
+        // Arrange
+        var filters = new RealmTokenFilters(true, 100, 0.01);
+        var first = filters.startRebuild();
+        filters.fill(first, "realm", 1, Stream.of("token1"));
+        filters.completeRebuild(first);
+
+        // Act
+        var second = filters.startRebuild();
+        filters.abortRebuild(second);
+
+        // Assert
+        assertTrue(filters.isReady());
+        assertTrue(filters.mightContain("realm", "token1"));
+    }
+
+    @Test
+    void falsePositiveRate_shouldStayNearConfiguredProbability() {
+        // Arrange
+        var filter = TokenBloomFilter.create(10000, 0.01);
+        IntStream.range(0, 10000).forEach(i -> filter.put(UUID.randomUUID().toString()));
+
+        // Act
+        long falsePositives = IntStream.range(0, 10000)
+                .filter(i -> filter.mightContain(UUID.randomUUID().toString()))
+                .count();
+
+        // Assert
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+        assertTrue(filter.estimatedFalsePositiveProbability() < 0.02);
+    }
+
+    @Test
+    void disabledFilters_shouldAlwaysAllowLookup() {
+        // Arrange
+        var filters = RealmTokenFilters.disabled();
+        var building = filters.startRebuild();
+        filters.completeRebuild(building);
+
+        // Act & Assert
+        assertTrue(filters.mightContain("realm", "unknown"));
+        assertFalse(filters.stats("realm").enabled());
+    }
+}
\ No newline at end of file
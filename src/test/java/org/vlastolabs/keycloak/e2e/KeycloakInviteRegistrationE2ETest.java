@@ -35,13 +35,21 @@ import org.testcontainers.DockerClientFactory;
 import org.testcontainers.containers.GenericContainer;
 import org.testcontainers.containers.Network;
 import org.testcontainers.containers.output.Slf4jLogConsumer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.utility.DockerImageName;
 import org.vlastolabs.keycloak.e2e.client.KeycloakAdminClient;
 import org.vlastolabs.keycloak.e2e.client.KeycloakRealmManager;
 import org.vlastolabs.keycloak.e2e.util.KeycloakContainerUtil;
+import org.vlastolabs.keycloak.model.InviteEmailRequest;
 import org.vlastolabs.keycloak.model.InviteGenerationResponse;
 import org.vlastolabs.keycloak.model.InviteRequest;
 import org.vlastolabs.keycloak.model.PaginatedInvitationResponse;
 
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.*;
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -57,9 +65,15 @@ class KeycloakInviteRegistrationE2ETest {
     private static final int EXPIRATION_ONE_HOUR = 3600;
     private static final int EXPIRATION_ONE_DAY = 86400;
     private static final int EXPIRATION_TOLERANCE_MS = 10000;
+    private static final String SMTP_IMAGE = "axllent/mailpit:v1.21";
+    private static final String SMTP_ALIAS = "smtp";
+    private static final int SMTP_PORT = 1025;
+    private static final int SMTP_API_PORT = 8025;
+    private static final String EMAIL_THEME = "keycloak.withInviteCode";
 
     private Network network;
     private GenericContainer<?> keycloakContainer;
+    private GenericContainer<?> smtpContainer;
     private CloseableHttpClient httpClient;
     private ObjectMapper objectMapper;
     private KeycloakAdminClient adminClient;
@@ -77,6 +91,7 @@ class KeycloakInviteRegistrationE2ETest {
         }
 
         initializeInfrastructure();
+        startSmtp();
         startKeycloak();
         initializeClients();
         setupRealmAndClient();
@@ -86,6 +101,7 @@ class KeycloakInviteRegistrationE2ETest {
     void tearDown() throws Exception {
         closeQuietly(httpClient);
         stopKeycloak();
+        stopSmtp();
         closeQuietly(network);
     }
 
@@ -196,6 +212,51 @@ class KeycloakInviteRegistrationE2ETest {
         }
     }
 
+    @Test
+    @EnabledIf("isDockerAvailable")
+    void testEmailInvitesEndpoint() throws Exception {
+        var accessToken = adminClient.authenticate();
+        var request = new HttpPost("%s/admin/realms/%s/invites/email".formatted(keycloakUrl(), TEST_REALM));
+        request.setHeader("Authorization", "Bearer " + accessToken);
+        var body = new InviteEmailRequest(List.of("alice@example.com", "bob@example.com", "Alice@example.com"),
+                EXPIRATION_ONE_HOUR, null);
+        request.setEntity(new StringEntity(objectMapper.writeValueAsString(body), ContentType.APPLICATION_JSON));
+
+        String batchLocation;
+        try (var response = httpClient.execute(request)) {
+            assertEquals(202, response.getCode());
+
+            var emailResponse = objectMapper.readTree(response.getEntity().getContent());
+            assertEquals(2, emailResponse.get("pending").asInt());
+            assertEquals("PENDING", emailResponse.get("recipients").get(0).get("status").asText());
+            batchLocation = response.getHeader("Location").getValue();
+            assertTrue(batchLocation.endsWith("/invites/email?batch=" + emailResponse.get("batchId").asText()), batchLocation);
+        }
+
+        await().atMost(Duration.ofSeconds(30)).untilAsserted(() -> {
+            var status = new HttpGet(batchLocation);
+            status.setHeader("Authorization", "Bearer " + accessToken);
+            try (var response = httpClient.execute(status)) {
+                assertEquals(200, response.getCode());
+
+                var deliveries = objectMapper.readTree(response.getEntity().getContent());
+                assertEquals(2, deliveries.size());
+                deliveries.forEach(delivery -> assertEquals("SENT", delivery.get("status").asText()));
+            }
+        });
+
+        var messages = new HttpGet("http://%s:%d/api/v1/messages".formatted(smtpContainer.getHost(),
+                smtpContainer.getMappedPort(SMTP_API_PORT)));
+        try (var response = httpClient.execute(messages)) {
+            assertEquals(200, response.getCode());
+
+            var mailbox = objectMapper.readTree(response.getEntity().getContent());
+            var recipients = new HashSet<String>();
+            mailbox.get("messages").forEach(message -> recipients.add(message.get("To").get(0).get("Address").asText()));
+            assertTrue(recipients.containsAll(List.of("alice@example.com", "bob@example.com")), "recipients " + recipients);
+        }
+    }
+
     private void executeInviteGenerationTest(InviteRequest inviteRequest, Integer expectedExpirationSeconds) throws Exception {
         var accessToken = adminClient.authenticate();
         var request = inviteRequest != null
@@ -233,6 +294,15 @@ class KeycloakInviteRegistrationE2ETest {
         this.objectMapper = new ObjectMapper();
     }
 
+    private void startSmtp() {
+        this.smtpContainer = new GenericContainer<>(DockerImageName.parse(SMTP_IMAGE))
+                .withNetwork(network)
+                .withNetworkAliases(SMTP_ALIAS)
+                .withExposedPorts(SMTP_PORT, SMTP_API_PORT)
+                .waitingFor(Wait.forListeningPort());
+        this.smtpContainer.start();
+    }
+
     private void startKeycloak() {
         this.keycloakContainer = new KeycloakContainerUtil().createKeycloakContainer(network);
         this.keycloakContainer.withLogConsumer(new Slf4jLogConsumer(logger));
@@ -249,6 +319,7 @@ class KeycloakInviteRegistrationE2ETest {
         var accessToken = adminClient.authenticate();
         realmManager.createRealm(TEST_REALM, accessToken);
         realmManager.createClient(TEST_REALM, TEST_CLIENT_ID, accessToken);
+        realmManager.configureEmail(TEST_REALM, SMTP_ALIAS, SMTP_PORT, EMAIL_THEME, accessToken);
     }
 
     private boolean isDockerAvailable() {
@@ -371,6 +442,12 @@ class KeycloakInviteRegistrationE2ETest {
         }
     }
 
+    private void stopSmtp() {
+        if (smtpContainer != null && smtpContainer.isRunning()) {
+            smtpContainer.stop();
+        }
+    }
+
     private void closeQuietly(AutoCloseable closeable) throws Exception {
         if (closeable != null) {
             closeable.close();
@@ -17,6 +17,7 @@
 package org.vlastolabs.keycloak.e2e.client;
 
 import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpPut;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.core5.http.ClassicHttpResponse;
 import org.apache.hc.core5.http.ContentType;
@@ -28,6 +29,7 @@ public class KeycloakRealmManager {
     
     private static final int HTTP_CREATED = 201;
     private static final int HTTP_CONFLICT = 409;
+    private static final int HTTP_NO_CONTENT = 204;
     
     private final String keycloakUrl;
     private final CloseableHttpClient httpClient;
@@ -53,6 +55,31 @@ public class KeycloakRealmManager {
         }
     }
     
+    public void configureEmail(String realmName, String smtpHost, int smtpPort, String emailTheme, String accessToken) throws IOException {
+        HttpPut request = new HttpPut(String.format("%s/admin/realms/%s", keycloakUrl, realmName));
+        request.setHeader("Authorization", "Bearer " + accessToken);
+        request.setHeader("Content-Type", ContentType.APPLICATION_JSON.toString());
+
+        String realmJson = String.format("""
+            {
+              "smtpServer": {
+                "host": "%s",
+                "port": "%d",
+                "from": "invites@example.com"
+              },
+              "emailTheme": "%s"
+            }
+            """, smtpHost, smtpPort, emailTheme);
+
+        request.setEntity(new StringEntity(realmJson, ContentType.APPLICATION_JSON));
+        try (ClassicHttpResponse response = httpClient.execute(request)) {
+            if (response.getCode() != HTTP_NO_CONTENT) {
+                throw new KeycloakResourceCreationException(
+                        String.format("Realm email configuration failed with status code: %d", response.getCode()));
+            }
+        }
+    }
+    
     private HttpPost buildCreateRealmRequest(String realmName, String accessToken) {
         HttpPost request = new HttpPost(keycloakUrl + "/admin/realms");
         request.setHeader("Authorization", "Bearer " + accessToken);
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.events.EventListenerProvider;
+import org.keycloak.events.admin.AdminEvent;
+import org.keycloak.events.admin.OperationType;
+import org.keycloak.events.admin.ResourceType;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.KeycloakSessionTask;
+import org.keycloak.models.KeycloakSessionTaskWithResult;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.RealmProvider;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EventListenerEventSinkTest {
+    private static final String REALM_ID = "realm-a";
+
+    private EventListenerProvider listener;
+    private EventListenerEventSink sink;
+    private MockedStatic<KeycloakModelUtils> modelUtils;
+
+    @BeforeEach
+    void setUp() {
+        var session = mock(KeycloakSession.class);
+        var sessionFactory = mock(KeycloakSessionFactory.class);
+        var realms = mock(RealmProvider.class);
+        var realm = mock(RealmModel.class);
+        listener = mock(EventListenerProvider.class);
+        when(session.getKeycloakSessionFactory()).thenReturn(sessionFactory);
+        when(session.realms()).thenReturn(realms);
+        when(realms.getRealm(REALM_ID)).thenReturn(realm);
+        when(realm.getEventsListenersStream()).thenAnswer(invocation -> Stream.of("broker", "not-deployed"));
+        when(session.getProvider(EventListenerProvider.class, "broker")).thenReturn(listener);
+
+        modelUtils = mockStatic(KeycloakModelUtils.class);
+        modelUtils.when(() -> KeycloakModelUtils.runJobInTransactionWithResult(eq(sessionFactory), any(KeycloakSessionTaskWithResult.class)))
+                .thenAnswer(invocation -> invocation.<KeycloakSessionTaskWithResult<?>>getArgument(1).run(session));
+        modelUtils.when(() -> KeycloakModelUtils.runJobInTransaction(eq(sessionFactory), any(KeycloakSessionTask.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<KeycloakSessionTask>getArgument(1).run(session);
+                    return null;
+                });
+
+        sink = new EventListenerEventSink(session);
+    }
+
+    @AfterEach
+    void tearDown() {
+        modelUtils.close();
+    }
+
+    @Test
+    void deliver_shouldForwardEventsInOrderAsAdminEvents() {
+        // Arrange
+        var created = new InvitationEvent("e1", InvitationEventType.CREATED, REALM_ID, "inv-1", "token-1", 1000L);
+        var redeemed = new InvitationEvent("e2", InvitationEventType.REDEEMED, REALM_ID, "inv-1", "token-1", 2000L);
+
+        // Act
+        sink.deliver(List.of(created, redeemed));
+
+        // Assert
+        var captor = ArgumentCaptor.forClass(AdminEvent.class);
+        verify(listener, times(2)).onEvent(captor.capture(), eq(true));
+        var first = captor.getAllValues().get(0);
+        assertEquals("e1", first.getId());
+        assertEquals(1000L, first.getTime());
+        assertEquals(REALM_ID, first.getRealmId());
+        assertEquals(ResourceType.CUSTOM, first.getResourceType());
+        assertEquals(OperationType.CREATE, first.getOperationType());
+        assertEquals("invites/inv-1", first.getResourcePath());
+        assertTrue(first.getRepresentation().contains("\"type\":\"CREATED\""));
+        assertEquals(OperationType.UPDATE, captor.getAllValues().get(1).getOperationType());
+    }
+
+    @Test
+    void deliver_withoutToken_shouldOmitTokenFromRepresentation() {
+        // Act
+        sink.deliver(List.of(new InvitationEvent("e1", InvitationEventType.CREATED, REALM_ID, "inv-1", null, 1000L)));
+
+        // Assert
+        var captor = ArgumentCaptor.forClass(AdminEvent.class);
+        verify(listener).onEvent(captor.capture(), eq(true));
+        assertFalse(captor.getValue().getRepresentation().contains("token"));
+    }
+
+    @Test
+    void deliver_withUnknownRealm_shouldSkipEvent() {
+        // Act
+        sink.deliver(List.of(new InvitationEvent("e1", InvitationEventType.CREATED, "deleted-realm", "inv-1", "token-1", 1000L)));
+
+        // Assert
+        verify(listener, never()).onEvent(any(AdminEvent.class), anyBoolean());
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.event;
+
+import com.sun.net.httpserver.HttpServer;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.KeycloakContext;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.KeycloakSessionTask;
+import org.keycloak.models.KeycloakSessionTaskWithResult;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.RealmProvider;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.keycloak.vault.VaultStringSecret;
+import org.keycloak.vault.VaultTranscriber;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+import org.vlastolabs.keycloak.entity.InvitationWebhookDeadLetterEntity;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WebhookEventSinkTest {
+    private static final String REALM_ID = "realm-a";
+    private static final String SECRET = "webhook-secret";
+    private static final String SECRET_REFERENCE = "${vault.webhook_secret}";
+
+    private HttpServer server;
+    private final Queue<Integer> statuses = new ConcurrentLinkedQueue<>();
+    private final Queue<String> bodies = new ConcurrentLinkedQueue<>();
+    private final Queue<String> signatures = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private KeycloakSession session;
+    private RealmModel realm;
+    private EntityManager entityManager;
+    private WebhookDispatcher dispatcher;
+    private WebhookEventSink sink;
+    private MockedStatic<KeycloakModelUtils> modelUtils;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/hook", exchange -> {
+            requests.incrementAndGet();
+            bodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            signatures.add(String.valueOf(exchange.getRequestHeaders().getFirst(WebhookDispatcher.SIGNATURE_HEADER)));
+            Integer status = statuses.poll();
+            exchange.sendResponseHeaders(status != null ? status : 200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        session = mock(KeycloakSession.class);
+        var sessionFactory = mock(KeycloakSessionFactory.class);
+        var realms = mock(RealmProvider.class);
+        realm = mock(RealmModel.class);
+        var jpa = mock(JpaConnectionProvider.class);
+        entityManager = mock(EntityManager.class);
+        when(session.getKeycloakSessionFactory()).thenReturn(sessionFactory);
+        when(session.realms()).thenReturn(realms);
+        when(realms.getRealm(REALM_ID)).thenReturn(realm);
+        when(realm.getAttribute(WebhookEventSink.URL_ATTRIBUTE))
+                .thenReturn("http://localhost:" + server.getAddress().getPort() + "/hook");
+        when(realm.getAttribute(WebhookEventSink.SECRET_ATTRIBUTE)).thenReturn(SECRET_REFERENCE);
+        var vault = mock(VaultTranscriber.class);
+        var secret = mock(VaultStringSecret.class);
+        when(session.getContext()).thenReturn(mock(KeycloakContext.class));
+        when(session.vault()).thenReturn(vault);
+        when(vault.getStringSecret(SECRET_REFERENCE)).thenReturn(secret);
+        when(secret.get()).thenReturn(Optional.of(SECRET));
+        when(session.getProvider(JpaConnectionProvider.class)).thenReturn(jpa);
+        when(jpa.getEntityManager()).thenReturn(entityManager);
+
+        modelUtils = mockStatic(KeycloakModelUtils.class);
+        modelUtils.when(() -> KeycloakModelUtils.runJobInTransactionWithResult(eq(sessionFactory), any(KeycloakSessionTaskWithResult.class)))
+                .thenAnswer(invocation -> invocation.<KeycloakSessionTaskWithResult<?>>getArgument(1).run(session));
+        modelUtils.when(() -> KeycloakModelUtils.runJobInTransaction(eq(sessionFactory), any(KeycloakSessionTask.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<KeycloakSessionTask>getArgument(1).run(session);
+                    return null;
+                });
+
+        dispatcher = new WebhookDispatcher(4, 2, 3, 1, Duration.ofSeconds(5));
+        sink = new WebhookEventSink(session, dispatcher, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        modelUtils.close();
+        dispatcher.close();
+        server.stop(0);
+    }
+
+    @Test
+    void deliver_shouldPostSignedBatchesOfConfiguredSize() {
+        // Act
+        sink.deliver(events(3));
+
+        // Assert
+        assertEquals(2, requests.get());
+        var first = bodies.poll();
+        assertTrue(first.contains("\"realm\":\"realm-a\""));
+        assertTrue(first.contains("\"id\":\"e0\"") && first.contains("\"id\":\"e1\""));
+        assertEquals("sha256=" + WebhookDispatcher.sign(SECRET, first.getBytes(StandardCharsets.UTF_8)), signatures.poll());
+        assertTrue(bodies.poll().contains("\"id\":\"e2\""));
+        verifyNoInteractions(entityManager);
+        modelUtils.verify(() -> KeycloakModelUtils.runJobInTransaction(any(), any(KeycloakSessionTask.class)), never());
+    }
+
+    @Test
+    void deliver_withPlainSecretAttribute_shouldIgnoreIt() {
+        // Arrange
+        when(realm.getAttribute(WebhookEventSink.SECRET_ATTRIBUTE)).thenReturn(SECRET);
+
+        // Act
+        sink.deliver(events(1));
+
+        // Assert
+        assertEquals("null", signatures.poll());
+        verify(session, never()).vault();
+    }
+
+    @Test
+    void deliver_withoutSecretAttribute_shouldSignWithConfiguredSecret() {
+        // Arrange
+        when(realm.getAttribute(WebhookEventSink.SECRET_ATTRIBUTE)).thenReturn(null);
+        sink = new WebhookEventSink(session, dispatcher, "configured-secret");
+
+        // Act
+        sink.deliver(events(1));
+
+        // Assert
+        var body = bodies.poll();
+        assertEquals("sha256=" + WebhookDispatcher.sign("configured-secret", body.getBytes(StandardCharsets.UTF_8)), signatures.poll());
+    }
+
+    @Test
+    void deliver_withServerError_shouldRetryUntilAccepted() {
+        // Arrange
+        statuses.addAll(List.of(500, 503));
+
+        // Act
+        sink.deliver(events(1));
+
+        // Assert
+        assertEquals(3, requests.get());
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    void deliver_whenRetriesAreExhausted_shouldStoreDeadLetters() {
+        // Arrange
+        statuses.addAll(List.of(500, 500, 500));
+
+        // Act
+        sink.deliver(events(2));
+
+        // Assert
+        assertEquals(3, requests.get());
+        var captor = ArgumentCaptor.forClass(InvitationWebhookDeadLetterEntity.class);
+        verify(entityManager, times(2)).persist(captor.capture());
+        var deadLetter = captor.getAllValues().get(0);
+        assertEquals("e0", deadLetter.getEventId());
+        assertEquals(REALM_ID, deadLetter.getRealm());
+        assertEquals(3, deadLetter.getAttempts());
+        assertEquals("HTTP 500", deadLetter.getLastError());
+    }
+
+    @Test
+    void deliver_withClientError_shouldNotRetry() {
+        // Arrange
+        statuses.add(400);
+
+        // Act
+        sink.deliver(events(1));
+
+        // Assert
+        assertEquals(1, requests.get());
+        verify(entityManager).persist(any(InvitationWebhookDeadLetterEntity.class));
+    }
+
+    @Test
+    void deliver_withoutConfiguredWebhook_shouldSkipRealm() {
+        // Act
+        sink.deliver(List.of(new InvitationEvent("e0", InvitationEventType.CREATED, "other", "inv", "token", 1L)));
+
+        // Assert
+        assertEquals(0, requests.get());
+        verifyNoInteractions(entityManager);
+    }
+
+    private static List<InvitationEvent> events(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new InvitationEvent("e" + i, InvitationEventType.CREATED, REALM_ID, "inv-" + i, "token-" + i, i))
+                .toList();
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.vlastolabs.keycloak.model.InvitationValidationView;
+import org.vlastolabs.keycloak.model.RedemptionResult;
+import org.vlastolabs.keycloak.model.ValidationResult;
+import org.vlastolabs.keycloak.provider.InvitationProvider;
+import org.vlastolabs.keycloak.service.InvitationService;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class InvitationMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private InvitationMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new InvitationMetrics(registry);
+    }
+
+    @Test
+    void constructor_shouldRegisterKnownErrorCodesUpFront() {
+        // Assert
+        for (String code : new String[]{"inviteCodeMissing", "inviteCodeInvalid", "inviteCodeAlreadyUsed"}) {
+            assertEquals(0, registry.get(InvitationMetrics.VALIDATION_FAILURES).tag("error", code).counter().count());
+        }
+    }
+
+    @Test
+    void validateInviteDetailed_shouldTimeAndCountRejectedCodes() {
+        // Arrange
+        var provider = mock(InvitationProvider.class);
+        when(provider.findValidationView("unknown", "realm")).thenReturn(Optional.empty());
+        when(provider.findValidationView("valid", "realm"))
+                .thenReturn(Optional.of(new InvitationValidationView("valid", "realm", false, null)));
+        var service = new InvitationService(provider, metrics);
+
+        // Act
+        service.validateInviteDetailed("unknown", "realm");
+        service.validateInviteDetailed("unknown", "realm");
+        service.validateInviteDetailed(null, "realm");
+        service.validateInviteDetailed("valid", "realm");
+
+        // Assert
+        assertEquals(4, registry.get(InvitationMetrics.OPERATION_TIMER)
+                .tag("operation", InvitationMetrics.VALIDATE_INVITE).timer().count());
+        assertEquals(2, registry.get(InvitationMetrics.VALIDATION_FAILURES).tag("error", "inviteCodeInvalid").counter().count());
+        assertEquals(1, registry.get(InvitationMetrics.VALIDATION_FAILURES).tag("error", "inviteCodeMissing").counter().count());
+        assertEquals(0, registry.get(InvitationMetrics.VALIDATION_FAILURES).tag("error", "inviteCodeAlreadyUsed").counter().count());
+    }
+
+    @Test
+    void markAsUsed_shouldRecordTimer() {
+        // Arrange
+        var provider = mock(InvitationProvider.class);
+        when(provider.markAsUsed("token", "realm")).thenReturn(RedemptionResult.REDEEMED);
+        var service = new InvitationService(provider, metrics);
+
+        // Act
+        service.markAsUsed("token", "realm");
+
+        // Assert
+        assertEquals(1, registry.get(InvitationMetrics.OPERATION_TIMER)
+                .tag("operation", InvitationMetrics.MARK_AS_USED).timer().count());
+    }
+
+    @Test
+    void timeQuery_shouldRecordAlsoWhenQueryThrows() {
+        // Act
+        assertThrows(IllegalStateException.class, () -> metrics.timeQuery("failing", () -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals("result", metrics.timeQuery("working", () -> "result"));
+
+        // Assert
+        assertEquals(1, registry.get(InvitationMetrics.QUERY_TIMER).tag("query", "failing").timer().count());
+        assertEquals(1, registry.get(InvitationMetrics.QUERY_TIMER).tag("query", "working").timer().count());
+    }
+
+    @Test
+    void updateActiveInvitations_shouldReportZeroForRealmsThatDropOut() {
+        // Act
+        metrics.updateActiveInvitations(Map.of("a", 5L, "b", 3L));
+        metrics.updateActiveInvitations(Map.of("a", 7L));
+
+        // Assert
+        assertEquals(7, registry.get(InvitationMetrics.ACTIVE_GAUGE).tag("realm", "a").gauge().value());
+        assertEquals(0, registry.get(InvitationMetrics.ACTIVE_GAUGE).tag("realm", "b").gauge().value());
+    }
+
+    @Test
+    void disabled_shouldRecordWithoutFailing() {
+        // Arrange
+        var disabled = InvitationMetrics.disabled();
+
+        // Act
+        var result = disabled.timeOperation(InvitationMetrics.GENERATE_INVITE, () -> "token");
+        disabled.recordValidation(ValidationResult.invalidToken());
+        disabled.updateActiveInvitations(Map.of("a", 1L));
+
+        // Assert
+        assertEquals("token", result);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.provider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.cluster.ClusterProvider;
+import org.keycloak.cluster.ExecutionResult;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.KeycloakTransactionManager;
+import org.vlastolabs.keycloak.event.InvitationEvent;
+import org.vlastolabs.keycloak.event.InvitationEventSink;
+import org.vlastolabs.keycloak.event.InvitationEventType;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InvitationEventRelayTest {
+    private static final int BATCH_SIZE = 2;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private KeycloakSession session;
+    private KeycloakSessionFactory sessionFactory;
+    private InvitationJpaProvider provider;
+    private InvitationEventSink sink;
+
+    @BeforeEach
+    void setUp() {
+        // Transactions of the relay, also on its own thread, run against the same session
+        session = mock(KeycloakSession.class);
+        when(session.getTransactionManager()).thenReturn(mock(KeycloakTransactionManager.class));
+        sessionFactory = mock(KeycloakSessionFactory.class);
+        when(sessionFactory.create()).thenReturn(session);
+
+        provider = mock(InvitationJpaProvider.class);
+        sink = mock(InvitationEventSink.class);
+        when(session.getAllProviders(InvitationEventSink.class)).thenReturn(Set.of(sink));
+    }
+
+    @Test
+    void run_shouldDeleteEachBatchAfterDelivery() {
+        // Arrange
+        var first = List.of(event("event-1"), event("event-2"));
+        var second = List.of(event("event-3"));
+        when(provider.findPendingEvents(BATCH_SIZE)).thenReturn(first, second);
+
+        // Act
+        relay(60).run();
+
+        // Assert
+        var order = inOrder(sink, provider);
+        order.verify(sink).deliver(first);
+        order.verify(provider).deleteEvents(List.of("event-1", "event-2"));
+        order.verify(sink).deliver(second);
+        order.verify(provider).deleteEvents(List.of("event-3"));
+        verify(provider, times(2)).findPendingEvents(BATCH_SIZE);
+    }
+
+    @Test
+    void run_withoutPendingEvents_shouldNotDeliver() {
+        // Arrange
+        when(provider.findPendingEvents(BATCH_SIZE)).thenReturn(List.of());
+
+        // Act
+        relay(60).run();
+
+        // Assert
+        verifyNoInteractions(sink);
+        verify(provider, never()).deleteEvents(any());
+    }
+
+    @Test
+    void run_whenSinkFails_shouldKeepEventsForRedelivery() {
+        // Arrange
+        var events = List.of(event("event-1"));
+        when(provider.findPendingEvents(BATCH_SIZE)).thenReturn(events);
+        doThrow(new IllegalStateException("Sink unavailable")).doNothing().when(sink).deliver(events);
+        var relay = relay(60);
+
+        // Act
+        assertThrows(IllegalStateException.class, relay::run);
+        verify(provider, never()).deleteEvents(any());
+        relay.run();
+
+        // Assert
+        verify(sink, times(2)).deliver(events);
+        verify(provider).deleteEvents(List.of("event-1"));
+    }
+
+    @Test
+    void run_whenAnotherNodeHoldsLock_shouldNotRead() {
+        // Arrange
+        var cluster = mock(ClusterProvider.class);
+        when(cluster.executeIfNotExecuted(eq(InvitationEventRelay.TASK_NAME), anyInt(), any()))
+                .thenReturn(ExecutionResult.notExecuted());
+        when(session.getProvider(ClusterProvider.class)).thenReturn(cluster);
+
+        // Act
+        relay(60).run();
+
+        // Assert
+        verify(provider, never()).findPendingEvents(anyInt());
+        verifyNoInteractions(sink);
+    }
+
+    @Test
+    void runAsync_afterSuccess_shouldRunAgain() {
+        // Arrange
+        when(provider.findPendingEvents(BATCH_SIZE)).thenReturn(List.of(event("event-1")));
+        var relay = relay(60);
+
+        // Act
+        assertTrue(relay.runAsync());
+
+        // Assert
+        verify(provider, timeout(TIMEOUT_MILLIS)).deleteEvents(List.of("event-1"));
+        await().atMost(Duration.ofMillis(TIMEOUT_MILLIS)).until(relay::runAsync);
+    }
+
+    @Test
+    void runAsync_afterFailure_shouldBackOff() {
+        // Arrange
+        var events = List.of(event("event-1"));
+        when(provider.findPendingEvents(BATCH_SIZE)).thenReturn(events);
+        doThrow(new IllegalStateException("Sink unavailable")).when(sink).deliver(events);
+        var relay = relay(60);
+
+        // Act
+        assertTrue(relay.runAsync());
+
+        // Assert
+        verify(sink, timeout(TIMEOUT_MILLIS)).deliver(events);
+        await().during(Duration.ofMillis(500)).atMost(Duration.ofMillis(TIMEOUT_MILLIS)).until(() -> !relay.runAsync());
+        verify(sink, times(1)).deliver(events);
+        verify(provider, never()).deleteEvents(any());
+    }
+
+    private InvitationEventRelay relay(int intervalSeconds) {
+        return new InvitationEventRelay(sessionFactory, ignored -> provider, BATCH_SIZE, intervalSeconds);
+    }
+
+    private static InvitationEvent event(String id) {
+        return new InvitationEvent(id, InvitationEventType.CREATED, "realm-a", "invitation-" + id, null,
+                System.currentTimeMillis());
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.KeycloakTransactionManager;
+import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.model.InvitationJobRequest;
+import org.vlastolabs.keycloak.model.InvitationJobStatus;
+import org.vlastolabs.keycloak.model.InvitationJobType;
+import org.vlastolabs.keycloak.model.InvitationJobView;
+
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InvitationJobRunnerTest {
+    private static final String REALM_ID = "realm-a";
+    private static final String JOB_ID = "job-1";
+    private static final int CHUNK_SIZE = 500;
+    private static final long TIMEOUT_MILLIS = 5000;
+
+    private KeycloakSessionFactory sessionFactory;
+    private InvitationJpaProvider provider;
+    private InvitationJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        var session = mock(KeycloakSession.class);
+        when(session.getTransactionManager()).thenReturn(mock(KeycloakTransactionManager.class));
+        sessionFactory = mock(KeycloakSessionFactory.class);
+        when(sessionFactory.create()).thenReturn(session);
+
+        provider = mock(InvitationJpaProvider.class);
+        when(provider.createJob(eq(REALM_ID), anyString(), any(InvitationJobType.class), anyString(), any()))
+                .thenAnswer(invocation -> queuedJob(invocation.getArgument(2), invocation.getArgument(4)));
+        when(provider.startJob(JOB_ID)).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (runner != null) {
+            runner.close();
+        }
+    }
+
+    @Test
+    void submit_shouldCommitProgressWithEveryChunk() {
+        // Arrange
+        when(provider.createInvitations(eq(REALM_ID), anyInt(), anyInt()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<Integer>getArgument(1), new InvitationEntity()));
+
+        // Act
+        var job = runner(1, 0).submit(REALM_ID, InvitationJobType.GENERATE, generateRequest(1200));
+
+        // Assert
+        assertEquals(InvitationJobStatus.QUEUED, job.status());
+        assertEquals(1200L, job.total());
+        verify(provider, timeout(TIMEOUT_MILLIS)).finishJob(eq(JOB_ID), eq(InvitationJobStatus.SUCCEEDED),
+                contains("\"created\":1200"), isNull());
+        var order = inOrder(provider);
+        order.verify(provider).startJob(JOB_ID);
+        order.verify(provider, times(2)).addJobProgress(JOB_ID, CHUNK_SIZE);
+        order.verify(provider).addJobProgress(JOB_ID, 200);
+        verify(provider, times(2)).createInvitations(eq(REALM_ID), eq(CHUNK_SIZE), anyInt());
+        verify(provider).createInvitations(eq(REALM_ID), eq(200), anyInt());
+    }
+
+    @Test
+    void submit_whenCancelledWhileQueued_shouldNotRunWork() {
+        // Arrange
+        when(provider.startJob(JOB_ID)).thenReturn(false);
+
+        // Act
+        runner(1, 0).submit(REALM_ID, InvitationJobType.REVOKE, new InvitationJobRequest());
+
+        // Assert
+        verify(provider, timeout(TIMEOUT_MILLIS)).startJob(JOB_ID);
+        verify(provider, after(200).never()).finishJob(anyString(), any(), any(), any());
+        verify(provider, never()).revokeInvitations(anyString(), any(), anyInt());
+        verify(provider, never()).addJobProgress(anyString(), anyLong());
+    }
+
+    @Test
+    void submit_whenCancelledWhileRunning_shouldStopAfterCurrentChunk() {
+        // Arrange
+        when(provider.revokeInvitations(eq(REALM_ID), any(), eq(CHUNK_SIZE))).thenReturn(CHUNK_SIZE);
+        when(provider.addJobProgress(JOB_ID, CHUNK_SIZE)).thenReturn(false, true);
+
+        // Act
+        runner(1, 0).submit(REALM_ID, InvitationJobType.REVOKE, new InvitationJobRequest());
+
+        // Assert
+        verify(provider, timeout(TIMEOUT_MILLIS)).finishJob(eq(JOB_ID), eq(InvitationJobStatus.CANCELLED),
+                contains("\"processed\":1000"), isNull());
+        verify(provider, times(2)).revokeInvitations(eq(REALM_ID), any(), eq(CHUNK_SIZE));
+    }
+
+    @Test
+    void submit_whenChunkFails_shouldKeepEarlierChunksAndFail() {
+        // Arrange
+        when(provider.createInvitations(eq(REALM_ID), anyInt(), anyInt()))
+                .thenAnswer(invocation -> Collections.nCopies(invocation.<Integer>getArgument(1), new InvitationEntity()))
+                .thenThrow(new IllegalStateException("Database unavailable"));
+
+        // Act
+        runner(1, 0).submit(REALM_ID, InvitationJobType.GENERATE, generateRequest(1500));
+
+        // Assert
+        verify(provider, timeout(TIMEOUT_MILLIS)).finishJob(eq(JOB_ID), eq(InvitationJobStatus.FAILED),
+                contains("\"processed\":500"), eq("Database unavailable"));
+        verify(provider).addJobProgress(JOB_ID, CHUNK_SIZE);
+        verify(provider, times(2)).createInvitations(eq(REALM_ID), eq(CHUNK_SIZE), anyInt());
+    }
+
+    @Test
+    void submit_whenCapacityIsExceeded_shouldReject() throws InterruptedException {
+        // Arrange - one accepted job holds the only place while it starts
+        var started = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        when(provider.startJob(JOB_ID)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return false;
+        });
+        var jobRunner = runner(1, 0);
+        jobRunner.submit(REALM_ID, InvitationJobType.GENERATE, generateRequest(1));
+        assertTrue(started.await(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+
+        // Act & Assert
+        try {
+            assertThrows(RejectedExecutionException.class,
+                    () -> jobRunner.submit(REALM_ID, InvitationJobType.GENERATE, generateRequest(1)));
+            verify(provider, times(1)).createJob(anyString(), anyString(), any(), anyString(), any());
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private InvitationJobRunner runner(int maxConcurrency, int maxQueued) {
+        runner = new InvitationJobRunner(sessionFactory, session -> provider, maxConcurrency, maxQueued, CHUNK_SIZE, 7, 300);
+        return runner;
+    }
+
+    private static InvitationJobRequest generateRequest(int count) {
+        var request = new InvitationJobRequest();
+        request.setCount(count);
+        return request;
+    }
+
+    private static InvitationJobView queuedJob(InvitationJobType type, Long total) {
+        long now = System.currentTimeMillis();
+        return new InvitationJobView(JOB_ID, REALM_ID, type, InvitationJobStatus.QUEUED, total, 0, false, null, null,
+                now, null, now, null);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.provider;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.connections.jpa.JpaConnectionProvider;
+import org.keycloak.models.KeycloakSession;
+import org.mockito.ArgumentCaptor;
+import org.vlastolabs.keycloak.cache.InvitationValidationCache;
+import org.vlastolabs.keycloak.cache.RealmTokenFilters;
+import org.vlastolabs.keycloak.entity.InvitationCounterEntity;
+import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.entity.InvitationEventEntity;
+import org.vlastolabs.keycloak.event.InvitationEventType;
+import org.vlastolabs.keycloak.metrics.InvitationMetrics;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InvitationJpaProviderTest {
+    private static final String REALM_ID = "realm-a";
+
+    private KeycloakSession session;
+    private EntityManager entityManager;
+    private Query adjustCounter;
+
+    @BeforeEach
+    void setUp() {
+        entityManager = mock(EntityManager.class);
+        var connection = mock(JpaConnectionProvider.class);
+        when(connection.getEntityManager()).thenReturn(entityManager);
+        session = mock(KeycloakSession.class);
+        when(session.getProvider(JpaConnectionProvider.class)).thenReturn(connection);
+
+        // Every counter stripe exists, so no seeding transaction is started
+        TypedQuery<Integer> stripes = typedQuery();
+        when(stripes.getResultList()).thenReturn(IntStream.range(0, InvitationCounterEntity.STRIPES).boxed().toList());
+        when(entityManager.createNamedQuery("findInvitationCounterStripes", Integer.class)).thenReturn(stripes);
+        adjustCounter = namedQuery("adjustInvitationCounter");
+        when(adjustCounter.executeUpdate()).thenReturn(1);
+    }
+
+    @Test
+    void createInvitation_withOutboxEnabled_shouldRecordEventWithoutToken() {
+        // Arrange
+        var provider = provider(true, false);
+
+        // Act
+        provider.createInvitation(REALM_ID, 3600, 1);
+
+        // Assert
+        var invitation = single(persisted(InvitationEntity.class));
+        var event = single(persisted(InvitationEventEntity.class));
+        assertEquals(InvitationEventType.CREATED.name(), event.getType());
+        assertEquals(REALM_ID, event.getRealm());
+        assertEquals(invitation.getId(), event.getInvitationId());
+        assertNull(event.getToken());
+    }
+
+    @Test
+    void createInvitation_withTokensIncluded_shouldRecordEventWithToken() {
+        // Arrange
+        var provider = provider(true, true);
+
+        // Act
+        String token = provider.createInvitation(REALM_ID, 3600, 1);
+
+        // Assert
+        var event = single(persisted(InvitationEventEntity.class));
+        assertEquals(token, event.getToken());
+    }
+
+    @Test
+    void createInvitation_withOutboxDisabled_shouldNotRecordEvent() {
+        // Arrange
+        var provider = provider(false, false);
+
+        // Act
+        provider.createInvitation(REALM_ID, 3600, 1);
+
+        // Assert
+        assertEquals(1, persisted(InvitationEntity.class).size());
+        assertTrue(persisted(InvitationEventEntity.class).isEmpty());
+    }
+
+    @Test
+    void deleteEvents_shouldDeleteGivenIds() {
+        // Arrange
+        var delete = namedQuery("deleteInvitationEventsByIds");
+        var provider = provider(true, false);
+
+        // Act
+        provider.deleteEvents(List.of("event-1", "event-2"));
+
+        // Assert
+        verify(delete).setParameter("ids", List.of("event-1", "event-2"));
+        verify(delete).executeUpdate();
+    }
+
+    @Test
+    void deleteEvents_withoutIds_shouldNotQuery() {
+        // Arrange
+        var provider = provider(true, false);
+
+        // Act
+        provider.deleteEvents(List.of());
+
+        // Assert
+        verify(entityManager, never()).createNamedQuery("deleteInvitationEventsByIds");
+    }
+
+    @Test
+    void purgeInvitations_shouldDeleteChunkAndAdjustCounter() {
+        // Arrange
+        TypedQuery<Object[]> purgeable = typedQuery();
+        when(purgeable.getResultList()).thenReturn(List.of(
+                new Object[]{"inv-1", "token-1", true},
+                new Object[]{"inv-2", "token-2", false}));
+        when(entityManager.createNamedQuery("findPurgeableInvites", Object[].class)).thenReturn(purgeable);
+        var deleteStripes = namedQuery("deleteInvitationUseStripes");
+        var deleteEmails = namedQuery("deleteInvitationEmailsByIds");
+        var deleteInvitations = namedQuery("deleteInvitesByIds");
+        when(deleteInvitations.executeUpdate()).thenReturn(2);
+        var provider = provider(true, false);
+
+        // Act
+        int deleted = provider.purgeInvitations(REALM_ID, 1000L, 100);
+
+        // Assert
+        assertEquals(2, deleted);
+        verify(purgeable).setParameter("realm", REALM_ID);
+        verify(purgeable).setParameter("cutoff", 1000L);
+        verify(purgeable).setMaxResults(100);
+        verify(deleteStripes).setParameter("ids", List.of("inv-1", "inv-2"));
+        verify(deleteEmails).setParameter("ids", List.of("inv-1", "inv-2"));
+        verify(deleteInvitations).setParameter("ids", List.of("inv-1", "inv-2"));
+        verify(adjustCounter).setParameter("totalDelta", -2L);
+        verify(adjustCounter).setParameter("usedDelta", -1L);
+        verify(adjustCounter).executeUpdate();
+    }
+
+    @Test
+    void purgeInvitations_shouldRecordExpiredEventsForUnusedInvitationsOnly() {
+        // Arrange
+        TypedQuery<Object[]> purgeable = typedQuery();
+        when(purgeable.getResultList()).thenReturn(List.of(
+                new Object[]{"inv-1", "token-1", true},
+                new Object[]{"inv-2", "token-2", false}));
+        when(entityManager.createNamedQuery("findPurgeableInvites", Object[].class)).thenReturn(purgeable);
+        namedQuery("deleteInvitationUseStripes");
+        namedQuery("deleteInvitationEmailsByIds");
+        var deleteInvitations = namedQuery("deleteInvitesByIds");
+        when(deleteInvitations.executeUpdate()).thenReturn(2);
+        var provider = provider(true, false);
+
+        // Act
+        provider.purgeInvitations(REALM_ID, 1000L, 100);
+
+        // Assert
+        var event = single(persisted(InvitationEventEntity.class));
+        assertEquals(InvitationEventType.EXPIRED.name(), event.getType());
+        assertEquals("inv-2", event.getInvitationId());
+        assertNull(event.getToken());
+    }
+
+    @Test
+    void purgeInvitations_withNothingPurgeable_shouldNotDelete() {
+        // Arrange
+        TypedQuery<Object[]> purgeable = typedQuery();
+        when(purgeable.getResultList()).thenReturn(List.of());
+        when(entityManager.createNamedQuery("findPurgeableInvites", Object[].class)).thenReturn(purgeable);
+        var provider = provider(true, false);
+
+        // Act
+        int deleted = provider.purgeInvitations(REALM_ID, 1000L, 100);
+
+        // Assert
+        assertEquals(0, deleted);
+        verify(entityManager, never()).createNamedQuery("deleteInvitesByIds");
+        verify(adjustCounter, never()).executeUpdate();
+        assertTrue(persisted(InvitationEventEntity.class).isEmpty());
+    }
+
+    private InvitationJpaProvider provider(boolean eventOutboxEnabled, boolean eventTokensIncluded) {
+        return new InvitationJpaProvider(session, InvitationValidationCache.disabled(), RealmTokenFilters.disabled(),
+                InvitationMetrics.disabled(), eventOutboxEnabled, eventTokensIncluded);
+    }
+
+    private Query namedQuery(String name) {
+        var query = mock(Query.class, RETURNS_SELF);
+        when(entityManager.createNamedQuery(name)).thenReturn(query);
+        return query;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> TypedQuery<T> typedQuery() {
+        return mock(TypedQuery.class, RETURNS_SELF);
+    }
+
+    private <T> List<T> persisted(Class<T> type) {
+        var captor = ArgumentCaptor.forClass(Object.class);
+        verify(entityManager, atLeast(0)).persist(captor.capture());
+        return captor.getAllValues().stream().filter(type::isInstance).map(type::cast).toList();
+    }
+
+    private static <T> T single(List<T> values) {
+        assertEquals(1, values.size());
+        return values.get(0);
+    }
+}
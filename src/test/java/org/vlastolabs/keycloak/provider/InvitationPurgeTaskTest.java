@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.provider;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.cluster.ClusterProvider;
+import org.keycloak.cluster.ExecutionResult;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.KeycloakSessionFactory;
+import org.keycloak.models.KeycloakSessionTask;
+import org.keycloak.models.KeycloakSessionTaskWithResult;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.RealmProvider;
+import org.keycloak.models.utils.KeycloakModelUtils;
+import org.mockito.MockedStatic;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InvitationPurgeTaskTest {
+    private static final int DEFAULT_RETENTION_DAYS = 30;
+    private static final int CHUNK_SIZE = 100;
+
+    private KeycloakSession session;
+    private KeycloakSessionFactory sessionFactory;
+    private RealmProvider realms;
+    private InvitationProvider provider;
+    private MockedStatic<KeycloakModelUtils> modelUtils;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(KeycloakSession.class);
+        sessionFactory = mock(KeycloakSessionFactory.class);
+        realms = mock(RealmProvider.class);
+        provider = mock(InvitationProvider.class);
+        when(session.realms()).thenReturn(realms);
+
+        modelUtils = mockStatic(KeycloakModelUtils.class);
+        modelUtils.when(() -> KeycloakModelUtils.runJobInTransactionWithResult(eq(sessionFactory), any(KeycloakSessionTaskWithResult.class)))
+                .thenAnswer(invocation -> invocation.<KeycloakSessionTaskWithResult<?>>getArgument(1).run(session));
+        modelUtils.when(() -> KeycloakModelUtils.runJobInTransaction(eq(sessionFactory), any(KeycloakSessionTask.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<KeycloakSessionTask>getArgument(1).run(session);
+                    return null;
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        modelUtils.close();
+    }
+
+    @Test
+    void run_shouldPurgeEachRealmWithItsRetention() {
+        // Arrange
+        var defaultRealm = realm("realm-a", DEFAULT_RETENTION_DAYS);
+        var shortRealm = realm("realm-b", 7);
+        var disabledRealm = realm("realm-c", -1);
+        when(realms.getRealmsStream()).thenAnswer(invocation -> Stream.of(defaultRealm, shortRealm, disabledRealm));
+
+        // Act
+        long before = System.currentTimeMillis();
+        task().run();
+        long after = System.currentTimeMillis();
+
+        // Assert
+        verify(provider).purgeInvitations(eq("realm-a"), longThat(cutoff -> isCutoff(cutoff, DEFAULT_RETENTION_DAYS, before, after)),
+                eq(CHUNK_SIZE));
+        verify(provider).purgeInvitations(eq("realm-b"), longThat(cutoff -> isCutoff(cutoff, 7, before, after)), eq(CHUNK_SIZE));
+        verify(provider, never()).purgeInvitations(eq("realm-c"), anyLong(), anyInt());
+    }
+
+    @Test
+    void run_shouldDeleteInChunksUntilOneComesBackShort() {
+        // Arrange
+        var realm = realm("realm-a", DEFAULT_RETENTION_DAYS);
+        when(realms.getRealmsStream()).thenAnswer(invocation -> Stream.of(realm));
+        when(provider.purgeInvitations(eq("realm-a"), anyLong(), eq(CHUNK_SIZE))).thenReturn(CHUNK_SIZE, CHUNK_SIZE, 3);
+
+        // Act
+        task().run();
+
+        // Assert
+        verify(provider, times(3)).purgeInvitations(eq("realm-a"), anyLong(), eq(CHUNK_SIZE));
+        modelUtils.verify(() -> KeycloakModelUtils.runJobInTransactionWithResult(eq(sessionFactory),
+                any(KeycloakSessionTaskWithResult.class)), times(4));
+    }
+
+    @Test
+    void run_whenAnotherNodeHoldsLock_shouldNotPurge() {
+        // Arrange
+        var cluster = mock(ClusterProvider.class);
+        when(cluster.executeIfNotExecuted(eq(InvitationPurgeTask.TASK_NAME), anyInt(), any()))
+                .thenReturn(ExecutionResult.notExecuted());
+        when(session.getProvider(ClusterProvider.class)).thenReturn(cluster);
+
+        // Act
+        task().run();
+
+        // Assert
+        verifyNoInteractions(realms, provider);
+    }
+
+    private InvitationPurgeTask task() {
+        return new InvitationPurgeTask(sessionFactory, ignored -> provider, DEFAULT_RETENTION_DAYS, CHUNK_SIZE, 60);
+    }
+
+    private static RealmModel realm(String id, int retentionDays) {
+        var realm = mock(RealmModel.class);
+        when(realm.getId()).thenReturn(id);
+        when(realm.getAttribute(InvitationPurgeTask.RETENTION_DAYS_ATTRIBUTE, DEFAULT_RETENTION_DAYS)).thenReturn(retentionDays);
+        return realm;
+    }
+
+    private static boolean isCutoff(long cutoff, int retentionDays, long before, long after) {
+        long retention = TimeUnit.DAYS.toMillis(retentionDays);
+        return cutoff >= before - retention && cutoff <= after - retention;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InviteAttemptLimiterTest {
+
+    private static final long START = 1_000_000_000L;
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long ONE_MILLISECOND = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void tryAcquire_shouldAllowBurstThenReject() {
+        // Arrange
+        var limiter = new InviteAttemptLimiter(1000);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire("ip:a", 60, 5, START), "attempt " + i);
+        }
+        assertFalse(limiter.tryAcquire("ip:a", 60, 5, START));
+        assertTrue(limiter.tryAcquire("ip:b", 60, 5, START), "other keys have their own bucket");
+        assertEquals(1, limiter.rejectedCount());
+    }
+
+    @Test
+    void tryAcquire_shouldRefillAtConfiguredRate() {
+        // Arrange
+        var limiter = new InviteAttemptLimiter(1000);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("ip:a", 60, 5, START);
+        }
+
+        // Act & Assert
+        assertFalse(limiter.tryAcquire("ip:a", 60, 5, START + ONE_SECOND / 2));
+        assertTrue(limiter.tryAcquire("ip:a", 60, 5, START + ONE_SECOND));
+        assertFalse(limiter.tryAcquire("ip:a", 60, 5, START + ONE_SECOND));
+    }
+
+    @Test
+    void tryAcquire_shouldNotDrainBucketWithRejectedAttempts() {
+        // Arrange
+        var limiter = new InviteAttemptLimiter(1000);
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire("ip:a", 60, 5, START);
+        }
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire("ip:a", 60, 5, START + ONE_SECOND));
+    }
+
+    @Test
+    void tryAcquire_shouldAllowEverythingWhenRateIsZero() {
+        // Arrange
+        var limiter = new InviteAttemptLimiter(1000);
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire("ip:a", 0, 5, START));
+        }
+        assertEquals(0, limiter.size());
+    }
+
+    @Test
+    void disabled_shouldAllowEverything() {
+        // Arrange
+        var limiter = InviteAttemptLimiter.disabled();
+
+        // Act & Assert
+        assertFalse(limiter.isEnabled());
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryAcquire("ip:a", 1, 1, START));
+        }
+    }
+
+    @Test
+    void tryAcquire_shouldBoundNumberOfBuckets() {
+        // Arrange
+        var limiter = new InviteAttemptLimiter(160);
+
+        // Act
+        for (int i = 0; i < 10_000; i++) {
+            limiter.tryAcquire("ip:" + i, 60, 5, START);
+        }
+
+        // Assert
+        assertTrue(limiter.size() <= 160, "size " + limiter.size());
+    }
+
+    @Test
+    void tryAcquire_shouldEvictRefilledBucketsFirst() {
+        // Arrange
+        var limiter = new InviteAttemptLimiter(160);
+        limiter.tryAcquire("ip:busy", 1, 1, START);
+
+        // Act - every other key has refilled by the time the next one arrives
+        for (int i = 0; i < 2_000; i++) {
+            limiter.tryAcquire("ip:" + i, 60_000, 1, START + i * 5 * ONE_MILLISECOND);
+        }
+
+        // Assert - the busy key is still drained, so its bucket survived
+        assertFalse(limiter.tryAcquire("ip:busy", 1, 1, START + 10 * ONE_SECOND));
+    }
+
+    @Test
+    void constructor_shouldRejectNegativeMaxEntries() {
+        assertThrows(IllegalArgumentException.class, () -> new InviteAttemptLimiter(-1));
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvitationEmailServiceTest {
+
+    @Test
+    void normalizeRecipients_shouldTrimAndDropRepeatedAddresses() {
+        // Act
+        var recipients = InvitationEmailService.normalizeRecipients(
+                List.of(" alice@example.com", "bob@example.com", "Alice@Example.com "));
+
+        // Assert
+        assertEquals(List.of("alice@example.com", "bob@example.com"), recipients);
+    }
+
+    @Test
+    void normalizeRecipients_withInvalidAddress_shouldThrow() {
+        // Act & Assert
+        var error = assertThrows(IllegalArgumentException.class,
+                () -> InvitationEmailService.normalizeRecipients(List.of("alice@example.com", "not-an-address")));
+        assertTrue(error.getMessage().contains("not-an-address"));
+        assertThrows(IllegalArgumentException.class, () -> InvitationEmailService.normalizeRecipients(Arrays.asList((String) null)));
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.service;
+
+import org.junit.jupiter.api.Test;
+import org.vlastolabs.keycloak.model.InvitationDataFormat;
+import org.vlastolabs.keycloak.model.InvitationImportRow;
+import org.vlastolabs.keycloak.token.Base32CheckTokenGenerator;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvitationImporterTest {
+
+    @Test
+    void importFrom_withNdjson_shouldStoreValidRowsAndRejectInvalidOnes() throws Exception {
+        // Arrange
+        var stored = new ArrayList<InvitationImportRow>();
+        var importer = new InvitationImporter(rows -> {
+            stored.addAll(rows);
+            return List.of();
+        });
+        var body = """
+                {"token":"token1","expiresOn":5000,"used":true}
+                {"token":"token2"}
+
+                {"expiresOn":5000}
+                not json
+                {"token":"token1"}
+                """;
+
+        // Act
+        var result = importer.importFrom("realm1", InvitationDataFormat.NDJSON, stream(body));
+
+        // Assert
+        assertEquals(List.of(new InvitationImportRow("token1", 5000L, true), new InvitationImportRow("token2", null, false)), stored);
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getRejected());
+        assertEquals(4, result.getRejects().get(0).line());
+        assertEquals("Missing token", result.getRejects().get(0).reason());
+        assertEquals("Malformed JSON", result.getRejects().get(1).reason());
+        assertEquals("Duplicate token in import", result.getRejects().get(2).reason());
+    }
+
+    @Test
+    void importFrom_withTokenFormat_shouldNormalizeItsCodesAndRejectMalformedOnes() throws Exception {
+        // Arrange
+        var generator = new Base32CheckTokenGenerator();
+        var code = generator.generate();
+        var mistyped = (code.charAt(0) == 'A' ? 'B' : 'A') + code.substring(1);
+        var stored = new ArrayList<InvitationImportRow>();
+        var importer = new InvitationImporter(generator, rows -> {
+            stored.addAll(rows);
+            return List.of();
+        });
+        var body = String.join("\n",
+                "{\"token\":\"" + code.substring(0, 4) + "-" + code.substring(4).toLowerCase(Locale.ROOT) + "\"}",
+                "{\"token\":\"" + mistyped + "\"}",
+                "{\"token\":\"legacy-code\"}");
+
+        // Act
+        var result = importer.importFrom("realm1", InvitationDataFormat.NDJSON, stream(body));
+
+        // Assert
+        assertEquals(List.of(code, "legacy-code"), stored.stream().map(InvitationImportRow::token).toList());
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(2, result.getRejects().get(0).line());
+        assertEquals("Token does not match the configured token format", result.getRejects().get(0).reason());
+    }
+
+    @Test
+    void importFrom_withCsvHeader_shouldMapColumnsByName() throws Exception {
+        // Arrange
+        var stored = new ArrayList<InvitationImportRow>();
+        var importer = new InvitationImporter(rows -> {
+            stored.addAll(rows);
+            return List.of();
+        });
+        var body = "id,token,used,realm,createdOn,expiresOn,usedOn\nid1,\"tok,en\",false,realm1,1000,2000,\n";
+
+        // Act
+        var result = importer.importFrom("realm1", InvitationDataFormat.CSV, stream(body));
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(new InvitationImportRow("tok,en", 2000L, false)), stored);
+    }
+
+    @Test
+    void importFrom_withExistingTokens_shouldRejectThemWithTheirLine() throws Exception {
+        // Arrange
+        var importer = new InvitationImporter(rows -> List.of("token2"));
+        var body = "token1,,false\ntoken2,3000,true\n";
+
+        // Act
+        var result = importer.importFrom("realm1", InvitationDataFormat.CSV, stream(body));
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertEquals(2, result.getRejects().get(0).line());
+        assertEquals("token2", result.getRejects().get(0).token());
+        assertEquals("Token already exists", result.getRejects().get(0).reason());
+    }
+
+    @Test
+    void importFrom_withManyRows_shouldWriteBoundedChunks() throws Exception {
+        // Arrange
+        var chunkSizes = new ArrayList<Integer>();
+        var importer = new InvitationImporter(rows -> {
+            chunkSizes.add(rows.size());
+            return List.of();
+        });
+        int total = InvitationImporter.CHUNK_SIZE * 2 + 7;
+        var body = IntStream.range(0, total).mapToObj(i -> "token" + i).collect(Collectors.joining("\n"));
+
+        // Act
+        var result = importer.importFrom("realm1", InvitationDataFormat.CSV, stream(body));
+
+        // Assert
+        assertEquals(total, result.getImported());
+        assertEquals(List.of(InvitationImporter.CHUNK_SIZE, InvitationImporter.CHUNK_SIZE, 7), chunkSizes);
+    }
+
+    @Test
+    void importFrom_whenChunkFailsTwice_shouldRejectItsRowsAndContinue() throws Exception {
+        // Arrange
+        var calls = new AtomicInteger();
+        var importer = new InvitationImporter(rows -> {
+            if (rows.get(0).token().equals("token0") && calls.incrementAndGet() <= 2) {
+                throw new IllegalStateException("constraint violation");
+            }
+            return List.of();
+        });
+        int total = InvitationImporter.CHUNK_SIZE + 1;
+        var body = IntStream.range(0, total).mapToObj(i -> "token" + i).collect(Collectors.joining("\n"));
+
+        // Act
+        var result = importer.importFrom("realm1", InvitationDataFormat.CSV, stream(body));
+
+        // Assert
+        assertEquals(1, result.getImported());
+        assertEquals(InvitationImporter.CHUNK_SIZE, result.getRejected());
+        assertFalse(result.isRejectsTruncated());
+        assertEquals(Set.of("Could not be stored: constraint violation"),
+                result.getRejects().stream().map(r -> r.reason()).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void importFrom_whenChunkWriterCancels_shouldStopWithoutRetrying() {
+        // Arrange
+        var calls = new AtomicInteger();
+        var importer = new InvitationImporter(rows -> {
+            calls.incrementAndGet();
+            throw new CancellationException("cancelled");
+        });
+        int total = InvitationImporter.CHUNK_SIZE * 2;
+        var body = IntStream.range(0, total).mapToObj(i -> "token" + i).collect(Collectors.joining("\n"));
+
+        // Act & Assert
+        assertThrows(CancellationException.class, () -> importer.importFrom("realm1", InvitationDataFormat.CSV, stream(body)));
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void parseCsvLine_shouldHandleQuotedFields() {
+        // Act & Assert
+        assertEquals(List.of("a", "b,c", "d\"e", ""), InvitationImporter.parseCsvLine("a,\"b,c\",\"d\"\"e\","));
+    }
+
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
\ No newline at end of file
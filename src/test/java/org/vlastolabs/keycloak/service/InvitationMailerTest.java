@@ -0,0 +1,154 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.email.EmailException;
+import org.vlastolabs.keycloak.model.InvitationEmailItem;
+import org.vlastolabs.keycloak.model.InvitationEmailStatus;
+
+import java.net.ConnectException;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvitationMailerTest {
+
+    private InvitationMailer mailer;
+
+    @AfterEach
+    void tearDown() {
+        mailer.close();
+    }
+
+    @Test
+    void sendAll_shouldReturnStatusOfEveryRecipientInOrder() {
+        // Arrange
+        mailer = new InvitationMailer(4, 1, 0, 1);
+        var emails = emails(3);
+
+        // Act
+        var results = mailer.sendAll("realm", 0, emails, email -> {
+            if (email.email().startsWith("1@")) {
+                throw new IllegalStateException("Failed to send invitation email",
+                        new EmailException(new ConnectException("Connection refused")));
+            }
+        });
+
+        // Assert
+        assertEquals(List.of("0@example.com", "1@example.com", "2@example.com"),
+                results.stream().map(InvitationEmailItem::email).toList());
+        assertEquals(InvitationEmailStatus.SENT, results.get(0).status());
+        assertNotNull(results.get(0).sentOn());
+        assertEquals(InvitationEmailStatus.FAILED, results.get(1).status());
+        assertEquals("ConnectException: Connection refused", results.get(1).error());
+        assertNull(results.get(1).sentOn());
+        assertEquals(InvitationEmailStatus.SENT, results.get(2).status());
+    }
+
+    @Test
+    void sendAll_shouldNotExceedMaxConcurrency() {
+        // Arrange
+        mailer = new InvitationMailer(2, 1, 0, 1);
+        var inFlight = new AtomicInteger();
+        var maxInFlight = new AtomicInteger();
+
+        // Act
+        mailer.sendAll("realm", 0, emails(20), email -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            inFlight.decrementAndGet();
+        });
+
+        // Assert
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void sendAll_shouldThrottleToRealmRateAfterBurst() {
+        // Arrange - one email every 50 ms once the burst of 2 is used up
+        mailer = new InvitationMailer(8, 1, 1200, 2);
+        long start = System.nanoTime();
+
+        // Act
+        var results = mailer.sendAll("realm", 1200, emails(6), email -> {
+        });
+
+        // Assert
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMillis >= 190, "elapsed " + elapsedMillis + " ms");
+        assertTrue(results.stream().allMatch(item -> item.status() == InvitationEmailStatus.SENT));
+    }
+
+    @Test
+    void submit_shouldReportOutcomesInChunksInOrder() throws InterruptedException {
+        // Arrange
+        mailer = new InvitationMailer(4, 1, 0, 1);
+        var reported = new ConcurrentLinkedQueue<List<InvitationEmailItem>>();
+        var finished = new CountDownLatch(1);
+
+        // Act
+        var pending = mailer.submit("realm", 0, () -> emails(250), email -> {
+        }, results -> {
+            reported.add(results);
+            if (reported.stream().mapToInt(List::size).sum() == 250) {
+                finished.countDown();
+            }
+        });
+
+        // Assert
+        assertEquals(250, pending.size());
+        assertTrue(pending.stream().allMatch(item -> item.status() == InvitationEmailStatus.PENDING));
+        assertTrue(finished.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of(100, 100, 50), reported.stream().map(List::size).toList());
+        assertEquals("0@example.com", reported.peek().get(0).email());
+        assertTrue(reported.stream().flatMap(List::stream).allMatch(item -> item.status() == InvitationEmailStatus.SENT));
+    }
+
+    @Test
+    void submit_whenBatchesAreExhausted_shouldRejectWithoutPreparing() throws InterruptedException {
+        // Arrange
+        mailer = new InvitationMailer(1, 1, 0, 1);
+        var release = new CountDownLatch(1);
+        mailer.submit("realm", 0, () -> emails(1), email -> release.await(), results -> {
+        });
+        var prepared = new AtomicInteger();
+
+        // Act & Assert
+        assertThrows(RejectedExecutionException.class, () -> mailer.submit("realm", 0, () -> {
+            prepared.incrementAndGet();
+            return emails(1);
+        }, email -> {
+        }, results -> {
+        }));
+        assertEquals(0, prepared.get());
+        release.countDown();
+    }
+
+    private static List<InvitationEmailItem> emails(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> InvitationEmailItem.pending("inv-" + i, i + "@example.com", "token-" + i))
+                .toList();
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvitationSendPacerTest {
+    private static final long START = 1_000_000_000L;
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void reserve_shouldSpaceSendsBeyondBurstAtRealmRate() {
+        // Arrange
+        var pacer = new InvitationSendPacer(5);
+
+        // Act & Assert
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, pacer.reserve("realm-a", 60, START), "send " + i);
+        }
+        assertEquals(ONE_SECOND, pacer.reserve("realm-a", 60, START));
+        assertEquals(2 * ONE_SECOND, pacer.reserve("realm-a", 60, START));
+        assertEquals(ONE_SECOND, pacer.reserve("realm-a", 60, START + 2 * ONE_SECOND));
+    }
+
+    @Test
+    void reserve_shouldPaceRealmsIndependently() {
+        // Arrange
+        var pacer = new InvitationSendPacer(1);
+        pacer.reserve("realm-a", 60, START);
+
+        // Act & Assert
+        assertEquals(ONE_SECOND, pacer.reserve("realm-a", 60, START));
+        assertEquals(0, pacer.reserve("realm-b", 60, START));
+    }
+
+    @Test
+    void reserve_withoutRate_shouldNeverWait() {
+        // Arrange
+        var pacer = new InvitationSendPacer(1);
+
+        // Act & Assert
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, pacer.reserve("realm-a", 0, START));
+        }
+    }
+}
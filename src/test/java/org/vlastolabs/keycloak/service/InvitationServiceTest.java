@@ -18,13 +18,31 @@ package org.vlastolabs.keycloak.service;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.keycloak.models.KeycloakSession;
 import org.keycloak.models.RealmModel;
 import org.vlastolabs.keycloak.entity.InvitationEntity;
+import org.vlastolabs.keycloak.model.InvitationCursor;
+import org.vlastolabs.keycloak.model.InvitationDataFormat;
+import org.vlastolabs.keycloak.model.InvitationFilter;
+import org.vlastolabs.keycloak.model.InvitationImportRow;
+import org.vlastolabs.keycloak.model.InvitationListItem;
+import org.vlastolabs.keycloak.model.InvitationSort;
+import org.vlastolabs.keycloak.model.InvitationStatus;
+import org.vlastolabs.keycloak.model.InvitationValidationView;
 import org.vlastolabs.keycloak.model.InviteGenerationResponse;
+import org.vlastolabs.keycloak.model.RedemptionResult;
+import org.vlastolabs.keycloak.metrics.InvitationMetrics;
 import org.vlastolabs.keycloak.provider.InvitationProvider;
+import org.vlastolabs.keycloak.token.Base32CheckTokenGenerator;
+import org.vlastolabs.keycloak.token.InvitationTokenGenerator;
+import org.vlastolabs.keycloak.token.SignedTokenGenerator;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -73,24 +91,80 @@ class InvitationServiceTest {
     }
 
     @Test
-    void validateInvite_withValidUnusedToken_shouldReturnEntity() {
+    void generateInvite_withMaxUses_shouldCreateMultiUseInvitation() {
+        // Arrange
+        String realmId = "test-realm";
+        when(realmModel.getId()).thenReturn(realmId);
+        when(provider.createInvitation(realmId, 3600, 5000)).thenReturn("conference");
+
+        InvitationEntity entity = new InvitationEntity("id", "conference", false, realmId, System.currentTimeMillis() + 3600000L);
+        entity.setMaxUses(5000);
+        when(provider.findByToken("conference")).thenReturn(Optional.of(entity));
+
+        // Act
+        InviteGenerationResponse response = invitationService.generateInvite(realmModel, 3600, 5000);
+
+        // Assert
+        assertEquals("conference", response.getToken());
+        assertEquals(5000, response.getMaxUses());
+        verify(provider, never()).createInvitation(anyString(), anyInt());
+    }
+
+    @Test
+    void generateInvite_withNonPositiveMaxUses_shouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> invitationService.generateInvite(realmModel, 3600, 0));
+        verify(provider, never()).createInvitation(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void generateInvites_shouldReturnCreatedTokensWithoutRereading() {
+        // Arrange
+        String realmId = "test-realm";
+        long expiresOn = System.currentTimeMillis() + 3600000L;
+        when(realmModel.getId()).thenReturn(realmId);
+        when(provider.createInvitations(realmId, 2, 3600)).thenReturn(java.util.List.of(
+                new InvitationEntity("id1", "token1", false, realmId, expiresOn),
+                new InvitationEntity("id2", "token2", false, realmId, expiresOn)
+        ));
+
+        // Act
+        var response = invitationService.generateInvites(realmModel, 2, 3600);
+
+        // Assert
+        assertEquals(java.util.List.of("token1", "token2"), response.getTokens());
+        assertEquals(2, response.getCount());
+        assertEquals(realmId, response.getRealm());
+        assertEquals(expiresOn, response.getExpirationTime());
+        verify(provider, never()).findByToken(anyString());
+    }
+
+    @Test
+    void generateInvites_withNonPositiveCount_shouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> invitationService.generateInvites(realmModel, 0));
+        verify(provider, never()).createInvitations(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void validateInvite_withValidUnusedToken_shouldReturnInvitation() {
         // Arrange
         String token = "valid-token";
         InvitationEntity entity = new InvitationEntity("id", token, false, "realm");
         when(provider.findByToken(token)).thenReturn(Optional.of(entity));
 
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite(token);
+        Optional<InvitationValidationView> result = invitationService.validateInvite(token);
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(entity, result.get());
+        assertEquals(InvitationValidationView.of(entity), result.get());
     }
 
     @Test
     void validateInvite_withNullToken_shouldReturnEmpty() {
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite(null);
+        Optional<InvitationValidationView> result = invitationService.validateInvite(null);
 
         // Assert
         assertTrue(result.isEmpty());
@@ -99,7 +173,7 @@ class InvitationServiceTest {
     @Test
     void validateInvite_withEmptyToken_shouldReturnEmpty() {
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite("");
+        Optional<InvitationValidationView> result = invitationService.validateInvite("");
 
         // Assert
         assertTrue(result.isEmpty());
@@ -113,7 +187,7 @@ class InvitationServiceTest {
         when(provider.findByToken(token)).thenReturn(Optional.of(entity));
 
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite(token);
+        Optional<InvitationValidationView> result = invitationService.validateInvite(token);
 
         // Assert
         assertTrue(result.isEmpty());
@@ -126,32 +200,32 @@ class InvitationServiceTest {
         when(provider.findByToken(token)).thenReturn(Optional.empty());
 
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite(token);
+        Optional<InvitationValidationView> result = invitationService.validateInvite(token);
 
         // Assert
         assertTrue(result.isEmpty());
     }
 
     @Test
-    void validateInvite_withRealm_withValidUnusedToken_shouldReturnEntity() {
+    void validateInvite_withRealm_withValidUnusedToken_shouldReturnInvitation() {
         // Arrange
         String token = "valid-token";
         String realmId = "test-realm";
         InvitationEntity entity = new InvitationEntity("id", token, false, realmId);
-        when(provider.findByTokenAndRealm(token, realmId)).thenReturn(Optional.of(entity));
+        when(provider.findValidationView(token, realmId)).thenReturn(Optional.of(InvitationValidationView.of(entity)));
 
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite(token, realmId);
+        Optional<InvitationValidationView> result = invitationService.validateInvite(token, realmId);
 
         // Assert
         assertTrue(result.isPresent());
-        assertEquals(entity, result.get());
+        assertEquals(InvitationValidationView.of(entity), result.get());
     }
 
     @Test
     void validateInvite_withRealm_withNullToken_shouldReturnEmpty() {
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite(null, "realm");
+        Optional<InvitationValidationView> result = invitationService.validateInvite(null, "realm");
 
         // Assert
         assertTrue(result.isEmpty());
@@ -160,7 +234,7 @@ class InvitationServiceTest {
     @Test
     void validateInvite_withRealm_withEmptyToken_shouldReturnEmpty() {
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite("", "realm");
+        Optional<InvitationValidationView> result = invitationService.validateInvite("", "realm");
 
         // Assert
         assertTrue(result.isEmpty());
@@ -169,7 +243,7 @@ class InvitationServiceTest {
     @Test
     void validateInvite_withRealm_withNullRealm_shouldReturnEmpty() {
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite("token", null);
+        Optional<InvitationValidationView> result = invitationService.validateInvite("token", null);
 
         // Assert
         assertTrue(result.isEmpty());
@@ -178,7 +252,7 @@ class InvitationServiceTest {
     @Test
     void validateInvite_withRealm_withEmptyRealm_shouldReturnEmpty() {
         // Act
-        Optional<InvitationEntity> result = invitationService.validateInvite("token", "");
+        Optional<InvitationValidationView> result = invitationService.validateInvite("token", "");
 
         // Assert
         assertTrue(result.isEmpty());
@@ -217,6 +291,47 @@ class InvitationServiceTest {
         verify(provider, never()).markAsUsed(anyString(), anyString());
     }
 
+    @Test
+    void markAsUsed_withRealm_shouldRedeemWithoutLookup() {
+        // Arrange
+        String token = "test-token";
+        String realmId = "test-realm";
+        when(provider.markAsUsed(token, realmId)).thenReturn(RedemptionResult.REDEEMED);
+
+        // Act
+        var result = invitationService.markAsUsed(token, realmId);
+
+        // Assert
+        assertEquals(RedemptionResult.REDEEMED, result);
+        verify(provider, never()).findByToken(anyString());
+        verify(provider, never()).findValidationView(anyString(), anyString());
+    }
+
+    @Test
+    void markAsUsed_withRealm_withAlreadyUsedToken_shouldReturnProviderOutcome() {
+        // Arrange
+        String token = "used-token";
+        String realmId = "test-realm";
+        when(provider.markAsUsed(token, realmId)).thenReturn(RedemptionResult.ALREADY_USED);
+
+        // Act
+        var result = invitationService.markAsUsed(token, realmId);
+
+        // Assert
+        assertEquals(RedemptionResult.ALREADY_USED, result);
+        assertEquals("inviteCodeAlreadyUsed", result.errorCode());
+    }
+
+    @Test
+    void markAsUsed_withRealm_withBlankRealm_shouldNotCallProvider() {
+        // Act
+        var result = invitationService.markAsUsed("token", " ");
+
+        // Assert
+        assertEquals(RedemptionResult.NOT_FOUND, result);
+        verify(provider, never()).markAsUsed(anyString(), anyString());
+    }
+
     @Test
     void validateInviteDetailed_withValidUnusedToken_shouldReturnValidResult() {
         // Arrange
@@ -229,8 +344,8 @@ class InvitationServiceTest {
 
         // Assert
         assertTrue(result.isValid());
-        assertTrue(result.getInvitationEntity().isPresent());
-        assertEquals(entity, result.getInvitationEntity().get());
+        assertTrue(result.getInvitation().isPresent());
+        assertEquals(InvitationValidationView.of(entity), result.getInvitation().get());
         assertNull(result.errorCode());
     }
 
@@ -241,7 +356,7 @@ class InvitationServiceTest {
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeMissing", result.errorCode());
     }
 
@@ -252,7 +367,7 @@ class InvitationServiceTest {
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeMissing", result.errorCode());
     }
 
@@ -267,7 +382,7 @@ class InvitationServiceTest {
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeInvalid", result.errorCode());
     }
 
@@ -283,7 +398,7 @@ class InvitationServiceTest {
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeAlreadyUsed", result.errorCode());
     }
 
@@ -300,7 +415,7 @@ class InvitationServiceTest {
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeInvalid", result.errorCode());
     }
 
@@ -310,18 +425,36 @@ class InvitationServiceTest {
         String token = "valid-token";
         String realmId = "test-realm";
         InvitationEntity entity = new InvitationEntity("id", token, false, realmId);
-        when(provider.findByTokenAndRealm(token, realmId)).thenReturn(Optional.of(entity));
+        when(provider.findValidationView(token, realmId)).thenReturn(Optional.of(InvitationValidationView.of(entity)));
 
         // Act
         var result = invitationService.validateInviteDetailed(token, realmId);
 
         // Assert
         assertTrue(result.isValid());
-        assertTrue(result.getInvitationEntity().isPresent());
-        assertEquals(entity, result.getInvitationEntity().get());
+        assertTrue(result.getInvitation().isPresent());
+        assertEquals(InvitationValidationView.of(entity), result.getInvitation().get());
         assertNull(result.errorCode());
     }
 
+    @Test
+    void validateInviteDetailed_withRealm_shouldUseProjectionInsteadOfEntity() {
+        // Arrange
+        String token = "valid-token";
+        String realmId = "test-realm";
+        var view = new InvitationValidationView(token, realmId, false, System.currentTimeMillis() + 60000L);
+        when(provider.findValidationView(token, realmId)).thenReturn(Optional.of(view));
+
+        // Act
+        var result = invitationService.validateInviteDetailed(token, realmId);
+
+        // Assert
+        assertTrue(result.isValid());
+        assertEquals(view, result.getInvitation().orElseThrow());
+        verify(provider, never()).findByTokenAndRealm(anyString(), anyString());
+        verify(provider, never()).findByToken(anyString());
+    }
+
     @Test
     void validateInviteDetailed_withRealm_withNullToken_shouldReturnMissingTokenResult() {
         // Act
@@ -329,7 +462,7 @@ class InvitationServiceTest {
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeMissing", result.errorCode());
     }
 
@@ -340,7 +473,7 @@ class InvitationServiceTest {
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeMissing", result.errorCode());
     }
 
@@ -351,7 +484,7 @@ class InvitationServiceTest {
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeMissing", result.errorCode());
     }
 
@@ -362,7 +495,7 @@ class InvitationServiceTest {
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeMissing", result.errorCode());
     }
 
@@ -371,14 +504,14 @@ class InvitationServiceTest {
         // Arrange
         String token = "non-existent-token";
         String realmId = "test-realm";
-        when(provider.findByTokenAndRealm(token, realmId)).thenReturn(Optional.empty());
+        when(provider.findValidationView(token, realmId)).thenReturn(Optional.empty());
 
         // Act
         var result = invitationService.validateInviteDetailed(token, realmId);
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeInvalid", result.errorCode());
     }
 
@@ -388,14 +521,14 @@ class InvitationServiceTest {
         String token = "used-token";
         String realmId = "test-realm";
         InvitationEntity entity = new InvitationEntity("id", token, true, realmId); // isUsed = true
-        when(provider.findByTokenAndRealm(token, realmId)).thenReturn(Optional.of(entity));
+        when(provider.findValidationView(token, realmId)).thenReturn(Optional.of(InvitationValidationView.of(entity)));
 
         // Act
         var result = invitationService.validateInviteDetailed(token, realmId);
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeAlreadyUsed", result.errorCode());
     }
 
@@ -406,31 +539,102 @@ class InvitationServiceTest {
         String realmId = "test-realm";
         long pastTime = System.currentTimeMillis() - 1000; // 1 second ago
         InvitationEntity entity = new InvitationEntity("id", token, false, realmId, pastTime);
-        when(provider.findByTokenAndRealm(token, realmId)).thenReturn(Optional.of(entity));
+        when(provider.findValidationView(token, realmId)).thenReturn(Optional.of(InvitationValidationView.of(entity)));
 
         // Act
         var result = invitationService.validateInviteDetailed(token, realmId);
 
         // Assert
         assertFalse(result.isValid());
-        assertTrue(result.getInvitationEntity().isEmpty());
+        assertTrue(result.getInvitation().isEmpty());
         assertEquals("inviteCodeInvalid", result.errorCode());
     }
 
+    @Test
+    void validateInviteDetailed_withRealm_withMistypedCode_shouldRejectWithoutLookup() {
+        // Arrange
+        var generator = new Base32CheckTokenGenerator();
+        var service = new InvitationService(provider, InvitationMetrics.disabled(), generator);
+        String token = generator.generate();
+        char typo = token.charAt(0) == 'A' ? 'B' : 'A';
+
+        // Act
+        var result = service.validateInviteDetailed(typo + token.substring(1), "test-realm");
+
+        // Assert
+        assertEquals("inviteCodeInvalid", result.errorCode());
+        verifyNoInteractions(provider);
+    }
+
+    @Test
+    void validateInviteDetailed_withRealm_withTypedCode_shouldLookUpNormalizedToken() {
+        // Arrange
+        var generator = new Base32CheckTokenGenerator();
+        var service = new InvitationService(provider, InvitationMetrics.disabled(), generator);
+        String token = generator.generate();
+        String realmId = "test-realm";
+        when(provider.findValidationView(token, realmId))
+                .thenReturn(Optional.of(new InvitationValidationView(token, realmId, false, null)));
+
+        // Act
+        var result = service.validateInviteDetailed(token.substring(0, 4) + "-" + token.substring(4).toLowerCase(), realmId);
+
+        // Assert
+        assertTrue(result.isValid());
+        verify(provider).findValidationView(token, realmId);
+    }
+
+    @Test
+    void importedTokenOfOtherFormat_withBase32Codes_shouldValidateAndRedeem() throws Exception {
+        importedTokenOfOtherFormat_shouldValidateAndRedeem(new Base32CheckTokenGenerator());
+    }
+
+    @Test
+    void importedTokenOfOtherFormat_withSignedTokens_shouldValidateAndRedeem() throws Exception {
+        importedTokenOfOtherFormat_shouldValidateAndRedeem(new SignedTokenGenerator(mock(KeycloakSession.class), true));
+    }
+
+    private void importedTokenOfOtherFormat_shouldValidateAndRedeem(InvitationTokenGenerator generator) throws Exception {
+        // Arrange
+        String realmId = "test-realm";
+        var stored = new ArrayList<InvitationImportRow>();
+        var importer = new InvitationImporter(generator, rows -> {
+            stored.addAll(rows);
+            return List.of();
+        });
+        var imported = importer.importFrom(realmId, InvitationDataFormat.NDJSON, new ByteArrayInputStream(
+                "{\"token\":\"Legacy-Invite-0042\"}".getBytes(StandardCharsets.UTF_8)));
+        String token = stored.get(0).token();
+        when(provider.findValidationView(token, realmId))
+                .thenReturn(Optional.of(new InvitationValidationView(token, realmId, false, null)));
+        when(provider.markAsUsed(token, realmId)).thenReturn(RedemptionResult.REDEEMED);
+        var service = new InvitationService(provider, InvitationMetrics.disabled(), generator);
+
+        // Act
+        var validation = service.validateInviteDetailed("Legacy-Invite-0042", realmId);
+        var redemption = service.markAsUsed("Legacy-Invite-0042", realmId);
+
+        // Assert
+        assertEquals(1, imported.getImported());
+        assertEquals("Legacy-Invite-0042", token);
+        assertTrue(validation.isValid());
+        assertEquals(RedemptionResult.REDEEMED, redemption);
+    }
+
     @Test
     void getAllInvitations_withValidData_shouldReturnInvitations() {
         // Arrange
-        var expectedEntities = java.util.List.of(
-            new InvitationEntity("id1", "token1", false, "realm1"),
-            new InvitationEntity("id2", "token2", true, "realm2")
+        var expectedItems = java.util.List.of(
+            listItem("id1", "token1", false, "realm1"),
+            listItem("id2", "token2", true, "realm2")
         );
-        when(provider.findAll(0, 10)).thenReturn(expectedEntities);
+        when(provider.findAll(0, 10)).thenReturn(expectedItems);
 
         // Act
         var result = invitationService.getAllInvitations(0, 10);
 
         // Assert
-        assertEquals(expectedEntities, result);
+        assertEquals(expectedItems, result);
         verify(provider).findAll(0, 10);
     }
 
@@ -451,13 +655,13 @@ class InvitationServiceTest {
     @Test
     void getAllInvitationsPaginated_withValidData_shouldReturnPaginatedResponse() {
         // Arrange
-        var entities = java.util.List.of(
-            new InvitationEntity("id1", "token1", false, "realm1", System.currentTimeMillis() + 3600000L),
-            new InvitationEntity("id2", "token2", true, "realm2", System.currentTimeMillis() + 7200000L)
+        var items = java.util.List.of(
+            listItem("id1", "token1", false, "realm1", System.currentTimeMillis() + 3600000L),
+            listItem("id2", "token2", true, "realm2", System.currentTimeMillis() + 7200000L)
         );
         long totalCount = 2L;
 
-        when(provider.findAll(0, 10)).thenReturn(entities);
+        when(provider.findAll(0, 10)).thenReturn(items);
         when(provider.countAll()).thenReturn(totalCount);
 
         // Act
@@ -491,12 +695,12 @@ class InvitationServiceTest {
     @Test
     void getAllInvitationsPaginated_withMultiplePages_shouldSetPaginationCorrectly() {
         // Arrange
-        var entities = java.util.List.of(
-            new InvitationEntity("id1", "token1", false, "realm1")
+        var items = java.util.List.of(
+            listItem("id1", "token1", false, "realm1")
         );
         long totalCount = 25L; // More than page size to test pagination
 
-        when(provider.findAll(0, 10)).thenReturn(entities);
+        when(provider.findAll(0, 10)).thenReturn(items);
         when(provider.countAll()).thenReturn(totalCount);
 
         // Act
@@ -512,4 +716,200 @@ class InvitationServiceTest {
         assertTrue(result.getPagination().isHasNext());
         assertFalse(result.getPagination().isHasPrevious());
     }
+
+    @Test
+    void getAllInvitationsPaginated_withRealm_shouldOnlyQueryThatRealm() {
+        // Arrange
+        var items = java.util.List.of(
+            listItem("id1", "token1", false, "realm1")
+        );
+        when(provider.findAllByRealm("realm1", InvitationFilter.none(), InvitationSort.DEFAULT, 10, 10)).thenReturn(items);
+        when(provider.countByRealm("realm1", InvitationFilter.none())).thenReturn(11L);
+
+        // Act
+        var result = invitationService.getAllInvitationsPaginated("realm1", 1, 10);
+
+        // Assert
+        assertEquals(1, result.getData().size());
+        assertEquals(11L, result.getPagination().getTotalElements());
+        assertEquals(2, result.getPagination().getTotalPages());
+        assertFalse(result.getPagination().isHasNext());
+        assertTrue(result.getPagination().isHasPrevious());
+        verify(provider, never()).findAll(anyInt(), anyInt());
+        verify(provider, never()).countAll();
+    }
+
+    @Test
+    void getAllInvitationsPaginated_withoutTotal_shouldSkipCountAndDetectNextPage() {
+        // Arrange
+        var items = java.util.List.of(
+            listItem("id1", "token1", false, "realm1"),
+            listItem("id2", "token2", false, "realm1"),
+            listItem("id3", "token3", false, "realm1")
+        );
+        when(provider.findAllByRealm("realm1", InvitationFilter.none(), InvitationSort.DEFAULT, 0, 3)).thenReturn(items);
+
+        // Act
+        var result = invitationService.getAllInvitationsPaginated("realm1", 0, 2, false);
+
+        // Assert
+        assertEquals(2, result.getData().size());
+        assertTrue(result.getPagination().isHasNext());
+        assertEquals(-1, result.getPagination().getTotalElements());
+        assertEquals(-1, result.getPagination().getTotalPages());
+        verify(provider, never()).countByRealm(anyString());
+        verify(provider, never()).countByRealm(anyString(), any());
+    }
+
+    @Test
+    void getAllInvitationsPaginated_withFilterAndSort_shouldPassThemToProviderWithoutCursor() {
+        // Arrange
+        var filter = new InvitationFilter(InvitationStatus.ACTIVE, null, null, null, 5000L, null, null);
+        var sort = InvitationSort.of("expiresOn", "asc");
+        var items = java.util.List.of(
+            listItem("id1", "token1", false, "realm1", 1000L),
+            listItem("id2", "token2", false, "realm1", 2000L)
+        );
+        when(provider.findAllByRealm("realm1", filter, sort, 0, 2)).thenReturn(items);
+        when(provider.countByRealm("realm1", filter)).thenReturn(5L);
+
+        // Act
+        var result = invitationService.getAllInvitationsPaginated("realm1", 0, 2, true, filter, sort);
+
+        // Assert
+        assertEquals(2, result.getData().size());
+        assertEquals(5L, result.getPagination().getTotalElements());
+        assertTrue(result.getPagination().isHasNext());
+        assertNull(result.getPagination().getNextCursor());
+        verify(provider, never()).countByRealm(anyString());
+    }
+
+    @Test
+    void getInvitationsByCursor_withNonDefaultSort_shouldThrow() {
+        // Arrange
+        var sort = InvitationSort.of("usedOn", "desc");
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> invitationService.getInvitationsByCursor(
+                "realm1", null, null, 10, true, InvitationFilter.none(), sort));
+        verify(provider, never()).findAfter(anyString(), any(InvitationFilter.class), any(), anyInt());
+    }
+
+    @Test
+    void invitationQueryParams_withUnknownValues_shouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> InvitationStatus.fromParam("pending"));
+        assertThrows(IllegalArgumentException.class, () -> InvitationSort.of("token", null));
+        assertThrows(IllegalArgumentException.class, () -> InvitationSort.of(null, "up"));
+        assertEquals(InvitationSort.DEFAULT, InvitationSort.of(null, null));
+        assertEquals(InvitationStatus.USED, InvitationStatus.fromParam("Used"));
+    }
+
+    @Test
+    void getInvitationsByCursor_withoutCursor_shouldFetchOneExtraRowToDetectNextPage() {
+        // Arrange
+        var first = listItem("id1", "token1", false, "realm1");
+        first.setCreatedOn(3000L);
+        var second = listItem("id2", "token2", false, "realm1");
+        second.setCreatedOn(2000L);
+        var extra = listItem("id3", "token3", false, "realm1");
+        extra.setCreatedOn(1000L);
+        when(provider.findAfter("realm1", InvitationFilter.none(), null, 3)).thenReturn(java.util.List.of(first, second, extra));
+        when(provider.countByRealm("realm1", InvitationFilter.none())).thenReturn(3L);
+
+        // Act
+        var result = invitationService.getInvitationsByCursor("realm1", null, null, 2);
+
+        // Assert
+        assertEquals(2, result.getData().size());
+        assertTrue(result.getPagination().isHasNext());
+        assertFalse(result.getPagination().isHasPrevious());
+        assertEquals(new InvitationCursor(2000L, "id2"), InvitationCursor.decode(result.getPagination().getNextCursor()));
+        assertNull(result.getPagination().getPreviousCursor());
+    }
+
+    @Test
+    void getInvitationsByCursor_withBeforeCursor_shouldDropFurthestExtraRow() {
+        // Arrange
+        var cursor = new InvitationCursor(1000L, "id9");
+        var extra = listItem("id1", "token1", false, "realm1");
+        extra.setCreatedOn(4000L);
+        var first = listItem("id2", "token2", false, "realm1");
+        first.setCreatedOn(3000L);
+        var second = listItem("id3", "token3", false, "realm1");
+        second.setCreatedOn(2000L);
+        when(provider.findBefore("realm1", InvitationFilter.none(), cursor, 3)).thenReturn(java.util.List.of(extra, first, second));
+
+        // Act
+        var result = invitationService.getInvitationsByCursor("realm1", null, cursor.encode(), 2);
+
+        // Assert
+        assertEquals("id2", result.getData().get(0).getId());
+        assertEquals("id3", result.getData().get(1).getId());
+        assertTrue(result.getPagination().isHasNext());
+        assertTrue(result.getPagination().isHasPrevious());
+        assertEquals(new InvitationCursor(3000L, "id2"), InvitationCursor.decode(result.getPagination().getPreviousCursor()));
+    }
+
+    @Test
+    void getInvitationsByCursor_withBothCursors_shouldThrow() {
+        // Arrange
+        var cursor = new InvitationCursor(1000L, "id1").encode();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> invitationService.getInvitationsByCursor("realm1", cursor, cursor, 10));
+    }
+
+    @Test
+    void getInvitationsByCursor_withMalformedCursor_shouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> invitationService.getInvitationsByCursor("realm1", "not-a-cursor", null, 10));
+    }
+
+    @Test
+    void exportInvitations_asNdjson_shouldWriteOneObjectPerLineAndCloseStream() throws Exception {
+        // Arrange
+        var closed = new java.util.concurrent.atomic.AtomicBoolean();
+        var rows = java.util.stream.Stream.of(
+                new InvitationListItem("id1", "token1", true, "realm1", 1000L, 2000L, 1500L),
+                new InvitationListItem("id2", "token2", false, "realm1", 900L, null, null)
+        ).onClose(() -> closed.set(true));
+        when(provider.streamByRealm("realm1")).thenReturn(rows);
+        var output = new java.io.ByteArrayOutputStream();
+
+        // Act
+        long count = invitationService.exportInvitations("realm1", InvitationDataFormat.NDJSON, output);
+
+        // Assert
+        var lines = output.toString(java.nio.charset.StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{") && lines[0].contains("\"token\":\"token1\"") && lines[0].contains("\"usedOn\":1500"));
+        assertTrue(lines[1].contains("\"id\":\"id2\""));
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void exportInvitations_asCsv_shouldWriteHeaderAndQuoteSpecialValues() throws Exception {
+        // Arrange
+        when(provider.streamByRealm("realm1")).thenReturn(java.util.stream.Stream.of(
+                new InvitationListItem("id1", "token1", false, "realm,1", 1000L, null, null)
+        ));
+        var output = new java.io.ByteArrayOutputStream();
+
+        // Act
+        invitationService.exportInvitations("realm1", InvitationDataFormat.CSV, output);
+
+        // Assert
+        assertEquals("id,token,used,realm,createdOn,expiresOn,usedOn\nid1,token1,false,\"realm,1\",1000,,\n",
+                output.toString(java.nio.charset.StandardCharsets.UTF_8));
+    }
+
+    private static InvitationListItem listItem(String id, String token, boolean used, String realm) {
+        return listItem(id, token, used, realm, null);
+    }
+
+    private static InvitationListItem listItem(String id, String token, boolean used, String realm, Long expiresOn) {
+        return new InvitationListItem(id, token, used, realm, System.currentTimeMillis(), expiresOn);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.token;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvitationTokenGeneratorTest {
+
+    @Test
+    void uuid_shouldMintVersion4UuidsAndAcceptAnyToken() {
+        // Arrange
+        var generator = new UuidTokenGenerator();
+
+        // Act
+        var token = generator.generate();
+
+        // Assert
+        var uuid = UUID.fromString(token);
+        assertEquals(4, uuid.version());
+        assertEquals(2, uuid.variant());
+        assertTrue(UuidTokenGenerator.isUuid(token));
+        assertTrue(generator.isWellFormed("imported-legacy-code"));
+        assertFalse(generator.isWellFormed("x".repeat(InvitationTokenGenerator.MAX_TOKEN_LENGTH + 1)));
+    }
+
+    @Test
+    void base64Url_shouldMint22CharacterTokens() {
+        // Arrange
+        var generator = new Base64UrlTokenGenerator();
+        var tokens = new HashSet<String>();
+
+        // Act
+        for (int i = 0; i < 1000; i++) {
+            tokens.add(generator.generate());
+        }
+
+        // Assert
+        assertEquals(1000, tokens.size());
+        for (var token : tokens) {
+            assertEquals(22, token.length());
+            assertTrue(generator.isWellFormed(token), token);
+        }
+    }
+
+    @Test
+    void base64Url_shouldRejectMalformedTokensButAcceptLegacyUuids() {
+        // Arrange
+        var generator = new Base64UrlTokenGenerator();
+
+        // Assert
+        assertFalse(generator.isWellFormed("short"));
+        assertFalse(generator.isWellFormed("AAAAAAAAAAAAAAAAAAAA+A"));
+        assertFalse(generator.isWellFormed("AAAAAAAAAAAAAAAAAAAAAB"));
+        assertTrue(generator.isWellFormed(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    void base32_shouldMintCodesWithValidCheckCharacter() {
+        // Arrange
+        var generator = new Base32CheckTokenGenerator();
+
+        // Act
+        var token = generator.generate();
+
+        // Assert
+        assertEquals(17, token.length());
+        assertTrue(token.matches("[0-9A-HJKMNP-TV-Z]{17}"), token);
+        assertTrue(generator.isWellFormed(token));
+    }
+
+    @Test
+    void base32_shouldDetectEverySingleCharacterTypo() {
+        // Arrange
+        var generator = new Base32CheckTokenGenerator();
+        var token = generator.generate();
+        var alphabet = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+
+        // Act & Assert
+        for (int position = 0; position < token.length(); position++) {
+            for (char replacement : alphabet.toCharArray()) {
+                if (replacement == token.charAt(position)) {
+                    continue;
+                }
+                var typo = token.substring(0, position) + replacement + token.substring(position + 1);
+                assertFalse(generator.isWellFormed(typo), typo);
+            }
+        }
+    }
+
+    @Test
+    void base32_shouldNormalizeTypedCodes() {
+        // Arrange
+        var generator = new Base32CheckTokenGenerator();
+        var token = generator.generate();
+        var typed = (token.substring(0, 8) + "-" + token.substring(8)).toLowerCase()
+                .replace('1', 'l')
+                .replace('0', 'o');
+
+        // Act
+        var normalized = generator.normalize(typed);
+
+        // Assert
+        assertEquals(token, normalized);
+        assertTrue(generator.isWellFormed(normalized));
+    }
+
+    @Test
+    void base32_shouldOnlyClaimCodeShapedTokens() {
+        // Arrange
+        var generator = new Base32CheckTokenGenerator();
+        var token = generator.generate();
+
+        // Act & Assert
+        assertTrue(generator.hasFormat(token));
+        assertTrue(generator.hasFormat(token.substring(0, 8) + "-" + token.substring(8).toLowerCase()));
+        assertFalse(generator.hasFormat(UUID.randomUUID().toString()));
+        assertFalse(generator.hasFormat("imported-code"));
+        assertFalse(generator.hasFormat(token + "Z"));
+    }
+
+    @Test
+    void base64Url_shouldOnlyClaimTokensOfItsLength() {
+        // Arrange
+        var generator = new Base64UrlTokenGenerator();
+
+        // Act & Assert
+        assertTrue(generator.hasFormat(generator.generate()));
+        assertFalse(generator.hasFormat(UUID.randomUUID().toString()));
+        assertFalse(generator.hasFormat("imported code with spaces"));
+    }
+
+    @Test
+    void base32_shouldKeepLegacyUuidsUnchanged() {
+        // Arrange
+        var generator = new Base32CheckTokenGenerator();
+        var uuid = UUID.randomUUID().toString();
+
+        // Act & Assert
+        assertEquals(uuid, generator.normalize(uuid));
+        assertTrue(generator.isWellFormed(uuid));
+        assertFalse(generator.isWellFormed("NOT-A-CODE"));
+    }
+}
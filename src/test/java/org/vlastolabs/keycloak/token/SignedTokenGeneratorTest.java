@@ -0,0 +1,139 @@
+/*
+ * Copyright 2026 VlastoLabs Software
+ * and other contributors as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.vlastolabs.keycloak.token;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.crypto.Algorithm;
+import org.keycloak.crypto.KeyUse;
+import org.keycloak.crypto.KeyWrapper;
+import org.keycloak.models.KeyManager;
+import org.keycloak.models.KeycloakSession;
+import org.keycloak.models.RealmModel;
+import org.keycloak.models.RealmProvider;
+
+import javax.crypto.spec.SecretKeySpec;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SignedTokenGeneratorTest {
+    private static final String REALM_ID = "realm-a";
+    private static final String OTHER_REALM_ID = "realm-b";
+    private static final long NOW = 1_700_000_000_000L;
+
+    private KeyManager keys;
+    private RealmModel realm;
+    private SignedTokenGenerator generator;
+    private KeyWrapper activeKey;
+
+    @BeforeEach
+    void setUp() {
+        var session = mock(KeycloakSession.class);
+        var realms = mock(RealmProvider.class);
+        keys = mock(KeyManager.class);
+        realm = mock(RealmModel.class);
+        var otherRealm = mock(RealmModel.class);
+        when(session.realms()).thenReturn(realms);
+        when(session.keys()).thenReturn(keys);
+        when(realms.getRealm(REALM_ID)).thenReturn(realm);
+        when(realms.getRealm(OTHER_REALM_ID)).thenReturn(otherRealm);
+
+        activeKey = key("active");
+        when(keys.getActiveKey(realm, KeyUse.SIG, Algorithm.HS512)).thenReturn(activeKey);
+        when(keys.getKeysStream(realm, KeyUse.SIG, Algorithm.HS512)).thenAnswer(invocation -> List.of(activeKey).stream());
+        when(keys.getKeysStream(otherRealm, KeyUse.SIG, Algorithm.HS512)).thenAnswer(invocation -> List.of(key("other")).stream());
+
+        generator = new SignedTokenGenerator(session, true);
+    }
+
+    @Test
+    void generate_shouldProducePlausibleToken() {
+        // Act
+        var token = generator.generate(REALM_ID, NOW + 60000);
+
+        // Assert
+        assertEquals(50, token.length());
+        assertTrue(generator.isWellFormed(token));
+        assertTrue(generator.isPlausible(token, REALM_ID, NOW));
+    }
+
+    @Test
+    void isPlausible_withExpiredToken_shouldReject() {
+        // Arrange
+        var token = generator.generate(REALM_ID, NOW - 1);
+
+        // Act & Assert
+        assertFalse(generator.isPlausible(token, REALM_ID, NOW));
+    }
+
+    @Test
+    void isPlausible_withTokenOfAnotherRealm_shouldReject() {
+        // Arrange
+        var token = generator.generate(REALM_ID, NOW + 60000);
+
+        // Act & Assert
+        assertFalse(generator.isPlausible(token, OTHER_REALM_ID, NOW));
+    }
+
+    @Test
+    void isPlausible_withTamperedToken_shouldReject() {
+        // Arrange
+        var token = generator.generate(REALM_ID, NOW + 60000);
+        char replacement = token.charAt(10) == 'A' ? 'B' : 'A';
+        var tampered = token.substring(0, 10) + replacement + token.substring(11);
+
+        // Act & Assert
+        assertTrue(generator.isWellFormed(tampered));
+        assertFalse(generator.isPlausible(tampered, REALM_ID, NOW));
+    }
+
+    @Test
+    void isPlausible_afterKeyRotation_shouldAcceptTokensOfPassiveKey() {
+        // Arrange
+        var token = generator.generate(REALM_ID, NOW + 60000);
+        var previousKey = activeKey;
+        activeKey = key("rotated");
+        when(keys.getKeysStream(realm, KeyUse.SIG, Algorithm.HS512)).thenAnswer(invocation -> List.of(activeKey, previousKey).stream());
+
+        // Act & Assert
+        assertTrue(generator.isPlausible(token, REALM_ID, NOW));
+    }
+
+    @Test
+    void isPlausible_withLegacyUuid_shouldDependOnConfiguration() {
+        // Arrange
+        var uuid = UUID.randomUUID().toString();
+        var strict = new SignedTokenGenerator(mock(KeycloakSession.class), false);
+
+        // Act & Assert
+        assertTrue(generator.isPlausible(uuid, REALM_ID, NOW));
+        assertFalse(strict.isPlausible(uuid, REALM_ID, NOW));
+        assertFalse(strict.isWellFormed("random-guess"));
+    }
+
+    private static KeyWrapper key(String seed) {
+        var key = new KeyWrapper();
+        key.setKid(seed);
+        key.setAlgorithm(Algorithm.HS512);
+        key.setSecretKey(new SecretKeySpec((seed + "-secret-key-material-of-sufficient-length").getBytes(), "HmacSHA512"));
+        return key;
+    }
+}